@@ -191,10 +191,12 @@ import org.junit.runners.Suite.SuiteClasses;
         com.dotmarketing.common.reindex.ReindexAPITest.class,
         com.dotmarketing.common.db.DotDatabaseMetaDataTest.class,
         com.dotmarketing.common.db.ParamsSetterTest.class,
+        com.dotmarketing.common.db.DotConnectStreamResultsTest.class,
         com.dotmarketing.cms.urlmap.URLMapAPIImplTest.class,
         com.dotmarketing.factories.PublishFactoryTest.class,
         com.dotmarketing.factories.WebAssetFactoryTest.class,
         com.dotmarketing.factories.MultiTreeAPITest.class,
+        com.dotmarketing.factories.ClickstreamRequestFactoryTest.class,
         com.dotmarketing.db.DbConnectionFactoryTest.class,
         com.dotmarketing.db.DbConnectionFactoryUtilTest.class,
         com.dotmarketing.db.HibernateUtilTest.class,
@@ -222,7 +224,12 @@ import org.junit.runners.Suite.SuiteClasses;
         TestConfig.class,
         PublishAuditAPITest.class,
         BundleFactoryTest.class,
-        VelocityServletIntegrationTest.class
+        VelocityServletIntegrationTest.class,
+        com.dotcms.rendering.velocity.services.ContainerFragmentCacheTest.class,
+        com.dotcms.graphql.DotGraphQLHttpServletTest.class,
+        com.dotcms.rendering.velocity.services.ContentletVelocityVariablesTest.class,
+        org.apache.velocity.runtime.parser.node.InlineCacheEntryTest.class,
+        com.dotcms.graphql.dataloader.RelatedContentBatchLoaderTest.class
 })
 public class MainSuite {
 
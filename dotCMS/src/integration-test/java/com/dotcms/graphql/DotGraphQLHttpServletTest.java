@@ -0,0 +1,192 @@
+package com.dotcms.graphql;
+
+import com.dotcms.mock.request.MockHttpRequest;
+import com.dotcms.util.IntegrationTestInitService;
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.util.Config;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import com.liferay.portal.model.User;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import graphql.servlet.GraphQLSingleInvocationInput;
+import graphql.servlet.internal.GraphQLRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test of the persisted queries and the anonymous response cache of {@link DotGraphQLHttpServlet}
+ */
+public class DotGraphQLHttpServletTest {
+
+    private static final String QUERY = "{ search(query: \"+contentType:persistedQueryTest\") { title } }";
+
+    private static boolean responseCacheEnabled;
+
+    @BeforeClass
+    public static void prepare() throws Exception {
+
+        IntegrationTestInitService.getInstance().init();
+        responseCacheEnabled = Config.getBooleanProperty("GRAPHQL_RESPONSE_CACHE_ENABLED", false);
+    }
+
+    @AfterClass
+    public static void cleanup() {
+
+        Config.setProperty("GRAPHQL_RESPONSE_CACHE_ENABLED", responseCacheEnabled);
+        CacheLocator.getGraphQLCache().clearCache();
+    }
+
+    @Test
+    public void registers_the_query_sent_with_its_hash() {
+
+        final DotGraphQLHttpServlet servlet = new DotGraphQLHttpServlet();
+        final String query = QUERY + " # registered";
+        final Map<String, Object> variables = ImmutableMap.of("limit", 10);
+
+        final GraphQLRequest sent = new GraphQLRequest(query, variables, null);
+        assertEquals(Optional.of(sent), servlet.resolvePersistedQuery(sent, persistedQuery(sha256(query))));
+
+        // the hash is case insensitive and the variables and operation come from the request
+        final Optional<GraphQLRequest> resolved = servlet.resolvePersistedQuery(
+                new GraphQLRequest(null, variables, "operation"), persistedQuery(sha256(query).toUpperCase()));
+        assertTrue(resolved.isPresent());
+        assertEquals(query, resolved.get().getQuery());
+        assertEquals(variables, resolved.get().getVariables());
+        assertEquals("operation", resolved.get().getOperationName());
+    }
+
+    @Test
+    public void does_not_register_a_query_sent_with_another_hash() {
+
+        final DotGraphQLHttpServlet servlet = new DotGraphQLHttpServlet();
+        final String query = QUERY + " # mismatch";
+        final String hash  = sha256(QUERY + " # another query");
+
+        final GraphQLRequest sent = new GraphQLRequest(query, Collections.emptyMap(), null);
+        assertEquals(Optional.of(sent), servlet.resolvePersistedQuery(sent, persistedQuery(hash)));
+        assertEquals(Optional.empty(), servlet.resolvePersistedQuery(
+                new GraphQLRequest(null, Collections.emptyMap(), null), persistedQuery(hash)));
+    }
+
+    @Test
+    public void a_hash_not_registered_is_not_found() {
+
+        final DotGraphQLHttpServlet servlet = new DotGraphQLHttpServlet();
+        assertEquals(Optional.empty(), servlet.resolvePersistedQuery(
+                new GraphQLRequest(null, Collections.emptyMap(), null), persistedQuery(sha256(QUERY + " # unknown"))));
+
+        // without the extension the request is executed as it is
+        final GraphQLRequest sent = new GraphQLRequest(QUERY, Collections.emptyMap(), null);
+        assertEquals(Optional.of(sent), servlet.resolvePersistedQuery(sent, null));
+        assertEquals(Optional.of(sent), servlet.resolvePersistedQuery(sent, ImmutableMap.of("other", "extension")));
+    }
+
+    @Test
+    public void a_get_without_query_nor_persisted_query_is_a_bad_request() throws Exception {
+
+        final DotGraphQLHttpServlet servlet = new DotGraphQLHttpServlet();
+        servlet.init(null);
+
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        servlet.doGet(getRequest(ImmutableMap.of("extensions", "{}")), response);
+        verify(response).setStatus(AbstractGraphQLHttpServlet.STATUS_BAD_REQUEST);
+    }
+
+    @Test
+    public void a_get_with_a_hash_not_registered_answers_persisted_query_not_found() throws Exception {
+
+        final DotGraphQLHttpServlet servlet = new DotGraphQLHttpServlet();
+        servlet.init(null);
+
+        final StringWriter body = new StringWriter();
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+
+        servlet.doGet(getRequest(ImmutableMap.of("extensions", "{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\""
+                + sha256(QUERY + " # get") + "\"}}")), response);
+        verify(response, never()).setStatus(AbstractGraphQLHttpServlet.STATUS_BAD_REQUEST);
+        assertTrue(body.toString().contains("PERSISTED_QUERY_NOT_FOUND"));
+    }
+
+    @Test
+    public void only_the_anonymous_responses_are_cached() throws Exception {
+
+        final DotGraphQLHttpServlet servlet = new DotGraphQLHttpServlet();
+        final User anonymous = APILocator.getUserAPI().getAnonymousUser();
+        final GraphQLRequest request = new GraphQLRequest(QUERY, ImmutableMap.of("limit", 10), null);
+
+        Config.setProperty("GRAPHQL_RESPONSE_CACHE_ENABLED", false);
+        assertFalse(servlet.getResponseCacheKey(request, invocationInput(anonymous)).isPresent());
+
+        Config.setProperty("GRAPHQL_RESPONSE_CACHE_ENABLED", true);
+        final Optional<String> key = servlet.getResponseCacheKey(request, invocationInput(anonymous));
+        assertTrue(key.isPresent());
+        assertEquals(key, servlet.getResponseCacheKey(new GraphQLRequest(QUERY, ImmutableMap.of("limit", 10), null),
+                invocationInput(anonymous)));
+
+        // the variables and the operation are part of the key
+        assertNotEquals(key, servlet.getResponseCacheKey(
+                new GraphQLRequest(QUERY, ImmutableMap.of("limit", 20), null), invocationInput(anonymous)));
+        assertNotEquals(key, servlet.getResponseCacheKey(
+                new GraphQLRequest(QUERY, ImmutableMap.of("limit", 10), "operation"), invocationInput(anonymous)));
+
+        // back end users may see working content, and a request without query has nothing to cache
+        assertFalse(servlet.getResponseCacheKey(request, invocationInput(APILocator.systemUser())).isPresent());
+        assertFalse(servlet.getResponseCacheKey(request, invocationInput(null)).isPresent());
+        assertFalse(servlet.getResponseCacheKey(new GraphQLRequest(null, Collections.emptyMap(), null),
+                invocationInput(anonymous)).isPresent());
+    }
+
+    private static GraphQLSingleInvocationInput invocationInput(final User user) {
+
+        final GraphQLSingleInvocationInput invocationInput = mock(GraphQLSingleInvocationInput.class);
+        when(invocationInput.getContext()).thenReturn(new DotGraphQLContext(
+                new MockHttpRequest("localhost", "/").request(), mock(HttpServletResponse.class), user));
+        return invocationInput;
+    }
+
+    private static HttpServletRequest getRequest(final Map<String, String> parameters) {
+
+        return new HttpServletRequestWrapper(new MockHttpRequest("localhost", "/").request()) {
+
+            @Override
+            public String getParameter(final String name) {
+                return parameters.get(name);
+            }
+
+            @Override
+            public String getPathInfo() {
+                return "/";
+            }
+        };
+    }
+
+    private static Map<String, Object> persistedQuery(final String hash) {
+        return ImmutableMap.of("persistedQuery", ImmutableMap.of("version", 1, "sha256Hash", hash));
+    }
+
+    private static String sha256(final String value) {
+        return Hashing.sha256().hashString(value, StandardCharsets.UTF_8).toString();
+    }
+}
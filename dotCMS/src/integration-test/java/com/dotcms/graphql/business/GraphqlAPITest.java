@@ -16,6 +16,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import com.dotcms.IntegrationTestBase;
 import com.dotcms.contenttype.business.ContentTypeAPI;
@@ -46,14 +47,17 @@ import com.dotcms.contenttype.model.type.ContentType;
 import com.dotcms.contenttype.model.type.ContentTypeBuilder;
 import com.dotcms.contenttype.model.type.EnterpriseType;
 import com.dotcms.contenttype.model.type.SimpleContentType;
+import com.dotcms.graphql.util.TypeUtil;
 import com.dotcms.util.IntegrationTestInitService;
 import com.dotmarketing.beans.Host;
 import com.dotmarketing.business.APILocator;
 import com.dotmarketing.exception.DotDataException;
+import com.dotmarketing.exception.DotRuntimeException;
 import com.dotmarketing.exception.DotSecurityException;
 import com.dotmarketing.portlets.folders.business.FolderAPI;
 import com.dotmarketing.util.UtilMethods;
 import com.dotmarketing.util.WebKeys.Relationship.RELATIONSHIP_CARDINALITY;
+import com.google.common.collect.ImmutableSet;
 import com.liferay.util.StringPool;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
@@ -70,6 +74,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import org.junit.Assert;
@@ -701,6 +706,163 @@ public class GraphqlAPITest extends IntegrationTestBase {
                 +"BaseTypeCollection"));
     }
 
+    @Test
+    public void testGetSchema_WhenTypeChanged_ShouldRebuildOnlyTheTypeAndItsRelationshipDependants()
+            throws DotDataException, DotSecurityException {
+
+        // a fresh instance, so the changes done by other tests are not pending on it
+        final GraphqlAPIImpl api = new GraphqlAPIImpl();
+        ContentType childType = null;
+        ContentType parentType = null;
+        ContentType grandParentType = null;
+        ContentType unrelatedType = null;
+
+        try {
+            childType = createType("childTypeRebuild" + random.nextPositive(), BaseContentType.CONTENT);
+            parentType = createType("parentTypeRebuild" + random.nextPositive(), BaseContentType.CONTENT);
+            grandParentType = createType("grandParentTypeRebuild" + random.nextPositive(), BaseContentType.CONTENT);
+            unrelatedType = createType("unrelatedTypeRebuild" + random.nextPositive(), BaseContentType.CONTENT);
+
+            // grand parent --> parent --> child
+            final Field parentToChild = createAndSaveRelationshipField("parentToChild", parentType.id(),
+                    childType.variable(), String.valueOf(MANY_TO_MANY.ordinal()));
+            createAndSaveRelationshipField("grandParentToParent", grandParentType.id(),
+                    parentType.variable(), String.valueOf(MANY_TO_MANY.ordinal()));
+
+            final GraphQLSchema schema = api.getSchema();
+
+            final GraphqlSchemaBuildMetrics firstBuild = api.getSchemaBuildMetrics();
+            assertEquals(1, firstBuild.getBuilds());
+            assertEquals(1, firstBuild.getFullBuilds());
+            assertTrue(firstBuild.isLastBuildFull());
+            assertEquals(firstBuild.getSchemaTypes(), firstBuild.getLastRebuiltTypes().size());
+            assertTrue(firstBuild.getLastRebuiltTypes().containsAll(Arrays.asList(childType.variable(),
+                    parentType.variable(), grandParentType.variable(), unrelatedType.variable())));
+            assertEquals(firstBuild.getLastBuildTimeMillis(), firstBuild.getTotalBuildTimeMillis());
+
+            // a new field on the child
+            final String fieldVar = "rebuildField" + random.nextPositive();
+            createField(childType, fieldVar, ImmutableTextField.class, false);
+            api.invalidateSchemaType(childType.id());
+
+            final GraphQLSchema rebuiltSchema = api.getSchema();
+
+            final GraphqlSchemaBuildMetrics metrics = api.getSchemaBuildMetrics();
+            assertEquals(2, metrics.getBuilds());
+            assertEquals(1, metrics.getFullBuilds());
+            assertFalse(metrics.isLastBuildFull());
+            assertEquals(ImmutableSet.of(childType.variable(), parentType.variable(), grandParentType.variable()),
+                    metrics.getLastRebuiltTypes());
+            assertEquals(firstBuild.getTotalRebuiltTypes() + 3, metrics.getTotalRebuiltTypes());
+            assertEquals(firstBuild.getTotalBuildTimeMillis() + metrics.getLastBuildTimeMillis(),
+                    metrics.getTotalBuildTimeMillis());
+            assertEquals(firstBuild.getSchemaTypes(), metrics.getSchemaTypes());
+
+            assertNotNull(rebuiltSchema.getObjectType(childType.variable()).getFieldDefinition(fieldVar));
+
+            // the relationship field of the parent resolves to the new child type
+            final GraphQLOutputType relatedType = rebuiltSchema.getObjectType(parentType.variable())
+                    .getFieldDefinition(parentToChild.variable()).getType();
+            assertNotNull(((GraphQLObjectType) ((GraphQLList) relatedType).getWrappedType())
+                    .getFieldDefinition(fieldVar));
+
+            // the types not related to the child are kept as they were
+            assertSame(schema.getObjectType(unrelatedType.variable()),
+                    rebuiltSchema.getObjectType(unrelatedType.variable()));
+        } finally {
+            deleteTypes(grandParentType, parentType, childType, unrelatedType);
+        }
+    }
+
+    @Test
+    public void testGetSchema_WhenTypeDeleted_ShouldRemoveItAndRebuildItsRelationshipDependants()
+            throws DotDataException, DotSecurityException {
+
+        final GraphqlAPIImpl api = new GraphqlAPIImpl();
+        ContentType childType = null;
+        ContentType parentType = null;
+
+        try {
+            childType = createType("deletedChildType" + random.nextPositive(), BaseContentType.CONTENT);
+            parentType = createType("deletedParentType" + random.nextPositive(), BaseContentType.CONTENT);
+            final Field parentToChild = createAndSaveRelationshipField("parentToDeletedChild", parentType.id(),
+                    childType.variable(), String.valueOf(MANY_TO_MANY.ordinal()));
+
+            assertNotNull(api.getSchema().getObjectType(parentType.variable())
+                    .getFieldDefinition(parentToChild.variable()));
+            final GraphqlSchemaBuildMetrics firstBuild = api.getSchemaBuildMetrics();
+
+            // deleting the child deletes the relationship field of the parent too
+            APILocator.getContentTypeAPI(APILocator.systemUser()).delete(childType);
+            api.invalidateSchemaType(childType.id());
+            final String childTypeVar = childType.variable();
+            childType = null;
+
+            final GraphQLSchema schema = api.getSchema();
+
+            final GraphqlSchemaBuildMetrics metrics = api.getSchemaBuildMetrics();
+            assertEquals(2, metrics.getBuilds());
+            assertFalse(metrics.isLastBuildFull());
+            assertEquals(ImmutableSet.of(parentType.variable()), metrics.getLastRebuiltTypes());
+            assertEquals(firstBuild.getSchemaTypes() - 1, metrics.getSchemaTypes());
+
+            assertNull(schema.getType(childTypeVar));
+            assertNull(schema.getQueryType().getFieldDefinition(TypeUtil.collectionizedName(childTypeVar)));
+            assertNull(schema.getObjectType(parentType.variable()).getFieldDefinition(parentToChild.variable()));
+        } finally {
+            deleteTypes(parentType, childType);
+        }
+    }
+
+    @Test
+    public void testGetSchema_WhenTypesRebuildFails_ShouldGenerateTheWholeSchema()
+            throws DotDataException, DotSecurityException {
+
+        final GraphqlAPIImpl api = new GraphqlAPIImpl() {
+
+            @Override
+            Set<String> rebuildSchemaTypes(final Set<String> changedTypes) {
+                throw new DotRuntimeException("Unable to rebuild the types " + changedTypes);
+            }
+        };
+        ContentType contentType = null;
+
+        try {
+            contentType = createType("fallbackType" + random.nextPositive(), BaseContentType.CONTENT);
+            api.getSchema();
+
+            final String fieldVar = "fallbackField" + random.nextPositive();
+            createField(contentType, fieldVar, ImmutableTextField.class, false);
+            api.invalidateSchemaType(contentType.id());
+
+            final GraphQLSchema schema = api.getSchema();
+
+            final GraphqlSchemaBuildMetrics metrics = api.getSchemaBuildMetrics();
+            assertEquals(2, metrics.getBuilds());
+            assertEquals(2, metrics.getFullBuilds());
+            assertTrue(metrics.isLastBuildFull());
+            assertEquals(metrics.getSchemaTypes(), metrics.getLastRebuiltTypes().size());
+            assertTrue(metrics.getLastRebuiltTypes().contains(contentType.variable()));
+            assertNotNull(schema.getObjectType(contentType.variable()).getFieldDefinition(fieldVar));
+
+            // invalidating the whole schema generates it again too
+            api.invalidateSchema();
+            api.getSchema();
+            assertEquals(3, api.getSchemaBuildMetrics().getFullBuilds());
+            assertTrue(api.getSchemaBuildMetrics().isLastBuildFull());
+        } finally {
+            deleteTypes(contentType);
+        }
+    }
+
+    private static void deleteTypes(final ContentType... contentTypes) throws DotDataException, DotSecurityException {
+        for (final ContentType contentType : contentTypes) {
+            if (UtilMethods.isSet(contentType) && UtilMethods.isSet(contentType.id())) {
+                APILocator.getContentTypeAPI(APILocator.systemUser()).delete(contentType);
+            }
+        }
+    }
+
     private ContentType createAndSaveSimpleContentType(final String name) throws DotSecurityException, DotDataException {
         return APILocator.getContentTypeAPI(APILocator.systemUser())
                 .save(ContentTypeBuilder.builder(SimpleContentType.class).folder(
@@ -0,0 +1,345 @@
+package com.dotcms.graphql.dataloader;
+
+import com.dotcms.contenttype.model.field.Field;
+import com.dotcms.contenttype.model.field.FieldBuilder;
+import com.dotcms.contenttype.model.field.RelationshipField;
+import com.dotcms.contenttype.model.type.ContentType;
+import com.dotcms.datagen.ContentTypeDataGen;
+import com.dotcms.datagen.ContentletDataGen;
+import com.dotcms.datagen.RoleDataGen;
+import com.dotcms.datagen.UserDataGen;
+import com.dotcms.util.IntegrationTestInitService;
+import com.dotmarketing.beans.Permission;
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.business.PermissionAPI;
+import com.dotmarketing.business.Role;
+import com.dotmarketing.portlets.contentlet.model.Contentlet;
+import com.dotmarketing.portlets.structure.model.ContentletRelationships;
+import com.dotmarketing.portlets.structure.model.ContentletRelationships.ContentletRelationshipRecords;
+import com.dotmarketing.portlets.structure.model.Relationship;
+import com.dotmarketing.util.WebKeys.Relationship.RELATIONSHIP_CARDINALITY;
+import com.liferay.portal.model.User;
+import com.liferay.util.StringPool;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test of {@link RelatedContentBatchLoader}, the related content loaded for a batch has to be the same
+ * {@link Contentlet#getRelated(String, User, boolean, Boolean)} returns for each contentlet of the batch, as the
+ * relationship field data fetcher did before batching
+ */
+public class RelatedContentBatchLoaderTest {
+
+    private static ContentType parentType;
+    private static ContentType childType;
+    private static ContentType selfType;
+
+    private static Contentlet parent1;
+    private static Contentlet parent2;
+    private static Contentlet parent3;
+    private static Contentlet child1;
+    private static Contentlet child2;
+    private static Contentlet child3;
+    private static Contentlet self1;
+    private static Contentlet self2;
+    private static Contentlet self3;
+
+    private static User limitedUser;
+
+    @BeforeClass
+    public static void prepare() throws Exception {
+
+        IntegrationTestInitService.getInstance().init();
+
+        final long millis = System.currentTimeMillis();
+        parentType = new ContentTypeDataGen().name("RelatedParent" + millis)
+                .velocityVarName("relatedParent" + millis).nextPersisted();
+        childType  = new ContentTypeDataGen().name("RelatedChild" + millis)
+                .velocityVarName("relatedChild" + millis).nextPersisted();
+        selfType   = new ContentTypeDataGen().name("RelatedSelf" + millis)
+                .velocityVarName("relatedSelf" + millis).nextPersisted();
+
+        // both sides of a many to many and of a one to one relationship, and a self relationship
+        final Relationship children = relationship(parentType, "children", childType.variable(),
+                RELATIONSHIP_CARDINALITY.MANY_TO_MANY);
+        relationship(childType, "parents", parentType.variable() + StringPool.PERIOD + "children",
+                RELATIONSHIP_CARDINALITY.MANY_TO_MANY);
+        final Relationship favorite = relationship(parentType, "favorite", childType.variable(),
+                RELATIONSHIP_CARDINALITY.ONE_TO_ONE);
+        relationship(childType, "favoriteOf", parentType.variable() + StringPool.PERIOD + "favorite",
+                RELATIONSHIP_CARDINALITY.ONE_TO_ONE);
+        final Relationship related = relationship(selfType, "related", selfType.variable(),
+                RELATIONSHIP_CARDINALITY.MANY_TO_MANY);
+        relationship(selfType, "relatedFrom", selfType.variable() + StringPool.PERIOD + "related",
+                RELATIONSHIP_CARDINALITY.MANY_TO_MANY);
+
+        // child1 is live, child2 is live with a newer working version and child3 was never published
+        child1 = ContentletDataGen.publish(new ContentletDataGen(childType.id()).nextPersisted());
+        child2 = ContentletDataGen.publish(new ContentletDataGen(childType.id()).nextPersisted());
+        child2 = ContentletDataGen.checkin(ContentletDataGen.checkout(child2));
+        child3 = new ContentletDataGen(childType.id()).nextPersisted();
+
+        // the anonymous user can read all the children, the limited user only child1
+        final Role role = new RoleDataGen().nextPersisted();
+        limitedUser = new UserDataGen().roles(role).nextPersisted();
+        final Role anonymousRole = APILocator.getRoleAPI().loadCMSAnonymousRole();
+        for (final Contentlet child : Arrays.asList(child1, child2, child3)) {
+            permit(child, anonymousRole);
+        }
+        permit(child1, role);
+
+        parent1 = checkin(new ContentletDataGen(parentType.id()).next(),
+                records(children, true, child1, child2, child3), records(favorite, true, child2));
+        // no child has the same tree order on both parents, so the parents side has a single order
+        parent2 = checkin(new ContentletDataGen(parentType.id()).next(),
+                records(children, true, child2, child3));
+        parent3 = new ContentletDataGen(parentType.id()).nextPersisted();
+
+        self1 = ContentletDataGen.publish(new ContentletDataGen(selfType.id()).nextPersisted());
+        self2 = ContentletDataGen.publish(new ContentletDataGen(selfType.id()).nextPersisted());
+        self3 = ContentletDataGen.publish(new ContentletDataGen(selfType.id()).nextPersisted());
+        self1 = checkin(ContentletDataGen.checkout(self1), records(related, true, self2, self3));
+        self2 = checkin(ContentletDataGen.checkout(self2), records(related, true, self3));
+        for (final Contentlet self : Arrays.asList(self1, self2, self3)) {
+            permit(self, anonymousRole);
+        }
+    }
+
+    @Test
+    public void the_parent_side_is_loaded_as_getRelated_does() throws Exception {
+
+        assertSameAsGetRelated(Arrays.asList(parent1, parent2, parent3), Arrays.asList("children", "favorite"));
+    }
+
+    @Test
+    public void the_child_side_is_loaded_as_getRelated_does() throws Exception {
+
+        assertSameAsGetRelated(Arrays.asList(child1, child2, child3), Arrays.asList("parents", "favoriteOf"));
+    }
+
+    @Test
+    public void both_sides_of_a_self_relationship_are_loaded_as_getRelated_does() throws Exception {
+
+        assertSameAsGetRelated(Arrays.asList(self1, self2, self3), Arrays.asList("related", "relatedFrom"));
+    }
+
+    @Test
+    public void the_fields_that_allow_only_one_get_a_single_contentlet() throws Exception {
+
+        final List<Object> loaded = load(APILocator.systemUser(), Arrays.asList(
+                new RelatedContentKey(parent1, "favorite"), new RelatedContentKey(parent2, "favorite"),
+                new RelatedContentKey(child2, "favoriteOf"), new RelatedContentKey(child1, "favoriteOf")));
+
+        assertEquals(child2.getInode(), inodes(loaded.get(0)));
+        assertNull(inodes(loaded.get(1)));
+        assertEquals(parent1.getInode(), inodes(loaded.get(2)));
+        assertNull(inodes(loaded.get(3)));
+    }
+
+    @Test
+    public void the_anonymous_user_gets_the_live_versions_it_can_read() throws Exception {
+
+        final RelatedContentKey key = new RelatedContentKey(parent1, "children");
+
+        clearRelationshipCache();
+        assertEquals(Arrays.asList(child1.getInode(), liveInode(child2)),
+                inodes(load(APILocator.getUserAPI().getAnonymousUser(), Collections.singletonList(key)).get(0)));
+
+        clearRelationshipCache();
+        assertEquals(Arrays.asList(child1.getInode(), liveInode(child2)),
+                inodes(load(null, Collections.singletonList(key)).get(0)));
+    }
+
+    @Test
+    public void the_back_end_users_get_the_working_versions_they_can_read() throws Exception {
+
+        final RelatedContentKey key = new RelatedContentKey(parent1, "children");
+        assertNotEquals(liveInode(child2), child2.getInode());
+
+        clearRelationshipCache();
+        assertEquals(Arrays.asList(child1.getInode(), child2.getInode(), child3.getInode()),
+                inodes(load(APILocator.systemUser(), Collections.singletonList(key)).get(0)));
+
+        clearRelationshipCache();
+        assertEquals(Collections.singletonList(child1.getInode()),
+                inodes(load(limitedUser, Collections.singletonList(key)).get(0)));
+    }
+
+    @Test
+    public void the_related_identifiers_are_put_on_the_relationship_cache() throws Exception {
+
+        clearRelationshipCache();
+        final List<RelatedContentKey> keys = Arrays.asList(new RelatedContentKey(parent1, "children"),
+                new RelatedContentKey(parent2, "children"), new RelatedContentKey(parent3, "children"),
+                new RelatedContentKey(parent1, "favorite"), new RelatedContentKey(self2, "relatedFrom"));
+        final List<Object> loaded = load(APILocator.systemUser(), keys);
+
+        assertEquals(Arrays.asList(child1.getIdentifier(), child2.getIdentifier(), child3.getIdentifier()),
+                cachedIdentifiers(parent1, "children"));
+        assertEquals(Arrays.asList(child2.getIdentifier(), child3.getIdentifier()),
+                cachedIdentifiers(parent2, "children"));
+        assertEquals(Collections.emptyList(), cachedIdentifiers(parent3, "children"));
+        assertEquals(Collections.singletonList(child2.getIdentifier()), cachedIdentifiers(parent1, "favorite"));
+        assertEquals(Collections.singletonList(self1.getIdentifier()), cachedIdentifiers(self2, "relatedFrom"));
+
+        // the next batch is served from the cache with the same outcome
+        assertEquals(inodes(loaded), inodes(load(APILocator.systemUser(), keys)));
+    }
+
+    /**
+     * Loads all the fields of all the contentlets in one batch and compares each one with
+     * {@link Contentlet#getRelated(String, User, boolean, Boolean)}, for a back end user, a limited one and the
+     * anonymous one. The relationship cache is cleared before each so both read the database
+     */
+    private static void assertSameAsGetRelated(final List<Contentlet> contentlets, final List<String> fieldVars)
+            throws Exception {
+
+        for (final User user : Arrays.asList(APILocator.systemUser(), limitedUser,
+                APILocator.getUserAPI().getAnonymousUser())) {
+
+            final List<RelatedContentKey> keys = new ArrayList<>();
+            final List<Object> expected = new ArrayList<>();
+            for (final Contentlet contentlet : contentlets) {
+                for (final String fieldVar : fieldVars) {
+
+                    clearRelationshipCache();
+                    keys.add(new RelatedContentKey(contentlet, fieldVar));
+                    expected.add(getRelated(contentlet, fieldVar, user));
+                }
+            }
+
+            clearRelationshipCache();
+            assertEquals("related content for " + user.getUserId(), expected, inodes(load(user, keys)));
+        }
+    }
+
+    /**
+     * The related content as the relationship field data fetcher got it before batching
+     */
+    private static Object getRelated(final Contentlet contentlet, final String fieldVar, final User user)
+            throws Exception {
+
+        final Field field = APILocator.getContentTypeFieldAPI()
+                .byContentTypeIdAndVar(contentlet.getContentTypeId(), fieldVar);
+        final Relationship relationship = APILocator.getRelationshipAPI().getRelationshipFromField(field, user);
+        final boolean isChildField = APILocator.getRelationshipAPI().isChildField(relationship, field);
+        final ContentletRelationshipRecords records =
+                new ContentletRelationships(null).new ContentletRelationshipRecords(relationship, isChildField);
+
+        final List<String> related = contentlet.getRelated(fieldVar, user, true, isChildField).stream()
+                .map(Contentlet::getInode).collect(Collectors.toList());
+
+        return records.doesAllowOnlyOne() ? (related.isEmpty() ? null : related.get(0)) : related;
+    }
+
+    private static List<Object> load(final User user, final List<RelatedContentKey> keys) throws Exception {
+
+        return new RelatedContentBatchLoader(user).load(keys).toCompletableFuture().get();
+    }
+
+    /**
+     * The loaded values with the contentlets replaced by their inodes
+     */
+    private static Object inodes(final Object loaded) throws Exception {
+
+        if (loaded instanceof Exception) {
+            throw (Exception) loaded;
+        }
+
+        if (loaded instanceof Collection) {
+
+            final List<Object> inodes = new ArrayList<>();
+            for (final Object value : (Collection<?>) loaded) {
+                inodes.add(inodes(value));
+            }
+            return inodes;
+        }
+
+        return loaded instanceof Contentlet ? ((Contentlet) loaded).getInode() : loaded;
+    }
+
+    private static List<String> cachedIdentifiers(final Contentlet contentlet, final String fieldVar)
+            throws Exception {
+
+        return CacheLocator.getRelationshipCache().getRelatedContentMap(contentlet.getIdentifier()).get(fieldVar);
+    }
+
+    private static void clearRelationshipCache() {
+
+        for (final Contentlet contentlet : Arrays.asList(parent1, parent2, parent3, child1, child2, child3,
+                self1, self2, self3)) {
+            CacheLocator.getRelationshipCache().removeRelatedContentMap(contentlet.getIdentifier());
+        }
+    }
+
+    private static String liveInode(final Contentlet contentlet) throws Exception {
+
+        return APILocator.getVersionableAPI().getContentletVersionInfo(contentlet.getIdentifier(),
+                contentlet.getLanguageId()).getLiveInode();
+    }
+
+    private static Relationship relationship(final ContentType contentType, final String fieldVar,
+                                             final String relationType, final RELATIONSHIP_CARDINALITY cardinality)
+            throws Exception {
+
+        final Field field = APILocator.getContentTypeFieldAPI().save(FieldBuilder.builder(RelationshipField.class)
+                .name(fieldVar).variable(fieldVar).contentTypeId(contentType.id())
+                .values(String.valueOf(cardinality.ordinal())).relationType(relationType).build(),
+                APILocator.systemUser());
+
+        return APILocator.getRelationshipAPI().getRelationshipFromField(field, APILocator.systemUser());
+    }
+
+    private static Records records(final Relationship relationship, final boolean hasParent,
+                                   final Contentlet... related) {
+
+        return new Records(relationship, hasParent, Arrays.asList(related));
+    }
+
+    private static Contentlet checkin(final Contentlet contentlet, final Records... records) throws Exception {
+
+        final ContentletRelationships relationships = new ContentletRelationships(contentlet);
+        for (final Records relationshipRecords : records) {
+
+            final ContentletRelationshipRecords contentletRecords = relationships.new ContentletRelationshipRecords(
+                    relationshipRecords.relationship, relationshipRecords.hasParent);
+            contentletRecords.setRecords(relationshipRecords.related);
+            relationships.getRelationshipsRecords().add(contentletRecords);
+        }
+
+        return APILocator.getContentletAPI().checkin(contentlet, relationships, null, null,
+                APILocator.systemUser(), false);
+    }
+
+    private static void permit(final Contentlet contentlet, final Role role) throws Exception {
+
+        APILocator.getPermissionAPI().save(new Permission(PermissionAPI.INDIVIDUAL_PERMISSION_TYPE,
+                contentlet.getPermissionId(), role.getId(), PermissionAPI.PERMISSION_READ, true), contentlet,
+                APILocator.systemUser(), false);
+    }
+
+    private static class Records {
+
+        private final Relationship relationship;
+        private final boolean hasParent;
+        private final List<Contentlet> related;
+
+        private Records(final Relationship relationship, final boolean hasParent, final List<Contentlet> related) {
+            this.relationship = relationship;
+            this.hasParent    = hasParent;
+            this.related      = related;
+        }
+    }
+}
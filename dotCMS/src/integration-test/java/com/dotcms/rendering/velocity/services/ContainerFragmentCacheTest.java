@@ -0,0 +1,236 @@
+package com.dotcms.rendering.velocity.services;
+
+import com.dotcms.contenttype.model.type.ContentType;
+import com.dotcms.datagen.ContentTypeDataGen;
+import com.dotcms.datagen.ContentletDataGen;
+import com.dotcms.datagen.LanguageDataGen;
+import com.dotcms.datagen.PersonaDataGen;
+import com.dotcms.datagen.UserDataGen;
+import com.dotcms.mock.request.MockHttpRequest;
+import com.dotcms.util.IntegrationTestInitService;
+import com.dotcms.visitor.domain.Visitor;
+import com.dotmarketing.beans.MultiTree;
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.portlets.containers.model.Container;
+import com.dotmarketing.portlets.contentlet.model.Contentlet;
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.PageMode;
+import com.dotmarketing.util.UUIDGenerator;
+import com.dotmarketing.util.WebKeys;
+import com.liferay.portal.model.User;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test of {@link ContainerFragmentCache}, the fragments are cached for all the containers and invalidated by the
+ * multi tree, contentlet and container changes
+ */
+public class ContainerFragmentCacheTest {
+
+    private static String containers;
+    private static User   user1;
+    private static User   user2;
+    private static long   languageId;
+
+    private ContainerFragmentCache cache;
+    private VelocityResourceKey key;
+
+    @BeforeClass
+    public static void prepare() throws Exception {
+
+        IntegrationTestInitService.getInstance().init();
+        containers = Config.getStringProperty("CONTAINER_FRAGMENT_CACHE_CONTAINERS", null);
+        Config.setProperty("CONTAINER_FRAGMENT_CACHE_CONTAINERS", "*");
+        CacheLocator.getContainerFragmentCache().clearCache();
+
+        user1      = new UserDataGen().nextPersisted();
+        user2      = new UserDataGen().nextPersisted();
+        languageId = new LanguageDataGen().nextPersisted().getId();
+    }
+
+    @AfterClass
+    public static void cleanup() {
+
+        Config.setProperty("CONTAINER_FRAGMENT_CACHE_CONTAINERS", containers);
+        CacheLocator.getContainerFragmentCache().clearCache();
+    }
+
+    @Before
+    public void before() {
+
+        this.cache = CacheLocator.getContainerFragmentCache();
+        this.key   = new VelocityResourceKey(container(), "1", PageMode.LIVE);
+    }
+
+    @Test
+    public void fragments_are_kept_apart_by_user_query_string_persona_and_language() {
+
+        final String pageId = UUIDGenerator.generateUuid();
+        this.cache.put(pageId, this.key, request(user1, null, null, null), "fragment");
+
+        assertEquals(Optional.of("fragment"), this.cache.get(pageId, this.key, request(user1, null, null, null)));
+        assertEquals(Optional.empty(), this.cache.get(pageId, this.key, request(user2, null, null, null)));
+        assertEquals(Optional.empty(), this.cache.get(pageId, this.key, request(null, null, null, null)));
+        assertEquals(Optional.empty(), this.cache.get(pageId, this.key, request(user1, "a=1", null, null)));
+        assertEquals(Optional.empty(), this.cache.get(pageId, this.key, request(user1, null, "persona", null)));
+        assertEquals(Optional.empty(), this.cache.get(pageId, this.key, request(user1, null, null, languageId)));
+
+        // neither on another uuid of the container nor on another page
+        assertEquals(Optional.empty(), this.cache.get(pageId,
+                new VelocityResourceKey(container(), "2", PageMode.LIVE), request(user1, null, null, null)));
+        assertEquals(Optional.empty(), this.cache.get(UUIDGenerator.generateUuid(), this.key,
+                request(user1, null, null, null)));
+
+        this.cache.put(pageId, this.key, request(user1, "a=1", "persona", languageId), "personalized");
+        assertEquals(Optional.of("personalized"),
+                this.cache.get(pageId, this.key, request(user1, "a=1", "persona", languageId)));
+        assertEquals(Optional.of("fragment"), this.cache.get(pageId, this.key, request(user1, null, null, null)));
+    }
+
+    @Test
+    public void fragments_expire_after_the_ttl() throws InterruptedException {
+
+        final String pageId = UUIDGenerator.generateUuid();
+        final int ttl = Config.getIntProperty("CONTAINER_FRAGMENT_CACHE_TTL_SECONDS", 300);
+        Config.setProperty("CONTAINER_FRAGMENT_CACHE_TTL_SECONDS", 1);
+        try {
+
+            this.cache.put(pageId, this.key, request(user1, null, null, null), "fragment");
+            assertEquals(Optional.of("fragment"), this.cache.get(pageId, this.key, request(user1, null, null, null)));
+
+            Thread.sleep(1100);
+            assertEquals(Optional.empty(), this.cache.get(pageId, this.key, request(user1, null, null, null)));
+        } finally {
+            Config.setProperty("CONTAINER_FRAGMENT_CACHE_TTL_SECONDS", ttl);
+        }
+    }
+
+    @Test
+    public void removing_a_page_only_invalidates_its_own_fragments() {
+
+        final String pageId      = UUIDGenerator.generateUuid();
+        final String otherPageId = UUIDGenerator.generateUuid();
+        this.cache.put(pageId, this.key, request(user1, null, null, null), "fragment");
+        this.cache.put(otherPageId, this.key, request(user1, null, null, null), "other");
+
+        this.cache.remove(pageId);
+        assertEquals(Optional.empty(), this.cache.get(pageId, this.key, request(user1, null, null, null)));
+        assertEquals(Optional.of("other"), this.cache.get(otherPageId, this.key, request(user1, null, null, null)));
+
+        // a new render of the page is cached again
+        this.cache.put(pageId, this.key, request(user1, null, null, null), "rendered again");
+        assertEquals(Optional.of("rendered again"),
+                this.cache.get(pageId, this.key, request(user1, null, null, null)));
+    }
+
+    @Test
+    public void saving_a_multi_tree_invalidates_the_fragments_of_its_page() throws Exception {
+
+        final String pageId      = UUIDGenerator.generateUuid();
+        final String otherPageId = UUIDGenerator.generateUuid();
+        this.cache.put(pageId, this.key, request(user1, null, null, null), "fragment");
+        this.cache.put(otherPageId, this.key, request(user1, null, null, null), "other");
+
+        final MultiTree multiTree = new MultiTree().setHtmlPage(pageId).setContainer(this.key.id1)
+                .setContentlet(UUIDGenerator.generateUuid()).setInstanceId("1").setTreeOrder(1);
+        try {
+
+            APILocator.getMultiTreeAPI().saveMultiTree(multiTree);
+            assertEquals(Optional.empty(), this.cache.get(pageId, this.key, request(user1, null, null, null)));
+            assertEquals(Optional.of("other"),
+                    this.cache.get(otherPageId, this.key, request(user1, null, null, null)));
+        } finally {
+            APILocator.getMultiTreeAPI().deleteMultiTree(multiTree);
+        }
+    }
+
+    @Test
+    public void invalidating_a_live_contentlet_invalidates_the_fragments_of_its_pages() throws Exception {
+
+        final ContentType contentType = new ContentTypeDataGen().nextPersisted();
+        final Contentlet contentlet   = new ContentletDataGen(contentType.id()).nextPersisted();
+        final String pageId      = UUIDGenerator.generateUuid();
+        final String otherPageId = UUIDGenerator.generateUuid();
+
+        final MultiTree multiTree = new MultiTree().setHtmlPage(pageId).setContainer(this.key.id1)
+                .setContentlet(contentlet.getIdentifier()).setInstanceId("1").setTreeOrder(1);
+        try {
+
+            APILocator.getMultiTreeAPI().saveMultiTree(multiTree);
+            this.cache.put(pageId, this.key, request(user1, null, null, null), "fragment");
+            this.cache.put(otherPageId, this.key, request(user1, null, null, null), "other");
+
+            // the working version of the contentlet is not on the live pages
+            new ContentletLoader().invalidate(contentlet, PageMode.PREVIEW_MODE);
+            assertEquals(Optional.of("fragment"), this.cache.get(pageId, this.key, request(user1, null, null, null)));
+
+            new ContentletLoader().invalidate(contentlet, PageMode.LIVE);
+            assertEquals(Optional.empty(), this.cache.get(pageId, this.key, request(user1, null, null, null)));
+            assertEquals(Optional.of("other"),
+                    this.cache.get(otherPageId, this.key, request(user1, null, null, null)));
+        } finally {
+            APILocator.getMultiTreeAPI().deleteMultiTree(multiTree);
+            ContentletDataGen.destroy(contentlet);
+            ContentTypeDataGen.remove(contentType);
+        }
+    }
+
+    @Test
+    public void invalidating_a_live_container_invalidates_the_fragments_of_all_the_pages() {
+
+        final String pageId      = UUIDGenerator.generateUuid();
+        final String otherPageId = UUIDGenerator.generateUuid();
+        this.cache.put(pageId, this.key, request(user1, null, null, null), "fragment");
+        this.cache.put(otherPageId, this.key, request(user1, null, null, null), "other");
+
+        final Container container = new Container();
+        container.setIdentifier(this.key.id1);
+        new ContainerLoader().invalidate(container, PageMode.LIVE);
+
+        assertEquals(Optional.empty(), this.cache.get(pageId, this.key, request(user1, null, null, null)));
+        assertEquals(Optional.empty(), this.cache.get(otherPageId, this.key, request(user1, null, null, null)));
+    }
+
+    private static Container container() {
+
+        final Container container = new Container();
+        container.setIdentifier(UUIDGenerator.generateUuid());
+        return container;
+    }
+
+    private static HttpServletRequest request(final User user, final String queryString, final String persona,
+                                              final Long languageId) {
+
+        final HttpServletRequest request = new MockHttpRequest("localhost", "/").request();
+        if (null != user) {
+            request.getSession(true).setAttribute(WebKeys.CMS_USER, user);
+        }
+
+        if (null != persona) {
+            final Visitor visitor = new Visitor();
+            visitor.setPersona(new PersonaDataGen().keyTag(persona).next());
+            request.getSession(true).setAttribute(WebKeys.VISITOR, visitor);
+        }
+
+        if (null != languageId) {
+            request.setAttribute(WebKeys.HTMLPAGE_LANGUAGE, String.valueOf(languageId));
+        }
+
+        return new HttpServletRequestWrapper(request) {
+
+            @Override
+            public String getQueryString() {
+                return queryString;
+            }
+        };
+    }
+}
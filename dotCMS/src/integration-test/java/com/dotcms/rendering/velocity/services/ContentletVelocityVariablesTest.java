@@ -0,0 +1,260 @@
+package com.dotcms.rendering.velocity.services;
+
+import com.dotcms.contenttype.model.field.BinaryField;
+import com.dotcms.contenttype.model.field.CategoryField;
+import com.dotcms.contenttype.model.field.DateTimeField;
+import com.dotcms.contenttype.model.field.Field;
+import com.dotcms.contenttype.model.field.FieldBuilder;
+import com.dotcms.contenttype.model.field.HostFolderField;
+import com.dotcms.contenttype.model.field.KeyValueField;
+import com.dotcms.contenttype.model.field.RelationshipField;
+import com.dotcms.contenttype.model.field.TagField;
+import com.dotcms.contenttype.model.field.TextField;
+import com.dotcms.contenttype.model.type.ContentType;
+import com.dotcms.datagen.CategoryDataGen;
+import com.dotcms.datagen.ContentTypeDataGen;
+import com.dotcms.datagen.ContentletDataGen;
+import com.dotcms.datagen.FieldDataGen;
+import com.dotcms.mock.request.MockInternalRequest;
+import com.dotcms.mock.response.BaseResponse;
+import com.dotcms.rendering.velocity.directive.RenderParams;
+import com.dotcms.rendering.velocity.util.VelocityUtil;
+import com.dotcms.util.CollectionsUtils;
+import com.dotcms.util.IntegrationTestInitService;
+import com.dotmarketing.beans.Host;
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.portlets.categories.model.Category;
+import com.dotmarketing.portlets.contentlet.model.Contentlet;
+import com.dotmarketing.portlets.fileassets.business.IFileAsset;
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.PageMode;
+import com.dotmarketing.util.WebKeys;
+import com.dotmarketing.util.WebKeys.Relationship.RELATIONSHIP_CARDINALITY;
+import org.apache.velocity.context.Context;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of {@link ContentletVelocityVariables}, the variables applied straight to the context by
+ * <code>#contentDetail</code> have to be the same the generated velocity script (the old path, still used with
+ * VELOCITY_CONTENTLET_VARIABLES_ENABLED=false and by <code>#parse</code>) sets, for every kind of field and in both
+ * live and working mode
+ */
+public class ContentletVelocityVariablesTest {
+
+    private static final String TEMPLATE = "$!{ContentletTitle}|$!{title}|$!{ConHostFolder}|$!{tags}|$!{keyValue}"
+            + "|$!{children}|$!{binaryBinaryFileTitle}|$!{binaryBinaryFileSize}|$!{binaryBinaryFileURI}"
+            + "|$!{categoriesCategories}|$!{categoriesCategoriesNames}|$!{categoriesCategoriesKeys}|$!{categories}"
+            + "|$!{ContentletCategories}|$!{ContentletCategoryNames}|$!{published}|$!{publishedDBFormat}"
+            + "|$!{publishedLongFormat}|$!{ContentLastModDate}|$!{CONTENT_INODE}|$!{ContentletContentType}";
+
+    private static Host host;
+    private static Category category;
+    private static Contentlet live;
+    private static Contentlet working;
+
+    @BeforeClass
+    public static void prepare() throws Exception {
+
+        IntegrationTestInitService.getInstance().init();
+
+        final long millis = System.currentTimeMillis();
+        host = APILocator.getHostAPI().findDefaultHost(APILocator.systemUser(), false);
+        category = new CategoryDataGen().setCategoryName("child" + millis).setKey("child" + millis)
+                .setCategoryVelocityVarName("child" + millis).next();
+        final Category parentCategory = new CategoryDataGen().setCategoryName("parent" + millis)
+                .setKey("parent" + millis).setCategoryVelocityVarName("parent" + millis).children(category)
+                .nextPersisted();
+
+        final ContentType childType = new ContentTypeDataGen().name("VariablesChild" + millis)
+                .velocityVarName("variablesChild" + millis)
+                .field(new FieldDataGen().name("title").velocityVarName("title").next()).nextPersisted();
+
+        final List<Field> fields = Arrays.asList(
+                new FieldDataGen().name("hostFolder").velocityVarName("hostFolder").type(HostFolderField.class)
+                        .defaultValue(null).next(),
+                new FieldDataGen().name("title").velocityVarName("title").type(TextField.class).defaultValue(null)
+                        .next(),
+                new FieldDataGen().name("tags").velocityVarName("tags").type(TagField.class).defaultValue(null)
+                        .next(),
+                new FieldDataGen().name("keyValue").velocityVarName("keyValue").type(KeyValueField.class)
+                        .defaultValue(null).next(),
+                new FieldDataGen().name("binary").velocityVarName("binary").type(BinaryField.class)
+                        .defaultValue(null).next(),
+                new FieldDataGen().name("categories").velocityVarName("categories").type(CategoryField.class)
+                        .defaultValue(null).values(parentCategory.getInode()).next(),
+                new FieldDataGen().name("published").velocityVarName("published").type(DateTimeField.class)
+                        .defaultValue(null).next());
+        final ContentType type = new ContentTypeDataGen().name("Variables" + millis)
+                .velocityVarName("variables" + millis).host(host).fields(fields).nextPersisted();
+
+        APILocator.getContentTypeFieldAPI().save(FieldBuilder.builder(RelationshipField.class).name("children")
+                .variable("children").contentTypeId(type.id())
+                .values(String.valueOf(RELATIONSHIP_CARDINALITY.MANY_TO_MANY.ordinal()))
+                .relationType(childType.variable()).build(), APILocator.systemUser());
+
+        final Contentlet child = ContentletDataGen.publish(new ContentletDataGen(childType.id())
+                .setProperty("title", "child").nextPersisted());
+
+        final File binary = File.createTempFile("variables" + millis, ".txt");
+        Files.write(binary.toPath(), "binary content".getBytes(StandardCharsets.UTF_8));
+
+        // the title has the characters the generated script escapes
+        live = ContentletDataGen.publish(new ContentletDataGen(type.id()).host(host)
+                .setProperty("hostFolder", host.getIdentifier())
+                .setProperty("title", "The \"live\" title #1 costs $10")
+                .setProperty("tags", "tag1,tag2")
+                .setProperty("keyValue", "{\"key1\":\"value1\",\"key2\":\"value2\"}")
+                .setProperty("binary", binary)
+                .setProperty("published", new Date())
+                .setProperty("children", CollectionsUtils.list(child))
+                .addCategory(category)
+                .nextPersisted());
+
+        working = ContentletDataGen.checkout(live);
+        working.setStringProperty("title", "The working title");
+        working = ContentletDataGen.checkin(working);
+    }
+
+    @Test
+    public void live_variables_applied_are_the_ones_the_generated_script_sets() throws Exception {
+
+        assertSameVariables(live, PageMode.LIVE);
+    }
+
+    @Test
+    public void working_variables_applied_are_the_ones_the_generated_script_sets() throws Exception {
+
+        assertSameVariables(working, PageMode.PREVIEW_MODE);
+    }
+
+    @Test
+    public void live_contentDetail_renders_the_same_as_the_generated_script() throws Exception {
+
+        final String rendered = assertSameRendering(PageMode.LIVE);
+        assertTrue(rendered, rendered.startsWith("The \"live\" title #1 costs $10|"));
+    }
+
+    @Test
+    public void working_contentDetail_renders_the_same_as_the_generated_script() throws Exception {
+
+        final String rendered = assertSameRendering(PageMode.PREVIEW_MODE);
+        assertTrue(rendered, rendered.startsWith("The working title|"));
+    }
+
+    private static void assertSameVariables(final Contentlet contentlet, final PageMode mode) throws Exception {
+
+        final ContentletVelocityVariables variables = new ContentletLoader().buildVariables(contentlet, mode);
+
+        final Context applied = context(mode);
+        variables.apply(applied);
+
+        final Context parsed = context(mode);
+        VelocityUtil.eval(variables.toVelocity(), parsed);
+
+        final Map<String, Object> appliedVariables = variables(applied);
+        assertEquals(variables(parsed), appliedVariables);
+
+        // and they hold the values of every kind of field
+        assertEquals(contentlet.getInode(), appliedVariables.get("ContentInode"));
+        assertEquals(contentlet.getStringProperty("title"), appliedVariables.get("title"));
+        assertEquals(host.getIdentifier(), appliedVariables.get("ConHostFolder"));
+        assertTrue(String.valueOf(appliedVariables.get("tags")).contains("tag1"));
+        assertTrue(String.valueOf(appliedVariables.get("keyValue")).contains("key2"));
+        assertNotEquals("", appliedVariables.get("children"));
+        assertTrue(String.valueOf(appliedVariables.get("binaryBinaryFileURI"))
+                .startsWith("/contentAsset/raw-data/" + contentlet.getIdentifier() + "/binary/"));
+        assertEquals(Arrays.asList(category.getInode()), appliedVariables.get("categoriesCategories"));
+        assertEquals(Arrays.asList(category.getInode()), appliedVariables.get("ContentletCategories"));
+        assertNotEquals("null", appliedVariables.get("published"));
+        assertFalse(String.valueOf(appliedVariables.get("publishedDBFormat")).isEmpty());
+    }
+
+    private static String assertSameRendering(final PageMode mode) throws Exception {
+
+        final String template = "#contentDetail('" + live.getIdentifier() + "')" + TEMPLATE;
+        final boolean enabled = Config.getBooleanProperty("VELOCITY_CONTENTLET_VARIABLES_ENABLED", true);
+        try {
+
+            Config.setProperty("VELOCITY_CONTENTLET_VARIABLES_ENABLED", true);
+            CacheLocator.getVeloctyResourceCache().clearCache();
+            final String fromVariables = VelocityUtil.eval(template, context(mode));
+
+            Config.setProperty("VELOCITY_CONTENTLET_VARIABLES_ENABLED", false);
+            CacheLocator.getVeloctyResourceCache().clearCache();
+            final String fromScript = VelocityUtil.eval(template, context(mode));
+
+            assertEquals(fromScript, fromVariables);
+            return fromVariables;
+        } finally {
+            Config.setProperty("VELOCITY_CONTENTLET_VARIABLES_ENABLED", enabled);
+        }
+    }
+
+    private static Context context(final PageMode mode) {
+
+        final HttpServletRequest request = new MockInternalRequest().request();
+        request.setAttribute(WebKeys.HTMLPAGE_LANGUAGE, String.valueOf(live.getLanguageId()));
+        request.setAttribute(com.liferay.portal.util.WebKeys.USER, APILocator.systemUser());
+        request.setAttribute(RenderParams.RENDER_PARAMS_ATTRIBUTE, new RenderParams(APILocator.systemUser(),
+                APILocator.getLanguageAPI().getLanguage(live.getLanguageId()), host, mode));
+        request.getSession(true).setAttribute(WebKeys.CMS_USER, APILocator.systemUser());
+
+        return VelocityUtil.getWebContext(request, new BaseResponse().response());
+    }
+
+    /**
+     * The variables set on the context that are not on a new context, the values are compared by what they render
+     * to (and the files and categories by their inode) since the tools create new instances on every call
+     */
+    private static Map<String, Object> variables(final Context context) {
+
+        final Set<Object> baseKeys = new HashSet<>(Arrays.asList(context(PageMode.LIVE).getKeys()));
+        final Map<String, Object> variables = new TreeMap<>();
+        for (final Object key : context.getKeys()) {
+            if (!baseKeys.contains(key)) {
+                variables.put(String.valueOf(key), normalize(context.get(String.valueOf(key))));
+            }
+        }
+
+        return variables;
+    }
+
+    private static Object normalize(final Object value) {
+
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).stream().map(ContentletVelocityVariablesTest::normalize)
+                    .collect(Collectors.toList());
+        }
+
+        if (value instanceof Category) {
+            return ((Category) value).getInode();
+        }
+
+        if (value instanceof IFileAsset) {
+            return ((IFileAsset) value).getInode();
+        }
+
+        return String.valueOf(value);
+    }
+}
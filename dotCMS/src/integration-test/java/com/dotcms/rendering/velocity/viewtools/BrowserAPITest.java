@@ -1,8 +1,14 @@
 package com.dotcms.rendering.velocity.viewtools;
 
 import com.dotcms.IntegrationTestBase;
+import com.dotcms.content.elasticsearch.business.ESContentletAPIImpl;
 import com.dotcms.contenttype.exception.NotFoundInDbException;
+import com.dotcms.datagen.FileAssetDataGen;
+import com.dotcms.datagen.FolderDataGen;
+import com.dotcms.datagen.HTMLPageDataGen;
+import com.dotcms.datagen.LinkDataGen;
 import com.dotcms.datagen.SiteDataGen;
+import com.dotcms.datagen.TemplateDataGen;
 import com.dotcms.util.IntegrationTestInitService;
 import com.dotmarketing.beans.Host;
 import com.dotmarketing.business.APILocator;
@@ -10,11 +16,18 @@ import com.dotmarketing.business.UserAPI;
 import com.dotmarketing.portlets.contentlet.business.HostAPI;
 import com.dotmarketing.portlets.folders.business.FolderAPI;
 import com.dotmarketing.portlets.folders.model.Folder;
+import com.dotmarketing.portlets.templates.model.Template;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
 import com.liferay.portal.model.User;
+import com.liferay.util.FileUtil;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -65,4 +78,146 @@ public class BrowserAPITest extends IntegrationTestBase {
             folderAPI.delete( folder, user, false );
         }
     }
+
+    /**
+     * The html pages and files are paged in the index, the folders and links are merged with them in the name order,
+     * the folders going first
+     */
+    @Test
+    public void testGetFolderContentSortedByNameIsPagedWithTheFoldersAndLinks() throws Exception {
+
+        final User user = APILocator.systemUser();
+        final Folder folder = this.createFolderContent();
+        final List<String> expected = ImmutableList.of("a-sub", "b-sub", "a-file.txt", "b-page", "c-link",
+                "d-file.txt", "e-file.txt");
+
+        try {
+
+            final Map<String, Object> folderContent = browserAPI.getFolderContent(user, folder.getInode(), 0, -1,
+                    "", null, null, true, false, false, false, "name", false, false, 1);
+            Assert.assertEquals(expected.size(), folderContent.get("total"));
+            Assert.assertEquals(expected, names(folderContent));
+
+            final List<String> paged = new ArrayList<>();
+            for (int offset = 0; offset < expected.size(); offset += 2) {
+
+                final Map<String, Object> page = browserAPI.getFolderContent(user, folder.getInode(), offset, 2,
+                        "", null, null, true, false, false, false, "name", false, false, 1);
+                Assert.assertEquals(expected.size(), page.get("total"));
+                paged.addAll(names(page));
+            }
+            Assert.assertEquals(expected, paged);
+
+            Assert.assertEquals(ImmutableList.of("c-link", "d-file.txt"), names(browserAPI.getFolderContent(user,
+                    folder.getInode(), 4, 2, "", null, null, true, false, false, false, "name", false, false, 1)));
+            Assert.assertEquals(ImmutableList.of("e-file.txt", "d-file.txt", "c-link"), names(browserAPI.getFolderContent(
+                    user, folder.getInode(), 0, 3, "", null, null, true, false, false, false, "name", true, false, 1)));
+            Assert.assertEquals(ImmutableList.of("b-sub", "a-sub"), names(browserAPI.getFolderContent(user,
+                    folder.getInode(), 5, 2, "", null, null, true, false, false, false, "name", true, false, 1)));
+            Assert.assertTrue(names(browserAPI.getFolderContent(user, folder.getInode(), 7, 2, "", null, null, true,
+                    false, false, false, "name", false, false, 1)).isEmpty());
+        } finally {
+            folderAPI.delete(folder, user, false);
+        }
+    }
+
+    /**
+     * The unlimited listings and the pages past the index result window are not capped by the index search, they are
+     * sorted and paged in memory with the right total
+     */
+    @Test
+    public void testGetFolderContentUnlimitedOrPastTheIndexWindowIsNotCapped() throws Exception {
+
+        final User user = APILocator.systemUser();
+        final Folder folder = this.createFolderContent();
+
+        try {
+
+            final Map<String, Object> byName = browserAPI.getFolderContent(user, folder.getInode(), 0, -1,
+                    "", null, null, true, false, false, false, "name", true, false, 1);
+            Assert.assertEquals(7, byName.get("total"));
+            Assert.assertEquals(ImmutableList.of("e-file.txt", "d-file.txt", "c-link", "b-page", "a-file.txt",
+                    "b-sub", "a-sub"), names(byName));
+
+            final Map<String, Object> byModDate = browserAPI.getFolderContent(user, folder.getInode(), 0, 0,
+                    "", null, null, true, false, false, false, "modDate", true, false, 1);
+            Assert.assertEquals(7, byModDate.get("total"));
+            Assert.assertEquals(7, names(byModDate).size());
+
+            final Map<String, Object> unlimitedFromOffset = browserAPI.getFolderContent(user, folder.getInode(), 5,
+                    -1, "", null, null, true, false, false, false, "name", false, false, 1);
+            Assert.assertEquals(7, unlimitedFromOffset.get("total"));
+            Assert.assertEquals(ImmutableList.of("d-file.txt", "e-file.txt"), names(unlimitedFromOffset));
+
+            final Map<String, Object> pastTheWindow = browserAPI.getFolderContent(user, folder.getInode(),
+                    ESContentletAPIImpl.MAX_LIMIT, 10, "", null, null, true, false, false, false, "name", false,
+                    false, 1);
+            Assert.assertEquals(7, pastTheWindow.get("total"));
+            Assert.assertTrue(names(pastTheWindow).isEmpty());
+        } finally {
+            folderAPI.delete(folder, user, false);
+        }
+    }
+
+    /**
+     * The filtered listings are still filtered and paged in memory, the listings of only files are paged in the index
+     */
+    @Test
+    public void testGetFolderContentFilteredIsPaged() throws Exception {
+
+        final User user = APILocator.systemUser();
+        final Folder folder = this.createFolderContent();
+
+        try {
+
+            final Map<String, Object> folderContent = browserAPI.getFolderContent(user, folder.getInode(), 1, 1,
+                    "", null, ImmutableList.of("txt"), true, false, true, false, "name", false, false, 1);
+            Assert.assertEquals(3, folderContent.get("total"));
+            Assert.assertEquals(ImmutableList.of("d-file.txt"), names(folderContent));
+
+            final Map<String, Object> onlyFiles = browserAPI.getFolderContent(user, folder.getInode(), 1, 1,
+                    "", null, null, true, false, true, true, "name", false, false, 1);
+            Assert.assertEquals(3, onlyFiles.get("total"));
+            Assert.assertEquals(ImmutableList.of("d-file.txt"), names(onlyFiles));
+        } finally {
+            folderAPI.delete(folder, user, false);
+        }
+    }
+
+    /**
+     * Creates a folder with the sub folders a-sub and b-sub, the files a-file.txt, d-file.txt and e-file.txt, the
+     * page b-page and the link c-link
+     */
+    private Folder createFolderContent() throws Exception {
+
+        final Host site = new SiteDataGen().nextPersisted();
+        final Folder folder = new FolderDataGen().site(site).nextPersisted();
+        new FolderDataGen().name("b-sub").parent(folder).nextPersisted();
+        new FolderDataGen().name("a-sub").parent(folder).nextPersisted();
+
+        final File directory = Files.createTempDir();
+        for (final String fileName : ImmutableList.of("e-file.txt", "a-file.txt", "d-file.txt")) {
+
+            final File file = new File(directory, fileName);
+            FileUtil.write(file, fileName);
+            new FileAssetDataGen(folder, file).nextPersisted();
+        }
+
+        final Template template = new TemplateDataGen().site(site).nextPersisted();
+        new HTMLPageDataGen(folder, template).pageURL("b-page").title("b-page").languageId(1).nextPersisted();
+        new LinkDataGen(folder).hostId(site.getIdentifier()).title("c-link").nextPersisted();
+
+        return folder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> names(final Map<String, Object> folderContent) {
+
+        final List<String> names = new ArrayList<>();
+        for (final Map<String, Object> asset : (List<Map<String, Object>>) folderContent.get("list")) {
+            names.add((String) asset.get("name"));
+        }
+
+        return names;
+    }
 }
@@ -15,6 +15,7 @@ import com.dotcms.contenttype.model.field.ImmutableBinaryField;
 import com.dotcms.contenttype.model.field.ImmutableTextAreaField;
 import com.dotcms.contenttype.model.field.ImmutableTextField;
 import com.dotcms.contenttype.model.field.RelationshipField;
+import com.dotcms.contenttype.model.field.TagField;
 import com.dotcms.contenttype.model.field.TextField;
 import com.dotcms.contenttype.model.type.ContentType;
 import com.dotcms.contenttype.transform.contenttype.StructureTransformer;
@@ -60,6 +61,7 @@ import com.dotmarketing.portlets.workflows.model.WorkflowAction;
 import com.dotmarketing.portlets.workflows.model.WorkflowState;
 import com.dotmarketing.portlets.workflows.model.WorkflowStep;
 import com.dotmarketing.portlets.workflows.model.WorkflowTask;
+import com.dotmarketing.util.Config;
 import com.dotmarketing.util.ImportUtil;
 import com.dotmarketing.util.Logger;
 import com.dotmarketing.util.UUIDGenerator;
@@ -739,6 +741,114 @@ public class ImportUtilTest extends BaseWorkflowIntegrationTest {
         }
     }
 
+    /**
+     * Lines with the same key in different chunks update the contentlet saved by the first one, the later chunks are
+     * read before the saved contentlet is indexed
+     */
+    @Test
+    public void importFile_updates_when_linesOfDifferentChunksHaveTheSameKey() throws Exception {
+
+        final int batchSize = Config.getIntProperty("IMPORT_BATCH_SIZE", 100);
+        final int checkinThreads = Config.getIntProperty("IMPORT_CHECKIN_THREADS", 4);
+        Config.setProperty("IMPORT_BATCH_SIZE", 2);
+        Config.setProperty("IMPORT_CHECKIN_THREADS", 4);
+
+        final long time = System.currentTimeMillis();
+        final ContentType contentType = createTestContentType("ImportChunksType_" + time,
+                "importChunksType_" + time);
+        try {
+            final com.dotcms.contenttype.model.field.Field titleField =
+                    fieldAPI.byContentTypeAndVar(contentType, TITLE_FIELD_NAME);
+
+            //The third and fifth lines update the first and second ones from the next chunks
+            final Reader reader = createTempFile(TITLE_FIELD_NAME + "," + BODY_FIELD_NAME + "\r\n" +
+                    "KeyA-" + time + ",body 1\r\n" +
+                    "KeyB-" + time + ",body 2\r\n" +
+                    "KeyC-" + time + ",body 3\r\n" +
+                    "KeyA-" + time + ",body 4\r\n" +
+                    "KeyB-" + time + ",body 5\r\n");
+            final CsvReader csvreader = new CsvReader(reader);
+            csvreader.setSafetySwitch(false);
+
+            final HashMap<String, List<String>> results = ImportUtil
+                    .importFile(0L, defaultSite.getInode(), contentType.inode(),
+                            new String[]{titleField.id()}, false, false,
+                            user, defaultLanguage.getId(), csvreader.getHeaders(), csvreader,
+                            -1, -1, reader, null, getHttpRequest());
+            assertEquals(0, results.get("errors").size());
+
+            final List<Contentlet> savedData = contentletAPI
+                    .findByStructure(contentType.inode(), user, false, 0, 0);
+            assertEquals(3, savedData.size());
+
+            final Map<String, String> bodies = new HashMap<>();
+            for (final Contentlet contentlet : savedData) {
+                bodies.put(contentlet.getStringProperty(TITLE_FIELD_NAME),
+                        contentlet.getStringProperty(BODY_FIELD_NAME));
+            }
+            assertEquals("body 4", bodies.get("KeyA-" + time));
+            assertEquals("body 5", bodies.get("KeyB-" + time));
+            assertEquals("body 3", bodies.get("KeyC-" + time));
+        } finally {
+            Config.setProperty("IMPORT_BATCH_SIZE", batchSize);
+            Config.setProperty("IMPORT_CHECKIN_THREADS", checkinThreads);
+            try {
+                contentTypeApi.delete(contentType);
+            }catch (Exception e) {e.printStackTrace();}
+        }
+    }
+
+    /**
+     * The lines saved concurrently share new tags, every tag is created once and related to all the contentlets
+     */
+    @Test
+    public void importFile_success_when_linesSavedConcurrentlyCreateTheSameTags() throws Exception {
+
+        final int checkinThreads = Config.getIntProperty("IMPORT_CHECKIN_THREADS", 4);
+        Config.setProperty("IMPORT_CHECKIN_THREADS", 4);
+
+        final long time = System.currentTimeMillis();
+        final String firstTag = "importtag1-" + time;
+        final String secondTag = "importtag2-" + time;
+        final ContentType type = new ContentTypeDataGen().host(APILocator.systemHost()).nextPersisted();
+        try {
+            final com.dotcms.contenttype.model.field.Field titleField = fieldAPI.save(
+                    FieldBuilder.builder(TextField.class).name("testTitle").variable("testTitle")
+                            .contentTypeId(type.id()).dataType(DataTypes.TEXT).indexed(true).build(), user);
+            fieldAPI.save(FieldBuilder.builder(TagField.class).name("testTags").variable("testTags")
+                    .contentTypeId(type.id()).dataType(DataTypes.TEXT).indexed(true).build(), user);
+
+            final StringBuilder csv = new StringBuilder("testTitle,testTags\r\n");
+            for (int i = 0; i < 12; i++) {
+                csv.append("Tagged-").append(i).append('-').append(time)
+                        .append(",\"").append(firstTag).append(',').append(secondTag).append("\"\r\n");
+            }
+            final Reader reader = createTempFile(csv.toString());
+            final CsvReader csvreader = new CsvReader(reader);
+            csvreader.setSafetySwitch(false);
+
+            final HashMap<String, List<String>> results = ImportUtil
+                    .importFile(0L, defaultSite.getInode(), type.inode(), new String[]{}, false, false,
+                            user, defaultLanguage.getId(), csvreader.getHeaders(), csvreader,
+                            -1, -1, reader, null, getHttpRequest());
+            assertEquals(0, results.get("errors").size());
+
+            final List<Contentlet> savedData = contentletAPI.findByStructure(type.inode(), user, false, 0, 0);
+            assertEquals(12, savedData.size());
+            for (final Contentlet contentlet : savedData) {
+                assertEquals(2, APILocator.getTagAPI()
+                        .getTagsByInodeAndFieldVarName(contentlet.getInode(), "testTags").size());
+            }
+            assertEquals(1, APILocator.getTagAPI().getTagsByName(firstTag).size());
+            assertEquals(1, APILocator.getTagAPI().getTagsByName(secondTag).size());
+        } finally {
+            Config.setProperty("IMPORT_CHECKIN_THREADS", checkinThreads);
+            try {
+                contentTypeApi.delete(type);
+            }catch (Exception e) {e.printStackTrace();}
+        }
+    }
+
     /**
      * Import file saving the content with old checking method if :
      *
@@ -3,6 +3,7 @@ package com.dotcms.visitor.filter.logger;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.dotcms.concurrent.AsyncBatchWriter;
 import com.dotcms.util.HttpRequestDataUtil;
 import com.dotcms.util.IntegrationTestInitService;
 import com.dotcms.visitor.domain.Visitor;
@@ -12,12 +13,15 @@ import com.dotmarketing.filters.Constants;
 import com.dotmarketing.util.Config;
 import com.dotmarketing.util.UtilMethods;
 import com.dotmarketing.util.WebKeys;
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.CopyOnWriteArrayList;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
@@ -77,6 +81,42 @@ public class VisitorLoggerTest {
 
     }
 
+    /**
+     * The visits offered to the writer are serialized and logged on its thread
+     */
+    @Test
+    public void testVisitIsLoggedByTheWriter() throws Exception {
+
+        final MockedAppender mockedAppender = new MockedAppender();
+        mockedAppender.start();
+
+        try {
+
+            logger = (Logger) LogManager.getLogger(VisitorLogger.class);
+            logger.addAppender(mockedAppender);
+            logger.setLevel(Level.INFO);
+
+            final AsyncBatchWriter<Map<String, Serializable>> writer = VisitorLogger.getWriter();
+            final long written = writer.getWritten();
+            final Map<String, Serializable> visit = new LinkedHashMap<>();
+            visit.put("custom_key_test", "visit logged by the writer");
+            Assert.assertTrue(writer.offer(visit));
+
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (writer.getWritten() <= written && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+
+            Assert.assertTrue(mockedAppender.message.stream()
+                    .anyMatch(message -> message.contains("\"custom_key_test\":\"visit logged by the writer\"")));
+        } finally {
+            if (logger != null) {
+                logger.removeAppender(mockedAppender);
+            }
+            mockedAppender.stop();
+        }
+    }
+
     @Test
     public void testAddConstructor() throws NoSuchMethodException {
         List<Constructor<AbstractCharacter>> result = VisitorLogger.addConstructor(CustomCharacterTest.class);
@@ -134,7 +174,7 @@ public class VisitorLoggerTest {
 
     private static class MockedAppender extends AbstractAppender {
 
-        List<String> message = new ArrayList<>();
+        List<String> message = new CopyOnWriteArrayList<>();
 
         protected MockedAppender() {
             super("MockedAppender", null, null);
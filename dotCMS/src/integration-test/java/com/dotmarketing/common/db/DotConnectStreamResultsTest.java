@@ -0,0 +1,105 @@
+package com.dotmarketing.common.db;
+
+import com.dotcms.util.IntegrationTestInitService;
+import com.dotmarketing.db.DbConnectionFactory;
+import com.dotmarketing.db.LocalTransaction;
+import com.dotmarketing.exception.DotDataException;
+import com.dotmarketing.exception.DotRuntimeException;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * {@link DotConnect#streamResults(RowMapper, java.util.function.Consumer)} tests, mainly that what the consumer writes
+ * while the rows are streamed is committed.
+ */
+public class DotConnectStreamResultsTest {
+
+    private static final int ROWS = 20;
+
+    @BeforeClass
+    public static void prepare() throws Exception {
+
+        IntegrationTestInitService.getInstance().init();
+
+        LocalTransaction.wrap(() -> {
+
+            new DotConnect().setSQL("create table stream_results_source (id integer)").loadResult();
+            new DotConnect().setSQL("create table stream_results_copy (id integer)").loadResult();
+            for (int i = 0; i < ROWS; i++) {
+                new DotConnect().setSQL("insert into stream_results_source (id) values (?)").addParam(i).loadResult();
+            }
+        });
+    }
+
+    @AfterClass
+    public static void cleanup() throws Exception {
+
+        new DotConnect().setSQL("drop table stream_results_source").loadResult();
+        new DotConnect().setSQL("drop table stream_results_copy").loadResult();
+    }
+
+    @Before
+    public void emptyCopy() throws DotDataException {
+        new DotConnect().setSQL("delete from stream_results_copy").loadResult();
+    }
+
+    @Test
+    public void streams_rows_from_start_row_up_to_max_rows() throws DotDataException {
+
+        final List<Integer> ids = new ArrayList<>();
+        final long rows = new DotConnect()
+                .setSQL("select id from stream_results_source order by id")
+                .setStartRow(5)
+                .setMaxRows(10)
+                .streamResults((resultSet, rowNumber) -> resultSet.getInt("id"), ids::add);
+
+        assertEquals(10, rows);
+        assertEquals(10, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i + 5, ids.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void auto_commit_writes_of_the_consumer_are_committed() throws DotDataException {
+
+        new DotConnect()
+                .setSQL("select id from stream_results_source")
+                .streamResults((resultSet, rowNumber) -> resultSet.getInt("id"), id -> {
+
+                    assertFalse(DbConnectionFactory.inTransaction());
+                    try {
+                        new DotConnect().setSQL("insert into stream_results_copy (id) values (?)").addParam(id).loadResult();
+                    } catch (DotDataException e) {
+                        throw new DotRuntimeException(e.getMessage(), e);
+                    }
+                });
+
+        assertEquals(ROWS, countCopies());
+    }
+
+    @Test
+    public void transactional_writes_of_the_consumer_are_committed() throws DotDataException {
+
+        new DotConnect()
+                .setSQL("select id from stream_results_source")
+                .streamResults((resultSet, rowNumber) -> resultSet.getInt("id"), id ->
+                    LocalTransaction.wrapNoException(() ->
+                        new DotConnect().setSQL("insert into stream_results_copy (id) values (?)").addParam(id).loadResult()));
+
+        assertEquals(ROWS, countCopies());
+    }
+
+    private static int countCopies() throws DotDataException {
+
+        return new DotConnect().setSQL("select count(*) as copies from stream_results_copy").getInt("copies");
+    }
+}
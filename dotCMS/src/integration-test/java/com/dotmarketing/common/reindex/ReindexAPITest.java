@@ -1,6 +1,7 @@
 package com.dotmarketing.common.reindex;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -25,6 +26,7 @@ import com.dotcms.contenttype.model.field.ImmutableTextField;
 import com.dotcms.contenttype.model.type.ContentType;
 import com.dotcms.datagen.ContentTypeDataGen;
 import com.dotcms.datagen.ContentletDataGen;
+import com.dotcms.datagen.FolderDataGen;
 import com.dotcms.util.IntegrationTestInitService;
 import com.dotmarketing.business.APILocator;
 import com.dotmarketing.common.db.DotConnect;
@@ -33,6 +35,7 @@ import com.dotmarketing.db.HibernateUtil;
 import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.exception.DotRuntimeException;
 import com.dotmarketing.portlets.contentlet.model.Contentlet;
+import com.dotmarketing.portlets.folders.model.Folder;
 import com.google.common.collect.ImmutableList;
 
 /**
@@ -298,4 +301,53 @@ public class ReindexAPITest extends IntegrationTestBase {
 
         ReindexThread.unpause();
     }
+
+    /**
+     * A partial update never takes the place of a full reindex of the same content and a failed partial update is
+     * retried as a full reindex
+     *
+     * @throws Exception
+     */
+    @Test
+    public void test_partial_update_records() throws Exception {
+        final ContentType type = new ContentTypeDataGen()
+                .fields(ImmutableList
+                        .of(ImmutableTextField.builder().name("Title").variable("title")
+                                .searchable(true).listed(true).build()))
+                .nextPersisted();
+        final Folder folder = new FolderDataGen().nextPersisted();
+        final Contentlet contentlet = new ContentletDataGen(type.id()).folder(folder).setPolicy(IndexPolicy.DEFER)
+                .setProperty("title", "contentTest " + System.currentTimeMillis()).nextPersisted();
+
+        //Pausing reindex to avoid race condition when findContentToReindex is called (no content will be indexed)
+        ReindexThread.pause();
+        LocalTransaction.wrap(()-> new DotConnect().setSQL("delete from dist_reindex_journal").loadResult());
+
+        reindexQueueAPI.refreshContentLocationUnderFolderPath(folder.getHostId(), folder.getPath());
+        ReindexQueueFactory.resetLastIdReindexed();
+        Map<String, ReindexEntry> reindexEntries = reindexQueueAPI.findContentToReindex();
+        ReindexEntry entry = reindexEntries.get(contentlet.getIdentifier());
+        assertNotNull(entry);
+        assertTrue(entry.isPartialUpdate());
+        assertEquals(ReindexQueueFactory.ReindexAction.LOCATION, entry.getPartialUpdate());
+        assertEquals(ReindexQueueFactory.Priority.PARTIAL.dbValue(), entry.getPriority());
+
+        // failed partial updates index the whole content on the next attempt
+        reindexQueueAPI.markAsFailed(entry, "document missing");
+        ReindexQueueFactory.resetLastIdReindexed();
+        entry = reindexQueueAPI.findContentToReindex().get(contentlet.getIdentifier());
+        assertNotNull(entry);
+        assertFalse(entry.isPartialUpdate());
+        assertEquals(1, entry.errorCount());
+
+        LocalTransaction.wrap(()-> new DotConnect().setSQL("delete from dist_reindex_journal").loadResult());
+        reindexQueueAPI.addIdentifierReindex(contentlet.getIdentifier());
+        reindexQueueAPI.refreshContentPermissionsUnderFolder(folder);
+        ReindexQueueFactory.resetLastIdReindexed();
+        entry = reindexQueueAPI.findContentToReindex().get(contentlet.getIdentifier());
+        assertNotNull(entry);
+        assertFalse(entry.isPartialUpdate());
+
+        ReindexThread.unpause();
+    }
 }
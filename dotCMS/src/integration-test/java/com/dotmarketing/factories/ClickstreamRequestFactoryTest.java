@@ -0,0 +1,120 @@
+package com.dotmarketing.factories;
+
+import com.dotcms.util.IntegrationTestInitService;
+import com.dotmarketing.beans.Clickstream;
+import com.dotmarketing.beans.ClickstreamRequest;
+import com.dotmarketing.db.HibernateUtil;
+import com.dotmarketing.db.LocalTransaction;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ClickstreamRequestFactory#saveAll(List)} test, the new requests are inserted with a JDBC batch.
+ */
+public class ClickstreamRequestFactoryTest {
+
+    @BeforeClass
+    public static void prepare() throws Exception {
+
+        IntegrationTestInitService.getInstance().init();
+    }
+
+    @Test
+    public void saveAll_inserts_the_new_requests() throws Exception {
+
+        final Clickstream clickstream = this.saveClickstream();
+        final List<ClickstreamRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(this.newRequest(clickstream, i, "/clickstream-test/" + i));
+        }
+        // nulls are set with the column type
+        requests.get(2).setQueryString(null);
+        requests.get(2).setTimestamp(null);
+
+        LocalTransaction.wrap(() -> ClickstreamRequestFactory.saveAll(requests));
+
+        final List<ClickstreamRequest> saved = this.savedRequests(clickstream);
+        assertEquals(3, saved.size());
+        for (int i = 0; i < 3; i++) {
+
+            final ClickstreamRequest request = saved.get(i);
+            assertTrue(request.getClickstreamRequestId() > 0);
+            assertEquals(clickstream.getClickstreamId(), request.getClickstreamId());
+            assertEquals("/clickstream-test/" + i, request.getRequestURI());
+            assertEquals(i, request.getRequestOrder());
+            assertEquals("localhost", request.getServerName());
+            assertEquals(8080, request.getServerPort());
+        }
+        assertNull(saved.get(2).getQueryString());
+    }
+
+    @Test
+    public void saveAll_updates_the_saved_requests() throws Exception {
+
+        final Clickstream clickstream = this.saveClickstream();
+        final ClickstreamRequest saved = this.newRequest(clickstream, 0, "/clickstream-test/saved");
+        LocalTransaction.wrap(() -> ClickstreamRequestFactory.save(saved));
+        assertTrue(saved.getClickstreamRequestId() > 0);
+
+        saved.setRequestURI("/clickstream-test/updated");
+        final List<ClickstreamRequest> requests = new ArrayList<>();
+        requests.add(saved);
+        requests.add(this.newRequest(clickstream, 1, "/clickstream-test/new"));
+
+        LocalTransaction.wrap(() -> ClickstreamRequestFactory.saveAll(requests));
+
+        final List<ClickstreamRequest> savedRequests = this.savedRequests(clickstream);
+        assertEquals(2, savedRequests.size());
+        assertEquals(saved.getClickstreamRequestId(), savedRequests.get(0).getClickstreamRequestId());
+        assertEquals("/clickstream-test/updated", savedRequests.get(0).getRequestURI());
+        assertEquals("/clickstream-test/new", savedRequests.get(1).getRequestURI());
+    }
+
+    private Clickstream saveClickstream() throws Exception {
+
+        final Clickstream clickstream = new Clickstream();
+        clickstream.setCookieId(UUID.randomUUID().toString());
+        clickstream.setStart(new Date());
+        clickstream.setLastRequest(new Date());
+        clickstream.setRemoteAddress("127.0.0.1");
+
+        LocalTransaction.wrap(() -> {
+            ClickstreamFactory.save(clickstream);
+            HibernateUtil.flush();
+        });
+
+        return clickstream;
+    }
+
+    private ClickstreamRequest newRequest(final Clickstream clickstream, final int order, final String uri) {
+
+        final ClickstreamRequest request = new ClickstreamRequest();
+        request.setClickstreamId(clickstream.getClickstreamId());
+        request.setProtocol("HTTP/1.1");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        request.setRequestURI(uri);
+        request.setQueryString("order=" + order);
+        request.setRequestOrder(order);
+        request.setLanguageId(1);
+        request.setTimestamp(new Date());
+        return request;
+    }
+
+    private List<ClickstreamRequest> savedRequests(final Clickstream clickstream) {
+
+        final List<ClickstreamRequest> requests =
+                ClickstreamRequestFactory.getClickstreamRequestsByClickStream(clickstream);
+        requests.sort((request1, request2) -> Integer.compare(request1.getRequestOrder(), request2.getRequestOrder()));
+        return requests;
+    }
+}
@@ -0,0 +1,239 @@
+package org.apache.velocity.runtime.parser.node;
+
+import com.dotcms.rendering.velocity.util.VelocityUtil;
+import com.dotcms.util.IntegrationTestInitService;
+import com.google.common.collect.ImmutableMap;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.context.InternalContextAdapterImpl;
+import org.apache.velocity.runtime.RuntimeServices;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test of the inline caches of {@link ASTMethod} and {@link ASTIdentifier}: a template is parsed once and rendered
+ * many times, as the cached templates are, so every render after the first one runs with the {@link InlineCacheEntry}
+ * left by the previous one
+ */
+public class InlineCacheEntryTest {
+
+    @BeforeClass
+    public static void prepare() throws Exception {
+
+        IntegrationTestInitService.getInstance().init();
+    }
+
+    @Test
+    public void the_overload_follows_the_classes_of_the_arguments() throws Exception {
+
+        final SimpleNode node = parse("$target.call($arg)");
+        final Overloads target = new Overloads();
+
+        assertEquals("call(int)1", render(node, ImmutableMap.of("target", target, "arg", 1)));
+        assertEquals("call(int)1", render(node, ImmutableMap.of("target", target, "arg", 1)));
+        assertEquals("call(String)text", render(node, ImmutableMap.of("target", target, "arg", "text")));
+        assertEquals("call(long)2", render(node, ImmutableMap.of("target", target, "arg", 2L)));
+        assertEquals("call(Object)[a]", render(node, ImmutableMap.of("target", target, "arg", new Token("a"))));
+        assertEquals("call(int)3", render(node, ImmutableMap.of("target", target, "arg", 3)));
+    }
+
+    @Test
+    public void a_new_receiver_class_invalidates_the_inline_cache() throws Exception {
+
+        final SimpleNode node = parse("$shape.name()|$shape.label");
+
+        assertEquals("shape|shape label", render(node, ImmutableMap.of("shape", new Shape())));
+        assertEquals("circle|circle label", render(node, ImmutableMap.of("shape", new Circle())));
+        assertEquals("square|shape label", render(node, ImmutableMap.of("shape", new Square())));
+        assertEquals("circle|circle label", render(node, ImmutableMap.of("shape", new Circle())));
+
+        // a class out of the hierarchy, with a getter looked up in a map
+        assertEquals("token|map label", render(node,
+                ImmutableMap.of("shape", new MapShape(ImmutableMap.of("label", "map label")))));
+        assertEquals("shape|shape label", render(node, ImmutableMap.of("shape", new Shape())));
+
+        // a receiver that goes missing renders the reference as it is
+        assertEquals("$shape.name()|$shape.label", render(node, ImmutableMap.of()));
+        assertEquals("shape|shape label", render(node, ImmutableMap.of("shape", new Shape())));
+    }
+
+    @Test
+    public void the_varargs_are_passed_on_every_render() throws Exception {
+
+        final SimpleNode node = parse("$target.join(',')|$target.join(',', 'a')|$target.join(',', 'a', $arg)"
+                + "|$target.join(',', $values)");
+        final Overloads target = new Overloads();
+
+        final Map<String, Object> values = ImmutableMap.of("target", target, "arg", 1,
+                "values", new String[] {"x", "y"});
+        assertEquals("|a,|a,1,|x,y,", render(node, values));
+        assertEquals("|a,|a,1,|x,y,", render(node, values));
+
+        // the same nodes with other argument classes
+        assertEquals("|a,|a,b,|z,", render(node, ImmutableMap.of("target", target, "arg", "b", "values", "z")));
+        assertEquals("|a,|a,1,|x,y,", render(node, values));
+    }
+
+    @Test
+    public void a_template_can_be_rendered_by_many_threads_on_first_use() throws Exception {
+
+        final SimpleNode node = parse("$shape.name()|$shape.label|$target.call($arg)");
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final int thread = i;
+                results.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() throws Exception {
+
+                        start.await();
+                        for (int j = 0; j < 200; j++) {
+
+                            // every thread keeps switching receiver and argument classes
+                            final boolean circle = (thread + j) % 2 == 0;
+                            final Object arg     = (j % 3 == 0) ? (Object) j : String.valueOf(j);
+                            final String rendered = render(node, ImmutableMap.of(
+                                    "shape", circle ? new Circle() : new Square(),
+                                    "target", new Overloads(), "arg", arg));
+                            final String expected = (circle ? "circle|circle label|" : "square|shape label|")
+                                    + (arg instanceof Integer ? "call(int)" : "call(String)") + j;
+                            if (!expected.equals(rendered)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (final Future<Boolean> result : results) {
+                assertEquals(true, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static SimpleNode parse(final String template) throws Exception {
+
+        final RuntimeServices runtimeServices = VelocityUtil.getEngine().getRuntimeServices();
+        final SimpleNode node = runtimeServices.parse(template, "inlineCacheTest.vtl");
+        node.init(new InternalContextAdapterImpl(new VelocityContext()), runtimeServices);
+        return node;
+    }
+
+    /**
+     * Renders the node with a new context, as every request does
+     */
+    private static String render(final SimpleNode node, final Map<String, Object> values) throws Exception {
+
+        final VelocityContext context = new VelocityContext();
+        values.forEach(context::put);
+
+        final StringWriter writer = new StringWriter();
+        node.render(new InternalContextAdapterImpl(context), writer);
+        return writer.toString();
+    }
+
+    public static class Overloads {
+
+        public String call(final int value) {
+            return "call(int)" + value;
+        }
+
+        public String call(final long value) {
+            return "call(long)" + value;
+        }
+
+        public String call(final String value) {
+            return "call(String)" + value;
+        }
+
+        public String call(final Object value) {
+            return "call(Object)" + value;
+        }
+
+        public String join(final String separator, final Object... values) {
+
+            final StringBuilder joined = new StringBuilder();
+            for (final Object value : values) {
+                joined.append(value).append(separator);
+            }
+            return joined.toString();
+        }
+    }
+
+    public static class Token {
+
+        private final String value;
+
+        Token(final String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + value + "]";
+        }
+    }
+
+    public static class Shape {
+
+        public String name() {
+            return "shape";
+        }
+
+        public String getLabel() {
+            return "shape label";
+        }
+    }
+
+    public static class Circle extends Shape {
+
+        @Override
+        public String name() {
+            return "circle";
+        }
+
+        @Override
+        public String getLabel() {
+            return "circle label";
+        }
+    }
+
+    public static class Square extends Shape {
+
+        @Override
+        public String name() {
+            return "square";
+        }
+    }
+
+    public static class MapShape extends java.util.HashMap<String, Object> {
+
+        public MapShape(final Map<String, Object> values) {
+            super(values);
+        }
+
+        public String name() {
+            return "token";
+        }
+    }
+}
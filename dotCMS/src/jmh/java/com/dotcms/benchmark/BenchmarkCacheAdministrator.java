@@ -0,0 +1,117 @@
+package com.dotcms.benchmark;
+
+import com.dotmarketing.business.DotCacheAdministrator;
+import com.dotmarketing.business.cache.provider.CacheProviderStats;
+import com.dotmarketing.business.cache.provider.caffine.CaffineCache;
+import com.dotmarketing.business.cache.transport.CacheTransport;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cache administrator of the benchmarks: a single, local, {@link CaffineCache} provider, with no license check, no
+ * provider chain and no cluster invalidations. Keys and groups are lower cased as on
+ * {@link com.dotmarketing.business.ChainableCacheAdministratorImpl}.
+ */
+public class BenchmarkCacheAdministrator implements DotCacheAdministrator {
+
+    private final CaffineCache provider = new CaffineCache();
+    private CacheTransport transport;
+
+    @Override
+    public void initProviders() {
+        this.provider.init();
+    }
+
+    @Override
+    public Set<String> getGroups() {
+        return this.provider.getGroups();
+    }
+
+    @Override
+    public void flushAll() {
+        this.provider.removeAll();
+    }
+
+    @Override
+    public void flushGroup(final String group) {
+
+        if (null != group) {
+            this.provider.remove(group.toLowerCase());
+        }
+    }
+
+    @Override
+    public void flushAlLocalOnly(final boolean ignoreDistributed) {
+        this.flushAll();
+    }
+
+    @Override
+    public void flushGroupLocalOnly(final String group, final boolean ignoreDistributed) {
+        this.flushGroup(group);
+    }
+
+    @Override
+    public Object get(final String key, final String group) {
+
+        return null == key || null == group? null:
+                this.provider.get(group.toLowerCase(), key.toLowerCase());
+    }
+
+    @Override
+    public void put(final String key, final Object content, final String group) {
+
+        if (null != key && null != group) {
+            this.provider.put(group.toLowerCase(), key.toLowerCase(), content);
+        }
+    }
+
+    @Override
+    public void remove(final String key, final String group) {
+
+        if (null != key && null != group) {
+            this.provider.remove(group.toLowerCase(), key.toLowerCase());
+        }
+    }
+
+    @Override
+    public void removeLocalOnly(final String key, final String group, final boolean ignoreDistributed) {
+        this.remove(key, group);
+    }
+
+    @Override
+    public void shutdown() {
+        this.provider.shutdown();
+    }
+
+    @Override
+    public List<CacheProviderStats> getCacheStatsList() {
+        return Collections.singletonList(this.provider.getStats());
+    }
+
+    @Override
+    public Class getImplementationClass() {
+        return BenchmarkCacheAdministrator.class;
+    }
+
+    @Override
+    public DotCacheAdministrator getImplementationObject() {
+        return this;
+    }
+
+    @Override
+    public void invalidateCacheMesageFromCluster(final String message) {
+        // there is no cluster
+    }
+
+    @Override
+    public CacheTransport getTransport() {
+        return this.transport;
+    }
+
+    @Override
+    public void setTransport(final CacheTransport transport) {
+        this.transport = transport;
+    }
+}
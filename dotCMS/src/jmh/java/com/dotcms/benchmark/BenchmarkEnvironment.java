@@ -0,0 +1,45 @@
+package com.dotcms.benchmark;
+
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.business.BenchmarkAPILocator;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.business.jgroups.NullTransport;
+import com.dotmarketing.util.Config;
+
+import javax.naming.Context;
+
+/**
+ * Boots the part of dotCMS the benchmarks need, in the benchmark JVM: the configuration, the {@link CacheLocator} on a
+ * local {@link BenchmarkCacheAdministrator}, the {@link APILocator} with the {@link BenchmarkAPILocator} stubs and the
+ * data source on an embedded H2 database ({@link BenchmarkInitialContextFactory}). No Elasticsearch, no database
+ * server and no cluster are needed.
+ * <p>
+ * Every benchmark calls {@link #init()} from its {@code @Setup} method, the environment is booted once per JVM.
+ */
+public final class BenchmarkEnvironment {
+
+    private static boolean initialized = false;
+
+    private BenchmarkEnvironment() {
+    }
+
+    public static synchronized void init() {
+
+        if (initialized) {
+            return;
+        }
+
+        System.setProperty(Context.INITIAL_CONTEXT_FACTORY, BenchmarkInitialContextFactory.class.getName());
+
+        Config.initializeConfig();
+        Config.setProperty("API_LOCATOR_IMPLEMENTATION", BenchmarkAPILocator.class.getName());
+        Config.setProperty("cache.locator.class", BenchmarkCacheAdministrator.class.getName());
+        Config.setProperty("CACHE_INVALIDATION_TRANSPORT_CLASS", NullTransport.class.getName());
+        Config.setProperty("SYSTEM_EXIT_ON_STARTUP_FAILURE", false);
+
+        CacheLocator.init();
+        APILocator.init();
+
+        initialized = true;
+    }
+}
@@ -0,0 +1,47 @@
+package com.dotcms.benchmark;
+
+import com.dotmarketing.util.Constants;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingException;
+import javax.naming.spi.InitialContextFactory;
+import javax.sql.DataSource;
+import java.util.Hashtable;
+
+/**
+ * JNDI context of the benchmarks: binds the dotCMS data source ({@link Constants#DATABASE_DEFAULT_DATASOURCE}) to an
+ * embedded, in memory, H2 database, so the code that opens a connection on the benchmarked paths works with no
+ * database server.
+ */
+public class BenchmarkInitialContextFactory implements InitialContextFactory {
+
+    private static final String H2_URL = "jdbc:h2:mem:dotcms_benchmark;DB_CLOSE_DELAY=-1;MVCC=TRUE";
+
+    private static final DataSource dataSource = JdbcConnectionPool.create(H2_URL, "sa", "sa");
+
+    @Override
+    public Context getInitialContext(final Hashtable<?, ?> environment) throws NamingException {
+        return new BenchmarkContext();
+    }
+
+    private static class BenchmarkContext extends InitialContext {
+
+        private BenchmarkContext() throws NamingException {
+            // lazy, so it does not look for a default context (which would be this factory again)
+            super(true);
+        }
+
+        @Override
+        public Object lookup(final String name) throws NamingException {
+
+            if (null != name && name.endsWith(Constants.DATABASE_DEFAULT_DATASOURCE)) {
+                return dataSource;
+            }
+
+            throw new NameNotFoundException("Unable to find: " + name);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.dotcms.content.elasticsearch.business;
+
+import com.dotcms.benchmark.BenchmarkEnvironment;
+import com.dotcms.content.elasticsearch.business.ESContentFactoryImpl.TranslatedQuery;
+import com.dotmarketing.business.CacheLocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ESContentFactoryImpl#translateQuery(String, String)} of the lucene queries the front end sends, both when the
+ * translation is already cached and when it has to be worked out.
+ * <p>
+ * The queries use content type and field variables, not the legacy {@code structureInode} or numbered field names,
+ * whose translation loads the content type fields from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranslateQueryBenchmark {
+
+    @Param({
+        "+contentType:News +languageId:1 +deleted:false +working:true",
+        "+contentType:Blog +Blog.title:*Performance* +(conhost:SYSTEM_HOST conhost:48190c8c-42c4-46af-8d1a-0cd5db894797) +live:true"
+    })
+    public String query;
+
+    @Param({"modDate desc"})
+    public String sortBy;
+
+    private long uncachedCounter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        BenchmarkEnvironment.init();
+        CacheLocator.getContentletCache().clearCache();
+        ESContentFactoryImpl.translateQuery(this.query, this.sortBy);
+    }
+
+    @Benchmark
+    public TranslatedQuery cached() {
+        return ESContentFactoryImpl.translateQuery(this.query, this.sortBy);
+    }
+
+    /**
+     * Every invocation translates a query that has not been seen before, so the translation is worked out and added
+     * to the cache
+     */
+    @Benchmark
+    public TranslatedQuery uncached() {
+        return ESContentFactoryImpl.translateQuery(this.query + " -inode:" + this.uncachedCounter++, this.sortBy);
+    }
+}
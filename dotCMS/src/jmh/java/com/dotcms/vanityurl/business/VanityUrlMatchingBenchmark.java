@@ -0,0 +1,115 @@
+package com.dotcms.vanityurl.business;
+
+import com.dotcms.benchmark.BenchmarkEnvironment;
+import com.dotcms.services.VanityUrlServices;
+import com.dotcms.vanityurl.model.CachedVanityUrl;
+import com.dotcms.vanityurl.model.DefaultVanityUrl;
+import com.dotmarketing.beans.Host;
+import com.dotmarketing.business.BenchmarkAPILocator;
+import com.dotmarketing.business.UserAPI;
+import com.dotmarketing.portlets.languagesmanager.business.LanguageAPI;
+import com.dotmarketing.portlets.languagesmanager.model.Language;
+import com.liferay.portal.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link VanityUrlAPIImpl#getLiveCachedVanityUrl(String, Host, long, User)} against the vanity URLs of a site, loaded
+ * straight into the vanity URL cache:
+ * <ul>
+ *     <li>a URI that was already resolved, found on the per URI cache</li>
+ *     <li>new URIs matched by the last vanity URL pattern, so every pattern of the site is tried</li>
+ *     <li>new URIs no vanity URL matches, which end up cached as 404</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VanityUrlMatchingBenchmark {
+
+    private static final long LANGUAGE_ID = 1;
+
+    @Param({"10", "1000"})
+    public int vanityUrls;
+
+    private VanityUrlAPIImpl vanityUrlAPI;
+    private User user;
+    private String resolvedUri;
+    private String lastSection;
+    private long uriCounter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        BenchmarkEnvironment.init();
+
+        this.user = new User(UserAPI.SYSTEM_USER_ID);
+
+        final LanguageAPI languageAPI = BenchmarkAPILocator.languageAPI;
+        when(languageAPI.getDefaultLanguage()).thenReturn(new Language(LANGUAGE_ID));
+        final UserAPI userAPI = BenchmarkAPILocator.userAPI;
+        when(userAPI.getSystemUser()).thenReturn(this.user);
+
+        final VanityUrlServices vanityUrlServices = VanityUrlServices.getInstance();
+        final List<CachedVanityUrl> cachedVanityUrls = new ArrayList<>(this.vanityUrls);
+        for (int i = 0; i < this.vanityUrls; i++) {
+
+            final DefaultVanityUrl vanityUrl = new DefaultVanityUrl();
+            vanityUrl.setIdentifier(UUID.randomUUID().toString());
+            vanityUrl.setInode(UUID.randomUUID().toString());
+            vanityUrl.setLanguageId(LANGUAGE_ID);
+            vanityUrl.setSite(Host.SYSTEM_HOST);
+            vanityUrl.setURI("/section-" + i + "/(.*)");
+            vanityUrl.setForwardTo("/forward-" + i + "/$1");
+            vanityUrl.setAction(200);
+            vanityUrl.setOrder(i);
+            cachedVanityUrls.add(new CachedVanityUrl(vanityUrl));
+        }
+
+        vanityUrlServices.setCachedVanityUrlList(Host.SYSTEM_HOST, LANGUAGE_ID, cachedVanityUrls);
+
+        this.vanityUrlAPI = new VanityUrlAPIImpl(BenchmarkAPILocator.contentletAPI, vanityUrlServices,
+                languageAPI, userAPI);
+
+        this.lastSection = "/section-" + (this.vanityUrls - 1) + "/page-";
+        this.resolvedUri = this.lastSection + "resolved";
+        this.vanityUrlAPI.getLiveCachedVanityUrl(this.resolvedUri, null, LANGUAGE_ID, this.user);
+    }
+
+    @Benchmark
+    public CachedVanityUrl resolvedUri() {
+        return this.vanityUrlAPI.getLiveCachedVanityUrl(this.resolvedUri, null, LANGUAGE_ID, this.user);
+    }
+
+    @Benchmark
+    public CachedVanityUrl matchingUri() {
+        return this.vanityUrlAPI.getLiveCachedVanityUrl(this.lastSection + this.uriCounter++, null,
+                LANGUAGE_ID, this.user);
+    }
+
+    @Benchmark
+    public CachedVanityUrl notFoundUri() {
+        return this.vanityUrlAPI.getLiveCachedVanityUrl("/not-a-vanity-url/" + this.uriCounter++, null,
+                LANGUAGE_ID, this.user);
+    }
+}
@@ -0,0 +1,53 @@
+package com.dotmarketing.business;
+
+import com.dotcms.contenttype.business.ContentTypeAPI;
+import com.dotmarketing.portlets.contentlet.business.ContentletAPI;
+import com.dotmarketing.portlets.languagesmanager.business.LanguageAPI;
+import com.liferay.portal.model.User;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * {@link APILocator} of the benchmarks: the APIs that would need Elasticsearch or a populated database are replaced
+ * by stubs, the benchmarks set up the answers they need on their {@code @Setup} methods. The rest of the APIs are the
+ * real ones.
+ * <p>
+ * The stubs do not record their invocations, so they do not grow with the number of benchmark iterations. Set the
+ * answers before the measured threads start, Mockito does not support stubbing while the stubs are being called.
+ * <p>
+ * Lives on this package since {@link APIIndex} is package private.
+ */
+public class BenchmarkAPILocator extends APILocator {
+
+    public static final RoleAPI        roleAPI        = stub(RoleAPI.class);
+    public static final UserAPI        userAPI        = stub(UserAPI.class);
+    public static final ContentletAPI  contentletAPI  = stub(ContentletAPI.class);
+    public static final IdentifierAPI  identifierAPI  = stub(IdentifierAPI.class);
+    public static final LanguageAPI    languageAPI    = stub(LanguageAPI.class);
+    public static final ContentTypeAPI contentTypeAPI = stub(ContentTypeAPI.class);
+
+    public static <T> T stub(final Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    @Override
+    protected Object createService(final APIIndex index) {
+
+        switch (index) {
+
+            case ROLE_API: return roleAPI;
+            case USER_API: return userAPI;
+            case CONTENTLET_API:
+            case CONTENTLET_API_INTERCEPTER: return contentletAPI;
+            case IDENTIFIER_API: return identifierAPI;
+            case LANGUAGE_API: return languageAPI;
+            default: return super.createService(index);
+        }
+    }
+
+    @Override
+    protected ContentTypeAPI getContentTypeAPIImpl(final User user, final boolean respectFrontendRoles) {
+        return contentTypeAPI;
+    }
+}
@@ -0,0 +1,97 @@
+package com.dotmarketing.business;
+
+import com.dotcms.benchmark.BenchmarkEnvironment;
+import com.dotmarketing.business.BlockPageCache.PageCacheParameters;
+import com.dotmarketing.portlets.htmlpageasset.model.HTMLPageAsset;
+import com.dotmarketing.portlets.htmlpageasset.model.IHTMLPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BlockPageCacheImpl} lookups and adds of rendered pages from several threads, the way the page cache is hit
+ * by concurrent requests to the same pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class BlockPageCacheBenchmark {
+
+    private static final String PAGE_CONTENT = "<html><body>cached page</body></html>";
+
+    @Param({"100"})
+    public int pages;
+
+    @Param({"4"})
+    public int versionsPerPage;
+
+    private BlockPageCacheImpl cache;
+    private IHTMLPage[] htmlPages;
+    private PageCacheParameters[] parameters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        BenchmarkEnvironment.init();
+
+        this.cache = new BlockPageCacheImpl();
+        this.cache.clearCache();
+
+        this.htmlPages = new IHTMLPage[this.pages];
+        for (int i = 0; i < this.pages; i++) {
+
+            final HTMLPageAsset page = new HTMLPageAsset();
+            page.setInode(UUID.randomUUID().toString());
+            page.setModDate(new Date());
+            page.setCacheTTL(TimeUnit.DAYS.toSeconds(1));
+            this.htmlPages[i] = page;
+        }
+
+        // the versions of a page a user, language and persona may get
+        this.parameters = new PageCacheParameters[this.versionsPerPage];
+        for (int i = 0; i < this.versionsPerPage; i++) {
+            this.parameters[i] = new PageCacheParameters("user-" + i, "1", null, "page=" + i, null);
+        }
+
+        for (final IHTMLPage page : this.htmlPages) {
+            for (final PageCacheParameters pageParameters : this.parameters) {
+                this.cache.add(page, PAGE_CONTENT, pageParameters);
+            }
+        }
+    }
+
+    @Benchmark
+    public String get() {
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        return this.cache.get(this.htmlPages[random.nextInt(this.pages)],
+                this.parameters[random.nextInt(this.versionsPerPage)]);
+    }
+
+    @Benchmark
+    public void add() {
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.cache.add(this.htmlPages[random.nextInt(this.pages)], PAGE_CONTENT,
+                this.parameters[random.nextInt(this.versionsPerPage)]);
+    }
+}
@@ -0,0 +1,128 @@
+package com.dotmarketing.business;
+
+import com.dotcms.benchmark.BenchmarkEnvironment;
+import com.dotmarketing.beans.Permission;
+import com.dotmarketing.portlets.folders.model.Folder;
+import com.liferay.portal.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link PermissionBitAPIImpl#filterCollection(List, int, boolean, User)} of a list of folders for a back end user
+ * that can read half of them. The permissions come from an in memory {@link PermissionFactory} and the roles from the
+ * {@link BenchmarkAPILocator} stubs, so what is measured is the permission resolution of the API, not the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionBitAPIBenchmark {
+
+    @Param({"10", "500"})
+    public int permissionables;
+
+    private PermissionBitAPIImpl permissionAPI;
+    private List<Folder> folders;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        BenchmarkEnvironment.init();
+
+        final Role adminRole     = this.role("admin");
+        final Role anonymousRole = this.role("anonymous");
+        final Role loggedInRole  = this.role("loggedin");
+        final Role ownerRole     = this.role("owner");
+        final Role backEndRole   = this.role("backend");
+        final Role editorRole    = this.role("editor");
+        final Role otherRole     = this.role("other");
+
+        this.user = new User(UUID.randomUUID().toString());
+
+        final RoleAPI roleAPI = BenchmarkAPILocator.roleAPI;
+        when(roleAPI.loadCMSAdminRole()).thenReturn(adminRole);
+        when(roleAPI.loadCMSAnonymousRole()).thenReturn(anonymousRole);
+        when(roleAPI.loadLoggedinSiteRole()).thenReturn(loggedInRole);
+        when(roleAPI.loadCMSOwnerRole()).thenReturn(ownerRole);
+        when(roleAPI.loadBackEndUserRole()).thenReturn(backEndRole);
+        when(roleAPI.loadRoleByKey(anyString())).thenReturn(anonymousRole);
+        when(roleAPI.doesUserHaveRole(any(User.class), any(Role.class))).thenReturn(false);
+        when(roleAPI.doesUserHaveRole(eq(this.user), eq(backEndRole))).thenReturn(true);
+        when(roleAPI.loadRolesForUser(this.user.getUserId()))
+                .thenReturn(Arrays.asList(backEndRole, editorRole, loggedInRole));
+
+        final UserAPI userAPI = BenchmarkAPILocator.userAPI;
+        when(userAPI.getSystemUser()).thenReturn(new User(UserAPI.SYSTEM_USER_ID));
+        when(userAPI.getAnonymousUser()).thenReturn(new User(UserAPI.CMS_ANON_USER_ID));
+
+        // every other folder can be read by the editors
+        final Map<String, List<Permission>> permissions = new HashMap<>();
+        this.folders = new ArrayList<>(this.permissionables);
+        for (int i = 0; i < this.permissionables; i++) {
+
+            final Folder folder = new Folder();
+            folder.setInode(UUID.randomUUID().toString());
+            this.folders.add(folder);
+
+            final Role role = i % 2 == 0? editorRole: otherRole;
+            permissions.put(folder.getPermissionId(), Arrays.asList(
+                    new Permission(folder.getPermissionId(), role.getId(),
+                            PermissionAPI.PERMISSION_READ | PermissionAPI.PERMISSION_EDIT, true),
+                    new Permission(folder.getPermissionId(), adminRole.getId(),
+                            PermissionAPI.PERMISSION_READ | PermissionAPI.PERMISSION_EDIT
+                                    | PermissionAPI.PERMISSION_PUBLISH, true)));
+        }
+
+        final PermissionFactory permissionFactory = BenchmarkAPILocator.stub(PermissionFactory.class);
+        when(permissionFactory.getPermissions(any(Permissionable.class), anyBoolean())).thenAnswer(invocation ->
+                permissions.get(((Permissionable) invocation.getArguments()[0]).getPermissionId()));
+
+        this.permissionAPI = new PermissionBitAPIImpl(permissionFactory, null);
+    }
+
+    @Benchmark
+    public List<Folder> filterCollection() throws Exception {
+        return this.permissionAPI.filterCollection(this.folders, PermissionAPI.PERMISSION_READ, false, this.user);
+    }
+
+    @Benchmark
+    public List<Folder> filterCollectionRespectingFrontendRoles() throws Exception {
+        return this.permissionAPI.filterCollection(this.folders, PermissionAPI.PERMISSION_READ, true, this.user);
+    }
+
+    private Role role(final String key) {
+
+        final Role role = new Role();
+        role.setId(UUID.randomUUID().toString());
+        role.setName(key);
+        role.setRoleKey(key);
+        return role;
+    }
+}
@@ -0,0 +1,90 @@
+package com.dotmarketing.business.cache.provider.caffine;
+
+import com.dotcms.benchmark.BenchmarkEnvironment;
+import com.dotmarketing.util.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CaffineCache} gets and puts on a cache group shared by several threads, as the cache is used when serving
+ * requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CaffineCacheBenchmark {
+
+    private static final String GROUP = "benchmarkgroup";
+
+    @Param({"1000", "100000"})
+    public int keys;
+
+    private CaffineCache cache;
+    private String[] cacheKeys;
+    private String[] missingKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        BenchmarkEnvironment.init();
+        // big enough for all the keys, so the gets measure hits and not evictions
+        Config.setProperty("cache." + GROUP + ".size", this.keys);
+
+        this.cache = new CaffineCache();
+        this.cache.init();
+
+        this.cacheKeys   = new String[this.keys];
+        this.missingKeys = new String[this.keys];
+        for (int i = 0; i < this.keys; i++) {
+
+            this.cacheKeys[i]   = "key-" + i;
+            this.missingKeys[i] = "missing-" + i;
+            this.cache.put(GROUP, this.cacheKeys[i], "value-" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.cache.shutdown();
+    }
+
+    @Benchmark
+    public Object get() {
+        return this.cache.get(GROUP, this.randomKey());
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        return this.cache.get(GROUP, this.missingKeys[ThreadLocalRandom.current().nextInt(this.keys)]);
+    }
+
+    @Benchmark
+    public void put() {
+
+        final String key = this.randomKey();
+        this.cache.put(GROUP, key, key);
+    }
+
+    private String randomKey() {
+        return this.cacheKeys[ThreadLocalRandom.current().nextInt(this.keys)];
+    }
+}
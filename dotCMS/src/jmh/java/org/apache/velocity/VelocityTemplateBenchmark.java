@@ -0,0 +1,158 @@
+package org.apache.velocity;
+
+import com.dotcms.benchmark.BenchmarkEnvironment;
+import org.apache.velocity.context.InternalContextAdapterImpl;
+import org.apache.velocity.exception.VelocityException;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.parser.node.SimpleNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a template with a loop, conditions, properties and method calls, the work the introspection and inline
+ * caches of the Velocity engine speed up:
+ * <ul>
+ *     <li>{@link #render()}: a template parsed once and rendered by several threads, as the cached templates are</li>
+ *     <li>{@link #parseAndRender()}: parsed on every render, as the templates that are not cached</li>
+ * </ul>
+ * The template is rendered as {@link Template#merge} does, from its parsed node tree; the dotCMS resource loaders
+ * are not used, since they load the templates from the content repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class VelocityTemplateBenchmark {
+
+    private static final String TEMPLATE_NAME = "benchmark.vtl";
+
+    private static final String TEMPLATE =
+            "<h1>$title.toUpperCase()</h1>\n" +
+            "<ul>\n" +
+            "#foreach($item in $items)\n" +
+            "  #if($item.price.compareTo($threshold) > 0)\n" +
+            "  <li class=\"expensive\">$item.name: $item.getPrice() ($item.tags.size() tags)</li>\n" +
+            "  #else\n" +
+            "  <li>$item.name: $item.getPrice()#if($item.tags.isEmpty()) (no tags)#end</li>\n" +
+            "  #end\n" +
+            "#end\n" +
+            "</ul>\n";
+
+    @Param({"10", "100"})
+    public int items;
+
+    private RuntimeInstance runtime;
+    private SimpleNode parsedTemplate;
+    private List<Item> itemList;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        BenchmarkEnvironment.init();
+
+        this.runtime = new RuntimeInstance();
+        this.runtime.setProperty(RuntimeConstants.VM_LIBRARY, "");
+        this.runtime.init();
+
+        this.itemList = new ArrayList<>(this.items);
+        for (int i = 0; i < this.items; i++) {
+
+            final List<String> tags = new ArrayList<>();
+            for (int j = 0; j < i % 4; j++) {
+                tags.add("tag-" + j);
+            }
+
+            this.itemList.add(new Item("item-" + i, BigDecimal.valueOf(i * 10), tags));
+        }
+
+        this.parsedTemplate = this.parse();
+    }
+
+    @Benchmark
+    public String render() {
+        return this.render(this.parsedTemplate);
+    }
+
+    @Benchmark
+    public String parseAndRender() throws Exception {
+        return this.render(this.parse());
+    }
+
+    private SimpleNode parse() throws Exception {
+
+        final SimpleNode node = this.runtime.parse(new StringReader(TEMPLATE), TEMPLATE_NAME);
+        final InternalContextAdapterImpl internalContext = new InternalContextAdapterImpl(new VelocityContext());
+        internalContext.pushCurrentTemplateName(TEMPLATE_NAME);
+        node.init(internalContext, this.runtime);
+        return node;
+    }
+
+    private String render(final SimpleNode node) {
+
+        final VelocityContext context = new VelocityContext();
+        context.put("title", "benchmark");
+        context.put("items", this.itemList);
+        context.put("threshold", BigDecimal.valueOf(this.items * 5));
+
+        final InternalContextAdapterImpl internalContext = new InternalContextAdapterImpl(context);
+        final StringWriter writer = new StringWriter();
+        internalContext.pushCurrentTemplateName(TEMPLATE_NAME);
+        try {
+            node.render(internalContext, writer);
+        } catch (Exception e) {
+            throw new VelocityException("Unable to render " + TEMPLATE_NAME, e);
+        } finally {
+            internalContext.popCurrentTemplateName();
+        }
+
+        return writer.toString();
+    }
+
+    public static class Item {
+
+        private final String name;
+        private final BigDecimal price;
+        private final List<String> tags;
+
+        public Item(final String name, final BigDecimal price, final List<String> tags) {
+
+            this.name  = name;
+            this.price = price;
+            this.tags  = tags;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+    }
+}
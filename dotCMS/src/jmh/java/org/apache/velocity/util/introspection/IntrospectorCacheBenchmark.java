@@ -0,0 +1,62 @@
+package org.apache.velocity.util.introspection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IntrospectorCacheImpl} class map lookups from several threads, as every method call and property of a
+ * rendered template does, plus the method lookup on the class map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class IntrospectorCacheBenchmark {
+
+    private static final Class[] CLASSES = {
+        String.class, Integer.class, Date.class, HashMap.class, ArrayList.class, StringBuilder.class
+    };
+
+    private static final Object[] NO_ARGS = {};
+
+    private IntrospectorCacheImpl cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        this.cache = new IntrospectorCacheImpl();
+        for (final Class clazz : CLASSES) {
+            this.cache.put(clazz);
+        }
+    }
+
+    @Benchmark
+    public ClassMap get() {
+        return this.cache.get(CLASSES[ThreadLocalRandom.current().nextInt(CLASSES.length)]);
+    }
+
+    @Benchmark
+    public Object findMethod() throws Exception {
+        return this.cache.get(CLASSES[ThreadLocalRandom.current().nextInt(CLASSES.length)])
+                .findMethod("toString", NO_ARGS);
+    }
+}
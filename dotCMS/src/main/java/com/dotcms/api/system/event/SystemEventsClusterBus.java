@@ -0,0 +1,267 @@
+package com.dotcms.api.system.event;
+
+import com.dotcms.api.system.event.dto.SystemEventDTO;
+import com.dotcms.rest.api.v1.system.websocket.SystemEventsWebSocketEndPoint;
+import com.dotcms.util.marshal.MarshalFactory;
+import com.dotcms.util.marshal.MarshalUtils;
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.business.ChainableCacheAdministratorImpl;
+import com.dotmarketing.business.DotCacheAdministrator;
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.Logger;
+import com.google.common.annotations.VisibleForTesting;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the System Events created on this node to the rest of the cluster through the cache transport, so the
+ * peers send them to their web sockets right away instead of waiting for the next poll of the {@code system_event}
+ * table.
+ * <p>
+ * The table is still the durable source of the events. Every message carries a sequence number per node, when a peer
+ * finds a hole in the sequence (a message lost by the transport) or the transport is not clustered, the next run of
+ * the {@link com.dotcms.job.system.event.SystemEventsJob} catches up from the table. Otherwise the table is only
+ * polled every {@code SYSTEM_EVENTS_CLUSTER_BUS_POLL_SECONDS} (120 by default), the events already delivered by the
+ * bus are not sent twice.
+ * <p>
+ * The bus can be disabled with {@code SYSTEM_EVENTS_CLUSTER_BUS_ENABLED=false}, the table is polled then on every
+ * run of the job as before.
+ */
+public class SystemEventsClusterBus {
+
+	/**
+	 * Prefix of the cache transport messages that carry a System Event
+	 */
+	public static final String MESSAGE_PREFIX = "SystemEventsClusterBus:";
+
+	private final MarshalUtils marshalUtils = MarshalFactory.getInstance().getMarshalUtils();
+	private final AtomicLong   sequence     = new AtomicLong();
+	private final Map<String, Long> lastSequenceByServer = new ConcurrentHashMap<>();
+	private final Map<String, Boolean> deliveredEvents;
+	private final boolean enabled;
+	private final long    pollMillis;
+	private volatile boolean catchUpRequested = false;
+	private volatile long    lastPoll         = 0;
+
+	/**
+	 * Private constructor for singleton creation.
+	 */
+	private SystemEventsClusterBus() {
+
+		this(Config.getBooleanProperty("SYSTEM_EVENTS_CLUSTER_BUS_ENABLED", true),
+				Config.getIntProperty("SYSTEM_EVENTS_CLUSTER_BUS_POLL_SECONDS", 120) * 1000L,
+				Config.getIntProperty("SYSTEM_EVENTS_CLUSTER_BUS_MAX_DELIVERED", 10000));
+	}
+
+	@VisibleForTesting
+	SystemEventsClusterBus(final boolean enabled, final long pollMillis, final int maxDeliveredEvents) {
+
+		this.enabled    = enabled;
+		this.pollMillis = pollMillis;
+		this.deliveredEvents = Collections.synchronizedMap(new LinkedHashMap<String, Boolean>() {
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest) {
+				return this.size() > maxDeliveredEvents;
+			}
+		});
+	}
+
+	/**
+	 * Singleton holder using initialization on demand
+	 */
+	private static class SingletonHolder {
+		private static final SystemEventsClusterBus INSTANCE = new SystemEventsClusterBus();
+	}
+
+	public static SystemEventsClusterBus getInstance() {
+		return SystemEventsClusterBus.SingletonHolder.INSTANCE;
+	}
+
+	/**
+	 * Sends the event, already stored in the table, to the rest of the nodes
+	 * @param systemEvent {@link SystemEventDTO}
+	 */
+	public void publish(final SystemEventDTO systemEvent) {
+
+		final ChainableCacheAdministratorImpl cacheAdministrator = this.getClusteredCacheAdministrator();
+		if (null == cacheAdministrator) {
+			return;
+		}
+
+		try {
+
+			cacheAdministrator.send(MESSAGE_PREFIX + this.marshalUtils.marshal(
+					new ClusterMessage(systemEvent, this.sequence.incrementAndGet())));
+		} catch (Exception e) {
+
+			// the peers will get it from the table
+			Logger.warn(this, "Could not send the system event: " + systemEvent.getId()
+					+ " to the cluster: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * True if the message received from the transport is a System Event of this bus
+	 * @param message {@link String}
+	 * @return boolean
+	 */
+	public boolean isMessage(final String message) {
+		return null != message && message.startsWith(MESSAGE_PREFIX);
+	}
+
+	/**
+	 * Sends the System Event received from another node to the web socket of this node
+	 * @param message {@link String} message received from the transport
+	 */
+	public void receive(final String message) {
+
+		final ClusterMessage clusterMessage;
+		try {
+
+			clusterMessage = this.marshalUtils.unmarshal(message.substring(MESSAGE_PREFIX.length()), ClusterMessage.class);
+		} catch (Exception e) {
+
+			Logger.warn(this, "Invalid system event message received from the cluster: " + e.getMessage());
+			this.requestCatchUp();
+			return;
+		}
+
+		if (APILocator.getServerAPI().readServerId().equals(clusterMessage.serverId)) {
+			return;
+		}
+
+		this.checkSequence(clusterMessage.serverId, clusterMessage.sequence);
+
+		try {
+
+			SystemEventsFactory.getInstance().getDotSubmitter().execute(() -> this.deliver(new SystemEvent(clusterMessage.id,
+					SystemEventType.valueOf(clusterMessage.eventType),
+					this.marshalUtils.unmarshal(clusterMessage.payload, Payload.class),
+					new Date(clusterMessage.creationDate), clusterMessage.serverId)));
+		} catch (Exception e) {
+
+			Logger.warn(this, "Could not deliver the system event: " + clusterMessage.id
+					+ " received from the cluster: " + e.getMessage());
+			this.requestCatchUp();
+		}
+	}
+
+	/**
+	 * Sends the event to the web socket unless it was already sent by the bus or by a previous poll
+	 * @param systemEvent {@link SystemEvent}
+	 */
+	public void deliver(final SystemEvent systemEvent) {
+
+		if (null != systemEvent.getId() && null != this.deliveredEvents.put(systemEvent.getId(), Boolean.TRUE)) {
+
+			Logger.debug(this, ()-> "The event: " + systemEvent.getId() + " has been already delivered");
+			return;
+		}
+
+		this.sendToWebSocket(systemEvent);
+	}
+
+	/**
+	 * True if the System Events job has to read the table on this run: the bus is off or the transport is not
+	 * clustered, a gap was found on the messages, or the poll interval of the bus has passed
+	 * @return boolean
+	 */
+	public boolean shouldPoll() {
+
+		if (!this.enabled || !this.isClustered()
+				|| this.catchUpRequested || System.currentTimeMillis() - this.lastPoll >= this.pollMillis) {
+
+			this.catchUpRequested = false;
+			this.lastPoll         = System.currentTimeMillis();
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Makes the next run of the System Events job read the table
+	 */
+	public void requestCatchUp() {
+		this.catchUpRequested = true;
+	}
+
+	/**
+	 * Requests a catch up from the table when the sequence of the server does not follow the last one received
+	 * @param serverId {@link String} sender of the message
+	 * @param sequence long sequence number of the message on the sender
+	 */
+	@VisibleForTesting
+	void checkSequence(final String serverId, final long sequence) {
+
+		final Long lastSequence = this.lastSequenceByServer.put(serverId, sequence);
+		if (null != lastSequence && sequence != lastSequence + 1) {
+
+			Logger.info(this, "Gap found on the system events from the server: " + serverId
+					+ " (expected " + (lastSequence + 1) + ", received " + sequence
+					+ "), catching up from the table");
+			this.requestCatchUp();
+		}
+	}
+
+	@VisibleForTesting
+	void sendToWebSocket(final SystemEvent systemEvent) {
+
+		final SystemEventsWebSocketEndPoint webSocketEndPoint = APILocator.getWebSocketContainerAPI()
+				.getEndpointInstance(SystemEventsWebSocketEndPoint.class);
+		if (null != webSocketEndPoint) {
+
+			webSocketEndPoint.sendSystemEvent(systemEvent);
+		}
+	}
+
+	@VisibleForTesting
+	boolean isClustered() {
+		return null != this.getClusteredCacheAdministrator();
+	}
+
+	private ChainableCacheAdministratorImpl getClusteredCacheAdministrator() {
+
+		if (!this.enabled) {
+			return null;
+		}
+
+		final DotCacheAdministrator cacheAdministrator = CacheLocator.getCacheAdministrator();
+		final Object implementation = null != cacheAdministrator? cacheAdministrator.getImplementationObject() : null;
+
+		return implementation instanceof ChainableCacheAdministratorImpl
+				&& ((ChainableCacheAdministratorImpl) implementation).isClusteringEnabled()?
+				(ChainableCacheAdministratorImpl) implementation: null;
+	}
+
+	/**
+	 * Message sent through the transport: the row of the event plus the sequence number of the sender
+	 */
+	private static class ClusterMessage implements Serializable {
+
+		private final String id;
+		private final String eventType;
+		private final String payload;
+		private final long   creationDate;
+		private final String serverId;
+		private final long   sequence;
+
+		private ClusterMessage(final SystemEventDTO systemEvent, final long sequence) {
+
+			this.id           = systemEvent.getId();
+			this.eventType    = systemEvent.getEventType();
+			this.payload      = systemEvent.getPayload();
+			this.creationDate = systemEvent.getCreationDate();
+			this.serverId     = systemEvent.getServerId();
+			this.sequence     = sequence;
+		}
+	}
+} // E:O:F:SystemEventsClusterBus.
@@ -154,13 +154,20 @@ public class SystemEventsFactory implements Serializable {
 					localTransaction = HibernateUtil.startLocalTransactionIfNeeded();
 				}
 
-				this.systemEventsDAO.add(new SystemEventDTO(systemEvent.getId(), systemEvent.getEventType().name(),
+				// the id is set here, so the peers that get the event through the cluster bus can skip it on the table
+				final SystemEventDTO systemEventDTO = new SystemEventDTO(
+						UtilMethods.isSet(systemEvent.getId())? systemEvent.getId() : UUIDGenerator.generateUuid(),
+						systemEvent.getEventType().name(),
 						this.marshalUtils.marshal(systemEvent.getPayload()),
-						systemEvent.getCreationDate(). getTime(), this.serverAPI.readServerId()));
+						systemEvent.getCreationDate(). getTime(), this.serverAPI.readServerId());
+				this.systemEventsDAO.add(systemEventDTO);
 
 				//Everything ok..., committing the transaction
 				if ( localTransaction ) {
 					HibernateUtil.commitTransaction();
+					SystemEventsClusterBus.getInstance().publish(systemEventDTO);
+				} else {
+					HibernateUtil.addCommitListenerNoThrow(() -> SystemEventsClusterBus.getInstance().publish(systemEventDTO));
 				}
 			} catch (Exception e) {
 
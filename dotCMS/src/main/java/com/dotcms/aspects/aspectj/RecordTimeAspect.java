@@ -0,0 +1,42 @@
+package com.dotcms.aspects.aspectj;
+
+import com.dotcms.aspects.MethodInterceptor;
+import com.dotcms.aspects.interceptors.RecordTimeMethodInterceptor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * This aspect handles the @{@link com.dotcms.util.RecordTime} with AspectJ
+ */
+@Aspect
+public class RecordTimeAspect {
+
+    private final MethodInterceptor<Object> interceptor;
+
+    public RecordTimeAspect() {
+        this(RecordTimeMethodInterceptor.INSTANCE);
+    }
+
+    @VisibleForTesting
+    public RecordTimeAspect(final MethodInterceptor<Object> interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    /**
+     * Aspect implementation for the {@link com.dotcms.util.RecordTime} annotation
+     *
+     * @param point Joint point
+     * @return The result of call
+     * @throws Throwable If something goes wrong inside
+     */
+    @Around("execution(* *(..))"
+            + " && @annotation(com.dotcms.util.RecordTime)")
+    public Object invoke(final ProceedingJoinPoint point) throws Throwable {
+
+        return
+                this.interceptor.invoke
+                        (new AspectJDelegateMethodInvocation<Object>(point));
+    } // invoke.
+} // E:O:F:RecordTimeAspect.
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.dotcms.aspects.DelegateMethodInvocation;
 import com.dotcms.aspects.MethodInterceptor;
 import com.dotcms.business.CloseDBIfOpened;
 import com.dotmarketing.db.DbConnectionFactory;
+import com.dotmarketing.db.ReadReplicaRouter;
 
 import static com.dotcms.util.AnnotationUtils.getMethodAnnotation;
 
@@ -23,6 +24,8 @@ public class CloseDBIfOpenedMethodInterceptor implements MethodInterceptor<Objec
 
         final CloseDBIfOpened closeDB =
                 getMethodAnnotation(delegate.getMethod(), CloseDBIfOpened.class);
+        final boolean readOnly = null != closeDB && closeDB.readOnly() && closeDB.connection() && isNewConnection
+                && ReadReplicaRouter.getInstance().enterReadOnly();
         Object methodReturn = null;
 
         try {
@@ -34,6 +37,10 @@ public class CloseDBIfOpenedMethodInterceptor implements MethodInterceptor<Objec
 
                 DbConnectionFactory.closeSilently();
             }
+
+            if (readOnly) {
+                ReadReplicaRouter.getInstance().exitReadOnly();
+            }
         }
 
         return methodReturn;
@@ -5,6 +5,7 @@ import com.dotcms.aspects.MethodInterceptor;
 import com.dotcms.repackage.com.google.common.annotations.VisibleForTesting;
 import com.dotcms.util.LogTime;
 import com.dotcms.util.LogTimeUtil;
+import com.dotcms.util.MethodLatencyRegistry;
 
 import java.lang.reflect.Method;
 
@@ -16,14 +17,21 @@ public class LogTimeMethodInterceptor implements MethodInterceptor<Object> {
 
     public static final LogTimeMethodInterceptor INSTANCE = new LogTimeMethodInterceptor();
     private final transient LogTimeUtil logTimeUtil;
+    private final transient MethodLatencyRegistry methodLatencyRegistry;
 
     public LogTimeMethodInterceptor() {
-        this (LogTimeUtil.INSTANCE);
+        this (LogTimeUtil.INSTANCE, MethodLatencyRegistry.getInstance());
     }
 
     @VisibleForTesting
     protected LogTimeMethodInterceptor(final LogTimeUtil logTimeUtil) {
-        this.logTimeUtil = logTimeUtil;
+        this (logTimeUtil, MethodLatencyRegistry.getInstance());
+    }
+
+    @VisibleForTesting
+    protected LogTimeMethodInterceptor(final LogTimeUtil logTimeUtil, final MethodLatencyRegistry methodLatencyRegistry) {
+        this.logTimeUtil           = logTimeUtil;
+        this.methodLatencyRegistry = methodLatencyRegistry;
     }
 
 
@@ -33,12 +41,22 @@ public class LogTimeMethodInterceptor implements MethodInterceptor<Object> {
         final Object target  = delegate.getTarget();
         final Method method  = delegate.getMethod();
         final LogTime annotation = method.getAnnotation(LogTime.class);
-
-        return  this.logTimeUtil.logTime(
-                delegate::proceed,
-                () -> "Call for class: " +
-                            ((null != target)? target.getClass().getName(): "Null" ) + "#" +
-                            ((null != method)?method.getName():"Null"),
-                            annotation.loggingLevel()) ;
+        final boolean record = null != method && this.methodLatencyRegistry.shouldRecord();
+        final long start     = record? System.nanoTime(): 0;
+
+        try {
+
+            return  this.logTimeUtil.logTime(
+                    delegate::proceed,
+                    () -> "Call for class: " +
+                                ((null != target)? target.getClass().getName(): "Null" ) + "#" +
+                                ((null != method)?method.getName():"Null"),
+                                annotation.loggingLevel()) ;
+        } finally {
+
+            if (record) {
+                this.methodLatencyRegistry.record(this.methodLatencyRegistry.getName(method), System.nanoTime() - start);
+            }
+        }
     } // invoke.
 } // E:O:F:LogTimeMethodInterceptor.
\ No newline at end of file
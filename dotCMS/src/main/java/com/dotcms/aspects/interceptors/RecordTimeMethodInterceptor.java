@@ -0,0 +1,46 @@
+package com.dotcms.aspects.interceptors;
+
+import com.dotcms.aspects.DelegateMethodInvocation;
+import com.dotcms.aspects.MethodInterceptor;
+import com.dotcms.util.MethodLatencyRegistry;
+import com.dotcms.util.RecordTime;
+import com.google.common.annotations.VisibleForTesting;
+
+import java.lang.reflect.Method;
+
+/**
+ * Method handler for the {@link RecordTime} annotation aspect
+ */
+public class RecordTimeMethodInterceptor implements MethodInterceptor<Object> {
+
+    public static final RecordTimeMethodInterceptor INSTANCE = new RecordTimeMethodInterceptor();
+    private final transient MethodLatencyRegistry methodLatencyRegistry;
+
+    public RecordTimeMethodInterceptor() {
+        this (MethodLatencyRegistry.getInstance());
+    }
+
+    @VisibleForTesting
+    protected RecordTimeMethodInterceptor(final MethodLatencyRegistry methodLatencyRegistry) {
+        this.methodLatencyRegistry = methodLatencyRegistry;
+    }
+
+    @Override
+    public Object invoke(final DelegateMethodInvocation<Object> delegate) throws Throwable {
+
+        if (!this.methodLatencyRegistry.shouldRecord()) {
+            return delegate.proceed();
+        }
+
+        final long start = System.nanoTime();
+        try {
+            return delegate.proceed();
+        } finally {
+
+            final Method method = delegate.getMethod();
+            final RecordTime annotation = method.getAnnotation(RecordTime.class);
+            this.methodLatencyRegistry.record(null != annotation && !annotation.value().isEmpty()?
+                    annotation.value(): this.methodLatencyRegistry.getName(method), System.nanoTime() - start);
+        }
+    } // invoke.
+} // E:O:F:RecordTimeMethodInterceptor.
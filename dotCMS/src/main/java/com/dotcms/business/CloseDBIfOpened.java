@@ -17,4 +17,12 @@ public @interface CloseDBIfOpened {
      */
     boolean connection() default true;
 
+    /**
+     * Set to true if the method only reads, when it opens the connection of the thread (it is not called inside a
+     * transaction) the connection is taken from the read replica, if there is one.
+     * See {@link com.dotmarketing.db.ReadReplicaRouter}
+     * @return boolean
+     */
+    boolean readOnly() default false;
+
 } // E:O:F:LogTime
\ No newline at end of file
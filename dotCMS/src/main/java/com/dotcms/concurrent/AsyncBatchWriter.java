@@ -0,0 +1,210 @@
+package com.dotcms.concurrent;
+
+import com.dotmarketing.util.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Takes the writes of data that does not need to be stored on the request thread (analytics, logs) out of it. The
+ * request threads {@link #offer(Object)} the elements into a {@link RingBuffer}, which never blocks, and a daemon
+ * thread hands them to the writer in batches, when a batch is full or when the oldest element has waited for the max
+ * delay. On overload the elements are dropped and counted, the request never waits for the writer.
+ * On shutdown ({@link #shutdownAll()}) the consumer thread stops and what is waiting is written, the elements offered
+ * after that are written on the calling thread.
+ * @param <T>
+ */
+public class AsyncBatchWriter<T> {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final List<AsyncBatchWriter<?>> STARTED_WRITERS = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final RingBuffer<T> ringBuffer;
+    private final Consumer<List<T>> writer;
+    private final int batchSize;
+    private final long maxDelayMillis;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed  = new AtomicLong();
+    private volatile Thread consumer = null;
+    private volatile boolean running  = true;
+
+    /**
+     * @param name           name of the consumer thread
+     * @param capacity       max number of elements waiting to be written, the rest are dropped
+     * @param batchSize      max number of elements per call to the writer
+     * @param maxDelayMillis max time an element waits for its batch to be full
+     * @param writer         writes a batch, runs on the consumer thread
+     */
+    public AsyncBatchWriter(final String name, final int capacity, final int batchSize, final long maxDelayMillis,
+                            final Consumer<List<T>> writer) {
+
+        this.name           = name;
+        this.ringBuffer     = new RingBuffer<>(capacity);
+        this.batchSize      = Math.max(1, batchSize);
+        this.maxDelayMillis = maxDelayMillis;
+        this.writer         = writer;
+    }
+
+    /**
+     * Queues the element to be written, the consumer thread is started on the first call
+     * @param element T
+     * @return boolean false if the element was dropped because the writer is behind
+     */
+    public boolean offer(final T element) {
+
+        if (!this.running) {
+
+            this.write(Collections.singletonList(element));
+            return true;
+        }
+
+        if (null == this.consumer) {
+            this.start();
+        }
+
+        final boolean offered = this.ringBuffer.offer(element);
+        if (!this.running) {
+            // shut down while offering, the consumer may be gone already
+            this.flush();
+        }
+
+        return offered;
+    }
+
+    /**
+     * Writes on the calling thread whatever is waiting to be written
+     */
+    public void flush() {
+
+        final List<T> batch = new ArrayList<>(this.batchSize);
+        while (this.ringBuffer.drainTo(batch, this.batchSize) > 0) {
+
+            this.write(batch);
+            batch.clear();
+        }
+    }
+
+    public long getOffered() {
+        return this.ringBuffer.getOffered();
+    }
+
+    public long getDropped() {
+        return this.ringBuffer.getDropped();
+    }
+
+    public long getWritten() {
+        return this.written.get();
+    }
+
+    public long getFailed() {
+        return this.failed.get();
+    }
+
+    public int getPending() {
+        return this.ringBuffer.size();
+    }
+
+    /**
+     * Stops the consumer thread, waiting for the batch it is writing, and writes on the calling thread whatever is
+     * still waiting. From then on the elements offered are written on the calling thread
+     */
+    public void shutdown() {
+
+        final Thread thread;
+        synchronized (this) {
+
+            this.running = false;
+            thread = this.consumer;
+        }
+
+        if (null != thread) {
+
+            LockSupport.unpark(thread);
+            try {
+                thread.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        this.flush();
+        STARTED_WRITERS.remove(this);
+    }
+
+    /**
+     * Shuts down all the writers that have been started, so nothing is lost when the app is stopped
+     */
+    public static void shutdownAll() {
+
+        for (final AsyncBatchWriter<?> writer : STARTED_WRITERS) {
+
+            Logger.info(AsyncBatchWriter.class, "Shutting down " + writer.name + ", " + writer.getPending()
+                    + " elements pending to write");
+            writer.shutdown();
+        }
+    }
+
+    private synchronized void start() {
+
+        if (null == this.consumer && this.running) {
+
+            final Thread thread = new Thread(this::consume, this.name);
+            thread.setDaemon(true);
+            thread.start();
+            this.consumer = thread;
+            STARTED_WRITERS.add(this);
+        }
+    }
+
+    private void consume() {
+
+        final List<T> batch = new ArrayList<>(this.batchSize);
+        long batchStarted   = 0;
+
+        while (this.running) {
+
+            if (this.ringBuffer.drainTo(batch, this.batchSize - batch.size()) > 0 && 0 == batchStarted) {
+                batchStarted = System.currentTimeMillis();
+            }
+
+            if (!batch.isEmpty() && (batch.size() >= this.batchSize
+                    || System.currentTimeMillis() - batchStarted >= this.maxDelayMillis)) {
+
+                this.write(batch);
+                batch.clear();
+                batchStarted = 0;
+            } else {
+
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        // stopped, the batch being built is written before the rest is flushed
+        if (!batch.isEmpty()) {
+            this.write(batch);
+        }
+    }
+
+    private void write(final List<T> batch) {
+
+        try {
+
+            this.writer.accept(batch);
+            this.written.addAndGet(batch.size());
+        } catch (Throwable e) {
+
+            this.failed.addAndGet(batch.size());
+            Logger.warn(this, "Could not write a batch of " + batch.size() + " elements on " + this.name
+                    + ": " + e.getMessage());
+        }
+    }
+} // AsyncBatchWriter.
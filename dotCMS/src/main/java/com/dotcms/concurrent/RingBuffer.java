@@ -0,0 +1,138 @@
+package com.dotcms.concurrent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock free, multi producer and multi consumer queue on top of a ring of slots. Every slot has a sequence
+ * that tells the producers and consumers whose turn it is, so {@link #offer(Object)} and {@link #poll()} are a couple
+ * of CAS operations and never block: when the ring is full the element is rejected and counted as dropped.
+ * @param <T>
+ */
+public class RingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head    = new AtomicLong();
+    private final AtomicLong tail    = new AtomicLong();
+    private final AtomicLong offered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Creates the ring, the capacity is rounded up to the next power of two
+     * @param capacity int
+     */
+    public RingBuffer(final int capacity) {
+
+        final int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask      = size - 1;
+        this.slots     = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds the element if there is room for it
+     * @param element T
+     * @return boolean false if the ring is full and the element was dropped
+     */
+    public boolean offer(final T element) {
+
+        this.offered.incrementAndGet();
+        while (true) {
+
+            final long position = this.tail.get();
+            final int index     = (int) (position & this.mask);
+            final long diff     = this.sequences.get(index) - position;
+
+            if (diff == 0) {
+
+                if (this.tail.compareAndSet(position, position + 1)) {
+
+                    this.slots.lazySet(index, element);
+                    this.sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+
+                this.dropped.incrementAndGet();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the oldest element
+     * @return T null if the ring is empty
+     */
+    public T poll() {
+
+        while (true) {
+
+            final long position = this.head.get();
+            final int index     = (int) (position & this.mask);
+            final long diff     = this.sequences.get(index) - (position + 1);
+
+            if (diff == 0) {
+
+                if (this.head.compareAndSet(position, position + 1)) {
+
+                    final T element = this.slots.get(index);
+                    this.slots.lazySet(index, null);
+                    this.sequences.set(index, position + this.mask + 1);
+                    return element;
+                }
+            } else if (diff < 0) {
+
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Moves up to max elements to the list
+     * @param list {@link List}
+     * @param max int
+     * @return int number of elements moved
+     */
+    public int drainTo(final List<T> list, final int max) {
+
+        int count = 0;
+        T element;
+        while (count < max && null != (element = this.poll())) {
+
+            list.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    public int capacity() {
+        return this.mask + 1;
+    }
+
+    public int size() {
+        return (int) Math.max(0, this.tail.get() - this.head.get());
+    }
+
+    /**
+     * Number of elements offered since the ring was created, including the dropped ones
+     * @return long
+     */
+    public long getOffered() {
+        return this.offered.get();
+    }
+
+    /**
+     * Number of elements rejected because the ring was full
+     * @return long
+     */
+    public long getDropped() {
+        return this.dropped.get();
+    }
+} // RingBuffer.
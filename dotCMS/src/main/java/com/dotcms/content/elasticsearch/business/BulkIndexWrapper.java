@@ -5,6 +5,7 @@ import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
 
 /**
  * Wrapper class that encapsulates method implementations
@@ -41,6 +42,14 @@ public class BulkIndexWrapper {
         }
     }
 
+    public void add(final UpdateRequest request){
+        if(this.bulkRequest != null){
+            this.bulkRequest.add(request);
+        } else if(this.bulkProcessor != null){
+            this.bulkProcessor.add(request);
+        }
+    }
+
     public BulkRequest getRequestBuilder(){
         return this.bulkRequest;
     }
@@ -9,6 +9,7 @@ import com.dotcms.api.system.event.message.MessageType;
 import com.dotcms.api.system.event.message.SystemMessageEventUtil;
 import com.dotcms.api.system.event.message.builder.SystemMessageBuilder;
 import com.dotcms.business.CloseDBIfOpened;
+import com.dotcms.content.elasticsearch.util.ESReindexationProcessStatus;
 import com.dotcms.business.WrapInTransaction;
 import com.dotcms.concurrent.DotConcurrentFactory;
 import com.dotcms.content.business.DotMappingException;
@@ -76,6 +77,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
@@ -83,6 +85,7 @@ import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.action.support.WriteRequest.RefreshPolicy;
+import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.core.CountRequest;
 import org.elasticsearch.client.core.CountResponse;
@@ -437,6 +440,12 @@ public class ContentletIndexAPIImpl implements ContentletIndexAPI {
                 createContentIndex(info.getReindexWorking(), 0);
                 createContentIndex(info.getReindexLive(), 0);
 
+                if (isBulkLoadProfileEnabled()) {
+                    esIndexApi.applyBulkLoadProfile(info.getReindexWorking());
+                    esIndexApi.applyBulkLoadProfile(info.getReindexLive());
+                    ESReindexationProcessStatus.bulkLoadStarted();
+                }
+
                 APILocator.getIndiciesAPI().point(info);
 
                 return timeStamp;
@@ -497,15 +506,23 @@ public class ContentletIndexAPIImpl implements ContentletIndexAPI {
             final IndiciesInfo newInfo = builder.build();
 
             logSwitchover(oldInfo);
+            // the new indices have to be refreshed before they start receiving the searches
+            removeBulkLoadProfile(newInfo);
             APILocator.getIndiciesAPI().point(newInfo);
 
             DotConcurrentFactory.getInstance().getSubmitter().submit(() -> {
+                final long start = System.currentTimeMillis();
+                ESReindexationProcessStatus.mergeStarted();
                 try {
                     Logger.info(this.getClass(), "Updating and optimizing ElasticSearch Indexes");
                     esIndexApi.moveIndexBackToCluster(newInfo.getWorking());
                     esIndexApi.moveIndexBackToCluster(newInfo.getLive());
                     optimize(ImmutableList.of(newInfo.getWorking(), newInfo.getLive()));
+                    ESReindexationProcessStatus.mergeFinished(true);
+                    Logger.info(this.getClass(), "ElasticSearch Indexes updated and optimized in "
+                            + (System.currentTimeMillis() - start) + "ms");
                 } catch (Exception e) {
+                    ESReindexationProcessStatus.mergeFinished(false);
                     Logger.warnAndDebug(this.getClass(), "unable to expand ES replicas:" + e.getMessage(), e);
                 }
             });
@@ -517,6 +534,25 @@ public class ContentletIndexAPIImpl implements ContentletIndexAPI {
     }
 
 
+    /**
+     * The indices of a full reindex are loaded with the bulk load profile (see {@link ESIndexAPI#applyBulkLoadProfile(String)})
+     * unless REINDEX_BULK_LOAD_PROFILE_ENABLED is set to false
+     */
+    private boolean isBulkLoadProfileEnabled() {
+        return Config.getBooleanProperty("REINDEX_BULK_LOAD_PROFILE_ENABLED", true);
+    }
+
+    private void removeBulkLoadProfile(final IndiciesInfo newInfo) {
+        final long start = System.currentTimeMillis();
+        try {
+            esIndexApi.removeBulkLoadProfile(newInfo.getWorking());
+            esIndexApi.removeBulkLoadProfile(newInfo.getLive());
+            Logger.info(this.getClass(), "Refreshed the new indices in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (IOException e) {
+            Logger.warnAndDebug(this.getClass(), "unable to remove the bulk load profile of the new indices:" + e.getMessage(), e);
+        }
+    }
+
     private long reindexTimeElapsedInLong() {
         try {
             final IndiciesInfo oldInfo = APILocator.getIndiciesAPI().loadIndicies();
@@ -655,13 +691,13 @@ public class ContentletIndexAPIImpl implements ContentletIndexAPI {
     private void indexContentListNow(final List<Contentlet> contentToIndex) {
         final BulkRequest bulkRequest = createBulkRequest(contentToIndex);
         bulkRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
-        putToIndex(bulkRequest);
+        separateReindexRequests(bulkRequest).forEach(this::putToIndex);
     } // indexContentListNow.
 
     private void indexContentListWaitFor(final List<Contentlet> contentToIndex) {
         final BulkRequest bulkRequest = createBulkRequest(contentToIndex);
         bulkRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.WAIT_UNTIL);
-        putToIndex(bulkRequest);
+        separateReindexRequests(bulkRequest).forEach(this::putToIndex);
     } // indexContentListWaitFor.
 
     private void indexContentListDefer(final List<Contentlet> contentToIndex) {
@@ -670,6 +706,43 @@ public class ContentletIndexAPIImpl implements ContentletIndexAPI {
         putToIndex(bulkRequest);
     } // indexContentListWaitFor.
 
+    /**
+     * The indices of a full reindex are loaded with no refresh (see {@link ESIndexAPI#applyBulkLoadProfile(String)}),
+     * so a WAIT_UNTIL request on them would wait for a refresh that does not come until the switchover and an
+     * IMMEDIATE one would refresh them on every request. If the bulk request has a refresh policy its requests to
+     * the reindex indices are moved to a bulk request of their own with no refresh.
+     * @param bulkRequest {@link BulkRequest}
+     * @return List of the bulk requests to send, just the one received if nothing had to be moved
+     */
+    private List<BulkRequest> separateReindexRequests(final BulkRequest bulkRequest) {
+
+        final IndiciesInfo info = Sneaky.sneak(() -> APILocator.getIndiciesAPI().loadIndicies());
+        final Set<String> reindexIndices = new HashSet<>();
+        if (null != info.getReindexWorking()) {
+            reindexIndices.add(info.getReindexWorking());
+        }
+        if (null != info.getReindexLive()) {
+            reindexIndices.add(info.getReindexLive());
+        }
+
+        if (bulkRequest.getRefreshPolicy() == RefreshPolicy.NONE || reindexIndices.isEmpty() ||
+                bulkRequest.requests().stream().noneMatch(request -> reindexIndices.contains(request.index()))) {
+            return ImmutableList.of(bulkRequest);
+        }
+
+        final BulkRequest refreshedRequest = new BulkRequest();
+        refreshedRequest.setRefreshPolicy(bulkRequest.getRefreshPolicy());
+        refreshedRequest.timeout(bulkRequest.timeout());
+        final BulkRequest reindexRequest = createBulkRequest();
+        reindexRequest.timeout(bulkRequest.timeout());
+
+        for (final DocWriteRequest<?> request : bulkRequest.requests()) {
+            (reindexIndices.contains(request.index()) ? reindexRequest : refreshedRequest).add(request);
+        }
+
+        return ImmutableList.of(refreshedRequest, reindexRequest);
+    }
+
     @Override
     public void putToIndex(final BulkRequest bulkRequest,
             final ActionListener<BulkResponse> listener) {
@@ -763,6 +836,12 @@ public class ContentletIndexAPIImpl implements ContentletIndexAPI {
     public void appendBulkRequest(BulkIndexWrapper bulk, final ReindexEntry idx) throws DotDataException {
         List<ContentletVersionInfo> versions = APILocator.getVersionableAPI().findContentletVersionInfos(idx.getIdentToIndex());
 
+        // during a full reindex the new index may not have the documents yet, so they are indexed as a whole
+        if (idx.isPartialUpdate() && !versions.isEmpty() && !isInFullReindex()) {
+            appendBulkPartialRequest(bulk, idx, versions);
+            return;
+        }
+
         final Map<String, Contentlet> inodes = new HashMap<>();
 
         for (ContentletVersionInfo cvi : versions) {
@@ -793,6 +872,36 @@ public class ContentletIndexAPIImpl implements ContentletIndexAPI {
         }
     }
 
+    /**
+     * Updates only the fields of the partial update on the working and live documents of every language of the
+     * content, the permissions and location are shared by all the versions so they are mapped once
+     */
+    private void appendBulkPartialRequest(final BulkIndexWrapper bulk, final ReindexEntry idx,
+            final List<ContentletVersionInfo> versions) throws DotDataException {
+
+        final Contentlet contentlet = APILocator.getContentletAPI().findInDb(versions.get(0).getWorkingInode()).orElse(null);
+        if (contentlet == null) {
+            APILocator.getReindexQueueAPI().markAsFailed(idx, "unable to find the working version of content id:" + idx.getIdentToIndex());
+            return;
+        }
+
+        try {
+            final IndiciesInfo info = APILocator.getIndiciesAPI().loadIndicies();
+            final Map<String, Object> partialMap = mappingAPI.toPartialMap(contentlet, idx.getPartialUpdate());
+            Logger.debug(this, "updating the " + idx.getPartialUpdate() + " of id:" + idx.getIdentToIndex() + " priority: " + idx.getPriority());
+
+            for (final ContentletVersionInfo cvi : versions) {
+                final String id = cvi.getIdentifier() + "_" + cvi.getLang();
+                bulk.add(new UpdateRequest(info.getWorking(), "_doc", id).doc(partialMap));
+                if (UtilMethods.isSet(cvi.getLiveInode())) {
+                    bulk.add(new UpdateRequest(info.getLive(), "_doc", id).doc(partialMap));
+                }
+            }
+        } catch (Exception e) {
+            APILocator.getReindexQueueAPI().markAsFailed(idx, e.getMessage());
+        }
+    }
+
     public BulkProcessor appendToBulkProcessor(BulkProcessor bulk, final ReindexEntry idx) throws DotDataException {
         Logger.debug(this, "Indexing document " + idx.getIdentToIndex());
 
@@ -1080,8 +1189,10 @@ public class ContentletIndexAPIImpl implements ContentletIndexAPI {
         }
 
         bulkRequest.timeout(TimeValue.timeValueMillis(INDEX_OPERATIONS_TIMEOUT_IN_MS));
-        Sneaky.sneak(() -> RestHighLevelClientProvider.getInstance().getClient()
-                .bulk(bulkRequest, RequestOptions.DEFAULT));
+        for (final BulkRequest request : separateReindexRequests(bulkRequest)) {
+            Sneaky.sneak(() -> RestHighLevelClientProvider.getInstance().getClient()
+                    .bulk(request, RequestOptions.DEFAULT));
+        }
     }
 
     private void reindexDependenciesForDeletedContent(final Contentlet contentlet, final List<Relationship> relationships,
@@ -1182,8 +1293,11 @@ public class ContentletIndexAPIImpl implements ContentletIndexAPI {
 
             APILocator.getIndiciesAPI().point(newinfo);
 
+            esIndexApi.removeBulkLoadProfile(rew);
+            esIndexApi.removeBulkLoadProfile(rel);
             esIndexApi.moveIndexBackToCluster(rew);
             esIndexApi.moveIndexBackToCluster(rel);
+            ESReindexationProcessStatus.bulkLoadAborted();
 
         } catch (Exception e) {
             throw new ElasticsearchException(e.getMessage(), e);
@@ -12,6 +12,7 @@ import com.dotcms.notifications.business.NotificationAPI;
 import com.dotcms.repackage.net.sf.hibernate.ObjectNotFoundException;
 import com.dotcms.repackage.org.apache.commons.io.FileUtils;
 import com.dotcms.util.I18NMessage;
+import com.dotcms.util.RecordTime;
 import com.dotmarketing.beans.Host;
 import com.dotmarketing.beans.Identifier;
 import com.dotmarketing.business.APILocator;
@@ -785,6 +786,7 @@ public class ESContentFactoryImpl extends ContentletFactory {
 	
 	
 	
+    @RecordTime
     @Override
     protected Contentlet find(final String inode) throws ElasticsearchException, DotStateException, DotDataException, DotSecurityException {
         Contentlet con = contentletCache.get(inode);
@@ -1,6 +1,5 @@
 package com.dotcms.content.elasticsearch.business;
 
-
 import static com.dotcms.exception.ExceptionUtil.bubbleUpException;
 import static com.dotcms.exception.ExceptionUtil.getLocalizedMessageOrDefault;
 import static com.dotmarketing.portlets.contentlet.model.Contentlet.URL_MAP_FOR_CONTENT_KEY;
@@ -46,9 +45,11 @@ import com.dotcms.rest.AnonymousAccess;
 import com.dotcms.rest.api.v1.temp.DotTempFile;
 import com.dotcms.rest.api.v1.temp.TempFileAPI;
 import com.dotcms.services.VanityUrlServices;
+import com.dotcms.storage.BinaryBlobStore;
 import com.dotcms.system.event.local.business.LocalSystemEventsAPI;
 import com.dotcms.system.event.local.type.content.CommitListenerEvent;
 import com.dotcms.util.CollectionsUtils;
+import com.dotcms.util.RecordTime;
 import com.dotcms.util.ThreadContextUtil;
 import com.dotmarketing.beans.Host;
 import com.dotmarketing.beans.Identifier;
@@ -226,7 +227,7 @@ public class ESContentletAPIImpl implements ContentletAPI {
     private final TagAPI                tagAPI;
     private final IdentifierStripedLock lockManager;
     private final TempFileAPI           tempApi ;
-    private static final int MAX_LIMIT = 10000;
+    public static final int MAX_LIMIT = 10000;
     private static final boolean INCLUDE_DEPENDENCIES = true;
 
     private static final String backupPath = ConfigUtils.getBackupPath() + File.separator + "contentlets";
@@ -308,7 +309,8 @@ public class ESContentletAPIImpl implements ContentletAPI {
         return false;
     }
 
-    @CloseDBIfOpened
+    @RecordTime
+    @CloseDBIfOpened(readOnly = true)
     @Override
     public Contentlet find(String inode, User user, boolean respectFrontendRoles) throws DotDataException, DotSecurityException {
 
@@ -361,7 +363,7 @@ public class ESContentletAPIImpl implements ContentletAPI {
 
 
 
-    @CloseDBIfOpened
+    @CloseDBIfOpened(readOnly = true)
     @Override
     public Contentlet findContentletByIdentifier(String identifier, boolean live, long languageId, User user, boolean respectFrontendRoles)throws DotDataException, DotSecurityException, DotContentletStateException {
         if(languageId<=0) {
@@ -788,6 +790,7 @@ public class ESContentletAPIImpl implements ContentletAPI {
         return search(luceneQuery, limit, offset, sortBy, user, respectFrontendRoles, PermissionAPI.PERMISSION_READ);
     }
 
+    @RecordTime
     @Override
     public List<Contentlet> search(String luceneQuery, int limit, int offset, String sortBy, User user, boolean respectFrontendRoles, int requiredPermission) throws DotDataException,DotSecurityException {
         PaginatedArrayList<Contentlet> contents = new PaginatedArrayList<Contentlet>();
@@ -4736,9 +4739,7 @@ public class ESContentletAPIImpl implements ContentletAPI {
                             }
                             // We want to copy (not move) cause the same file could be in
                             // another field and we don't want to delete it in the first time.
-                            final boolean contentVersionHardLink = Config
-                                    .getBooleanProperty("CONTENT_VERSION_HARD_LINK", true);
-                            FileUtil.copyFile(incomingFile, newFile, contentVersionHardLink, validateEmptyFile);
+                            copyBinaryFile(incomingFile, newFile, validateEmptyFile);
 
 
                             // delete old content metadata if exists
@@ -4748,9 +4749,7 @@ public class ESContentletAPIImpl implements ContentletAPI {
 
                         } else if (oldFile.exists()) {
                             // otherwise, we copy the files as hardlinks
-                            final boolean contentVersionHardLink = Config
-                                    .getBooleanProperty("CONTENT_VERSION_HARD_LINK", true);
-                            FileUtil.copyFile(incomingFile, newFile, contentVersionHardLink, validateEmptyFile);
+                            copyBinaryFile(incomingFile, newFile, validateEmptyFile);
 
                             // try to get the content metadata from the old version
                             if (metadata != null) {
@@ -6864,6 +6863,27 @@ public class ESContentletAPIImpl implements ContentletAPI {
         });
     }
 
+    /**
+     * Copies (or hard links) an incoming binary to its inode path, when the content addressable storage is enabled
+     * the inode path is linked to the shared blob of the file instead.
+     * @param incomingFile
+     * @param newFile
+     * @param validateEmptyFile
+     * @throws IOException
+     */
+    private void copyBinaryFile(final File incomingFile, final File newFile, final boolean validateEmptyFile)
+            throws IOException {
+
+        final BinaryBlobStore binaryBlobStore = BinaryBlobStore.getInstance();
+        if (binaryBlobStore.isEnabled()) {
+            binaryBlobStore.copyFile(incomingFile, newFile, validateEmptyFile);
+        } else {
+            final boolean contentVersionHardLink = Config
+                    .getBooleanProperty("CONTENT_VERSION_HARD_LINK", true);
+            FileUtil.copyFile(incomingFile, newFile, contentVersionHardLink, validateEmptyFile);
+        }
+    }
+
     /**
      *
      * @param contentlets
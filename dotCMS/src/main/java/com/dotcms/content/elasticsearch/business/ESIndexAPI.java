@@ -71,6 +71,7 @@ import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.elasticsearch.action.admin.indices.forcemerge.ForceMergeRequest;
 import org.elasticsearch.action.admin.indices.forcemerge.ForceMergeResponse;
 import org.elasticsearch.action.admin.indices.open.OpenIndexRequest;
+import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
 import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.index.IndexRequest;
@@ -397,6 +398,7 @@ public class ESIndexAPI {
             // setting number_of_replicas=0 to improve the indexing while restoring
             // also we restrict the index to the current server
             moveIndexToLocalNode(index);
+            applyBulkLoadProfile(index);
 
             // wait a bit for the changes be made
             Thread.sleep(1000L);
@@ -474,8 +476,9 @@ public class ESIndexAPI {
                 br.close();
             }
 
-            // back to the original configuration for number_of_replicas
+            // back to the original configuration for refresh, translog and number_of_replicas
             // also let it go other servers
+            removeBulkLoadProfile(index);
             moveIndexBackToCluster(index);
 
             final List<String> list = new ArrayList<>();
@@ -628,6 +631,59 @@ public class ESIndexAPI {
 				.indices().putSettings(request, RequestOptions.DEFAULT);
     }
 
+    /**
+     * Applies the bulk load profile to an index that is going to be filled from scratch (full reindex or restore):
+     * no refresh, no replicas and async translog, so the documents are written once, on a single copy, without
+     * creating a new segment every second nor syncing the translog on every bulk request.
+     * The index is not searchable until {@link #removeBulkLoadProfile(String)} is called.
+     * @param index
+     * @throws IOException
+     */
+    public void applyBulkLoadProfile(final String index) throws IOException {
+
+        final Settings settings =
+                Settings.builder()
+                        .put("index.number_of_replicas", 0)
+                        .put("index.refresh_interval", "-1")
+                        .put("index.translog.durability", "async")
+                        .build();
+
+        UpdateSettingsRequest request = new UpdateSettingsRequest(getNameWithClusterIDPrefix(index));
+        request.timeout(TimeValue.timeValueMillis(INDEX_OPERATIONS_TIMEOUT_IN_MS));
+        request.settings(settings);
+        RestHighLevelClientProvider.getInstance().getClient()
+                .indices().putSettings(request, RequestOptions.DEFAULT);
+
+        AdminLogger.log(this.getClass(), "applyBulkLoadProfile", "Bulk load profile applied to index: " + index);
+    }
+
+    /**
+     * Goes back to the default refresh interval and translog durability of an index loaded with the
+     * {@link #applyBulkLoadProfile(String)} and refreshes it, so all the loaded documents are searchable.
+     * The replicas are restored by {@link #moveIndexBackToCluster(String)}
+     * @param index
+     * @throws IOException
+     */
+    public void removeBulkLoadProfile(final String index) throws IOException {
+
+        final Settings settings =
+                Settings.builder()
+                        .putNull("index.refresh_interval")
+                        .putNull("index.translog.durability")
+                        .build();
+
+        UpdateSettingsRequest request = new UpdateSettingsRequest(getNameWithClusterIDPrefix(index));
+        request.timeout(TimeValue.timeValueMillis(INDEX_OPERATIONS_TIMEOUT_IN_MS));
+        request.settings(settings);
+        RestHighLevelClientProvider.getInstance().getClient()
+                .indices().putSettings(request, RequestOptions.DEFAULT);
+
+        RestHighLevelClientProvider.getInstance().getClient()
+                .indices().refresh(new RefreshRequest(getNameWithClusterIDPrefix(index)), RequestOptions.DEFAULT);
+
+        AdminLogger.log(this.getClass(), "removeBulkLoadProfile", "Bulk load profile removed from index: " + index);
+    }
+
     private int getReplicas() {
         int replicas = 0;
         if (clusterAPI.isTransportAutoWire()){
@@ -29,6 +29,7 @@ import com.dotmarketing.business.PermissionAPI;
 import com.dotmarketing.business.RelationshipAPI;
 import com.dotmarketing.cache.FieldsCache;
 import com.dotmarketing.common.db.DotConnect;
+import com.dotmarketing.common.reindex.ReindexQueueFactory.ReindexAction;
 import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.exception.DotSecurityException;
 import com.dotmarketing.portlets.categories.model.Category;
@@ -258,38 +259,7 @@ public class ESMappingAPIImpl implements ContentMappingAPI {
 						" , reason: " + e.getMessage());
 			}
 
-			for(final Entry<String,Object> entry : contentletMap.entrySet()){
-				final String lowerCaseKey = entry.getKey().toLowerCase();
-				Object lowerCaseValue = entry.getValue();
-
-				if (UtilMethods.isSet(lowerCaseValue) && (lowerCaseValue instanceof String || (
-						//filters relationships
-                        !(lowerCaseValue instanceof List) &&
-						 !lowerCaseKey
-								.endsWith(ESMappingConstants.TAGS)))) {
-
-					if (lowerCaseValue instanceof String){
-						lowerCaseValue = ((String) lowerCaseValue).toLowerCase();
-					}
-
-                    if (!lowerCaseKey.endsWith(TEXT)){
-						//for example: when lowerCaseValue=moddate, moddate_dotraw must be created from its moddate_text if exists
-						//when the moddate_text is evaluated.
-						if (!contentletMap.containsKey(entry.getKey() + TEXT)){
-							mlowered.put(lowerCaseKey + "_dotraw", lowerCaseValue);
-						}
-					}else{
-						mlowered.put(lowerCaseKey.replace(TEXT, "_dotraw"), lowerCaseValue);
-					}
-				}
-
-				mlowered.put(lowerCaseKey, lowerCaseValue);
-
-				//exclude null values and relationships because they where appended on the loadRelationships method
-				if(lowerCaseValue!=null && !(lowerCaseValue instanceof List)) {
-					sw.append(lowerCaseValue.toString()).append(' ');
-				}
-			}
+			lowerCaseFields(contentletMap, mlowered, sw);
 
 			if (contentlet.getContentType().baseType().getType() == BaseContentType.FILEASSET.getType()) {
                 //Verify if it is enabled the option to regenerate missing metadata files on reindex
@@ -332,6 +302,85 @@ public class ESMappingAPIImpl implements ContentMappingAPI {
 		}
 	}
 
+	/**
+	 * Only the fields affected by the given partial update, mapped as {@link #toMap(Contentlet)} does so they can be
+	 * sent as a partial document to the index. The catchall field is not updated.
+	 *
+	 * @param contentlet {@link Contentlet} any version of the content, the permissions and location are shared by all
+	 * @param action {@link ReindexAction} PERMISSIONS or LOCATION
+	 * @return Map of lowered fields
+	 * @throws DotMappingException
+	 */
+	@CloseDBIfOpened
+	public Map<String,Object> toPartialMap(final Contentlet contentlet, final ReindexAction action) throws DotMappingException {
+		try {
+			final Map<String,Object> contentletMap = new HashMap<>();
+			final Map<String,Object> mlowered	   = new HashMap<>();
+
+			if (action == ReindexAction.PERMISSIONS) {
+				loadPermissions(contentlet, contentletMap);
+			} else if (action == ReindexAction.LOCATION) {
+				final User systemUser = APILocator.getUserAPI().getSystemUser();
+				final Identifier contentIdentifier = APILocator.getIdentifierAPI().find(contentlet);
+				final Folder contentFolder = APILocator.getFolderAPI().findFolderByPath(contentIdentifier.getParentPath(), contentIdentifier.getHostId(), systemUser, false);
+				final Host contentSite = APILocator.getHostAPI().find(contentIdentifier.getHostId(), systemUser, false);
+
+				contentletMap.put(ESMappingConstants.CONTENTLET_HOST, contentIdentifier.getHostId());
+				contentletMap.put(ESMappingConstants.CONTENTLET_HOSTNAME, contentSite.getHostname());
+				contentletMap.put(ESMappingConstants.CONTENTLET_FOLER, contentFolder!=null && InodeUtils.isSet(contentFolder.getInode()) ? contentFolder.getInode() : contentlet.getFolder());
+				contentletMap.put(ESMappingConstants.PARENT_PATH, contentIdentifier.getParentPath());
+				contentletMap.put(ESMappingConstants.PATH, contentIdentifier.getPath());
+			} else {
+				throw new IllegalArgumentException("Not a partial update: " + action);
+			}
+
+			lowerCaseFields(contentletMap, mlowered, new StringWriter());
+			return mlowered;
+		} catch (final Exception e) {
+			Logger.error(this, "An error occurred when mapping the " + action + " of Contentlet '" + contentlet.getIdentifier
+					() + "' : " + e.getMessage(), e);
+			throw new DotMappingException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Puts the fields lowered into mlowered, adding the _dotraw fields, and appends their values to the catchall
+	 */
+	private void lowerCaseFields(final Map<String,Object> contentletMap, final Map<String,Object> mlowered, final StringWriter sw) {
+		for(final Entry<String,Object> entry : contentletMap.entrySet()){
+			final String lowerCaseKey = entry.getKey().toLowerCase();
+			Object lowerCaseValue = entry.getValue();
+
+			if (UtilMethods.isSet(lowerCaseValue) && (lowerCaseValue instanceof String || (
+					//filters relationships
+                    !(lowerCaseValue instanceof List) &&
+					 !lowerCaseKey
+							.endsWith(ESMappingConstants.TAGS)))) {
+
+				if (lowerCaseValue instanceof String){
+					lowerCaseValue = ((String) lowerCaseValue).toLowerCase();
+				}
+
+                if (!lowerCaseKey.endsWith(TEXT)){
+					//for example: when lowerCaseValue=moddate, moddate_dotraw must be created from its moddate_text if exists
+					//when the moddate_text is evaluated.
+					if (!contentletMap.containsKey(entry.getKey() + TEXT)){
+						mlowered.put(lowerCaseKey + "_dotraw", lowerCaseValue);
+					}
+				}else{
+					mlowered.put(lowerCaseKey.replace(TEXT, "_dotraw"), lowerCaseValue);
+				}
+			}
+
+			mlowered.put(lowerCaseKey, lowerCaseValue);
+
+			//exclude null values and relationships because they where appended on the loadRelationships method
+			if(lowerCaseValue!=null && !(lowerCaseValue instanceof List)) {
+				sw.append(lowerCaseValue.toString()).append(' ');
+			}
+		}
+	}
+
     /**
      * Adds the current workflow task to the contentlet in order to be reindexed.
      * 
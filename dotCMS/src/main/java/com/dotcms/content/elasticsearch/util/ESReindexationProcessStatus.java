@@ -15,6 +15,61 @@ import com.dotmarketing.exception.DotDataException;
 public class ESReindexationProcessStatus implements Serializable {
     private static final ContentletIndexAPIImpl indexAPI = new ContentletIndexAPIImpl();
 
+    /**
+     * Phases of the bulk load profile applied to the indices of a full reindex, tracked on the node running them
+     */
+    public enum BulkLoadPhase { BULK_LOADING, MERGING, DONE, FAILED, ABORTED }
+
+    private static volatile BulkLoadPhase bulkLoadPhase = null;
+    private static volatile long bulkLoadStartedAt = 0;
+    private static volatile long bulkLoadFinishedAt = 0;
+    private static volatile long mergeStartedAt = 0;
+    private static volatile long mergeFinishedAt = 0;
+
+    public static void bulkLoadStarted() {
+        bulkLoadPhase      = BulkLoadPhase.BULK_LOADING;
+        bulkLoadStartedAt  = System.currentTimeMillis();
+        bulkLoadFinishedAt = 0;
+        mergeStartedAt     = 0;
+        mergeFinishedAt    = 0;
+    }
+
+    public static void mergeStarted() {
+        if (bulkLoadPhase != BulkLoadPhase.BULK_LOADING) {
+            return;
+        }
+        bulkLoadPhase      = BulkLoadPhase.MERGING;
+        bulkLoadFinishedAt = mergeStartedAt = System.currentTimeMillis();
+    }
+
+    public static void mergeFinished(final boolean succeeded) {
+        if (bulkLoadPhase != BulkLoadPhase.MERGING) {
+            return;
+        }
+        bulkLoadPhase   = succeeded ? BulkLoadPhase.DONE : BulkLoadPhase.FAILED;
+        mergeFinishedAt = System.currentTimeMillis();
+    }
+
+    public static void bulkLoadAborted() {
+        if (bulkLoadPhase != BulkLoadPhase.BULK_LOADING) {
+            return;
+        }
+        bulkLoadPhase      = BulkLoadPhase.ABORTED;
+        bulkLoadFinishedAt = System.currentTimeMillis();
+    }
+
+    private static Map<String, Object> getBulkLoadProfileMap() {
+        final Map<String, Object> bulkLoadMap = new Hashtable<>();
+        final long now = System.currentTimeMillis();
+
+        bulkLoadMap.put("phase", bulkLoadPhase.name());
+        bulkLoadMap.put("bulkLoadMillis", (bulkLoadFinishedAt > 0 ? bulkLoadFinishedAt : now) - bulkLoadStartedAt);
+        if (mergeStartedAt > 0) {
+            bulkLoadMap.put("mergeMillis", (mergeFinishedAt > 0 ? mergeFinishedAt : now) - mergeStartedAt);
+        }
+        return bulkLoadMap;
+    }
+
     public synchronized static boolean inFullReindexation() throws DotDataException {
         return indexAPI.isInFullReindex();
     }
@@ -70,6 +125,9 @@ public class ESReindexationProcessStatus implements Serializable {
             theMap.put("newIndexPath", getNewIndexPath());
             theMap.put("reindexTimeElapsed", indexAPI.reindexTimeElapsed().orElse(null));
         }
+        if (bulkLoadPhase != null) {
+            theMap.put("bulkLoadProfile", getBulkLoadProfileMap());
+        }
         return theMap;
     }
 }
@@ -7,7 +7,9 @@ import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.portlets.contentlet.model.Contentlet;
 import com.dotmarketing.portlets.structure.model.Relationship;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface RelationshipFactory {
@@ -52,6 +54,18 @@ public interface RelationshipFactory {
             final boolean hasParent, final boolean live, final String orderBy, int limit, int offset)
             throws DotDataException;
 
+    /**
+     * Returns the identifiers related through the relationship to each of the given identifiers, in tree order, with
+     * one query per chunk of identifiers instead of one per contentlet. Only the related identifiers that have a
+     * version are returned, the identifiers with no related content are left out of the map
+     * @param relationship {@link Relationship}
+     * @param identifiers identifiers of the contentlets
+     * @param hasParent true if the contentlets are the parents of the relationship (their children are returned)
+     * @return Map identifier to its related identifiers
+     */
+    Map<String, List<String>> dbRelatedIdentifiers(final Relationship relationship, final Collection<String> identifiers,
+            final boolean hasParent) throws DotDataException;
+
     List<Tree> relatedContentTrees(final Relationship relationship, final Contentlet contentlet) throws  DotDataException;
 
     List<Tree> relatedContentTrees(final Relationship relationship, final Contentlet contentlet, final boolean hasParent) throws  DotDataException;
@@ -27,15 +27,21 @@ import com.dotmarketing.util.InodeUtils;
 import com.dotmarketing.util.Logger;
 import com.dotmarketing.util.UUIDGenerator;
 import com.dotmarketing.util.UtilMethods;
+import com.google.common.collect.Lists;
 import com.liferay.util.StringPool;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 public class RelationshipFactoryImpl implements RelationshipFactory{
 
+    private static final int RELATED_IDENTIFIERS_CHUNK_SIZE = 500;
+
 	private static final RelationshipSQL sql= RelationshipSQL.getInstance();
 
     private static final RelationshipCache cache = CacheLocator.getRelationshipCache();
@@ -354,6 +360,34 @@ public class RelationshipFactoryImpl implements RelationshipFactory{
         return matches;
     }
 
+    @Override
+    public Map<String, List<String>> dbRelatedIdentifiers(final Relationship relationship,
+            final Collection<String> identifiers, final boolean hasParent) throws DotDataException {
+
+        final String sourceColumn  = hasParent ? "parent" : "child";
+        final String relatedColumn = hasParent ? "child" : "parent";
+        final Map<String, List<String>> relatedIdentifiers = new HashMap<>();
+
+        for (final List<String> chunk : Lists.partition(new ArrayList<>(new LinkedHashSet<>(identifiers)),
+                RELATED_IDENTIFIERS_CHUNK_SIZE)) {
+
+            final DotConnect dc = new DotConnect();
+            dc.setSQL("select tree.parent, tree.child from tree where tree.relation_type = ? and tree."
+                    + sourceColumn + " in (" + DotConnect.createParametersPlaceholder(chunk.size()) + ") "
+                    + "and exists (select 1 from contentlet_version_info vi1 where vi1.identifier = tree."
+                    + relatedColumn + ") order by tree.tree_order");
+            dc.addParam(relationship.getRelationTypeValue());
+            chunk.forEach(dc::addParam);
+
+            for (final Map<String, Object> row : dc.loadObjectResults()) {
+                relatedIdentifiers.computeIfAbsent((String) row.get(sourceColumn), k -> new ArrayList<>())
+                        .add((String) row.get(relatedColumn));
+            }
+        }
+
+        return relatedIdentifiers;
+    }
+
     @Override
     public  List<Tree> relatedContentTrees(final Relationship relationship, final Contentlet contentlet) throws  DotDataException {
         final String stInode = contentlet.getContentTypeId();
@@ -2,12 +2,22 @@ package com.dotcms.contenttype.model.field.event;
 
 public class FieldDeletedEvent {
     private String fieldVar;
+    private String contentTypeId;
 
     public FieldDeletedEvent(String fieldVar) {
         this.fieldVar = fieldVar;
     }
 
+    public FieldDeletedEvent(String fieldVar, String contentTypeId) {
+        this.fieldVar = fieldVar;
+        this.contentTypeId = contentTypeId;
+    }
+
     public String getFieldVar() {
         return fieldVar;
     }
+
+    public String getContentTypeId() {
+        return contentTypeId;
+    }
 }
@@ -1,5 +1,7 @@
 package com.dotcms.graphql;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.CharStreams;
 
@@ -32,7 +34,6 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.Part;
 
-import graphql.ExecutionResult;
 import graphql.introspection.IntrospectionQuery;
 import graphql.schema.GraphQLFieldDefinition;
 import graphql.servlet.GraphQLBatchedInvocationInput;
@@ -60,6 +61,9 @@ public abstract class AbstractGraphQLHttpServlet extends HttpServlet implements
 
     private static final GraphQLRequest INTROSPECTION_REQUEST = new GraphQLRequest(IntrospectionQuery.INTROSPECTION_QUERY, new HashMap<>(), null);
     private static final String[] MULTIPART_KEYS = new String[]{"operations", "graphql", "query"};
+    private static final String PERSISTED_QUERY_NOT_FOUND =
+            "{\"errors\":[{\"message\":\"PersistedQueryNotFound\",\"extensions\":{\"code\":\"PERSISTED_QUERY_NOT_FOUND\"}}]}";
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
 
     private GraphQLConfiguration configuration;
 
@@ -127,10 +131,10 @@ public abstract class AbstractGraphQLHttpServlet extends HttpServlet implements
                 path = request.getServletPath();
             }
             if (path.contentEquals("/schema.json")) {
-                query(queryInvoker, graphQLObjectMapper, invocationInputFactory.create(INTROSPECTION_REQUEST, request, response), response);
+                query(queryInvoker, graphQLObjectMapper, INTROSPECTION_REQUEST, invocationInputFactory.create(INTROSPECTION_REQUEST, request, response), response);
             } else {
                 String query = request.getParameter("query");
-                if (query != null) {
+                if (query != null || request.getParameter("extensions") != null) {
 
                     if (isBatchedQuery(query)) {
                         queryBatched(queryInvoker, graphQLObjectMapper, invocationInputFactory.createReadOnly(graphQLObjectMapper.readBatchedGraphQLRequest(query), request, response), response);
@@ -141,8 +145,23 @@ public abstract class AbstractGraphQLHttpServlet extends HttpServlet implements
                         }
 
                         String operationName = request.getParameter("operationName");
+                        final Map<String, Object> extensions = request.getParameter("extensions") != null ?
+                                graphQLObjectMapper.deserializeVariables(request.getParameter("extensions")) : null;
+
+                        final Optional<GraphQLRequest> graphQLRequest =
+                                resolvePersistedQuery(new GraphQLRequest(query, variables, operationName), extensions);
+                        if (!graphQLRequest.isPresent()) {
+                            persistedQueryNotFound(response);
+                            return;
+                        }
+
+                        if (!hasQuery(graphQLRequest.get())) {
+                            response.setStatus(STATUS_BAD_REQUEST);
+                            log.info("Bad GET request: no query variable named \"query\" nor persisted query hash given");
+                            return;
+                        }
 
-                        query(queryInvoker, graphQLObjectMapper, invocationInputFactory.createReadOnly(new GraphQLRequest(query, variables, operationName), request, response), response);
+                        query(queryInvoker, graphQLObjectMapper, graphQLRequest.get(), invocationInputFactory.createReadOnly(graphQLRequest.get(), request, response), response);
                     }
                 } else {
                     response.setStatus(STATUS_BAD_REQUEST);
@@ -158,7 +177,8 @@ public abstract class AbstractGraphQLHttpServlet extends HttpServlet implements
 
             if (APPLICATION_GRAPHQL.equals(request.getContentType())) {
                 String query = CharStreams.toString(request.getReader());
-                query(queryInvoker, graphQLObjectMapper, invocationInputFactory.create(new GraphQLRequest(query, null, null)), response);
+                final GraphQLRequest graphQLRequest = new GraphQLRequest(query, null, null);
+                query(queryInvoker, graphQLObjectMapper, graphQLRequest, invocationInputFactory.create(graphQLRequest), response);
             } else if (request.getContentType() != null && request.getContentType().startsWith("multipart/form-data") && !request.getParts().isEmpty()) {
                 final Map<String, List<Part>> fileItems = request.getParts()
                     .stream()
@@ -202,7 +222,7 @@ public abstract class AbstractGraphQLHttpServlet extends HttpServlet implements
                         GraphQLSingleInvocationInput invocationInput =
                             invocationInputFactory.create(graphQLRequest, request, response);
                         invocationInput.getContext().setParts(fileItems);
-                        query(queryInvoker, graphQLObjectMapper, invocationInput, response);
+                        query(queryInvoker, graphQLObjectMapper, graphQLRequest, invocationInput, response);
                         return;
                     }
                 }
@@ -216,7 +236,21 @@ public abstract class AbstractGraphQLHttpServlet extends HttpServlet implements
                 if (isBatchedQuery(inputStream)) {
                     queryBatched(queryInvoker, graphQLObjectMapper, invocationInputFactory.create(graphQLObjectMapper.readBatchedGraphQLRequest(inputStream), request, response), response);
                 } else {
-                    query(queryInvoker, graphQLObjectMapper, invocationInputFactory.create(graphQLObjectMapper.readGraphQLRequest(inputStream), request, response), response);
+                    final JsonNode requestNode = JSON_MAPPER.readTree(ByteStreams.toByteArray(inputStream));
+                    final Optional<GraphQLRequest> graphQLRequest = resolvePersistedQuery(
+                            readGraphQLRequest(requestNode, graphQLObjectMapper), readExtensions(requestNode));
+                    if (!graphQLRequest.isPresent()) {
+                        persistedQueryNotFound(response);
+                        return;
+                    }
+
+                    if (!hasQuery(graphQLRequest.get())) {
+                        response.setStatus(STATUS_BAD_REQUEST);
+                        log.info("Bad POST request: no \"query\" nor persisted query hash given");
+                        return;
+                    }
+
+                    query(queryInvoker, graphQLObjectMapper, graphQLRequest.get(), invocationInputFactory.create(graphQLRequest.get(), request, response), response);
                 }
             }
         };
@@ -251,6 +285,57 @@ public abstract class AbstractGraphQLHttpServlet extends HttpServlet implements
         return graphQLRequest;
     }
 
+    @SuppressWarnings("unchecked")
+    private GraphQLRequest readGraphQLRequest(final JsonNode requestNode, final GraphQLObjectMapper graphQLObjectMapper) {
+        final String query = requestNode.hasNonNull("query") ? requestNode.get("query").asText() : null;
+        final String operationName = requestNode.hasNonNull("operationName") ? requestNode.get("operationName").asText() : null;
+        final Map<String, Object> variables = new HashMap<>();
+
+        final JsonNode variablesNode = requestNode.get("variables");
+        if (variablesNode != null && !variablesNode.isNull()) {
+            variables.putAll(variablesNode.isTextual()
+                    ? graphQLObjectMapper.deserializeVariables(variablesNode.asText())
+                    : JSON_MAPPER.convertValue(variablesNode, Map.class));
+        }
+
+        return new GraphQLRequest(query, variables, operationName);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readExtensions(final JsonNode requestNode) {
+        final JsonNode extensionsNode = requestNode.get("extensions");
+        return extensionsNode != null && extensionsNode.isObject() ? JSON_MAPPER.convertValue(extensionsNode, Map.class) : null;
+    }
+
+    private boolean hasQuery(final GraphQLRequest graphQLRequest) {
+        return graphQLRequest.getQuery() != null && !graphQLRequest.getQuery().trim().isEmpty();
+    }
+
+    private void persistedQueryNotFound(final HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_JSON_UTF8);
+        response.setStatus(STATUS_OK);
+        response.getWriter().write(PERSISTED_QUERY_NOT_FOUND);
+    }
+
+    /**
+     * Resolves the query of a request that uses a persisted query (sent as the sha256 hash of the query in the
+     * <code>persistedQuery</code> extension). By default persisted queries are not supported and the request is
+     * returned as it is.
+     *
+     * @return the request to execute, or empty if the request only sent a hash that is not registered
+     */
+    protected Optional<GraphQLRequest> resolvePersistedQuery(final GraphQLRequest graphQLRequest, final Map<String, Object> extensions) {
+        return Optional.of(graphQLRequest);
+    }
+
+    /**
+     * Executes a single query and returns the result as json, can be overridden to cache the results
+     */
+    protected String queryAsJson(final GraphQLQueryInvoker queryInvoker, final GraphQLObjectMapper graphQLObjectMapper,
+                                 final GraphQLRequest graphQLRequest, final GraphQLSingleInvocationInput invocationInput) {
+        return graphQLObjectMapper.serializeResultAsJson(queryInvoker.query(invocationInput));
+    }
+
     private void mapMultipartVariables(GraphQLRequest request,
                                        Map<String, List<String>> variablesMap,
                                        Map<String, List<Part>> fileItems) {
@@ -337,12 +422,12 @@ public abstract class AbstractGraphQLHttpServlet extends HttpServlet implements
         return Optional.ofNullable(fileItems.get(name)).filter(list -> !list.isEmpty()).map(list -> list.get(0));
     }
 
-    private void query(GraphQLQueryInvoker queryInvoker, GraphQLObjectMapper graphQLObjectMapper, GraphQLSingleInvocationInput invocationInput, HttpServletResponse resp) throws IOException {
-        ExecutionResult result = queryInvoker.query(invocationInput);
+    private void query(GraphQLQueryInvoker queryInvoker, GraphQLObjectMapper graphQLObjectMapper, GraphQLRequest graphQLRequest, GraphQLSingleInvocationInput invocationInput, HttpServletResponse resp) throws IOException {
+        String result = queryAsJson(queryInvoker, graphQLObjectMapper, graphQLRequest, invocationInput);
 
         resp.setContentType(APPLICATION_JSON_UTF8);
         resp.setStatus(STATUS_OK);
-        resp.getWriter().write(graphQLObjectMapper.serializeResultAsJson(result));
+        resp.getWriter().write(result);
     }
 
     private void queryBatched(GraphQLQueryInvoker queryInvoker, GraphQLObjectMapper graphQLObjectMapper, GraphQLBatchedInvocationInput invocationInput, HttpServletResponse resp) throws Exception {
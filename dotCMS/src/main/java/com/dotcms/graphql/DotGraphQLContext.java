@@ -1,23 +1,40 @@
 package com.dotcms.graphql;
 
+import com.dotcms.graphql.dataloader.GraphQLDataLoaders;
 import com.liferay.portal.model.User;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+
 import graphql.servlet.GraphQLContext;
 
 public class DotGraphQLContext extends GraphQLContext {
 
     private final User user;
+    private final DataLoaderRegistry dataLoaderRegistry;
 
     public DotGraphQLContext(final HttpServletRequest httpServletRequest,
                              final HttpServletResponse httpServletResponse, final User user) {
         super(httpServletRequest, httpServletResponse);
         this.user = user;
+        // the registry is request scoped, the query invoker adds the dispatcher instrumentation when it is set
+        this.dataLoaderRegistry = GraphQLDataLoaders.newRegistry(user);
+        this.setDataLoaderRegistry(this.dataLoaderRegistry);
     }
 
     public User getUser() {
         return user;
     }
+
+    /**
+     * Returns the request scoped data loader registered with the given name on {@link GraphQLDataLoaders}
+     * @param name {@link String}
+     * @return DataLoader
+     */
+    public <K, V> DataLoader<K, V> getDataLoader(final String name) {
+        return this.dataLoaderRegistry.getDataLoader(name);
+    }
 }
@@ -1,14 +1,34 @@
 package com.dotcms.graphql;
 
+import com.dotcms.graphql.business.GraphQLCache;
+import com.dotcms.rest.api.v1.DotObjectMapperProvider;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.Logger;
+import com.dotmarketing.util.UtilMethods;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import com.liferay.portal.model.User;
+
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
 
+import graphql.ExecutionResult;
 import graphql.servlet.GraphQLConfiguration;
 import graphql.servlet.GraphQLInvocationInputFactory;
 import graphql.servlet.GraphQLObjectMapper;
 import graphql.servlet.GraphQLQueryInvoker;
+import graphql.servlet.GraphQLSingleInvocationInput;
+import graphql.servlet.internal.GraphQLRequest;
 
 public class DotGraphQLHttpServlet extends AbstractGraphQLHttpServlet {
 
+    private static final String PERSISTED_QUERY_EXTENSION = "persistedQuery";
+    private static final String SHA256_HASH = "sha256Hash";
+
     @Override
     protected GraphQLQueryInvoker getQueryInvoker() {
         throw new UnsupportedOperationException();
@@ -35,7 +55,118 @@ public class DotGraphQLHttpServlet extends AbstractGraphQLHttpServlet {
             .with(new DotGraphQLSchemaProvider())
             .with(Collections.singletonList(new DotGraphQLServletListener()))
             .with(new DotGraphQLContextBuilder())
+            .with(GraphQLQueryInvoker.newBuilder()
+                .withPreparsedDocumentProvider(DotPreparsedDocumentProvider.getInstance())
+                .build())
             .build();
     }
 
+    /**
+     * Supports the automatic persisted queries protocol: the client sends the sha256 hash of the query in the
+     * <code>persistedQuery</code> extension, if the query text is sent too it gets registered under that hash,
+     * otherwise the query registered for the hash is used.
+     */
+    @Override
+    protected Optional<GraphQLRequest> resolvePersistedQuery(final GraphQLRequest graphQLRequest,
+                                                             final Map<String, Object> extensions) {
+
+        final String queryHash = getPersistedQueryHash(extensions);
+        if (null == queryHash) {
+            return Optional.of(graphQLRequest);
+        }
+
+        final GraphQLCache graphQLCache = CacheLocator.getGraphQLCache();
+
+        if (UtilMethods.isSet(graphQLRequest.getQuery())) {
+
+            if (queryHash.equalsIgnoreCase(sha256(graphQLRequest.getQuery()))) {
+                graphQLCache.putPersistedQuery(queryHash.toLowerCase(), graphQLRequest.getQuery());
+            } else {
+                Logger.warn(this, "The persisted query hash: " + queryHash + " does not match the query sent, it won't be registered");
+            }
+
+            return Optional.of(graphQLRequest);
+        }
+
+        return graphQLCache.getPersistedQuery(queryHash.toLowerCase()).map(query ->
+            new GraphQLRequest(query, graphQLRequest.getVariables(), graphQLRequest.getOperationName()));
+    }
+
+    /**
+     * When GRAPHQL_RESPONSE_CACHE_ENABLED is set, the responses of the queries made by the anonymous user (which
+     * always sees live content) are cached for GRAPHQL_RESPONSE_CACHE_TTL seconds or until content changes.
+     */
+    @Override
+    protected String queryAsJson(final GraphQLQueryInvoker queryInvoker, final GraphQLObjectMapper graphQLObjectMapper,
+                                 final GraphQLRequest graphQLRequest, final GraphQLSingleInvocationInput invocationInput) {
+
+        final Optional<String> responseKey = getResponseCacheKey(graphQLRequest, invocationInput);
+        if (!responseKey.isPresent()) {
+            return super.queryAsJson(queryInvoker, graphQLObjectMapper, graphQLRequest, invocationInput);
+        }
+
+        final GraphQLCache graphQLCache = CacheLocator.getGraphQLCache();
+        final Optional<String> cachedResponse = graphQLCache.getResponse(responseKey.get());
+        if (cachedResponse.isPresent()) {
+            return cachedResponse.get();
+        }
+
+        final ExecutionResult result = queryInvoker.query(invocationInput);
+        final String json = graphQLObjectMapper.serializeResultAsJson(result);
+        if (result.getErrors().isEmpty()) {
+            graphQLCache.putResponse(responseKey.get(), json,
+                Config.getIntProperty("GRAPHQL_RESPONSE_CACHE_TTL", 15));
+        }
+
+        return json;
+    }
+
+    @VisibleForTesting
+    Optional<String> getResponseCacheKey(final GraphQLRequest graphQLRequest,
+                                                 final GraphQLSingleInvocationInput invocationInput) {
+
+        if (!Config.getBooleanProperty("GRAPHQL_RESPONSE_CACHE_ENABLED", false)
+            || !UtilMethods.isSet(graphQLRequest.getQuery())
+            || !(invocationInput.getContext() instanceof DotGraphQLContext)) {
+            return Optional.empty();
+        }
+
+        final DotGraphQLContext context = (DotGraphQLContext) invocationInput.getContext();
+        final User user = context.getUser();
+        if (null == user || !user.isAnonymousUser()) {
+            return Optional.empty();
+        }
+
+        try {
+
+            final String serverName = context.getHttpServletRequest().isPresent()
+                ? context.getHttpServletRequest().get().getServerName() : "";
+            final String variables = DotObjectMapperProvider.getInstance().getDefaultObjectMapper()
+                .writeValueAsString(null != graphQLRequest.getVariables() ? graphQLRequest.getVariables()
+                    : Collections.emptyMap());
+
+            return Optional.of(sha256(serverName + "|" + graphQLRequest.getOperationName() + "|" +
+                graphQLRequest.getQuery() + "|" + variables));
+        } catch (JsonProcessingException e) {
+
+            Logger.debug(this, "Could not create the response cache key: " + e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    private String getPersistedQueryHash(final Map<String, Object> extensions) {
+
+        final Object persistedQuery = null != extensions ? extensions.get(PERSISTED_QUERY_EXTENSION) : null;
+        if (persistedQuery instanceof Map) {
+
+            final Object hash = ((Map) persistedQuery).get(SHA256_HASH);
+            return null != hash ? hash.toString() : null;
+        }
+
+        return null;
+    }
+
+    private static String sha256(final String value) {
+        return Hashing.sha256().hashString(value, StandardCharsets.UTF_8).toString();
+    }
 }
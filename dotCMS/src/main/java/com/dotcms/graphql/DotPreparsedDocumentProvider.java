@@ -0,0 +1,64 @@
+package com.dotcms.graphql;
+
+import com.dotmarketing.util.Config;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.function.Function;
+
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+
+/**
+ * Keeps the parsed and validated {@link graphql.language.Document} of the queries already executed, so the same
+ * query is not parsed and validated against the schema on every request.
+ * Only the documents without errors are kept, and all of them are discarded when the schema is invalidated since
+ * they were validated against the previous one.
+ */
+public class DotPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+    private volatile Cache<String, PreparsedDocumentEntry> documentCache = newCache();
+
+    private DotPreparsedDocumentProvider() {}
+
+    private static class SingletonHolder {
+        private static final DotPreparsedDocumentProvider INSTANCE = new DotPreparsedDocumentProvider();
+    }
+
+    public static DotPreparsedDocumentProvider getInstance() {
+        return SingletonHolder.INSTANCE;
+    }
+
+    private static Cache<String, PreparsedDocumentEntry> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(Config.getIntProperty("GRAPHQL_DOCUMENT_CACHE_SIZE", 1000))
+                .build();
+    }
+
+    @Override
+    public PreparsedDocumentEntry get(final String query,
+                                      final Function<String, PreparsedDocumentEntry> computeFunction) {
+
+        // keeps the cache instance used to compute the entry, if the schema is invalidated meanwhile the entry
+        // ends up in the discarded cache instead of the new one
+        final Cache<String, PreparsedDocumentEntry> cache = this.documentCache;
+        final PreparsedDocumentEntry cachedEntry = cache.getIfPresent(query);
+        if (null != cachedEntry) {
+            return cachedEntry;
+        }
+
+        final PreparsedDocumentEntry entry = computeFunction.apply(query);
+        if (!entry.hasErrors()) {
+            cache.put(query, entry);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Discards all the parsed documents, must be called when the schema changes
+     */
+    public void invalidateAll() {
+        this.documentCache = newCache();
+    }
+}
@@ -0,0 +1,107 @@
+package com.dotcms.graphql.business;
+
+import com.dotmarketing.business.Cachable;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.business.DotCacheAdministrator;
+import com.dotmarketing.business.DotCacheException;
+import com.dotmarketing.util.Logger;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Cache for the GraphQL persisted queries (query text by sha256 hash) and for the responses of anonymous
+ * live queries. The responses group is flushed by the content modifications, same as the page cache it also
+ * honors a TTL set when the entry is added.
+ */
+public class GraphQLCache implements Cachable {
+
+    private static final String PERSISTED_QUERY_GROUP = "graphqlpersistedquerycache";
+    private static final String RESPONSE_GROUP        = "graphqlresponsecache";
+
+    private static final String[] GROUPS = {PERSISTED_QUERY_GROUP, RESPONSE_GROUP};
+
+    private final DotCacheAdministrator cache = CacheLocator.getCacheAdministrator();
+
+    @Override
+    public String getPrimaryGroup() {
+        return PERSISTED_QUERY_GROUP;
+    }
+
+    @Override
+    public String[] getGroups() {
+        return GROUPS;
+    }
+
+    @Override
+    public void clearCache() {
+        Arrays.asList(getGroups()).forEach(group -> cache.flushGroup(group));
+    }
+
+    /**
+     * Returns the query registered with the given sha256 hash
+     * @param queryHash {@link String}
+     * @return Optional query
+     */
+    public Optional<String> getPersistedQuery(final String queryHash) {
+
+        try {
+            return Optional.ofNullable((String) cache.get(queryHash, PERSISTED_QUERY_GROUP));
+        } catch (DotCacheException e) {
+            return Optional.empty();
+        }
+    }
+
+    public void putPersistedQuery(final String queryHash, final String query) {
+        cache.put(queryHash, query, PERSISTED_QUERY_GROUP);
+    }
+
+    /**
+     * Returns the cached json response for the given key if it has not expired yet
+     * @param responseKey {@link String}
+     * @return Optional json response
+     */
+    public Optional<String> getResponse(final String responseKey) {
+
+        try {
+
+            final CachedResponse cachedResponse = (CachedResponse) cache.get(responseKey, RESPONSE_GROUP);
+            if (null != cachedResponse) {
+
+                if (cachedResponse.expiresAt > System.currentTimeMillis()) {
+                    return Optional.of(cachedResponse.json);
+                }
+
+                cache.remove(responseKey, RESPONSE_GROUP);
+            }
+        } catch (DotCacheException e) {
+            Logger.debug(this, "cache entry :" + responseKey + " not found");
+        }
+
+        return Optional.empty();
+    }
+
+    public void putResponse(final String responseKey, final String json, final int ttlSeconds) {
+        cache.put(responseKey, new CachedResponse(json,
+                System.currentTimeMillis() + ttlSeconds * 1000L), RESPONSE_GROUP);
+    }
+
+    /**
+     * Removes all the cached responses, called when content changes
+     */
+    public void clearResponses() {
+        cache.flushGroup(RESPONSE_GROUP);
+    }
+
+    private static class CachedResponse implements Serializable {
+
+        private final String json;
+        private final long expiresAt;
+
+        private CachedResponse(final String json, final long expiresAt) {
+            this.json      = json;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -13,4 +13,18 @@ public interface GraphqlAPI {
     GraphQLOutputType getGraphqlTypeForFieldClass(final Class<? extends Field> fieldClass, final Field field);
     void invalidateSchema();
 
+    /**
+     * Flags the GraphQL type of a content type to be rebuilt, the rest of the schema is kept as it is.
+     * If the content type does not exist anymore its type is removed from the schema.
+     * @param contentTypeIdOrVar id or variable of the changed content type
+     */
+    void invalidateSchemaType(final String contentTypeIdOrVar);
+
+    /**
+     * Returns the time taken and the content types built by the last schema build, along with the totals since the
+     * start
+     * @return GraphqlSchemaBuildMetrics
+     */
+    GraphqlSchemaBuildMetrics getSchemaBuildMetrics();
+
 }
@@ -9,7 +9,9 @@ import static graphql.schema.GraphQLList.list;
 import static graphql.schema.GraphQLNonNull.nonNull;
 import static graphql.schema.GraphQLObjectType.newObject;
 
+import com.dotcms.concurrent.DotConcurrentFactory;
 import com.dotcms.contenttype.business.ContentTypeAPI;
+import com.dotcms.contenttype.exception.NotFoundInDbException;
 import com.dotcms.contenttype.model.field.BinaryField;
 import com.dotcms.contenttype.model.field.CategoryField;
 import com.dotcms.contenttype.model.field.CheckboxField;
@@ -31,6 +33,7 @@ import com.dotcms.contenttype.model.type.EnterpriseType;
 import com.dotcms.enterprise.LicenseUtil;
 import com.dotcms.enterprise.license.LicenseLevel;
 import com.dotcms.graphql.CustomFieldType;
+import com.dotcms.graphql.DotPreparsedDocumentProvider;
 import com.dotcms.graphql.InterfaceType;
 import com.dotcms.graphql.datafetcher.BinaryFieldDataFetcher;
 import com.dotcms.graphql.datafetcher.CategoryFieldDataFetcher;
@@ -45,6 +48,7 @@ import com.dotcms.graphql.datafetcher.TagsFieldDataFetcher;
 import com.dotcms.graphql.util.TypeUtil;
 import com.dotcms.util.LogTime;
 import com.dotmarketing.business.APILocator;
+import com.dotmarketing.business.CacheLocator;
 import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.exception.DotRuntimeException;
 import com.dotmarketing.exception.DotSecurityException;
@@ -53,6 +57,7 @@ import com.dotmarketing.portlets.structure.model.Relationship;
 import com.dotmarketing.util.Config;
 import com.dotmarketing.util.ConfigUtils;
 import com.dotmarketing.util.Logger;
+import com.google.common.annotations.VisibleForTesting;
 import com.liferay.portal.model.User;
 import graphql.scalars.ExtendedScalars;
 import graphql.schema.DataFetcher;
@@ -68,22 +73,54 @@ import graphql.schema.idl.SchemaPrinter;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
+/**
+ * Builds the GraphQL schema out of the content types.
+ * The GraphQL type of each content type is kept once built, so when a content type or one of its fields changes
+ * only that type (and the types pointing to it through relationship fields) are regenerated and the schema is
+ * assembled again out of the kept types. Unless GRAPHQL_SCHEMA_ASYNC_BUILD is turned off, the new schema is built
+ * on a background thread while the requests keep using the previous one, which gets replaced once the new one is ready.
+ */
 public class GraphqlAPIImpl implements GraphqlAPI {
 
+    public static final String GRAPHQL_SCHEMA_SUBMITTER_NAME = "graphqlschema";
+
     private Map<Class<? extends Field>, GraphQLOutputType> fieldClassGraphqlTypeMap = new HashMap<>();
 
     private Map<Class<? extends Field>, DataFetcher> fieldClassGraphqlDataFetcher = new HashMap<>();
 
     private volatile GraphQLSchema schema;
 
+    // GraphQL type by content type variable
+    private final Map<String, GraphQLObjectType> schemaTypes = new ConcurrentHashMap<>();
+
+    private final Map<String, String> contentTypeVarsById = new ConcurrentHashMap<>();
+
+    // content type variables referenced by the relationship fields of each content type
+    private final Map<String, Set<String>> relatedTypesByType = new ConcurrentHashMap<>();
+
+    // ids or variables of the content types changed since the current schema was built
+    private final Set<String> pendingTypes = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean fullBuildPending = new AtomicBoolean(false);
+
+    private final AtomicBoolean buildScheduled = new AtomicBoolean(false);
+
+    private volatile GraphqlSchemaBuildMetrics buildMetrics = GraphqlSchemaBuildMetrics.EMPTY;
+
     public static final String TYPES_AND_FIELDS_VALID_NAME_REGEX = "[_A-Za-z][_0-9A-Za-z]*";
 
     public GraphqlAPIImpl() {
@@ -113,22 +150,117 @@ public class GraphqlAPIImpl implements GraphqlAPI {
     @Override
     public GraphQLSchema getSchema() throws DotDataException {
         GraphQLSchema innerSchema = this.schema;
-        if(innerSchema == null) {
+        if(innerSchema == null || (!isAsyncBuild() && this.hasPendingChanges())) {
             synchronized (this) {
-                innerSchema = this.schema;
-                if(innerSchema == null) {
-                    this.schema = innerSchema = generateSchema();
-                }
+                innerSchema = this.buildSchema();
             }
         }
 
-        printSchema();
         return innerSchema;
     }
 
     @Override
     public void invalidateSchema() {
-        this.schema = null;
+        this.fullBuildPending.set(true);
+        this.scheduleBuild();
+    }
+
+    @Override
+    public void invalidateSchemaType(final String contentTypeIdOrVar) {
+        this.pendingTypes.add(contentTypeIdOrVar);
+        this.scheduleBuild();
+    }
+
+    @Override
+    public GraphqlSchemaBuildMetrics getSchemaBuildMetrics() {
+        return this.buildMetrics;
+    }
+
+    private static boolean isAsyncBuild() {
+        return Config.getBooleanProperty("GRAPHQL_SCHEMA_ASYNC_BUILD", true);
+    }
+
+    private boolean hasPendingChanges() {
+        return this.fullBuildPending.get() || !this.pendingTypes.isEmpty();
+    }
+
+    /**
+     * When there is no schema yet nothing is scheduled, the first call to {@link #getSchema()} builds it.
+     * Bursts of changes (i.e. saving a content type along with its fields) are coalesced into a single build.
+     */
+    private void scheduleBuild() {
+        if (null == this.schema || !isAsyncBuild() || !this.buildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        DotConcurrentFactory.getInstance().getSubmitter(GRAPHQL_SCHEMA_SUBMITTER_NAME).delay(() -> {
+            this.buildScheduled.set(false);
+            synchronized (this) {
+                try {
+                    this.buildSchema();
+                } catch (Exception e) {
+                    Logger.error(this, "Error building the GraphQL schema, the previous one is kept", e);
+                }
+            }
+        }, Config.getLongProperty("GRAPHQL_SCHEMA_BUILD_DELAY_MILLIS", 500), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Applies the pending changes and swaps the new schema in, must be called holding the lock of this instance.
+     */
+    private GraphQLSchema buildSchema() throws DotDataException {
+        final boolean fullBuild = null == this.schema || this.fullBuildPending.getAndSet(false);
+        if (!fullBuild && this.pendingTypes.isEmpty()) {
+            return this.schema;
+        }
+
+        final Set<String> changedTypes = new HashSet<>(this.pendingTypes);
+        this.pendingTypes.removeAll(changedTypes);
+
+        final long start = System.currentTimeMillis();
+        GraphQLSchema newSchema = null;
+        Set<String> rebuiltTypes = null;
+        boolean generated = fullBuild;
+
+        try {
+
+            if (!fullBuild) {
+                try {
+                    rebuiltTypes = this.rebuildSchemaTypes(changedTypes);
+                    newSchema    = this.assembleSchema();
+                } catch (Exception e) {
+                    Logger.warn(this, "Could not update the GraphQL schema types: " + changedTypes +
+                            ", the whole schema is going to be generated. " + e.getMessage(), e);
+                }
+            }
+
+            if (null == newSchema) {
+                newSchema    = this.generateSchema();
+                rebuiltTypes = new HashSet<>(this.schemaTypes.keySet());
+                generated    = true;
+            }
+        } catch (DotDataException | RuntimeException e) {
+            // the kept types could be half built
+            this.fullBuildPending.set(true);
+            throw e;
+        }
+
+        final boolean previousSchema = null != this.schema;
+        this.schema = newSchema;
+        final long buildTime = System.currentTimeMillis() - start;
+        this.buildMetrics = this.buildMetrics.add(generated, buildTime, rebuiltTypes, this.schemaTypes.size());
+
+        Logger.info(this, "GraphQL schema " + (generated ? "generated" : "updated") + " in " + buildTime +
+                " ms, " + rebuiltTypes.size() + " of " + this.schemaTypes.size() + " content types built");
+
+        if (previousSchema) {
+            // the parsed documents and cached responses were built against the previous schema
+            DotPreparsedDocumentProvider.getInstance().invalidateAll();
+            CacheLocator.getGraphQLCache().clearResponses();
+        }
+
+        printSchema();
+        return newSchema;
     }
 
     private void printSchema() {
@@ -150,14 +282,15 @@ public class GraphqlAPIImpl implements GraphqlAPI {
         }
     }
 
-    private void createSchemaType(ContentType contentType,
-                                              final Map<String, GraphQLObjectType> graphqlObjectTypes) {
+    private void createSchemaType(final ContentType contentType) {
 
         // skip contentType.variable not sticking to the regex
         if(!contentType.variable().matches(TYPES_AND_FIELDS_VALID_NAME_REGEX)) {
             return;
         }
 
+        final Set<String> relatedTypes = new HashSet<>();
+
         final GraphQLObjectType.Builder builder = GraphQLObjectType.newObject().name(contentType.variable());
 
         // add CONTENT interface fields
@@ -178,7 +311,7 @@ public class GraphqlAPIImpl implements GraphqlAPI {
 
             if(!(field instanceof RowField) && !(field instanceof ColumnField)) {
                 if (field instanceof RelationshipField) {
-                    handleRelationshipField(contentType, builder, field, graphqlObjectTypes);
+                    handleRelationshipField(contentType, builder, field, relatedTypes);
                 } else {
                     builder.field(newFieldDefinition()
                         .name(field.variable())
@@ -194,11 +327,19 @@ public class GraphqlAPIImpl implements GraphqlAPI {
         builder.withInterface(InterfaceType.CONTENTLET.getType());
         final GraphQLObjectType graphQLType = builder.build();
 
-        graphqlObjectTypes.put(graphQLType.getName(), graphQLType);
+        this.schemaTypes.put(graphQLType.getName(), graphQLType);
+        this.contentTypeVarsById.put(contentType.id(), contentType.variable());
+        this.relatedTypesByType.put(contentType.variable(), relatedTypes);
+    }
+
+    private void removeSchemaType(final String contentTypeVar) {
+        this.schemaTypes.remove(contentTypeVar);
+        this.relatedTypesByType.remove(contentTypeVar);
+        this.contentTypeVarsById.values().remove(contentTypeVar);
     }
 
     private void handleRelationshipField(final ContentType contentType, GraphQLObjectType.Builder builder,
-                                         final Field field, final Map<String, GraphQLObjectType> typesMap) {
+                                         final Field field, final Set<String> relatedTypes) {
 
         final ContentType relatedContentType;
         try {
@@ -222,9 +363,9 @@ public class GraphqlAPIImpl implements GraphqlAPI {
             relationship,
             APILocator.getRelationshipAPI().isChildField(relationship, field));
 
-        GraphQLOutputType outputType = typesMap.get(relatedContentType.variable()) != null
-            ? typesMap.get(relatedContentType.variable())
-            : GraphQLTypeReference.typeRef(relatedContentType.variable());
+        // always a reference, so the related type can be rebuilt independently of this one
+        GraphQLOutputType outputType = GraphQLTypeReference.typeRef(relatedContentType.variable());
+        relatedTypes.add(relatedContentType.variable());
 
 
         outputType = records.doesAllowOnlyOne()
@@ -257,23 +398,81 @@ public class GraphqlAPIImpl implements GraphqlAPI {
     private GraphQLSchema generateSchema() throws DotDataException {
         final ContentTypeAPI contentTypeAPI = APILocator.getContentTypeAPI(APILocator.systemUser());
 
-        List<ContentType> allTypes = contentTypeAPI.findAll();
-        // exclude ee types when no license
-        if(LicenseUtil.getLevel() <= LicenseLevel.COMMUNITY.level) {
-            allTypes = allTypes.stream().filter((type) ->!(type instanceof EnterpriseType))
-                    .collect(Collectors.toList());
-        }
+        final List<ContentType> allTypes = contentTypeAPI.findAll().stream().filter(this::isSchemaContentType)
+                .collect(Collectors.toList());
 
         // create all types
-        Map<String, GraphQLObjectType> concreteTypes = new HashMap<>();
+        this.schemaTypes.clear();
+        this.contentTypeVarsById.clear();
+        this.relatedTypesByType.clear();
+
+        allTypes.forEach(this::createSchemaType);
+
+        return this.assembleSchema();
+    }
+
+    /**
+     * Rebuilds the types of the changed content types plus the ones pointing to them through relationship fields,
+     * since the references on those were resolved to the previous instances when the current schema was built.
+     * @return the variables of the types built, the ones of the removed content types are not included
+     */
+    @VisibleForTesting
+    Set<String> rebuildSchemaTypes(final Set<String> changedTypes) throws DotDataException {
+
+        final Set<String> typesToRebuild = new HashSet<>();
+        for (final String idOrVar : changedTypes) {
+            typesToRebuild.add(this.findContentType(idOrVar).map(ContentType::variable)
+                    .orElse(this.contentTypeVarsById.getOrDefault(idOrVar, idOrVar)));
+        }
+
+        final Deque<String> toVisit = new ArrayDeque<>(typesToRebuild);
+        while (!toVisit.isEmpty()) {
+            final String typeVar = toVisit.pop();
+            this.relatedTypesByType.forEach((dependantVar, relatedTypes) -> {
+                if (relatedTypes.contains(typeVar) && typesToRebuild.add(dependantVar)) {
+                    toVisit.push(dependantVar);
+                }
+            });
+        }
+
+        final Set<String> built = new HashSet<>();
+        for (final String typeVar : typesToRebuild) {
+            this.removeSchemaType(typeVar);
+
+            final Optional<ContentType> contentType = this.findContentType(typeVar);
+            if (contentType.isPresent() && this.isSchemaContentType(contentType.get())) {
+                this.createSchemaType(contentType.get());
+                if (this.schemaTypes.containsKey(typeVar)) {
+                    built.add(typeVar);
+                }
+            }
+        }
+
+        return built;
+    }
+
+    private Optional<ContentType> findContentType(final String idOrVar) throws DotDataException {
+        try {
+            return Optional.of(APILocator.getContentTypeAPI(APILocator.systemUser()).find(idOrVar));
+        } catch (NotFoundInDbException e) {
+            return Optional.empty();
+        } catch (DotSecurityException e) {
+            throw new DotDataException(e);
+        }
+    }
+
+    // exclude ee types when no license
+    private boolean isSchemaContentType(final ContentType contentType) {
+        return LicenseUtil.getLevel() > LicenseLevel.COMMUNITY.level || !(contentType instanceof EnterpriseType);
+    }
 
-        allTypes.forEach((type)->createSchemaType(type, concreteTypes));
+    private GraphQLSchema assembleSchema() {
 
         final Set<GraphQLType> graphQLTypes = new HashSet<>(InterfaceType.valuesAsSet());
         // custom scalar types
         graphQLTypes.add(ExtendedScalars.DateTime);
         // add here the rest of types
-        graphQLTypes.addAll(concreteTypes.values());
+        graphQLTypes.addAll(this.schemaTypes.values());
 
         // Root Type
         GraphQLObjectType.Builder rootTypeBuilder = newObject()
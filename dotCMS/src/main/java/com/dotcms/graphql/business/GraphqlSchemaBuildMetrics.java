@@ -0,0 +1,115 @@
+package com.dotcms.graphql.business;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Set;
+
+/**
+ * Snapshot of the GraphQL schema builds done by the {@link GraphqlAPI}: the time and the content types built by the
+ * last build along with the totals since the start. A new instance is created on every build, so a snapshot never
+ * changes once returned.
+ */
+public class GraphqlSchemaBuildMetrics {
+
+    public static final GraphqlSchemaBuildMetrics EMPTY =
+            new GraphqlSchemaBuildMetrics(0, 0, false, 0, 0, ImmutableSet.of(), 0, 0);
+
+    private final long builds;
+    private final long fullBuilds;
+    private final boolean lastBuildFull;
+    private final long lastBuildTimeMillis;
+    private final long totalBuildTimeMillis;
+    private final Set<String> lastRebuiltTypes;
+    private final long totalRebuiltTypes;
+    private final int schemaTypes;
+
+    private GraphqlSchemaBuildMetrics(final long builds, final long fullBuilds, final boolean lastBuildFull,
+                                      final long lastBuildTimeMillis, final long totalBuildTimeMillis,
+                                      final Set<String> lastRebuiltTypes, final long totalRebuiltTypes,
+                                      final int schemaTypes) {
+
+        this.builds               = builds;
+        this.fullBuilds           = fullBuilds;
+        this.lastBuildFull        = lastBuildFull;
+        this.lastBuildTimeMillis  = lastBuildTimeMillis;
+        this.totalBuildTimeMillis = totalBuildTimeMillis;
+        this.lastRebuiltTypes     = lastRebuiltTypes;
+        this.totalRebuiltTypes    = totalRebuiltTypes;
+        this.schemaTypes          = schemaTypes;
+    }
+
+    /**
+     * Returns the metrics after one more build
+     * @param fullBuild    boolean true if the whole schema was generated, false if only the changed types were rebuilt
+     * @param buildTime    long millis taken by the build
+     * @param rebuiltTypes {@link Set} variables of the content types built
+     * @param schemaTypes  int amount of content types in the new schema
+     * @return GraphqlSchemaBuildMetrics
+     */
+    GraphqlSchemaBuildMetrics add(final boolean fullBuild, final long buildTime, final Set<String> rebuiltTypes,
+                                  final int schemaTypes) {
+
+        return new GraphqlSchemaBuildMetrics(this.builds + 1, this.fullBuilds + (fullBuild ? 1 : 0), fullBuild,
+                buildTime, this.totalBuildTimeMillis + buildTime, ImmutableSet.copyOf(rebuiltTypes),
+                this.totalRebuiltTypes + rebuiltTypes.size(), schemaTypes);
+    }
+
+    /**
+     * Amount of schemas built, full or incremental
+     */
+    public long getBuilds() {
+        return builds;
+    }
+
+    /**
+     * Amount of schemas generated out of all the content types, including the incremental builds that fell back to
+     * a full one
+     */
+    public long getFullBuilds() {
+        return fullBuilds;
+    }
+
+    public boolean isLastBuildFull() {
+        return lastBuildFull;
+    }
+
+    public long getLastBuildTimeMillis() {
+        return lastBuildTimeMillis;
+    }
+
+    public long getTotalBuildTimeMillis() {
+        return totalBuildTimeMillis;
+    }
+
+    /**
+     * Variables of the content types whose GraphQL type was built by the last build, the removed ones are not included
+     */
+    public Set<String> getLastRebuiltTypes() {
+        return lastRebuiltTypes;
+    }
+
+    public long getTotalRebuiltTypes() {
+        return totalRebuiltTypes;
+    }
+
+    /**
+     * Amount of content types in the current schema
+     */
+    public int getSchemaTypes() {
+        return schemaTypes;
+    }
+
+    @Override
+    public String toString() {
+        return "GraphqlSchemaBuildMetrics{" +
+                "builds=" + builds +
+                ", fullBuilds=" + fullBuilds +
+                ", lastBuildFull=" + lastBuildFull +
+                ", lastBuildTimeMillis=" + lastBuildTimeMillis +
+                ", totalBuildTimeMillis=" + totalBuildTimeMillis +
+                ", lastRebuiltTypes=" + lastRebuiltTypes.size() +
+                ", totalRebuiltTypes=" + totalRebuiltTypes +
+                ", schemaTypes=" + schemaTypes +
+                '}';
+    }
+}
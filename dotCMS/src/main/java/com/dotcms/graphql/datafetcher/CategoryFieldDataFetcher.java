@@ -1,28 +1,32 @@
 package com.dotcms.graphql.datafetcher;
 
 import com.dotcms.graphql.DotGraphQLContext;
-import com.dotmarketing.business.APILocator;
+import com.dotcms.graphql.dataloader.GraphQLDataLoaders;
 import com.dotmarketing.portlets.contentlet.model.Contentlet;
-import com.dotmarketing.portlets.contentlet.transform.CategoryToMapTransformer;
 import com.dotmarketing.util.Logger;
-import com.liferay.portal.model.User;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.dataloader.DataLoader;
 
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 
-public class CategoryFieldDataFetcher implements DataFetcher<List<Map<String, Object>>> {
+public class CategoryFieldDataFetcher implements DataFetcher<CompletableFuture<List<Map<String, Object>>>> {
     @Override
-    public List<Map<String, Object>> get(final DataFetchingEnvironment environment) throws Exception {
+    public CompletableFuture<List<Map<String, Object>>> get(final DataFetchingEnvironment environment) throws Exception {
         try {
-            final User user = ((DotGraphQLContext) environment.getContext()).getUser();
             final Contentlet contentlet = environment.getSource();
             final String var = environment.getField().getName();
+            final DataLoader<Contentlet, Map<String, Object>> dataLoader = ((DotGraphQLContext) environment.getContext())
+                .getDataLoader(GraphQLDataLoaders.CATEGORIES);
 
-            final CategoryToMapTransformer transformer = new CategoryToMapTransformer(contentlet, user);
-            return (List<Map<String, Object>>) ((Map) transformer.asMap().get(var)).get("categories");
+            return dataLoader.load(contentlet).thenApply(categoriesMap ->
+                null != categoriesMap && categoriesMap.containsKey(var)
+                    ? (List<Map<String, Object>>) ((Map) categoriesMap.get(var)).get("categories")
+                    : null);
         } catch (Exception e) {
             Logger.error(this, e.getMessage(), e);
             throw e;
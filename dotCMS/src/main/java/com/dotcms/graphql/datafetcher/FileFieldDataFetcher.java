@@ -1,46 +1,36 @@
 package com.dotcms.graphql.datafetcher;
 
 import com.dotcms.graphql.DotGraphQLContext;
-import com.dotmarketing.business.APILocator;
+import com.dotcms.graphql.dataloader.FileAssetKey;
+import com.dotcms.graphql.dataloader.GraphQLDataLoaders;
 import com.dotmarketing.portlets.contentlet.model.Contentlet;
 import com.dotmarketing.portlets.fileassets.business.FileAsset;
 import com.dotmarketing.util.Logger;
-import com.dotmarketing.portlets.contentlet.transform.ContentletToMapTransformer;
 import com.dotmarketing.util.UtilMethods;
-import com.liferay.portal.model.User;
 
-import java.util.Collections;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.dataloader.DataLoader;
 
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 
-public class FileFieldDataFetcher implements DataFetcher<Contentlet> {
+public class FileFieldDataFetcher implements DataFetcher<CompletableFuture<FileAsset>> {
     @Override
-    public Contentlet get(final DataFetchingEnvironment environment) throws Exception {
+    public CompletableFuture<FileAsset> get(final DataFetchingEnvironment environment) throws Exception {
         try {
-            final User user = ((DotGraphQLContext) environment.getContext()).getUser();
             final Contentlet contentlet = environment.getSource();
             final String var = environment.getField().getName();
             final String fileAssetIdentifier = (String) contentlet.get(var);
 
             if (!UtilMethods.isSet(fileAssetIdentifier)) {
-                return null;
+                return CompletableFuture.completedFuture(null);
             }
 
-            Optional<Contentlet> fileAsContentOptional = APILocator.getContentletAPI()
-                .findContentletByIdentifierOrFallback(fileAssetIdentifier, contentlet.isLive(), contentlet.getLanguageId(),
-                    user, true);
-
-            FileAsset fileAsset = null;
-
-            if(fileAsContentOptional.isPresent()) {
-                final Contentlet fileAsContent =
-                    new ContentletToMapTransformer(Collections.singletonList(fileAsContentOptional.get())).hydrate().get(0);
-                fileAsset = APILocator.getFileAssetAPI().fromContentlet(fileAsContent);
-            }
+            final DataLoader<FileAssetKey, FileAsset> dataLoader = ((DotGraphQLContext) environment.getContext())
+                .getDataLoader(GraphQLDataLoaders.FILE_ASSET);
 
-            return fileAsset;
+            return dataLoader.load(new FileAssetKey(fileAssetIdentifier, contentlet.isLive(), contentlet.getLanguageId()));
         } catch (Exception e) {
             Logger.error(this, e.getMessage(), e);
             throw e;
@@ -1,26 +1,27 @@
 package com.dotcms.graphql.datafetcher;
 
 import com.dotcms.graphql.DotGraphQLContext;
+import com.dotcms.graphql.dataloader.GraphQLDataLoaders;
 import com.dotmarketing.portlets.contentlet.model.Contentlet;
-import com.dotmarketing.portlets.contentlet.transform.FolderToMapTransformer;
 import com.dotmarketing.util.Logger;
-import com.liferay.portal.model.User;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.dataloader.DataLoader;
 
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 
-public class FolderFieldDataFetcher implements DataFetcher<Map<String, Object>> {
+public class FolderFieldDataFetcher implements DataFetcher<CompletableFuture<Map<String, Object>>> {
     @Override
-    public Map<String, Object> get(final DataFetchingEnvironment environment) throws Exception {
+    public CompletableFuture<Map<String, Object>> get(final DataFetchingEnvironment environment) throws Exception {
         try {
-            final User user = ((DotGraphQLContext) environment.getContext()).getUser();
             final Contentlet contentlet = environment.getSource();
-            final Map<String, Object> folderMap = (Map<String, Object>) new FolderToMapTransformer(contentlet, user)
-                .asMap().get("folderMap");
+            final DataLoader<String, Map<String, Object>> dataLoader = ((DotGraphQLContext) environment.getContext())
+                .getDataLoader(GraphQLDataLoaders.FOLDER);
 
-            return folderMap;
+            return dataLoader.load(contentlet.getFolder());
         } catch (Exception e) {
             Logger.error(this, e.getMessage(), e);
             throw e;
@@ -1,34 +1,27 @@
 package com.dotcms.graphql.datafetcher;
 
 import com.dotcms.graphql.DotGraphQLContext;
-import com.dotmarketing.beans.Host;
-import com.dotmarketing.business.APILocator;
+import com.dotcms.graphql.dataloader.GraphQLDataLoaders;
 import com.dotmarketing.portlets.contentlet.model.Contentlet;
 import com.dotmarketing.util.Logger;
-import com.liferay.portal.model.User;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.dataloader.DataLoader;
 
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 
-public class SiteFieldDataFetcher implements DataFetcher<Map<String, Object>> {
+public class SiteFieldDataFetcher implements DataFetcher<CompletableFuture<Map<String, Object>>> {
     @Override
-    public Map<String, Object> get(final DataFetchingEnvironment environment) throws Exception {
+    public CompletableFuture<Map<String, Object>> get(final DataFetchingEnvironment environment) throws Exception {
         try {
-            final User user = ((DotGraphQLContext) environment.getContext()).getUser();
             final Contentlet contentlet = environment.getSource();
-            final Map<String, Object> siteMap = new HashMap<>();
-
-            final Host host = APILocator.getHostAPI().find(contentlet.getHost(), user, true);
-
-            siteMap.put("hostId", host.getIdentifier());
-            siteMap.put("hostName", host.getHostname());
-            siteMap.put("hostAliases", host.getAliases());
-            siteMap.put("hostTagStorage", host.getTagStorage());
+            final DataLoader<String, Map<String, Object>> dataLoader = ((DotGraphQLContext) environment.getContext())
+                .getDataLoader(GraphQLDataLoaders.SITE);
 
-            return siteMap;
+            return dataLoader.load(contentlet.getHost());
         } catch (Exception e) {
             Logger.error(this, e.getMessage(), e);
             throw e;
@@ -1,37 +1,40 @@
 package com.dotcms.graphql.datafetcher;
 
 import com.dotcms.graphql.DotGraphQLContext;
-import com.dotmarketing.beans.Host;
-import com.dotmarketing.business.APILocator;
+import com.dotcms.graphql.dataloader.GraphQLDataLoaders;
 import com.dotmarketing.portlets.contentlet.model.Contentlet;
-import com.dotmarketing.portlets.contentlet.transform.FolderToMapTransformer;
 import com.dotmarketing.util.Logger;
-import com.liferay.portal.model.User;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.dataloader.DataLoader;
 
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 
-public class SiteOrFolderFieldDataFetcher implements DataFetcher<Map<String, Object>> {
+public class SiteOrFolderFieldDataFetcher implements DataFetcher<CompletableFuture<Map<String, Object>>> {
     @Override
-    public Map<String, Object> get(final DataFetchingEnvironment environment) throws Exception {
+    public CompletableFuture<Map<String, Object>> get(final DataFetchingEnvironment environment) throws Exception {
         try {
-            final User user = ((DotGraphQLContext) environment.getContext()).getUser();
+            final DotGraphQLContext context = environment.getContext();
             final Contentlet contentlet = environment.getSource();
-            final Map<String, Object>
-                siteOrFolderMap =
-                (Map<String, Object>) new FolderToMapTransformer(contentlet, user)
-                    .asMap().get("folderMap");
-
-            final Host host = APILocator.getHostAPI().find(contentlet.getHost(), user, true);
-
-            siteOrFolderMap.put("hostId", host.getIdentifier());
-            siteOrFolderMap.put("hostName", host.getHostname());
-            siteOrFolderMap.put("hostAliases", host.getAliases());
-            siteOrFolderMap.put("hostTagStorage", host.getTagStorage());
+            final DataLoader<String, Map<String, Object>> folderLoader = context.getDataLoader(GraphQLDataLoaders.FOLDER);
+            final DataLoader<String, Map<String, Object>> siteLoader = context.getDataLoader(GraphQLDataLoaders.SITE);
 
-            return siteOrFolderMap;
+            // the loaded maps are cached for the whole request, so they are copied instead of modified
+            return folderLoader.load(contentlet.getFolder())
+                .thenCombine(siteLoader.load(contentlet.getHost()), (folderMap, siteMap) -> {
+                    final Map<String, Object> siteOrFolderMap = new HashMap<>();
+                    if (null != folderMap) {
+                        siteOrFolderMap.putAll(folderMap);
+                    }
+                    if (null != siteMap) {
+                        siteOrFolderMap.putAll(siteMap);
+                    }
+                    return siteOrFolderMap;
+                });
         } catch (Exception e) {
             Logger.error(this, e.getMessage(), e);
             throw e;
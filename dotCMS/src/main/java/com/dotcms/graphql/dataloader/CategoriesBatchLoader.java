@@ -0,0 +1,48 @@
+package com.dotcms.graphql.dataloader;
+
+import com.dotmarketing.portlets.contentlet.model.Contentlet;
+import com.dotmarketing.portlets.contentlet.transform.CategoryToMapTransformer;
+import com.dotmarketing.util.Logger;
+import com.liferay.portal.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.dataloader.BatchLoader;
+
+/**
+ * Loads the categories of the contentlets on a GraphQL query level. The parent categories of a contentlet are
+ * resolved once for all of its category fields, instead of once per field.
+ * The loader is registered with the contentlet inode as cache key.
+ */
+public class CategoriesBatchLoader implements BatchLoader<Contentlet, Map<String, Object>> {
+
+    private final User user;
+
+    public CategoriesBatchLoader(final User user) {
+        this.user = user;
+    }
+
+    @Override
+    public CompletionStage<List<Map<String, Object>>> load(final List<Contentlet> contentlets) {
+
+        final List<Map<String, Object>> categories = new ArrayList<>(contentlets.size());
+
+        for (final Contentlet contentlet : contentlets) {
+
+            try {
+
+                categories.add(new CategoryToMapTransformer(contentlet, this.user).asMap());
+            } catch (Exception e) {
+
+                Logger.error(this, e.getMessage(), e);
+                categories.add(null);
+            }
+        }
+
+        return CompletableFuture.completedFuture(categories);
+    }
+}
@@ -0,0 +1,111 @@
+package com.dotcms.graphql.dataloader;
+
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.portlets.contentlet.business.ContentletAPI;
+import com.dotmarketing.portlets.contentlet.model.Contentlet;
+import com.dotmarketing.portlets.contentlet.transform.ContentletToMapTransformer;
+import com.dotmarketing.portlets.fileassets.business.FileAsset;
+import com.dotmarketing.util.Logger;
+import com.liferay.portal.model.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+import org.dataloader.BatchLoader;
+
+/**
+ * Loads the file assets referenced by the file and image fields of a GraphQL query level at once.
+ * The keys are grouped by mode and language and each group is resolved with a single index query, the identifiers
+ * not found there (i.e. the ones that need the default language fallback) are resolved one by one as before.
+ */
+public class FileAssetBatchLoader implements BatchLoader<FileAssetKey, FileAsset> {
+
+    private final User user;
+    private final ContentletAPI contentletAPI;
+
+    public FileAssetBatchLoader(final User user) {
+
+        this.user          = user;
+        this.contentletAPI = APILocator.getContentletAPI();
+    }
+
+    @Override
+    public CompletionStage<List<FileAsset>> load(final List<FileAssetKey> keys) {
+
+        return CompletableFuture.completedFuture(this.loadFileAssets(keys));
+    }
+
+    private List<FileAsset> loadFileAssets(final List<FileAssetKey> keys) {
+
+        final Map<FileAssetKey, Contentlet> contentByKey = new HashMap<>();
+        final Map<String, List<FileAssetKey>> keysByModeAndLanguage = keys.stream().distinct()
+                .collect(Collectors.groupingBy(key -> key.isLive() + ":" + key.getLanguageId(),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        for (final List<FileAssetKey> groupKeys : keysByModeAndLanguage.values()) {
+
+            final Map<String, Contentlet> found = this.search(groupKeys);
+            for (final FileAssetKey key : groupKeys) {
+
+                final Contentlet contentlet = found.containsKey(key.getIdentifier()) ?
+                        found.get(key.getIdentifier()) : this.findWithFallback(key).orElse(null);
+                if (null != contentlet) {
+                    contentByKey.put(key, contentlet);
+                }
+            }
+        }
+
+        final Map<String, FileAsset> fileAssetsByInode = new HashMap<>();
+        new ContentletToMapTransformer(new ArrayList<>(contentByKey.values())).hydrate()
+                .forEach(hydrated -> fileAssetsByInode.putIfAbsent(hydrated.getInode(),
+                        APILocator.getFileAssetAPI().fromContentlet(hydrated)));
+
+        final List<FileAsset> fileAssets = new ArrayList<>(keys.size());
+        for (final FileAssetKey key : keys) {
+
+            final Contentlet contentlet = contentByKey.get(key);
+            fileAssets.add(null != contentlet ? fileAssetsByInode.get(contentlet.getInode()) : null);
+        }
+
+        return fileAssets;
+    }
+
+    private Map<String, Contentlet> search(final List<FileAssetKey> keys) {
+
+        final FileAssetKey firstKey = keys.get(0);
+        final String query = "+identifier:(" +
+                keys.stream().map(FileAssetKey::getIdentifier).collect(Collectors.joining(" OR ")) + ")" +
+                " +languageId:" + firstKey.getLanguageId() +
+                (firstKey.isLive() ? " +live:true" : " +working:true") + " +deleted:false";
+
+        try {
+
+            return this.contentletAPI.search(query, keys.size(), 0, null, this.user, true).stream()
+                    .collect(Collectors.toMap(Contentlet::getIdentifier, contentlet -> contentlet,
+                            (first, second) -> first));
+        } catch (Exception e) {
+
+            Logger.debug(this, "Could not batch load the file assets: " + e.getMessage(), e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private Optional<Contentlet> findWithFallback(final FileAssetKey key) {
+
+        try {
+            return this.contentletAPI.findContentletByIdentifierOrFallback(key.getIdentifier(), key.isLive(),
+                    key.getLanguageId(), this.user, true);
+        } catch (Exception e) {
+            Logger.error(this, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+}
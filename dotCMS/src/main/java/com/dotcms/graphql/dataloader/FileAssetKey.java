@@ -0,0 +1,52 @@
+package com.dotcms.graphql.dataloader;
+
+import java.util.Objects;
+
+/**
+ * Key used by the {@link FileAssetBatchLoader}, the identifier of the file asset plus the mode and language of the
+ * contentlet that references it
+ */
+public class FileAssetKey {
+
+    private final String identifier;
+    private final boolean live;
+    private final long languageId;
+
+    public FileAssetKey(final String identifier, final boolean live, final long languageId) {
+
+        this.identifier = identifier;
+        this.live       = live;
+        this.languageId = languageId;
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    public boolean isLive() {
+        return live;
+    }
+
+    public long getLanguageId() {
+        return languageId;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final FileAssetKey that = (FileAssetKey) o;
+        return live == that.live &&
+                languageId == that.languageId &&
+                Objects.equals(identifier, that.identifier);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(identifier, live, languageId);
+    }
+}
@@ -0,0 +1,63 @@
+package com.dotcms.graphql.dataloader;
+
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.portlets.folders.business.FolderAPI;
+import com.dotmarketing.portlets.folders.model.Folder;
+import com.dotmarketing.util.Logger;
+import com.liferay.portal.model.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.dataloader.BatchLoader;
+
+/**
+ * Loads the folder map of every distinct folder referenced on a GraphQL query level, each folder is resolved once
+ * per request no matter how many contentlets live on it
+ */
+public class FolderBatchLoader implements BatchLoader<String, Map<String, Object>> {
+
+    private final User user;
+    private final FolderAPI folderAPI;
+
+    public FolderBatchLoader(final User user) {
+
+        this.user      = user;
+        this.folderAPI = APILocator.getFolderAPI();
+    }
+
+    @Override
+    public CompletionStage<List<Map<String, Object>>> load(final List<String> folderInodes) {
+
+        final List<Map<String, Object>> folders = new ArrayList<>(folderInodes.size());
+
+        for (final String folderInode : folderInodes) {
+
+            try {
+
+                final Folder folder = this.folderAPI.find(folderInode, this.user, true);
+                final Map<String, Object> folderMap = new HashMap<>();
+
+                folderMap.put("folderId", folder.getIdentifier());
+                folderMap.put("folderFileMask", folder.getFilesMasks());
+                folderMap.put("folderSortOrder", folder.getSortOrder());
+                folderMap.put("folderName", folder.getName());
+                folderMap.put("folderPath", folder.getPath());
+                folderMap.put("folderTitle", folder.getTitle());
+                folderMap.put("folderDefaultFileType", folder.getDefaultFileType());
+
+                folders.add(folderMap);
+            } catch (Exception e) {
+
+                Logger.error(this, e.getMessage(), e);
+                folders.add(null);
+            }
+        }
+
+        return CompletableFuture.completedFuture(folders);
+    }
+}
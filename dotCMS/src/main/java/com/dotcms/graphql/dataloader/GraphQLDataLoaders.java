@@ -0,0 +1,42 @@
+package com.dotcms.graphql.dataloader;
+
+import com.dotmarketing.portlets.contentlet.model.Contentlet;
+import com.liferay.portal.model.User;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
+
+/**
+ * Creates the {@link DataLoaderRegistry} of a GraphQL request. Data loaders cache their results, so a new registry
+ * must be created for each request (and each user).
+ */
+public class GraphQLDataLoaders {
+
+    public static final String RELATED_CONTENT = "relatedContent";
+    public static final String FILE_ASSET      = "fileAsset";
+    public static final String SITE            = "site";
+    public static final String FOLDER          = "folder";
+    public static final String CATEGORIES      = "categories";
+
+    private GraphQLDataLoaders() {}
+
+    /**
+     * Creates a registry with all the dotCMS data loaders, using the given user for the permission checks
+     * @param user {@link User}
+     * @return DataLoaderRegistry
+     */
+    public static DataLoaderRegistry newRegistry(final User user) {
+
+        final DataLoaderRegistry registry = new DataLoaderRegistry();
+
+        registry.register(RELATED_CONTENT, DataLoader.newDataLoader(new RelatedContentBatchLoader(user)));
+        registry.register(FILE_ASSET,      DataLoader.newDataLoader(new FileAssetBatchLoader(user)));
+        registry.register(SITE,            DataLoader.newDataLoader(new SiteBatchLoader(user)));
+        registry.register(FOLDER,          DataLoader.newDataLoader(new FolderBatchLoader(user)));
+        registry.register(CATEGORIES,      DataLoader.newDataLoader(new CategoriesBatchLoader(user),
+                DataLoaderOptions.newOptions().setCacheKeyFunction(contentlet -> ((Contentlet) contentlet).getInode())));
+
+        return registry;
+    }
+}
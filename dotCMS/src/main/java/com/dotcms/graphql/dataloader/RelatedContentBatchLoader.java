@@ -0,0 +1,323 @@
+package com.dotcms.graphql.dataloader;
+
+import com.dotcms.contenttype.model.field.Field;
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.business.DotCacheException;
+import com.dotmarketing.business.DotStateException;
+import com.dotmarketing.business.PermissionAPI;
+import com.dotmarketing.business.RelationshipAPI;
+import com.dotmarketing.business.VersionableAPI;
+import com.dotmarketing.exception.DotDataException;
+import com.dotmarketing.exception.DotRuntimeException;
+import com.dotmarketing.exception.DotSecurityException;
+import com.dotmarketing.portlets.contentlet.business.ContentletAPI;
+import com.dotmarketing.portlets.contentlet.model.Contentlet;
+import com.dotmarketing.portlets.contentlet.model.ContentletVersionInfo;
+import com.dotmarketing.portlets.contentlet.transform.ContentletToMapTransformer;
+import com.dotmarketing.portlets.languagesmanager.business.LanguageAPI;
+import com.dotmarketing.portlets.languagesmanager.model.Language;
+import com.dotmarketing.portlets.structure.model.ContentletRelationships;
+import com.dotmarketing.portlets.structure.model.Relationship;
+import com.dotmarketing.util.Logger;
+import com.dotmarketing.util.UtilMethods;
+import com.liferay.portal.model.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.dataloader.BatchLoader;
+
+/**
+ * Loads the related content of all the relationship fields requested on the same level of a GraphQL query at once,
+ * with the same outcome as {@link Contentlet#getRelated(String, User, boolean, Boolean)} on each of them:
+ * <ul>
+ *     <li>the field and relationship lookups are done once per content type and field</li>
+ *     <li>the related identifiers that are not on the relationship cache are read with one query per field for all
+ *     the contentlets of the batch, and cached</li>
+ *     <li>every related contentlet is loaded, checked for permissions and hydrated just once, even if it is related
+ *     to several of the contentlets in the batch</li>
+ * </ul>
+ */
+public class RelatedContentBatchLoader implements BatchLoader<RelatedContentKey, Object> {
+
+    private final User user;
+    private final ContentletAPI contentletAPI;
+    private final RelationshipAPI relationshipAPI;
+    private final VersionableAPI versionableAPI;
+    private final LanguageAPI languageAPI;
+    private final PermissionAPI permissionAPI;
+
+    public RelatedContentBatchLoader(final User user) {
+
+        this.user            = user;
+        this.contentletAPI   = APILocator.getContentletAPI();
+        this.relationshipAPI = APILocator.getRelationshipAPI();
+        this.versionableAPI  = APILocator.getVersionableAPI();
+        this.languageAPI     = APILocator.getLanguageAPI();
+        this.permissionAPI   = APILocator.getPermissionAPI();
+    }
+
+    @Override
+    public CompletionStage<List<Object>> load(final List<RelatedContentKey> keys) {
+
+        return CompletableFuture.completedFuture(this.loadRelated(keys));
+    }
+
+    private List<Object> loadRelated(final List<RelatedContentKey> keys) {
+
+        final Object[] results = new Object[keys.size()];
+        final RelationshipFieldInfo[] fieldInfoPerKey = new RelationshipFieldInfo[keys.size()];
+        final Map<String, List<Integer>> keysPerField = new LinkedHashMap<>();
+        final Map<String, RelationshipFieldInfo> fieldsInfo = new HashMap<>();
+
+        for (int i = 0; i < keys.size(); i++) {
+
+            final RelatedContentKey key = keys.get(i);
+            final String fieldKey = key.getContentTypeId() + key.getFieldVar();
+            try {
+
+                fieldInfoPerKey[i] = fieldsInfo.computeIfAbsent(fieldKey, k -> this.getFieldInfo(key));
+                keysPerField.computeIfAbsent(fieldKey, k -> new ArrayList<>()).add(i);
+            } catch (Exception e) {
+
+                Logger.error(this, e.getMessage(), e);
+                results[i] = e;
+            }
+        }
+
+        final Map<Integer, List<String>> relatedIdentifiersPerKey = new LinkedHashMap<>();
+        for (final List<Integer> fieldKeys : keysPerField.values()) {
+
+            try {
+                relatedIdentifiersPerKey.putAll(this.findRelatedIdentifiers(keys, fieldKeys,
+                        fieldInfoPerKey[fieldKeys.get(0)]));
+            } catch (Exception e) {
+
+                Logger.error(this, e.getMessage(), e);
+                fieldKeys.forEach(index -> results[index] = e);
+            }
+        }
+
+        final Set<String> relatedIdentifiers = new LinkedHashSet<>();
+        relatedIdentifiersPerKey.values().forEach(relatedIdentifiers::addAll);
+
+        final Map<String, List<Contentlet>> relatedByIdentifier;
+        try {
+            relatedByIdentifier = this.findReadableContentlets(relatedIdentifiers);
+        } catch (DotDataException | DotSecurityException e) {
+
+            Logger.error(this, e.getMessage(), e);
+            relatedIdentifiersPerKey.keySet().forEach(index -> results[index] = e);
+            return Arrays.asList(results);
+        }
+
+        final List<Contentlet> relatedContentlets = new ArrayList<>();
+        relatedByIdentifier.values().forEach(relatedContentlets::addAll);
+        final Map<String, Contentlet> hydratedByInode = new HashMap<>();
+        new ContentletToMapTransformer(relatedContentlets).hydrate()
+                .forEach(hydrated -> hydratedByInode.put(hydrated.getInode(), hydrated));
+
+        for (final Map.Entry<Integer, List<String>> keyRelatedIdentifiers : relatedIdentifiersPerKey.entrySet()) {
+
+            final List<String> relatedInodes = keyRelatedIdentifiers.getValue().stream()
+                    .flatMap(identifier -> relatedByIdentifier.getOrDefault(identifier, Collections.emptyList()).stream())
+                    .map(Contentlet::getInode).collect(Collectors.toList());
+            results[keyRelatedIdentifiers.getKey()] = new RelatedContentResult(
+                    fieldInfoPerKey[keyRelatedIdentifiers.getKey()], relatedInodes).toValue(hydratedByInode);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Returns the identifiers related to each of the keys of the same field, taken from the relationship cache or,
+     * for all the keys that are not cached, from a single query (which are then cached as
+     * {@link ContentletAPI#getRelatedContent} does)
+     */
+    private Map<Integer, List<String>> findRelatedIdentifiers(final List<RelatedContentKey> keys,
+                                                              final List<Integer> fieldKeys,
+                                                              final RelationshipFieldInfo fieldInfo)
+            throws DotDataException {
+
+        final Map<String, List<String>> relatedPerIdentifier = new HashMap<>();
+        final Set<String> notCached = new LinkedHashSet<>();
+        for (final int index : fieldKeys) {
+
+            final RelatedContentKey key = keys.get(index);
+            final List<String> cached = this.getCachedRelatedIdentifiers(key.getIdentifier(), key.getFieldVar());
+            if (null != cached) {
+                relatedPerIdentifier.put(key.getIdentifier(), cached);
+            } else {
+                notCached.add(key.getIdentifier());
+            }
+        }
+
+        if (!notCached.isEmpty()) {
+
+            final String fieldVar = keys.get(fieldKeys.get(0)).getFieldVar();
+            final Map<String, List<String>> loaded =
+                    this.relationshipAPI.dbRelatedIdentifiers(fieldInfo.relationship, notCached, fieldInfo.hasParent);
+            for (final String identifier : notCached) {
+
+                final List<String> related = loaded.getOrDefault(identifier, Collections.emptyList()).stream()
+                        .distinct().collect(Collectors.toList());
+                this.cacheRelatedIdentifiers(identifier, fieldVar, related);
+                relatedPerIdentifier.put(identifier, related);
+            }
+        }
+
+        final Map<Integer, List<String>> relatedPerKey = new LinkedHashMap<>();
+        for (final int index : fieldKeys) {
+            relatedPerKey.put(index, relatedPerIdentifier.get(keys.get(index).getIdentifier()));
+        }
+
+        return relatedPerKey;
+    }
+
+    private List<String> getCachedRelatedIdentifiers(final String identifier, final String fieldVar) {
+
+        try {
+
+            final Map<String, List<String>> relatedContentMap =
+                    CacheLocator.getRelationshipCache().getRelatedContentMap(identifier);
+            return null != relatedContentMap ? relatedContentMap.get(fieldVar) : null;
+        } catch (DotCacheException e) {
+
+            Logger.debug(this, String.format("Cache entry with key %s was not found.", identifier), e);
+            return null;
+        }
+    }
+
+    private void cacheRelatedIdentifiers(final String identifier, final String fieldVar, final List<String> related) {
+
+        Map<String, List<String>> relatedContentMap = null;
+        try {
+            relatedContentMap = CacheLocator.getRelationshipCache().getRelatedContentMap(identifier);
+        } catch (DotCacheException e) {
+            Logger.debug(this, String.format("Cache entry with key %s was not found.", identifier), e);
+        }
+
+        final Map<String, List<String>> updatedMap = null != relatedContentMap ?
+                new ConcurrentHashMap<>(relatedContentMap) : new ConcurrentHashMap<>();
+        updatedMap.put(fieldVar, related);
+        CacheLocator.getRelationshipCache().putRelatedContentMap(identifier, updatedMap);
+    }
+
+    /**
+     * Loads the versions, in every language, of the related identifiers the user can read: the live ones for the
+     * anonymous user and the working ones for the rest, as {@link ContentletAPI#getRelatedContent} does. The
+     * contentlets are loaded and their permissions checked all at once
+     */
+    private Map<String, List<Contentlet>> findReadableContentlets(final Set<String> identifiers)
+            throws DotDataException, DotSecurityException {
+
+        if (identifiers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final User anonymousUser = APILocator.getUserAPI().getAnonymousUser();
+        final User currentUser   = null != this.user ? this.user : anonymousUser;
+        final boolean live       = currentUser.equals(anonymousUser);
+
+        final List<String> inodes = new ArrayList<>();
+        final List<Language> languages = this.languageAPI.getLanguages();
+        for (final String identifier : identifiers) {
+            for (final Language language : languages) {
+
+                try {
+
+                    final ContentletVersionInfo versionInfo =
+                            this.versionableAPI.getContentletVersionInfo(identifier, language.getId());
+                    final String inode = null == versionInfo ? null :
+                            live ? versionInfo.getLiveInode() : versionInfo.getWorkingInode();
+                    if (UtilMethods.isSet(inode)) {
+                        inodes.add(inode);
+                    }
+                } catch (DotDataException | DotStateException e) {
+                    Logger.warnEveryAndDebug(this.getClass(), "No version for contentlet identifier " + identifier,
+                            e, 5000);
+                }
+            }
+        }
+
+        final List<Contentlet> readable = this.permissionAPI.filterCollection(
+                this.contentletAPI.findContentlets(inodes), PermissionAPI.PERMISSION_READ, true, currentUser);
+
+        final Map<String, List<Contentlet>> readableByIdentifier = new LinkedHashMap<>();
+        for (final Contentlet contentlet : readable) {
+            readableByIdentifier.computeIfAbsent(contentlet.getIdentifier(), k -> new ArrayList<>()).add(contentlet);
+        }
+
+        return readableByIdentifier;
+    }
+
+    private RelationshipFieldInfo getFieldInfo(final RelatedContentKey key) {
+
+        try {
+
+            final Field field = APILocator.getContentTypeFieldAPI()
+                    .byContentTypeIdAndVar(key.getContentTypeId(), key.getFieldVar());
+            final Relationship relationship = this.relationshipAPI.getRelationshipFromField(field, this.user);
+            final boolean isChildField      = this.relationshipAPI.isChildField(relationship, field);
+            final ContentletRelationships.ContentletRelationshipRecords records =
+                    new ContentletRelationships(null).new ContentletRelationshipRecords(relationship, isChildField);
+
+            // same direction as ContentletAPI.getRelatedContent pulling by isChildField: on a self relationship the
+            // field tells the side, otherwise the content type does
+            final boolean hasParent = this.relationshipAPI.sameParentAndChild(relationship) ?
+                    isChildField : !relationship.getChildStructureInode().equals(key.getContentTypeId());
+
+            return new RelationshipFieldInfo(relationship, hasParent, records.doesAllowOnlyOne());
+        } catch (DotDataException | DotSecurityException e) {
+            throw new DotRuntimeException(e);
+        }
+    }
+
+    private static class RelationshipFieldInfo {
+
+        private final Relationship relationship;
+        private final boolean hasParent;
+        private final boolean allowOnlyOne;
+
+        private RelationshipFieldInfo(final Relationship relationship, final boolean hasParent,
+                                      final boolean allowOnlyOne) {
+            this.relationship = relationship;
+            this.hasParent    = hasParent;
+            this.allowOnlyOne = allowOnlyOne;
+        }
+    }
+
+    private static class RelatedContentResult {
+
+        private final RelationshipFieldInfo fieldInfo;
+        private final List<String> relatedInodes;
+
+        private RelatedContentResult(final RelationshipFieldInfo fieldInfo, final List<String> relatedInodes) {
+            this.fieldInfo     = fieldInfo;
+            this.relatedInodes = relatedInodes;
+        }
+
+        private Object toValue(final Map<String, Contentlet> hydratedByInode) {
+
+            if (this.relatedInodes.isEmpty()) {
+                return this.fieldInfo.allowOnlyOne ? null : Collections.emptyList();
+            }
+
+            return this.fieldInfo.allowOnlyOne ?
+                    hydratedByInode.get(this.relatedInodes.get(0)) :
+                    this.relatedInodes.stream().map(hydratedByInode::get).collect(Collectors.toList());
+        }
+    }
+}
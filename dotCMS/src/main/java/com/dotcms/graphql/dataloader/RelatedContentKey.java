@@ -0,0 +1,68 @@
+package com.dotcms.graphql.dataloader;
+
+import com.dotmarketing.portlets.contentlet.model.Contentlet;
+
+import java.util.Objects;
+
+/**
+ * Key used by the {@link RelatedContentBatchLoader}, identifies the relationship field of a contentlet
+ * whose related content has to be loaded
+ */
+public class RelatedContentKey {
+
+    private final String identifier;
+    private final boolean live;
+    private final long languageId;
+    private final String contentTypeId;
+    private final String fieldVar;
+
+    public RelatedContentKey(final Contentlet contentlet, final String fieldVar) {
+
+        this.identifier    = contentlet.getIdentifier();
+        this.live          = contentlet.isLive();
+        this.languageId    = contentlet.getLanguageId();
+        this.contentTypeId = contentlet.getContentTypeId();
+        this.fieldVar      = fieldVar;
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    public boolean isLive() {
+        return live;
+    }
+
+    public long getLanguageId() {
+        return languageId;
+    }
+
+    public String getContentTypeId() {
+        return contentTypeId;
+    }
+
+    public String getFieldVar() {
+        return fieldVar;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final RelatedContentKey that = (RelatedContentKey) o;
+        return live == that.live &&
+                languageId == that.languageId &&
+                Objects.equals(identifier, that.identifier) &&
+                Objects.equals(contentTypeId, that.contentTypeId) &&
+                Objects.equals(fieldVar, that.fieldVar);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(identifier, live, languageId, contentTypeId, fieldVar);
+    }
+}
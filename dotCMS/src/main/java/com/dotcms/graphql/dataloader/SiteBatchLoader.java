@@ -0,0 +1,60 @@
+package com.dotcms.graphql.dataloader;
+
+import com.dotmarketing.beans.Host;
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.portlets.contentlet.business.HostAPI;
+import com.dotmarketing.util.Logger;
+import com.liferay.portal.model.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.dataloader.BatchLoader;
+
+/**
+ * Loads the site map of every distinct site referenced on a GraphQL query level, each site is resolved once per
+ * request no matter how many contentlets live on it
+ */
+public class SiteBatchLoader implements BatchLoader<String, Map<String, Object>> {
+
+    private final User user;
+    private final HostAPI hostAPI;
+
+    public SiteBatchLoader(final User user) {
+
+        this.user    = user;
+        this.hostAPI = APILocator.getHostAPI();
+    }
+
+    @Override
+    public CompletionStage<List<Map<String, Object>>> load(final List<String> hostIds) {
+
+        final List<Map<String, Object>> sites = new ArrayList<>(hostIds.size());
+
+        for (final String hostId : hostIds) {
+
+            try {
+
+                final Host host = this.hostAPI.find(hostId, this.user, true);
+                final Map<String, Object> siteMap = new HashMap<>();
+
+                siteMap.put("hostId", host.getIdentifier());
+                siteMap.put("hostName", host.getHostname());
+                siteMap.put("hostAliases", host.getAliases());
+                siteMap.put("hostTagStorage", host.getTagStorage());
+
+                sites.add(siteMap);
+            } catch (Exception e) {
+
+                Logger.error(this, e.getMessage(), e);
+                sites.add(null);
+            }
+        }
+
+        return CompletableFuture.completedFuture(sites);
+    }
+}
@@ -0,0 +1,37 @@
+package com.dotcms.graphql.listener;
+
+import com.dotcms.content.elasticsearch.business.event.ContentletArchiveEvent;
+import com.dotcms.content.elasticsearch.business.event.ContentletDeletedEvent;
+import com.dotcms.content.elasticsearch.business.event.ContentletPublishEvent;
+import com.dotcms.system.event.local.model.Subscriber;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.util.Config;
+
+/**
+ * Flushes the GraphQL responses cache when the live content changes, the flush is propagated to the rest of the
+ * cluster by the cache transport
+ */
+@SuppressWarnings("unused")
+public class ContentModsListeners {
+
+    @Subscriber
+    public void onContentletPublished(final ContentletPublishEvent event) {
+        clearResponses();
+    }
+
+    @Subscriber
+    public void onContentletArchived(final ContentletArchiveEvent event) {
+        clearResponses();
+    }
+
+    @Subscriber
+    public void onContentletDeleted(final ContentletDeletedEvent event) {
+        clearResponses();
+    }
+
+    private void clearResponses() {
+        if (Config.getBooleanProperty("GRAPHQL_RESPONSE_CACHE_ENABLED", false)) {
+            CacheLocator.getGraphQLCache().clearResponses();
+        }
+    }
+}
@@ -15,22 +15,26 @@ public class ContentTypeAndFieldsModsListeners {
 
     @Subscriber
     public void onContentTypeSaved(final ContentTypeSavedEvent event) {
-        graphqlAPI.invalidateSchema();
+        graphqlAPI.invalidateSchemaType(event.getContentType().variable());
     }
 
     @Subscriber
     public void onContentTypeDeleted(final ContentTypeDeletedEvent event) {
-        graphqlAPI.invalidateSchema();
+        graphqlAPI.invalidateSchemaType(event.getContentTypeVar());
     }
 
     @Subscriber
     public void onFieldCreated(final FieldSavedEvent event) {
-        graphqlAPI.invalidateSchema();
+        graphqlAPI.invalidateSchemaType(event.getField().contentTypeId());
     }
 
     @Subscriber
     public void onFieldDeleted(final FieldDeletedEvent event) {
-        graphqlAPI.invalidateSchema();
+        if (null != event.getContentTypeId()) {
+            graphqlAPI.invalidateSchemaType(event.getContentTypeId());
+        } else {
+            graphqlAPI.invalidateSchema();
+        }
     }
 
 }
@@ -5,6 +5,7 @@ import com.dotcms.repackage.com.csvreader.CsvWriter;
 import com.dotmarketing.common.db.DotConnect;
 import com.dotmarketing.db.DbConnectionFactory;
 import com.dotmarketing.exception.DotDataException;
+import com.dotmarketing.exception.DotRuntimeException;
 import com.dotmarketing.portlets.structure.model.Structure;
 import com.dotmarketing.util.ConfigUtils;
 import com.dotmarketing.util.Logger;
@@ -15,9 +16,6 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.charset.Charset;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
@@ -151,32 +149,24 @@ public abstract class AbstractIntegrityChecker implements IntegrityChecker {
                     .append(structureTypeId).append(") ")
                     .append("INNER JOIN identifier i ON (i.id = c.identifier)").toString();
 
-            Connection conn = DbConnectionFactory.getConnection();
-            try (PreparedStatement statement = conn.prepareStatement(query)) {
-                try (ResultSet rs = statement.executeQuery()) {
-                    int count = 0;
-
-                    while (rs.next()) {
-                        writer.write(rs.getString("working_inode"));
-                        writer.write(rs.getString("live_inode"));
-                        writer.write(rs.getString("identifier"));
-                        writer.write(rs.getString("parent_path"));
-                        writer.write(rs.getString("asset_name"));
-                        writer.write(rs.getString("host_inode"));
-                        writer.write(rs.getString("language_id"));
-                        writer.endRecord();
-
-                        count++;
-
-                        if (count == 1000) {
-                            writer.flush();
-                            count = 0;
-                        }
+            final CsvWriter csvWriter = writer;
+            final DotConnect dc = new DotConnect();
+            dc.setSQL(query);
+            dc.streamResults((rs, rowNumber) -> new String[] { rs.getString("working_inode"),
+                    rs.getString("live_inode"), rs.getString("identifier"), rs.getString("parent_path"),
+                    rs.getString("asset_name"), rs.getString("host_inode"), rs.getString("language_id") }, row -> {
+
+                try {
+
+                    for (final String value : row) {
+                        csvWriter.write(value);
                     }
+                    csvWriter.endRecord();
+                } catch (IOException e) {
+                    throw new DotRuntimeException(e.getMessage(), e);
                 }
-            } catch (SQLException e) {
-                throw new DotDataException(e.getMessage(), e);
-            }
+            });
+            writer.flush();
         } finally {
             // Close writer
             if (writer != null) {
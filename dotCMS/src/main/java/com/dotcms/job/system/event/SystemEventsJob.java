@@ -1,5 +1,6 @@
 package com.dotcms.job.system.event;
 
+import com.dotcms.api.system.event.SystemEventsClusterBus;
 import com.dotcms.job.system.event.delegate.SystemEventsJobDelegate;
 import com.dotcms.job.system.event.delegate.bean.JobDelegateDataBean;
 import com.dotcms.util.Delegate;
@@ -29,6 +30,8 @@ import java.util.concurrent.atomic.AtomicLong;
  * ): Set the appropriate cron expression for the execution of this Job. By
  * default, this job checks for new System Events every 5 seconds.</li>
  * </ul>
+ * When the events are pushed by the {@link SystemEventsClusterBus}, the table is
+ * only read when the bus asks for it (a gap on the messages or its poll interval).
  *
  * @author Jose Castro
  * @version 3.7
@@ -44,6 +47,11 @@ public class SystemEventsJob implements Runnable, Job { //extends DotJob {
 	//public void run(JobExecutionContext jobContext) throws JobExecutionException {
 	public void execute(JobExecutionContext jobContext) throws JobExecutionException {
 		final List<Delegate<JobDelegateDataBean>> delegateList = this.getDelegates();
+		// the last callback is kept when the table is not read, so the next poll gets all the events since then
+		if (lastCallback != null && !SystemEventsClusterBus.getInstance().shouldPoll()) {
+			return;
+		}
+
 		if (delegateList != null && !delegateList.isEmpty()) {
 			if (lastCallback != null && lastCallback.get() > 0) {
 				for (Delegate<JobDelegateDataBean> delegate : delegateList) {
@@ -2,12 +2,10 @@ package com.dotcms.job.system.event.delegate;
 
 import com.dotcms.api.system.event.SystemEvent;
 import com.dotcms.api.system.event.SystemEventsAPI;
-import com.dotcms.cluster.business.ServerAPI;
+import com.dotcms.api.system.event.SystemEventsClusterBus;
 import com.dotcms.job.system.event.AbstractJobDelegate;
 import com.dotcms.job.system.event.SystemEventsJob;
 import com.dotcms.job.system.event.delegate.bean.JobDelegateDataBean;
-import com.dotcms.rest.api.v1.system.websocket.SystemEventsWebSocketEndPoint;
-import com.dotcms.rest.api.v1.system.websocket.WebSocketContainerAPI;
 import com.dotmarketing.business.APILocator;
 import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.util.Logger;
@@ -34,7 +32,7 @@ import java.util.List;
 public class SystemEventsJobDelegate extends AbstractJobDelegate {
 
 	private final SystemEventsAPI 		systemEventsAPI 	  = APILocator.getSystemEventsAPI();
-	private final WebSocketContainerAPI webSocketContainerAPI = APILocator.getWebSocketContainerAPI();
+	private final SystemEventsClusterBus clusterBus		 	  = SystemEventsClusterBus.getInstance();
 	private static final String 		SERVER_ID		 	  = APILocator.getServerAPI().readServerId();
 
 	@Override
@@ -53,15 +51,13 @@ public class SystemEventsJobDelegate extends AbstractJobDelegate {
 
 		if (null != newEvents && !newEvents.isEmpty()) {
 
-			final SystemEventsWebSocketEndPoint webSocketEndPoint = this.webSocketContainerAPI
-					.getEndpointInstance(SystemEventsWebSocketEndPoint.class);
-
 			for (final SystemEvent event : newEvents) {
 
 				// the owner server does not need to send the message again!
 				if (!SERVER_ID.equals(event.getServerId())) {
 
-					webSocketEndPoint.sendSystemEvent(event);
+					// skipped if the cluster bus already delivered it
+					this.clusterBus.deliver(event);
 				} else {
 
 					Logger.info(this, "The event: " + event.getId() +
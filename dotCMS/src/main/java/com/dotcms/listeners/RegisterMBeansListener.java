@@ -2,6 +2,7 @@ package com.dotcms.listeners;
 
 import com.dotcms.concurrent.DotConcurrentFactory;
 import com.dotcms.jmx.DotMBean;
+import com.dotcms.util.MethodLatencyRegistry;
 import com.dotmarketing.util.Logger;
 
 import javax.management.*;
@@ -67,6 +68,7 @@ public class RegisterMBeansListener implements ServletContextListener,
         final Set<DotMBean> mbeans = new HashSet<>();
 
         mbeans.add(DotConcurrentFactory.getInstance());
+        mbeans.add(MethodLatencyRegistry.getInstance());
 
         return mbeans;
     }
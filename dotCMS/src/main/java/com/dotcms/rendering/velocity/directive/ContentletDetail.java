@@ -2,17 +2,23 @@ package com.dotcms.rendering.velocity.directive;
 
 import com.dotcms.contenttype.model.type.BaseContentType;
 import com.dotcms.contenttype.model.type.ContentType;
+import com.dotcms.rendering.velocity.services.ContentletLoader;
+import com.dotcms.rendering.velocity.services.ContentletVelocityVariables;
+import com.dotcms.rendering.velocity.services.VelocityResourceKey;
 import com.dotcms.rendering.velocity.services.VelocityType;
 
 import com.dotmarketing.business.APILocator;
 import com.dotmarketing.portlets.contentlet.model.Contentlet;
 import com.dotmarketing.portlets.contentlet.model.ContentletVersionInfo;
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.Logger;
 import com.dotmarketing.util.PageMode;
 
 import java.io.File;
 import java.io.Writer;
 
 import org.apache.velocity.context.Context;
+import org.apache.velocity.context.InternalContextAdapter;
 import org.apache.velocity.exception.ResourceNotFoundException;
 
 import com.liferay.util.StringPool;
@@ -91,5 +97,36 @@ public class ContentletDetail extends DotDirective {
 
         return path.toString();
     }
-}
 
+    /**
+     * Sets the contentlet variables straight into the context out of the cached {@link ContentletVelocityVariables},
+     * avoiding to generate, parse and cache a velocity template per contentlet.
+     * Can be turned off with VELOCITY_CONTENTLET_VARIABLES_ENABLED=false
+     */
+    @Override
+    boolean renderWithoutTemplate(final InternalContextAdapter context, final String templatePath) {
+
+        if (!Config.getBooleanProperty("VELOCITY_CONTENTLET_VARIABLES_ENABLED", true)) {
+            return false;
+        }
+
+        final ContentletVelocityVariables variables;
+        try {
+            variables = new ContentletLoader().getVariables(new VelocityResourceKey(templatePath));
+        } catch (ResourceNotFoundException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ResourceNotFoundException("cannot build the contentlet variables for: " + templatePath, e);
+        }
+
+        Logger.debug(this, () -> "Rendering contentlet variables: " + templatePath);
+        try {
+            preRender(context);
+            variables.apply(context);
+        } finally {
+            postRender(context);
+        }
+
+        return true;
+    }
+}
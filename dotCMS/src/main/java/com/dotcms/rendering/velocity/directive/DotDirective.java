@@ -41,6 +41,25 @@ abstract class DotDirective extends InputBase {
 
   abstract String resolveTemplatePath(Context context, Writer writer, RenderParams params, String[] arguments);
 
+  /**
+   * Lets a directive render the resolved path without loading and parsing a velocity template.
+   * Returns true if the path was rendered, false to render the template as usual.
+   */
+  boolean renderWithoutTemplate(InternalContextAdapter context, String templatePath) {
+    return false;
+  }
+
+  /**
+   * Loads and renders the template of the resolved path, a directive can override it to reuse
+   * an output already rendered for the path.
+   */
+  boolean renderPath(InternalContextAdapter context, final Writer writer, final String templatePath)
+      throws IOException, ResourceNotFoundException, ParseErrorException, MethodInvocationException {
+
+    Template t = loadTemplate(context, templatePath);
+    return this.renderTemplate(context, writer, t, templatePath);
+  }
+
   final Template loadTemplate(InternalContextAdapter context,  String templatePath){
     
     try {
@@ -97,8 +116,10 @@ abstract class DotDirective extends InputBase {
       if(null ==templatePath) {
           throw new ResourceNotFoundException("null template");
       }
-      Template t = loadTemplate(context, templatePath);
-      return this.renderTemplate(context, writer, t, templatePath);
+      if (this.renderWithoutTemplate(context, templatePath)) {
+          return true;
+      }
+      return this.renderPath(context, writer, templatePath);
     } catch(ParseErrorException|ResourceNotFoundException rnfe){
       context.remove("ContentIdentifier");
       postRender(context);
@@ -1,6 +1,9 @@
 package com.dotcms.rendering.velocity.directive;
 
+import com.dotcms.rendering.velocity.services.ContainerFragmentCache;
+import com.dotcms.rendering.velocity.services.VelocityResourceKey;
 import com.dotmarketing.beans.MultiTree;
+import com.dotmarketing.business.CacheLocator;
 import com.dotmarketing.business.web.WebAPILocator;
 import com.dotmarketing.portlets.templates.design.bean.ContainerUUID;
 import com.dotmarketing.util.PageMode;
@@ -13,6 +16,9 @@ import org.apache.velocity.runtime.RuntimeServices;
 import org.apache.velocity.runtime.parser.node.Node;
 import org.jetbrains.annotations.NotNull;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.Arrays;
 import java.util.Optional;
@@ -61,6 +67,42 @@ public class ParseContainer extends DotDirective {
 				templatePathResolver.getDefaultStrategy().apply(context, params, parserContainersArgument);
 	}
 
+	/**
+	 * Live containers opted in the {@link ContainerFragmentCache} are rendered once and reused by the next renders of
+	 * the page, until the page or its content changes or the fragment expires.
+	 */
+	@Override
+	boolean renderPath(final InternalContextAdapter context, final Writer writer, final String templatePath)
+			throws IOException {
+
+		final ContainerFragmentCache fragmentCache = CacheLocator.getContainerFragmentCache();
+		final Object pageId = context.get("HTMLPAGE_IDENTIFIER");
+		if (null == pageId || !fragmentCache.isEnabled()) {
+			return super.renderPath(context, writer, templatePath);
+		}
+
+		final VelocityResourceKey key = new VelocityResourceKey(templatePath);
+		if (!fragmentCache.isCacheable(key)) {
+			return super.renderPath(context, writer, templatePath);
+		}
+
+		final HttpServletRequest request = (HttpServletRequest) context.get("request");
+		final Optional<String> cachedFragment = fragmentCache.get(pageId.toString(), key, request);
+		if (cachedFragment.isPresent()) {
+			writer.write(cachedFragment.get());
+			return true;
+		}
+
+		final StringWriter fragment = new StringWriter();
+		final boolean rendered = super.renderPath(context, fragment, templatePath);
+		if (rendered) {
+			fragmentCache.put(pageId.toString(), key, request, fragment.toString());
+		}
+
+		writer.write(fragment.toString());
+		return rendered;
+	}
+
 	@NotNull
 	private String[] getDotParserContainerArguments(final String[] arguments) {
 		final String[] parserContainersArgument = Arrays.copyOf(arguments, 2);
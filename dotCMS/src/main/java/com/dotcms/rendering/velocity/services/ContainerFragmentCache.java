@@ -0,0 +1,233 @@
+package com.dotcms.rendering.velocity.services;
+
+import com.dotcms.visitor.domain.Visitor;
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.business.BlockPageCache;
+import com.dotmarketing.business.Cachable;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.business.DotCacheAdministrator;
+import com.dotmarketing.business.DotCacheException;
+import com.dotmarketing.business.web.WebAPILocator;
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.Logger;
+import com.dotmarketing.util.PageMode;
+import com.dotmarketing.util.UUIDGenerator;
+import com.dotmarketing.util.UtilMethods;
+import com.dotmarketing.util.WebKeys;
+import com.google.common.annotations.VisibleForTesting;
+import com.liferay.portal.model.User;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of the rendered live containers of a page, so a page that can not be cached as a whole (because of a
+ * personalized or short lived container) only re-renders the containers that are dynamic and assembles the rest from
+ * here.
+ *
+ * Only the containers listed on CONTAINER_FRAGMENT_CACHE_CONTAINERS (ids or paths, or * for all of them) are cached,
+ * for CONTAINER_FRAGMENT_CACHE_TTL_SECONDS. Every fragment is its own immutable entry, keyed by the page, the current
+ * generation of the page, the container and uuid plus the same request parameters the {@link BlockPageCache} keys the
+ * whole pages with: user, language, URL map contentlet, query string and persona. The multi tree and publish events
+ * that refresh a page remove its generation, so all its fragments are left behind at once and the cache provider
+ * evicts them (the group has its own size and TTL on the cache configuration).
+ */
+public class ContainerFragmentCache implements Cachable {
+
+    private static final String PRIMARY_GROUP  = "containerfragmentcache";
+    private static final String NO_PERSONA     = "default";
+    private static final String NO_USER        = "anonymous";
+    private static final String GENERATION     = "generation:";
+
+    private final DotCacheAdministrator cache;
+
+    private volatile Set<String> containers = null;
+
+    public ContainerFragmentCache() {
+        this(CacheLocator.getCacheAdministrator());
+    }
+
+    @VisibleForTesting
+    ContainerFragmentCache(final DotCacheAdministrator cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public String getPrimaryGroup() {
+        return PRIMARY_GROUP;
+    }
+
+    @Override
+    public String[] getGroups() {
+        return new String[] {PRIMARY_GROUP};
+    }
+
+    @Override
+    public void clearCache() {
+        containers = null;
+        cache.flushGroup(PRIMARY_GROUP);
+    }
+
+    /**
+     * True if at least one container is configured to cache its fragments
+     * @return boolean
+     */
+    public boolean isEnabled() {
+        return !getContainers().isEmpty() && getTTLSeconds() > 0;
+    }
+
+    /**
+     * True if the fragment of the container resource can be cached, it has to be a live container listed on
+     * CONTAINER_FRAGMENT_CACHE_CONTAINERS
+     * @param key {@link VelocityResourceKey}
+     * @return boolean
+     */
+    public boolean isCacheable(final VelocityResourceKey key) {
+
+        if (!isEnabled() || key.mode != PageMode.LIVE || key.type != VelocityType.CONTAINER) {
+            return false;
+        }
+
+        final Set<String> cacheableContainers = getContainers();
+        return cacheableContainers.contains("*") || cacheableContainers.contains(key.id1);
+    }
+
+    /**
+     * Returns the fragment rendered for the container of the key on the page, for the user, language, URL map, query
+     * string and persona of the request, if it has not expired yet
+     * @param pageId {@link String}
+     * @param key {@link VelocityResourceKey}
+     * @param request {@link HttpServletRequest}
+     * @return Optional fragment
+     */
+    public Optional<String> get(final String pageId, final VelocityResourceKey key, final HttpServletRequest request) {
+
+        if (!UtilMethods.isSet(pageId)) {
+            return Optional.empty();
+        }
+
+        final String generation = getGeneration(pageId);
+        if (null == generation) {
+            return Optional.empty();
+        }
+
+        final Object fragment = get(fragmentKey(pageId, generation, key, request));
+        return fragment instanceof CachedFragment && ((CachedFragment) fragment).expiresAt > System.currentTimeMillis() ?
+                Optional.of(((CachedFragment) fragment).value) : Optional.empty();
+    }
+
+    /**
+     * Caches the fragment rendered for the container of the key on the page, for the user, language, URL map, query
+     * string and persona of the request
+     * @param pageId {@link String}
+     * @param key {@link VelocityResourceKey}
+     * @param request {@link HttpServletRequest}
+     * @param fragment {@link String}
+     */
+    public void put(final String pageId, final VelocityResourceKey key, final HttpServletRequest request,
+                    final String fragment) {
+
+        if (!UtilMethods.isSet(pageId) || null == fragment) {
+            return;
+        }
+
+        String generation = getGeneration(pageId);
+        if (null == generation) {
+
+            // a generation that was never used before, so no fragment of a removed one can be found with it
+            generation = UUIDGenerator.generateUuid();
+            cache.put(GENERATION + pageId, generation, PRIMARY_GROUP);
+        }
+
+        cache.put(fragmentKey(pageId, generation, key, request),
+                new CachedFragment(fragment, System.currentTimeMillis() + getTTLSeconds() * 1000L), PRIMARY_GROUP);
+    }
+
+    /**
+     * Removes all the fragments rendered for the page, by removing its generation
+     * @param pageId {@link String}
+     */
+    public void remove(final String pageId) {
+
+        if (UtilMethods.isSet(pageId)) {
+            cache.remove(GENERATION + pageId, PRIMARY_GROUP);
+        }
+    }
+
+    private String getGeneration(final String pageId) {
+
+        final Object generation = get(GENERATION + pageId);
+        return generation instanceof String ? (String) generation : null;
+    }
+
+    private Object get(final String key) {
+
+        try {
+            return cache.get(key, PRIMARY_GROUP);
+        } catch (DotCacheException e) {
+            Logger.debug(this, "cache entry :" + key + " not found");
+            return null;
+        }
+    }
+
+    private String fragmentKey(final String pageId, final String generation, final VelocityResourceKey key,
+                               final HttpServletRequest request) {
+
+        long languageId    = APILocator.getLanguageAPI().getDefaultLanguage().getId();
+        String userId      = NO_USER;
+        String urlMap      = null;
+        String queryString = null;
+        String persona     = NO_PERSONA;
+
+        if (null != request) {
+
+            languageId  = WebAPILocator.getLanguageWebAPI().getLanguage(request).getId();
+            urlMap      = (String) request.getAttribute(WebKeys.WIKI_CONTENTLET_INODE);
+            queryString = request.getQueryString();
+
+            final HttpSession session = request.getSession(false);
+            final User user = null != session ? (User) session.getAttribute(WebKeys.CMS_USER) : null;
+            if (null != user) {
+                userId = user.getUserId();
+            }
+
+            final Optional<Visitor> visitor = APILocator.getVisitorAPI().getVisitor(request, false);
+            if (visitor.isPresent() && null != visitor.get().getPersona()) {
+                persona = visitor.get().getPersona().getKeyTag();
+            }
+        }
+
+        return pageId + '_' + generation + '_' + key.id1 + '_' + key.id2 + '_' + new BlockPageCache.PageCacheParameters(userId,
+                String.valueOf(languageId), urlMap, queryString, persona).getKey();
+    }
+
+    private Set<String> getContainers() {
+
+        if (null == containers) {
+            containers = Arrays.stream(Config.getStringArrayProperty("CONTAINER_FRAGMENT_CACHE_CONTAINERS", new String[0]))
+                    .map(String::trim).filter(UtilMethods::isSet).collect(Collectors.toSet());
+        }
+
+        return containers;
+    }
+
+    private int getTTLSeconds() {
+        return Config.getIntProperty("CONTAINER_FRAGMENT_CACHE_TTL_SECONDS", 300);
+    }
+
+    private static class CachedFragment implements Serializable {
+
+        private final String value;
+        private final long expiresAt;
+
+        private CachedFragment(final String value, final long expiresAt) {
+            this.value     = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
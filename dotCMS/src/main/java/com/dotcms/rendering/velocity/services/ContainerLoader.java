@@ -86,6 +86,11 @@ public class ContainerLoader implements DotLoader {
                 CacheLocator.getVeloctyResourceCache();
 
         veloctyResourceCache.remove(key);
+
+        if (mode == PageMode.LIVE) {
+            // the container is on any number of pages
+            CacheLocator.getContainerFragmentCache().clearCache();
+        }
     }
 
     public void invalidate(final FileAssetContainer fileAssetContainer, final Folder containerFolder, final String fileAssetName) throws DotDataException, DotSecurityException{
@@ -119,6 +124,8 @@ public class ContainerLoader implements DotLoader {
 
 
         }
+        CacheLocator.getContainerFragmentCache().clearCache();
+
         // Sometimes the in-cache key is the file site/path or path it self.
         // it's pretty difficult at this point knowing exactly what was used to put this thing in cache. So here we go trying a few options
 
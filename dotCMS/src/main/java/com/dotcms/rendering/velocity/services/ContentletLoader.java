@@ -3,6 +3,7 @@ package com.dotcms.rendering.velocity.services;
 import com.dotcms.contenttype.model.field.*;
 import com.dotcms.contenttype.model.type.BaseContentType;
 import com.dotcms.contenttype.model.type.ContentType;
+import com.dotmarketing.beans.MultiTree;
 import com.dotmarketing.business.APILocator;
 import com.dotmarketing.business.CacheLocator;
 import com.dotmarketing.business.DotStateException;
@@ -28,6 +29,7 @@ import org.apache.velocity.exception.ResourceNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * @author will
@@ -49,83 +51,76 @@ public class ContentletLoader implements DotLoader {
 
     public InputStream buildVelocity(Contentlet content, PageMode mode, String filePath)
             throws DotDataException, DotSecurityException {
-        StringBuilder sb = new StringBuilder();
 
-        ContentletAPI conAPI = APILocator.getContentletAPI();
+        return writeOutVelocity(filePath, buildVariables(content, mode).toVelocity());
+    }
 
-        User systemUser = sysUser();
+    /**
+     * Computes the velocity variables set for a contentlet when it is rendered, these can be applied straight to the
+     * velocity context or written out as a velocity script by {@link #buildVelocity(Contentlet, PageMode, String)}
+     * @param content {@link Contentlet}
+     * @param mode {@link PageMode}
+     * @return ContentletVelocityVariables
+     * @throws DotDataException
+     * @throws DotSecurityException
+     */
+    public ContentletVelocityVariables buildVariables(final Contentlet content, final PageMode mode)
+            throws DotDataException, DotSecurityException {
 
-        // let's write this puppy out to our file
+        final ContentletVelocityVariables.Builder variables = ContentletVelocityVariables.builder();
 
+        ContentletAPI conAPI = APILocator.getContentletAPI();
 
+        User systemUser = sysUser();
 
         // CONTENTLET CONTROLS BEGIN
-        sb.append("#if($EDIT_MODE)");
-        sb.append("#set( $EDIT_CONTENT_PERMISSION=$EDIT_CONTENT_PERMISSION").append(content.getIdentifier()).append(")");
-        sb.append("#end");
+        variables.copy("EDIT_CONTENT_PERMISSION", "EDIT_CONTENT_PERMISSION" + content.getIdentifier(), true);
 
-        sb.append("#set($CONTENT_INODE='")
-            .append(content.getInode())
-            .append("' )")
-            .append("#set($IDENTIFIER_INODE='")
-            .append(content.getIdentifier())
-            .append("' )");
+        variables.singleQuoted("CONTENT_INODE", content.getInode())
+            .singleQuoted("IDENTIFIER_INODE", content.getIdentifier());
 
-        sb.append("#set($CONTENT_TYPE='").append(content.getContentType().variable()).append("' )");
+        variables.singleQuoted("CONTENT_TYPE", content.getContentType().variable());
 
         final BaseContentType baseType = content.get("formId") == null ? content.getContentType().baseType() : BaseContentType.FORM;
-        sb.append("#set($CONTENT_BASE_TYPE='").append(baseType).append("' )");
+        variables.singleQuoted("CONTENT_BASE_TYPE", baseType);
         final String contentTypeId = content.get("formId") == null ? content.getContentType().id() : content.get("formId").toString();
-        sb.append("#set($CONTENT_TYPE_ID='").append(contentTypeId).append("' )");
-        sb.append("#set($CONTENT_LANGUAGE='").append(content.getLanguageId()).append("' )");
+        variables.singleQuoted("CONTENT_TYPE_ID", contentTypeId);
+        variables.singleQuoted("CONTENT_LANGUAGE", content.getLanguageId());
 
+        final String contentletTitle = conAPI.getName(content, systemUser, true);
 
         // set all properties from the contentlet
-        sb.append("#set($ContentInode='")
-            .append(content.getInode())
-            .append("' )")
-            .append("#set($ContentIdentifier='")
-            .append(content.getIdentifier())
-            .append("' )")
-            .append("#set($ContentletTitle=\"")
-            .append(UtilMethods.espaceForVelocity(conAPI.getName(content, APILocator.getUserAPI().getSystemUser(), true)))
-            .append("\" )");
+        variables.singleQuoted("ContentInode", content.getInode())
+            .singleQuoted("ContentIdentifier", content.getIdentifier())
+            .escaped("ContentletTitle", contentletTitle);
         String modDateStr = UtilMethods.dateToHTMLDate((Date) content.getModDate(), "yyyy-MM-dd H:mm:ss");
-        sb.append("#set($ContentLastModDate= $date.toDate(\"yyyy-MM-dd H:mm:ss\", \"")
-            .append(modDateStr)
-            .append("\"))")
-            .append("#set($ContentLastModUserId= \"")
-            .append(content.getModUser())
-            .append("\")");
+        variables.date("ContentLastModDate", "yyyy-MM-dd H:mm:ss", modDateStr)
+            .doubleQuoted("ContentLastModUserId", content.getModUser());
         if (content.getOwner() != null)
-            sb.append("#set($ContentOwnerId= \"").append(content.getOwner()).append("\")");
+            variables.doubleQuoted("ContentOwnerId", content.getOwner());
 
         // Structure fields
 
         ContentType type = content.getContentType();
-        sb.append("#set($structureName='").append(type.name()).append("' )");
+        variables.singleQuoted("structureName", type.name());
 
         /*
         It is better if we calculate if it is a Widget before to try to evaluate
         the Widget code, if the code evaluation fails the $isWidget could be false.
          */
         if (type.baseType() == BaseContentType.WIDGET) {
-            sb.append("#set( $isWidget= \"").append(true).append("\")");
-            if (type.name().equals(FormAPI.FORM_WIDGET_STRUCTURE_NAME_FIELD_NAME)) {
-                sb.append("#set($isFormWidget= \"").append(true).append("\")");
-            } else {
-                sb.append("#set($isFormWidget= \"").append(false).append("\")");
-            }
+            variables.doubleQuoted("isWidget", true);
+            variables.doubleQuoted("isFormWidget", type.name().equals(FormAPI.FORM_WIDGET_STRUCTURE_NAME_FIELD_NAME));
 
             //Cleaning up already loaded Widgets code
-            sb.append("#set($widgetCode= \"\")");
+            variables.doubleQuoted("widgetCode", "");
         } else {
-            sb.append("#set($isWidget= \"").append(false).append("\")");
+            variables.doubleQuoted("isWidget", false);
         }
 
 
         List<Field> fields = type.fields();
-        String widgetCode = "";
+        String widgetCodePath = null;
         for (Field field : fields) {
 
             String contField = field.dbColumn();
@@ -138,23 +133,14 @@ public class ContentletLoader implements DotLoader {
                     continue;
                 }
                 if (field.variable().equals("widgetCode")) {
-                    widgetCode = "#set($" + field.variable() + "=$velutil.mergeTemplate(\"" +   velPath + "\"))";
+                    widgetCodePath = velPath;
                     continue;
                 } else {
                     String fieldValues = field.values() == null ? "" : field.values();
                     if (fieldValues.contains("$") || fieldValues.contains("#")) {
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("= $velutil.mergeTemplate(\"")
-                                .append(velPath)
-  
-                                .append("\"))");
+                        variables.template(field.variable(), velPath);
                     } else {
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("= \"")
-                                .append(UtilMethods.espaceForVelocity(fieldValues).trim())
-                                .append("\")");
+                        variables.escaped(field.variable(), fieldValues);
                     }
                     continue;
                 }
@@ -178,17 +164,10 @@ public class ContentletLoader implements DotLoader {
                 }
                 if (!(field instanceof DateTimeField || field instanceof DateField || field instanceof TimeField)) {
                     if (contFieldValue.contains("$") || contFieldValue.contains("#")) {
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("=$velutil.mergeTemplate(\"")
-                                .append(new VelocityResourceKey(field, Optional.ofNullable(content), mode).path)
-                                .append("\"))");
+                        variables.template(field.variable(),
+                                new VelocityResourceKey(field, Optional.ofNullable(content), mode).path);
                     } else {
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("=\"")
-                                .append(UtilMethods.espaceForVelocity(contFieldValue).trim())
-                                .append("\")");
+                        variables.escaped(field.variable(), contFieldValue);
                     }
                 }
 
@@ -197,87 +176,10 @@ public class ContentletLoader implements DotLoader {
             if (field instanceof ImageField || field instanceof FileField) {
                 String identifierValue = content.getStringProperty(field.variable());
                 if (InodeUtils.isSet(identifierValue)) {
-                    sb.append("#set($")
-                            .append(field.variable())
-                            .append("Object= $filetool.getFile('")
-                            .append(identifierValue)
-                            .append("'," + mode.showLive + ",")
-                            .append(content.getLanguageId())
-                            .append(" ))");
-
-                    if (field instanceof ImageField) {
-                        sb.append("#set($").append(field.variable()).append("ImageInode=$!{").append(field.variable()).append(
-                                "Object.getInode()} )");
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("ImageIdentifier=$!{")
-                                .append(field.variable())
-                                .append("Object.getIdentifier()} )");
-                        sb.append("#set($").append(field.variable()).append("ImageWidth=$!{").append(field.variable()).append(
-                                "Object.getWidth()} )");
-                        sb.append("#set($").append(field.variable()).append("ImageHeight=$!{").append(field.variable()).append(
-                                "Object.getHeight()} )");
-                        sb.append("#set($").append(field.variable()).append("ImageExtension=$!{").append(field.variable()).append(
-                                "Object.getExtension()} )");
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("ImageURI=$filetool.getURI($!{")
-                                .append(field.variable())
-                                .append("Object}, ")
-                                .append(content.getLanguageId())
-                                .append(" ))");
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("ImageTitle=$UtilMethods.espaceForVelocity($!{")
-                                .append(field.variable())
-                                .append("Object.getTitle()}) )");
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("ImageFriendlyName=$UtilMethods.espaceForVelocity($!{")
-                                .append(field.variable())
-                                .append("Object.getFriendlyName()}) )");
-
-                        sb.append("#set($").append(field.variable()).append("ImagePath=$!{").append(field.variable()).append(
-                                "Object.getPath()})");
-                        sb.append("#set($").append(field.variable()).append("ImageName=$!{").append(field.variable()).append(
-                                "Object.getFileName()})");
-
-                    } else {
-                        sb.append("#set($").append(field.variable()).append("FileInode=$!{").append(field.variable()).append(
-                                "Object.getInode()} )");
-                        sb.append("#set($").append(field.variable()).append("FileIdentifier=$!{").append(field.variable()).append(
-                                "Object.getIdentifier()} )");
-                        sb.append("#set($").append(field.variable()).append("FileExtension=$!{").append(field.variable()).append(
-                                "Object.getExtension()} )");
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("FileURI=$filetool.getURI($!{")
-                                .append(field.variable())
-                                .append("Object}, ")
-                                .append(content.getLanguageId())
-                                .append(" ))");
-                        sb.append("#set($").append(field.variable()).append("FileTitle=$!{").append(field.variable()).append(
-                                "Object.getTitle()} )");
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("FileFriendlyName=$UtilMethods.espaceForVelocity($!{")
-                                .append(field.variable())
-                                .append("Object.getFriendlyName()} ))");
-
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("FilePath=$UtilMethods.espaceForVelocity($!{")
-                                .append(field.variable())
-                                .append("Object.getPath()}) )");
-                        sb.append("#set($")
-                                .append(field.variable())
-                                .append("FileName=$UtilMethods.espaceForVelocity($!{")
-                                .append(field.variable())
-                                .append("Object.getFileName()} ))");
-                    }
-
+                    variables.file(field.variable(), identifierValue, mode.showLive, content.getLanguageId(),
+                            field instanceof ImageField);
                 } else {
-                    sb.append("#set($").append(field.variable()).append("Object= $filetool.getNewFile())");
+                    variables.newFile(field.variable());
                 }
             } // http://jira.dotmarketing.net/browse/DOTCMS-2178
             else if (field instanceof BinaryField) {
@@ -295,39 +197,22 @@ public class ContentletLoader implements DotLoader {
                             + " field " + field.variable(), e);
                     continue;
                 }
-                sb.append("#set($")
-                        .append(field.variable())
-                        .append("BinaryFileTitle=\"")
-                        .append(UtilMethods.espaceForVelocity(fileName))
-                        .append("\" )");
-                sb.append("#set($")
-                        .append(field.variable())
-                        .append("BinaryFileSize=\"")
-                        .append(UtilMethods.espaceForVelocity(filesize))
-                        .append("\" )");
+                variables.escaped(field.variable() + "BinaryFileTitle", fileName);
+                variables.escaped(field.variable() + "BinaryFileSize", filesize);
                 String binaryFileURI = fileName.length() > 0
-                        ? UtilMethods.espaceForVelocity("/contentAsset/raw-data/" + content.getIdentifier() + "/"
-                        + field.variable() + "/" + content.getInode())
+                        ? "/contentAsset/raw-data/" + content.getIdentifier() + "/"
+                        + field.variable() + "/" + content.getInode()
                         : "";
-                sb.append("#set($").append(field.variable()).append("BinaryFileURI=\"").append(binaryFileURI).append("\" )");
+                variables.escaped(field.variable() + "BinaryFileURI", binaryFileURI);
             } else if (field instanceof SelectField) {
-                sb.append("#set($")
-                        .append(field.variable())
-                        .append("SelectLabelsValues=\"")
-                        .append(field.values().replaceAll("\\r\\n", " ").replaceAll("\\n", " "))
-                        .append("\")");
+                variables.doubleQuoted(field.variable() + "SelectLabelsValues",
+                        field.values().replaceAll("\\r\\n", " ").replaceAll("\\n", " "));
             } else if (field instanceof RadioField) {
-                sb.append("#set($")
-                        .append(field.variable())
-                        .append("RadioLabelsValues=\"")
-                        .append(field.values().replaceAll("\\r\\n", " ").replaceAll("\\n", " "))
-                        .append("\" )");
+                variables.doubleQuoted(field.variable() + "RadioLabelsValues",
+                        field.values().replaceAll("\\r\\n", " ").replaceAll("\\n", " "));
             } else if (field instanceof CheckboxField) {
-                sb.append("#set($")
-                        .append(field.variable())
-                        .append("CheckboxLabelsValues=\"")
-                        .append(field.values().replaceAll("\\r\\n", " ").replaceAll("\\n", " "))
-                        .append("\" )");
+                variables.doubleQuoted(field.variable() + "CheckboxLabelsValues",
+                        field.values().replaceAll("\\r\\n", " ").replaceAll("\\n", " "));
             } else if (field instanceof DateField) {
                 String shortFormat = "";
                 String dbFormat = "";
@@ -335,18 +220,16 @@ public class ContentletLoader implements DotLoader {
                     shortFormat = UtilMethods.dateToHTMLDate((Date) contFieldValueObject, "MM/dd/yyyy");
                     dbFormat = UtilMethods.dateToHTMLDate((Date) contFieldValueObject, "yyyy-MM-dd");
                 }
-                sb.append("#set($").append(field.variable()).append("=$date.toDate(\"yyyy-MM-dd\", \"").append(dbFormat).append(
-                        "\"))");
-                sb.append("#set($").append(field.variable()).append("ShortFormat=\"").append(shortFormat).append("\" )");
-                sb.append("#set($").append(field.variable()).append("DBFormat=\"").append(dbFormat).append("\" )");
+                variables.date(field.variable(), "yyyy-MM-dd", dbFormat);
+                variables.doubleQuoted(field.variable() + "ShortFormat", shortFormat);
+                variables.doubleQuoted(field.variable() + "DBFormat", dbFormat);
             } else if (field instanceof TimeField) {
                 String shortFormat = "";
                 if (contFieldValueObject != null && contFieldValueObject instanceof Date) {
                     shortFormat = UtilMethods.dateToHTMLDate((Date) contFieldValueObject, "H:mm:ss");
                 }
-                sb.append("#set( $").append(field.variable()).append("ShortFormat=\"").append(shortFormat).append("\" )");
-                sb.append("#set( $").append(field.variable()).append("= $date.toDate(\"H:mm:ss\", \"").append(shortFormat).append(
-                        "\"))");
+                variables.doubleQuoted(field.variable() + "ShortFormat", shortFormat);
+                variables.date(field.variable(), "H:mm:ss", shortFormat);
             } else if (field instanceof DateTimeField) {
                 String shortFormat = "";
                 String longFormat = "";
@@ -356,14 +239,10 @@ public class ContentletLoader implements DotLoader {
                     longFormat = UtilMethods.dateToHTMLDate((Date) contFieldValueObject, "MM/dd/yyyy H:mm:ss");
                     dbFormat = UtilMethods.dateToHTMLDate((Date) contFieldValueObject, "yyyy-MM-dd H:mm:ss");
                 }
-                sb.append("#set( $")
-                        .append(field.variable())
-                        .append("= $date.toDate(\"yyyy-MM-dd H:mm:ss\", \"")
-                        .append(dbFormat)
-                        .append("\"))");
-                sb.append("#set( $").append(field.variable()).append("ShortFormat=\"").append(shortFormat).append("\" )");
-                sb.append("#set( $").append(field.variable()).append("LongFormat=\"").append(longFormat).append("\" )");
-                sb.append("#set( $").append(field.variable()).append("DBFormat=\"").append(dbFormat).append("\" )");
+                variables.date(field.variable(), "yyyy-MM-dd H:mm:ss", dbFormat);
+                variables.doubleQuoted(field.variable() + "ShortFormat", shortFormat);
+                variables.doubleQuoted(field.variable() + "LongFormat", longFormat);
+                variables.doubleQuoted(field.variable() + "DBFormat", dbFormat);
             } // http://jira.dotmarketing.net/browse/DOTCMS-2869
             // else if (field.getFieldType().equals(Field.FieldType.CUSTOM_FIELD.toString())){
             // sb.append("#set( $" + field.variable() + "Code=\"" +
@@ -371,9 +250,9 @@ public class ContentletLoader implements DotLoader {
             // }//http://jira.dotmarketing.net/browse/DOTCMS-3232
             else if (field instanceof HostFolderField) {
                 if (InodeUtils.isSet(content.getFolder())) {
-                    sb.append("#set( $ConHostFolder='").append(content.getFolder()).append("' )");
+                    variables.singleQuoted("ConHostFolder", content.getFolder());
                 } else {
-                    sb.append("#set( $ConHostFolder='").append(content.getHost()).append("' )");
+                    variables.singleQuoted("ConHostFolder", content.getHost());
                 }
             } else if (field instanceof CategoryField) {
 
@@ -383,7 +262,6 @@ public class ContentletLoader implements DotLoader {
                 List<Category> selectedCategories = categoryAPI.getParents(content, systemUser, false);
 
                 // Initialize variables
-                String catInodes = "";
                 Set<Category> categoryList = new HashSet<Category>();
                 List<Category> categoryTree = categoryAPI.getAllChildren(category, systemUser, false);
 
@@ -398,96 +276,33 @@ public class ContentletLoader implements DotLoader {
                     }
                 }
 
-                if (categoryList.size() > 0) {
-                    StringBuilder catbuilder = new StringBuilder();
-                    Iterator<Category> it = categoryList.iterator();
-                    while (it.hasNext()) {
-                        Category cat = (Category) it.next();
-                        catbuilder.append("\"").append(cat.getInode()).append("\"");
-                        if (it.hasNext()) {
-                            catbuilder.append(",");
-                        }
-                    }
-                    catInodes = catbuilder.toString();
-
-                    sb.append("#set( $")
-                            .append(field.variable())
-                            .append("FilteredCategories=$categories.filterCategoriesByUserPermissions([")
-                            .append(catInodes)
-                            .append("] ))");
-                    sb.append("#set( $")
-                            .append(field.variable())
-                            .append("Categories=$categories.fetchCategoriesInodes($")
-                            .append(field.variable())
-                            .append("FilteredCategories))");
-                    sb.append("#set( $")
-                            .append(field.variable())
-                            .append("CategoriesNames=$categories.fetchCategoriesNames($")
-                            .append(field.variable())
-                            .append("FilteredCategories))");
-                    sb.append("#set( $").append(field.variable()).append("=$").append(field.variable()).append("Categories)");
-                    sb.append("#set( $")
-                            .append(field.variable())
-                            .append("CategoriesKeys=$categories.fetchCategoriesKeys($")
-                            .append(field.variable())
-                            .append("FilteredCategories))");
-                } else {
-                    sb.append("#set( $").append(field.variable()).append("FilteredCategories=$contents.getEmptyList())");
-                    sb.append("#set( $").append(field.variable()).append("Categories=$contents.getEmptyList())");
-                    sb.append("#set( $").append(field.variable()).append("CategoriesNames=$contents.getEmptyList())");
-                    sb.append("#set( $").append(field.variable()).append("=$contents.getEmptyList())");
-                    sb.append("#set( $").append(field.variable()).append("CategoriesKeys=$contents.getEmptyList())");
-                }
+                variables.categories(field.variable() + "FilteredCategories", field.variable() + "Categories",
+                        field.variable() + "CategoriesNames", field.variable(), field.variable() + "CategoriesKeys",
+                        categoryList.stream().map(Category::getInode).collect(Collectors.toList()));
             } else if (field instanceof TagField) {
                 content.setTags();
                 String value = content.getStringProperty(field.variable());
-                sb.append("#set($")
-                        .append(field.variable())
-                        .append("=\"")
-                        .append(UtilMethods.espaceForVelocity(value).trim())
-                        .append("\")");
+                variables.escaped(field.variable(), value);
             }
         }
 
 
         // get the contentlet categories to make a list
-        String categories = "";
         Set<Category> categoryList = new HashSet<Category>(categoryAPI.getParents(content, systemUser, false));
-        if (categoryList != null && categoryList.size() > 0) {
-            StringBuilder catbuilder = new StringBuilder();
-            Iterator<Category> it = categoryList.iterator();
-            while (it.hasNext()) {
-                Category category = (Category) it.next();
-                catbuilder.append("\"").append(category.getInode()).append("\"");
-                if (it.hasNext()) {
-                    catbuilder.append(",");
-                }
-            }
-            categories = catbuilder.toString();
-
-            sb.append("#set($ContentletFilteredCategories=$categories.filterCategoriesByUserPermissions([")
-                    .append(categories)
-                    .append("] ))");
-            sb.append("#set($ContentletCategories=$categories.fetchCategoriesInodes($ContentletFilteredCategories))");
-            sb.append("#set($ContentletCategoryNames=$categories.fetchCategoriesNames($ContentletFilteredCategories))");
-            sb.append("#set($ContentletCategoryKeys=$categories.fetchCategoriesKeys($ContentletFilteredCategories))");
-        } else {
-            sb.append("#set($ContentletFilteredCategories=$contents.getEmptyList())");
-            sb.append("#set($ContentletCategories=$contents.getEmptyList())");
-            sb.append("#set($ContentletCategoryNames=$contents.getEmptyList())");
-            sb.append("#set($ContentletCategoryKeys=$contents.getEmptyList())");
-        }
+        variables.categories("ContentletFilteredCategories", "ContentletCategories", "ContentletCategoryNames",
+                null, "ContentletCategoryKeys", categoryList.stream().map(Category::getInode).collect(Collectors.toList()));
 
         // This needs to be here because the all fields like cats etc.. need to be parsed first and
         // it needs to be before
-        // the $CONTENT_INODE is reset sb.append("#set( $CONTENT_INODE=\"" + content.getInode() +
-        // "\" )");
+        // the $CONTENT_INODE is reset
         // http://jira.dotmarketing.net/browse/DOTCMS-2808
-        sb.append(widgetCode);
-        sb.append("#set($isForm= \"").append(false).append("\")");
-        
-        
-        
+        if (null != widgetCodePath) {
+            variables.template("widgetCode", widgetCodePath);
+        }
+        variables.doubleQuoted("isForm", false);
+
+
+
         // This is code is repeated because the bug GETTYS-268, the content
         // variables were been overwritten
         // by the parse inside the some of the content fields
@@ -495,21 +310,19 @@ public class ContentletLoader implements DotLoader {
         // WEB-INF/velocity/static/preview/content_controls.vtl
 
         if (PageMode.EDIT_MODE == mode) {
-            sb.append("#set( $EDIT_CONTENT_PERMISSION=$EDIT_CONTENT_PERMISSION").append(content.getIdentifier()).append(" )");
+            variables.copy("EDIT_CONTENT_PERMISSION", "EDIT_CONTENT_PERMISSION" + content.getIdentifier(), false);
         }
 
-        sb.append("#set( $CONTENT_INODE=\"").append(content.getInode()).append("\" )");
-        sb.append("#set( $IDENTIFIER_INODE=\"").append(content.getIdentifier()).append("\" )");
+        variables.doubleQuoted("CONTENT_INODE", content.getInode());
+        variables.doubleQuoted("IDENTIFIER_INODE", content.getIdentifier());
 
-        sb.append("#set( $ContentInode=\"").append(content.getInode()).append("\" )");
-        sb.append("#set( $ContentIdentifier=\"").append(content.getIdentifier()).append("\" )");
-        sb.append("#set( $ContentletTitle=\"")
-            .append(UtilMethods.espaceForVelocity(conAPI.getName(content, APILocator.getUserAPI().getSystemUser(), true)))
-            .append("\" )");
-        sb.append("#set( $ContentletStructure=\"").append(content.getContentTypeId()).append("\" )");
-        sb.append("#set( $ContentletContentType=\"").append(content.getContentTypeId()).append("\" )");
+        variables.doubleQuoted("ContentInode", content.getInode());
+        variables.doubleQuoted("ContentIdentifier", content.getIdentifier());
+        variables.escaped("ContentletTitle", contentletTitle);
+        variables.doubleQuoted("ContentletStructure", content.getContentTypeId());
+        variables.doubleQuoted("ContentletContentType", content.getContentTypeId());
 
-        return writeOutVelocity(filePath, sb.toString());
+        return variables.build();
     }
 
     @SuppressWarnings("unchecked")
@@ -558,6 +371,34 @@ public class ContentletLoader implements DotLoader {
     public InputStream writeObject(final VelocityResourceKey key)
             throws DotStateException, DotDataException, DotSecurityException {
 
+        return buildVelocity(findContentlet(key), key.mode, key.path);
+    }
+
+    /**
+     * Returns the velocity variables of the contentlet referenced by the key, they are cached on the
+     * {@link DotResourceCache} so the contentlet can be rendered without generating and parsing its velocity script.
+     * @param key {@link VelocityResourceKey}
+     * @return ContentletVelocityVariables
+     * @throws DotDataException
+     * @throws DotSecurityException
+     */
+    public ContentletVelocityVariables getVariables(final VelocityResourceKey key)
+            throws DotDataException, DotSecurityException {
+
+        final DotResourceCache resourceCache = CacheLocator.getVeloctyResourceCache();
+        ContentletVelocityVariables variables = resourceCache.getContentletVariables(key);
+        if (null == variables) {
+
+            variables = buildVariables(findContentlet(key), key.mode);
+            resourceCache.putContentletVariables(key, variables);
+        }
+
+        return variables;
+    }
+
+    private Contentlet findContentlet(final VelocityResourceKey key)
+            throws DotStateException, DotDataException, DotSecurityException {
+
         long language = new Long(key.language);
         ContentletVersionInfo info = APILocator.getVersionableAPI().getContentletVersionInfo(key.id1, language);
         if (info == null && language != defaultLang && APILocator.getLanguageAPI().canDefaultContentToDefaultLanguage()) {
@@ -571,13 +412,11 @@ public class ContentletLoader implements DotLoader {
                 (key.mode.showLive) ? APILocator.getContentletAPI().find(info.getLiveInode(), APILocator.systemUser(), false)
                         : APILocator.getContentletAPI().find(info.getWorkingInode(), APILocator.systemUser(), false);
 
-        Logger.debug(this, "DotResourceLoader:\tWriting out contentlet inode = " + contentlet.getInode());
         if (null == contentlet) {
             throw new ResourceNotFoundException("cannot find content for: " + key);
         }
-        return buildVelocity(contentlet, key.mode, key.path);
-
-
+        Logger.debug(this, "DotResourceLoader:\tWriting out contentlet inode = " + contentlet.getInode());
+        return contentlet;
     }
 
 
@@ -602,6 +441,36 @@ public class ContentletLoader implements DotLoader {
             new PageLoader().invalidate(asset, mode);
         }
 
+        if (mode == PageMode.LIVE) {
+            invalidateContainerFragments(asset);
+        }
+
+    }
+
+    /**
+     * Removes the cached container fragments of the pages the contentlet is on, or of the page itself
+     */
+    private void invalidateContainerFragments(final Contentlet asset) {
+
+        final ContainerFragmentCache fragmentCache = CacheLocator.getContainerFragmentCache();
+        if (!fragmentCache.isEnabled()) {
+            return;
+        }
+
+        if (asset.getContentType().baseType() == BaseContentType.HTMLPAGE) {
+            fragmentCache.remove(asset.getIdentifier());
+            return;
+        }
+
+        try {
+            for (final MultiTree multiTree : APILocator.getMultiTreeAPI().getMultiTreesByChild(asset.getIdentifier())) {
+                fragmentCache.remove(multiTree.getHtmlPage());
+            }
+        } catch (DotDataException e) {
+            Logger.warn(this, "Could not find the pages of the contentlet " + asset.getIdentifier()
+                    + ", flushing all the container fragments: " + e.getMessage());
+            fragmentCache.clearCache();
+        }
     }
 
 }
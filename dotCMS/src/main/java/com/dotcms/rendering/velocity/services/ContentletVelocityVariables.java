@@ -0,0 +1,487 @@
+package com.dotcms.rendering.velocity.services;
+
+import com.dotcms.rendering.velocity.viewtools.CategoriesWebAPI;
+import com.dotcms.rendering.velocity.viewtools.FileTool;
+import com.dotcms.rendering.velocity.viewtools.VelocityWebUtil;
+import com.dotmarketing.portlets.categories.model.Category;
+import com.dotmarketing.portlets.fileassets.business.FileAsset;
+import com.dotmarketing.portlets.fileassets.business.IFileAsset;
+import com.dotmarketing.util.Logger;
+import com.dotmarketing.util.UtilMethods;
+
+import java.io.Serializable;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.velocity.context.Context;
+
+/**
+ * The velocity variables a contentlet exposes when it is rendered (i.e. by a container through
+ * <code>#contentDetail</code>), computed once out of the contentlet and its content type.
+ * <p>
+ * Instead of generating a velocity script made of <code>#set</code> lines that has to be parsed into an AST just
+ * to copy the values into the context, the variables are applied to the context directly with {@link #apply(Context)}.
+ * Only the parts that depend on the request (files, categories filtered by the user permissions and field values
+ * with velocity code) are resolved on each render, the same way the generated script does.
+ * {@link #toVelocity()} still generates the equivalent script for the templates that <code>#parse</code> the
+ * contentlet file.
+ */
+public class ContentletVelocityVariables implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Variable> variables;
+
+    private ContentletVelocityVariables(final List<Variable> variables) {
+        this.variables = Collections.unmodifiableList(new ArrayList<>(variables));
+    }
+
+    /**
+     * Sets the variables on the context, in the same order the generated script sets them
+     * @param context {@link Context}
+     */
+    public void apply(final Context context) {
+
+        for (final Variable variable : this.variables) {
+            variable.apply(context);
+        }
+    }
+
+    /**
+     * Generates the velocity script that sets the same variables
+     * @return String
+     */
+    public String toVelocity() {
+
+        final StringBuilder velocity = new StringBuilder();
+        for (final Variable variable : this.variables) {
+            variable.toVelocity(velocity);
+        }
+
+        return velocity.toString();
+    }
+
+    public int size() {
+        return this.variables.size();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final List<Variable> variables = new ArrayList<>();
+
+        private Builder() {}
+
+        /**
+         * A value written on the script as a double quoted string escaped with {@link UtilMethods#espaceForVelocity(String)}
+         */
+        public Builder escaped(final String name, final String value) {
+            this.variables.add(new LiteralVariable(name, unescape(UtilMethods.espaceForVelocity(value)), '"', true));
+            return this;
+        }
+
+        /**
+         * A value written on the script as it is between double quotes
+         */
+        public Builder doubleQuoted(final String name, final Object value) {
+            this.variables.add(new LiteralVariable(name, String.valueOf(value), '"', false));
+            return this;
+        }
+
+        /**
+         * A value written on the script as it is between single quotes
+         */
+        public Builder singleQuoted(final String name, final Object value) {
+            this.variables.add(new LiteralVariable(name, String.valueOf(value), '\'', false));
+            return this;
+        }
+
+        public Builder date(final String name, final String format, final String value) {
+            this.variables.add(new DateVariable(name, format, value));
+            return this;
+        }
+
+        /**
+         * The result of merging the template on the path, resolved on each render
+         */
+        public Builder template(final String name, final String path) {
+            this.variables.add(new TemplateVariable(name, path));
+            return this;
+        }
+
+        /**
+         * Copies the value of another variable of the context, if onlyInEditMode the copy is done just when
+         * <code>$EDIT_MODE</code> is set
+         */
+        public Builder copy(final String name, final String source, final boolean onlyInEditMode) {
+            this.variables.add(new CopyVariable(name, source, onlyInEditMode));
+            return this;
+        }
+
+        public Builder file(final String fieldVar, final String identifier, final boolean live,
+                            final long languageId, final boolean image) {
+            this.variables.add(new FileVariable(fieldVar, identifier, live, languageId, image));
+            return this;
+        }
+
+        public Builder newFile(final String fieldVar) {
+            this.variables.add(new FileVariable(fieldVar, null, false, 0, false));
+            return this;
+        }
+
+        /**
+         * The categories of the contentlet filtered by the permissions of the user rendering it
+         * @param filteredName   variable for the filtered categories
+         * @param inodesName     variable for their inodes
+         * @param namesName      variable for their names
+         * @param aliasName      variable that points to the inodes too, null if none
+         * @param keysName       variable for their keys
+         * @param inodes         inodes of the categories of the contentlet
+         */
+        public Builder categories(final String filteredName, final String inodesName, final String namesName,
+                                  final String aliasName, final String keysName, final List<String> inodes) {
+            this.variables.add(new CategoriesVariable(filteredName, inodesName, namesName, aliasName, keysName, inodes));
+            return this;
+        }
+
+        public ContentletVelocityVariables build() {
+            return new ContentletVelocityVariables(this.variables);
+        }
+
+        // the value a velocity string literal escaped by UtilMethods.espaceForVelocity evaluates to
+        private static String unescape(final String escaped) {
+            return escaped.replace("${esc.q}", "\"").replace("${esc.h}", "#");
+        }
+    }
+
+    private interface Variable extends Serializable {
+
+        void apply(Context context);
+
+        void toVelocity(StringBuilder velocity);
+    }
+
+    private static void set(final StringBuilder velocity, final String name, final String expression) {
+        velocity.append("#set($").append(name).append('=').append(expression).append(')');
+    }
+
+    // same as #set, a null value does not change the variable
+    private static void put(final Context context, final String name, final Object value) {
+        if (null != value) {
+            context.put(name, value);
+        }
+    }
+
+    private static class LiteralVariable implements Variable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final String value;
+        private final char quote;
+        private final boolean escape;
+
+        private LiteralVariable(final String name, final String value, final char quote, final boolean escape) {
+            this.name   = name;
+            this.value  = value;
+            this.quote  = quote;
+            this.escape = escape;
+        }
+
+        @Override
+        public void apply(final Context context) {
+            context.put(this.name, this.value);
+        }
+
+        @Override
+        public void toVelocity(final StringBuilder velocity) {
+            set(velocity, this.name, this.quote + (this.escape ? UtilMethods.espaceForVelocity(this.value) : this.value)
+                    + this.quote);
+        }
+    }
+
+    private static class DateVariable implements Variable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final String format;
+        private final String value;
+        private final Long time;
+
+        private DateVariable(final String name, final String format, final String value) {
+            this.name   = name;
+            this.format = format;
+            this.value  = value;
+            this.time   = parse(format, value);
+        }
+
+        private static Long parse(final String format, final String value) {
+
+            try {
+                return UtilMethods.isSet(value) ? new SimpleDateFormat(format).parse(value).getTime() : null;
+            } catch (ParseException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void apply(final Context context) {
+            if (null != this.time) {
+                context.put(this.name, new Date(this.time));
+            }
+        }
+
+        @Override
+        public void toVelocity(final StringBuilder velocity) {
+            set(velocity, this.name, "$date.toDate(\"" + this.format + "\", \"" + this.value + "\")");
+        }
+    }
+
+    private static class TemplateVariable implements Variable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final String path;
+
+        private TemplateVariable(final String name, final String path) {
+            this.name = name;
+            this.path = path;
+        }
+
+        @Override
+        public void apply(final Context context) {
+
+            final Object velocityUtil = context.get("velutil");
+            if (velocityUtil instanceof VelocityWebUtil) {
+                try {
+                    put(context, this.name, VelocityWebUtil.class.cast(velocityUtil).mergeTemplate(this.path));
+                } catch (Exception e) {
+                    Logger.warn(this, "Unable to merge " + this.path + " into $" + this.name + ": " + e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void toVelocity(final StringBuilder velocity) {
+            set(velocity, this.name, "$velutil.mergeTemplate(\"" + this.path + "\")");
+        }
+    }
+
+    private static class CopyVariable implements Variable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final String source;
+        private final boolean onlyInEditMode;
+
+        private CopyVariable(final String name, final String source, final boolean onlyInEditMode) {
+            this.name           = name;
+            this.source         = source;
+            this.onlyInEditMode = onlyInEditMode;
+        }
+
+        @Override
+        public void apply(final Context context) {
+
+            final Object editMode = context.get("EDIT_MODE");
+            if (!this.onlyInEditMode || (editMode instanceof Boolean ? (Boolean) editMode : null != editMode)) {
+                put(context, this.name, context.get(this.source));
+            }
+        }
+
+        @Override
+        public void toVelocity(final StringBuilder velocity) {
+
+            if (this.onlyInEditMode) {
+                velocity.append("#if($EDIT_MODE)");
+            }
+            set(velocity, this.name, "$" + this.source);
+            if (this.onlyInEditMode) {
+                velocity.append("#end");
+            }
+        }
+    }
+
+    private static class FileVariable implements Variable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String fieldVar;
+        private final String identifier;
+        private final boolean live;
+        private final long languageId;
+        private final boolean image;
+
+        private FileVariable(final String fieldVar, final String identifier, final boolean live,
+                             final long languageId, final boolean image) {
+            this.fieldVar   = fieldVar;
+            this.identifier = identifier;
+            this.live       = live;
+            this.languageId = languageId;
+            this.image      = image;
+        }
+
+        @Override
+        public void apply(final Context context) {
+
+            if (null == this.identifier) {
+                context.put(this.fieldVar + "Object", new FileTool().getNewFile());
+                return;
+            }
+
+            final IFileAsset file;
+            try {
+                file = new FileTool().getFile(this.identifier, this.live, this.languageId);
+            } catch (Exception e) {
+                Logger.debug(this, "Unable to get the file " + this.identifier + ": " + e.getMessage(), e);
+                return;
+            }
+
+            if (null == file) {
+                return;
+            }
+
+            final String prefix = this.fieldVar + (this.image ? "Image" : "File");
+            final String uri    = new FileTool().getURI(file instanceof FileAsset ? (FileAsset) file : null,
+                    this.languageId);
+
+            context.put(this.fieldVar + "Object", file);
+            put(context, prefix + "Inode", file.getInode());
+            put(context, prefix + "Identifier", file.getIdentifier());
+            if (this.image) {
+                put(context, prefix + "Width", file.getWidth());
+                put(context, prefix + "Height", file.getHeight());
+            }
+            put(context, prefix + "Extension", file.getExtension());
+            put(context, prefix + "URI", uri);
+            put(context, prefix + "Title", this.image ? UtilMethods.espaceForVelocity(file.getTitle()) : file.getTitle());
+            put(context, prefix + "FriendlyName", UtilMethods.espaceForVelocity(file.getFriendlyName()));
+            put(context, prefix + "Path", this.image ? file.getPath() : UtilMethods.espaceForVelocity(file.getPath()));
+            put(context, prefix + "Name", this.image ? file.getFileName() : UtilMethods.espaceForVelocity(file.getFileName()));
+        }
+
+        @Override
+        public void toVelocity(final StringBuilder velocity) {
+
+            final String object = this.fieldVar + "Object";
+            if (null == this.identifier) {
+                set(velocity, object, "$filetool.getNewFile()");
+                return;
+            }
+
+            final String prefix = this.fieldVar + (this.image ? "Image" : "File");
+            set(velocity, object, "$filetool.getFile('" + this.identifier + "'," + this.live + "," + this.languageId + ")");
+            set(velocity, prefix + "Inode", "$!{" + object + ".getInode()}");
+            set(velocity, prefix + "Identifier", "$!{" + object + ".getIdentifier()}");
+            if (this.image) {
+                set(velocity, prefix + "Width", "$!{" + object + ".getWidth()}");
+                set(velocity, prefix + "Height", "$!{" + object + ".getHeight()}");
+            }
+            set(velocity, prefix + "Extension", "$!{" + object + ".getExtension()}");
+            set(velocity, prefix + "URI", "$filetool.getURI($!{" + object + "}, " + this.languageId + ")");
+            set(velocity, prefix + "Title", this.image ? escapeExpression(object + ".getTitle()") :
+                    "$!{" + object + ".getTitle()}");
+            set(velocity, prefix + "FriendlyName", escapeExpression(object + ".getFriendlyName()"));
+            set(velocity, prefix + "Path", this.image ? "$!{" + object + ".getPath()}" :
+                    escapeExpression(object + ".getPath()"));
+            set(velocity, prefix + "Name", this.image ? "$!{" + object + ".getFileName()}" :
+                    escapeExpression(object + ".getFileName()"));
+        }
+
+        private static String escapeExpression(final String expression) {
+            return "$UtilMethods.espaceForVelocity($!{" + expression + "})";
+        }
+    }
+
+    private static class CategoriesVariable implements Variable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String filteredName;
+        private final String inodesName;
+        private final String namesName;
+        private final String aliasName;
+        private final String keysName;
+        private final ArrayList<String> inodes;
+
+        private CategoriesVariable(final String filteredName, final String inodesName, final String namesName,
+                                   final String aliasName, final String keysName, final List<String> inodes) {
+            this.filteredName = filteredName;
+            this.inodesName   = inodesName;
+            this.namesName    = namesName;
+            this.aliasName    = aliasName;
+            this.keysName     = keysName;
+            this.inodes       = new ArrayList<>(inodes);
+        }
+
+        @Override
+        public void apply(final Context context) {
+
+            if (this.inodes.isEmpty()) {
+                context.put(this.filteredName, new ArrayList<>());
+                context.put(this.inodesName, new ArrayList<>());
+                context.put(this.namesName, new ArrayList<>());
+                if (null != this.aliasName) {
+                    context.put(this.aliasName, new ArrayList<>());
+                }
+                context.put(this.keysName, new ArrayList<>());
+                return;
+            }
+
+            final Object categoriesTool = context.get("categories");
+            if (!(categoriesTool instanceof CategoriesWebAPI)) {
+                return;
+            }
+
+            final CategoriesWebAPI categoriesWebAPI = (CategoriesWebAPI) categoriesTool;
+            final List<Category> filtered = categoriesWebAPI.filterCategoriesByUserPermissions(new ArrayList<>(this.inodes));
+            final List<String> filteredInodes = categoriesWebAPI.fetchCategoriesInodes(filtered);
+
+            context.put(this.filteredName, filtered);
+            context.put(this.inodesName, filteredInodes);
+            context.put(this.namesName, categoriesWebAPI.fetchCategoriesNames(filtered));
+            if (null != this.aliasName) {
+                context.put(this.aliasName, filteredInodes);
+            }
+            context.put(this.keysName, categoriesWebAPI.fetchCategoriesKeys(filtered));
+        }
+
+        @Override
+        public void toVelocity(final StringBuilder velocity) {
+
+            if (this.inodes.isEmpty()) {
+                set(velocity, this.filteredName, "$contents.getEmptyList()");
+                set(velocity, this.inodesName, "$contents.getEmptyList()");
+                set(velocity, this.namesName, "$contents.getEmptyList()");
+                if (null != this.aliasName) {
+                    set(velocity, this.aliasName, "$contents.getEmptyList()");
+                }
+                set(velocity, this.keysName, "$contents.getEmptyList()");
+                return;
+            }
+
+            final StringBuilder inodeList = new StringBuilder();
+            for (final String inode : this.inodes) {
+                inodeList.append(inodeList.length() > 0 ? "," : "").append('"').append(inode).append('"');
+            }
+
+            set(velocity, this.filteredName, "$categories.filterCategoriesByUserPermissions([" + inodeList + "])");
+            set(velocity, this.inodesName, "$categories.fetchCategoriesInodes($" + this.filteredName + ")");
+            set(velocity, this.namesName, "$categories.fetchCategoriesNames($" + this.filteredName + ")");
+            if (null != this.aliasName) {
+                set(velocity, this.aliasName, "$" + this.inodesName);
+            }
+            set(velocity, this.keysName, "$categories.fetchCategoriesKeys($" + this.filteredName + ")");
+        }
+    }
+} // E:O:F:ContentletVelocityVariables.
@@ -33,8 +33,9 @@ public class DotResourceCache implements ResourceCache, Cachable {
 
     private String primaryGroup = "VelocityCache";
     private String macroCacheGroup = "VelocityMacroCache";
+    private String contentletVariablesGroup = "VelocityContentletVariablesCache";
     // region's name for the cache
-    private String[] groupNames = {primaryGroup, macroCacheGroup};
+    private String[] groupNames = {primaryGroup, macroCacheGroup, contentletVariablesGroup};
     private static final String MACRO_PREFIX = "MACRO_PREFIX";
     private final Set<String> ignoreGlobalVM;
     public final static String[] MACRO404 = new String[] {"MACRO404"};
@@ -75,6 +76,22 @@ public class DotResourceCache implements ResourceCache, Cachable {
         cache.put(MACRO_PREFIX + name, rw, macroCacheGroup);
     }
 
+    /**
+     * Returns the velocity variables cached for the contentlet key, null if they are not cached yet
+     * @param key {@link VelocityResourceKey}
+     * @return ContentletVelocityVariables
+     */
+    public ContentletVelocityVariables getContentletVariables(final VelocityResourceKey key) {
+        return (ContentletVelocityVariables) cache.getNoThrow(key.cacheKey, contentletVariablesGroup);
+    }
+
+    public void putContentletVariables(final VelocityResourceKey key, final ContentletVelocityVariables variables) {
+        if (variables == null) {
+            return;
+        }
+        cache.put(key.cacheKey, variables, contentletVariablesGroup);
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -145,6 +162,7 @@ public class DotResourceCache implements ResourceCache, Cachable {
 
         try {
             cache.remove(key.cacheKey, primaryGroup);
+            cache.remove(key.cacheKey, contentletVariablesGroup);
         } catch (Exception e) {
             Logger.debug(this, e.getMessage(), e);
         }
@@ -27,11 +27,13 @@ import com.dotmarketing.util.UtilMethods;
 import com.dotmarketing.util.WebKeys;
 import com.liferay.portal.model.User;
 import org.apache.velocity.context.Context;
+import org.apache.velocity.io.Utf8ByteWriter;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 public class VelocityLiveMode extends VelocityModeHandler {
@@ -144,15 +146,21 @@ public class VelocityLiveMode extends VelocityModeHandler {
                     new BlockPageCache.PageCacheParameters(userId, language, urlMap, queryString, persona);
 
             final String key = VelocityUtil.getPageCacheKey(request, htmlPage);
+            final boolean byteOutput = isByteOutput();
             if (key != null) {
                 String cachedPage = CacheLocator.getBlockPageCache().get(htmlPage, cacheParameters);
                 if (cachedPage != null) {
                     // have cached response and are not refreshing, send it
-                    out.write(cachedPage.getBytes());
+                    out.write(byteOutput ? cachedPage.getBytes(StandardCharsets.UTF_8) : cachedPage.getBytes());
                     return;
                 }
             }
 
+            if (byteOutput) {
+                serveBytes(context, out, key, cacheParameters);
+                return;
+            }
+
             try (Writer tmpOut = (key != null) ? new StringWriter(4096) : new BufferedWriter(new OutputStreamWriter(out))) {
 
                 this.getTemplate(htmlPage, mode).merge(context, tmpOut);
@@ -170,6 +178,77 @@ public class VelocityLiveMode extends VelocityModeHandler {
         }
     }
 
+    /**
+     * Renders the page straight to UTF-8 bytes: the static text of the templates is written already encoded and only
+     * the dynamic parts are encoded. Pages that are not block cached go directly to the response stream.
+     */
+    private void serveBytes(final Context context, final OutputStream out, final String key,
+                            final PageCacheParameters cacheParameters) throws DotDataException, IOException, DotSecurityException {
+
+        if (key == null) {
+            try (Writer byteWriter = new Utf8ByteWriter(out)) {
+                this.getTemplate(htmlPage, mode).merge(context, byteWriter);
+            }
+            return;
+        }
+
+        final PageBuffer pageBuffer = new PageBuffer();
+        try (Writer byteWriter = new Utf8ByteWriter(pageBuffer)) {
+            this.getTemplate(htmlPage, mode).merge(context, byteWriter);
+        }
+
+        pageBuffer.writeTrimmedTo(out);
+        synchronized (key.intern()) {
+            CacheLocator.getBlockPageCache().add(htmlPage, pageBuffer.toTrimmedString(), cacheParameters);
+        }
+    }
+
+    /**
+     * Byte output is used when the response charset is UTF-8, it can be turned off with VELOCITY_BYTE_OUTPUT_ENABLED=false
+     */
+    private static boolean isByteOutput() {
+        return Config.getBooleanProperty("VELOCITY_BYTE_OUTPUT_ENABLED", true)
+                && StandardCharsets.UTF_8.name().equalsIgnoreCase(CHARSET);
+    }
+
+    /**
+     * Keeps the rendered page, trimmed as the block cache expects it, without copying the bytes around.
+     * Trimming the bytes is the same as trimming the string since UTF-8 multi byte sequences never contain bytes
+     * lower than a space.
+     */
+    private static class PageBuffer extends ByteArrayOutputStream {
+
+        PageBuffer() {
+            super(4096);
+        }
+
+        private int start() {
+            int start = 0;
+            while (start < count && (buf[start] & 0xFF) <= ' ') {
+                start++;
+            }
+            return start;
+        }
+
+        private int end() {
+            int end = count;
+            while (end > 0 && (buf[end - 1] & 0xFF) <= ' ') {
+                end--;
+            }
+            return end;
+        }
+
+        void writeTrimmedTo(final OutputStream out) throws IOException {
+            final int start = start();
+            out.write(buf, start, Math.max(end() - start, 0));
+        }
+
+        String toTrimmedString() {
+            final int start = start();
+            return new String(buf, start, Math.max(end() - start, 0), StandardCharsets.UTF_8);
+        }
+    }
+
     User getUser() {
         User user = null;
         final HttpSession session = request.getSession(false);
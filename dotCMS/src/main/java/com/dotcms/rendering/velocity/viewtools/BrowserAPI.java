@@ -2,7 +2,9 @@ package com.dotcms.rendering.velocity.viewtools;
 
 import static com.dotmarketing.business.PermissionAPI.PERMISSION_READ;
 
+import com.dotcms.content.elasticsearch.business.ESContentletAPIImpl;
 import com.dotcms.contenttype.exception.NotFoundInDbException;
+import com.dotcms.contenttype.model.type.BaseContentType;
 import com.dotmarketing.beans.Host;
 import com.dotmarketing.beans.Identifier;
 import com.dotmarketing.business.APILocator;
@@ -18,7 +20,6 @@ import com.dotmarketing.exception.DotSecurityException;
 import com.dotmarketing.portlets.contentlet.model.Contentlet;
 import com.dotmarketing.portlets.fileassets.business.FileAssetAPI;
 import com.dotmarketing.portlets.fileassets.business.IFileAsset;
-import com.dotmarketing.portlets.folders.business.ChildrenCondition;
 import com.dotmarketing.portlets.folders.business.FolderAPI;
 import com.dotmarketing.portlets.folders.model.Folder;
 import com.dotmarketing.portlets.htmlpageasset.model.IHTMLPage;
@@ -29,16 +30,17 @@ import com.dotmarketing.portlets.workflows.business.WorkflowAPI;
 import com.dotmarketing.portlets.workflows.model.WorkflowAction;
 import com.dotmarketing.portlets.workflows.model.WorkflowScheme;
 import com.dotmarketing.util.Logger;
+import com.dotmarketing.util.PaginatedArrayList;
 import com.dotmarketing.util.UtilHTML;
 import com.dotmarketing.util.UtilMethods;
 import com.liferay.portal.language.LanguageUtil;
 import com.liferay.portal.model.User;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 public class BrowserAPI {
@@ -188,8 +190,6 @@ public class BrowserAPI {
 			sortByDesc = true;
 		}
 
-		List<Map<String, Object>> returnList = new ArrayList<Map<String, Object>>();
-
 		Role[] roles = new Role[] {};
 		try {
 			roles = com.dotmarketing.business.APILocator.getRoleAPI()
@@ -218,124 +218,293 @@ public class BrowserAPI {
             }
 		}
 
-		if (!noFolders) {
-			if (parent != null) {
+		if (offset < 0)
+			offset = 0;
 
-				List<Folder> folders = new ArrayList<Folder>();
-				try {
-					folders = folderAPI.findSubFolders(parent,
-							userAPI.getSystemUser(), false);
-				} catch (Exception e1) {
-					Logger.error(this, "Could not load folders : ", e1);
-				}
-				for (Folder folder : folders) {
-					List<Integer> permissions = new ArrayList<Integer>();
-					try {
-						permissions = permissionAPI.getPermissionIdsFromRoles(
-								folder, roles, user);
-					} catch (DotDataException e) {
-						Logger.error(this, "Could not load permissions : ", e);
-					}
-					if (permissions.contains(PERMISSION_READ)) {
-						Map<String, Object> folderMap = folder.getMap();
-						folderMap.put("permissions", permissions);
-						folderMap.put("parent", folder.getInode());
-						folderMap.put("mimeType", "");
-						folderMap.put("name", folder.getName());
-						folderMap.put("description", folder.getTitle());
-						folderMap.put("extension", "folder");
-						returnList.add(folderMap);
-					}
-				}
-			}
+		// the listing only keeps what is needed to filter and sort the assets, the workflow actions, status icons
+		// and so on are only loaded for the assets of the requested page
+		final List<FolderContentItem> folders = noFolders || parent == null ?
+				new ArrayList<FolderContentItem>() : getFolderItems(parent, roles, user);
+		final List<FolderContentItem> links   = onlyFiles || excludeLinks ?
+				new ArrayList<FolderContentItem>() : getLinkItems(parent, host, roles, user, showWorking, showArchived);
+
+		final WebAssetMapComparator comparator = new WebAssetMapComparator(sortBy, sortByDesc);
+		final String indexSortBy = getIndexSortBy(sortBy, sortByDesc);
+		final boolean filtered = UtilMethods.isSet(filter) || (mimeTypes != null && mimeTypes.size() > 0)
+				|| (extensions != null && extensions.size() > 0);
+
+		// the unlimited listings and the pages past the index result window are sorted and paged in memory, the index
+		// search would cap them at its max limit
+		if (indexSortBy != null && !filtered && maxResults > 0
+				&& (long) offset + maxResults <= ESContentletAPIImpl.MAX_LIMIT) {
+
+			// the folders and links are not in the index, the html pages and files are sorted and paged there
+			final List<FolderContentItem> items = new ArrayList<FolderContentItem>(folders);
+			items.addAll(links);
+			items.sort((item1, item2) -> comparator.compare(item1.map, item2.map));
+			return getIndexPagedContent(items, getContentQuery(parent, host, showWorking, showArchived, onlyFiles,
+					languageId), indexSortBy, comparator, offset, maxResults, roles, user);
 		}
 
+		final List<FolderContentItem> items = new ArrayList<FolderContentItem>(folders);
 		if (!onlyFiles) {
+			items.addAll(getPageItems(parent, host, roles, user, showWorking, showArchived, languageId));
+		}
+		items.addAll(getFileItems(parent, host, roles, user, showWorking, showArchived, languageId));
+		items.addAll(links);
 
-			// Getting the html pages directly under the parent folder or host
-			List<IHTMLPage> pages = new ArrayList<IHTMLPage>();
-			try {
-				if (parent != null) {//For folders
-					if(!showWorking) {
-						pages.addAll(APILocator.getHTMLPageAssetAPI().getLiveHTMLPages(parent, user, false));
-					}
-					else {
-						pages.addAll(APILocator.getHTMLPageAssetAPI().getWorkingHTMLPages(parent, user, false));
-					}
-
-					if(showArchived) {
-						pages.addAll(APILocator.getHTMLPageAssetAPI().getDeletedHTMLPages(parent, user, false));
-					}
-				} else {//For hosts
-                    if ( !showWorking ) {
-                        pages.addAll( APILocator.getHTMLPageAssetAPI().getLiveHTMLPages( host, user, false ) );
-                    } else {
-                        pages.addAll( APILocator.getHTMLPageAssetAPI().getWorkingHTMLPages( host, user, false ) );
-                    }
+		// Filtering
+		final String lowerCaseFilter = UtilMethods.isSet(filter) ? filter.toLowerCase() : null;
+		items.removeIf(item -> !matches(item.map, lowerCaseFilter, mimeTypes, extensions));
 
-                    if ( showArchived ) {
-                        pages.addAll( APILocator.getHTMLPageAssetAPI().getDeletedHTMLPages( host, user, false ) );
-                    }
-				}
-			} catch (Exception e1) {
-				Logger.error(this, "Could not load HTMLPages : ", e1);
+		// Sorting
+		items.sort((item1, item2) -> comparator.compare(item1.map, item2.map));
+
+		// Offsetting
+		if (offset > items.size())
+			offset = items.size();
+		if (maxResults <= 0)
+			maxResults = items.size() - offset;
+		if (maxResults + offset > items.size())
+			maxResults = items.size() - offset;
+
+		final List<Map<String, Object>> returnList = new ArrayList<Map<String, Object>>(maxResults);
+		for (final FolderContentItem item : items.subList(offset, offset + maxResults)) {
+			returnList.add(loadDetails(item, user));
+		}
+
+		Map<String, Object> returnMap = new HashMap<String, Object>();
+		returnMap.put("total", items.size());
+		returnMap.put("list", returnList);
+		return returnMap;
+	}
+
+	/**
+	 * Pages the html pages and files of the folder in the index and merges them with its folders and links, already
+	 * sorted. An item is ranked by its position plus the items of the other list before it, the folders and links
+	 * going first on a tie, so a content can only be moved back by the folders and links and the index is asked from
+	 * the offset minus their count on.
+	 */
+	private Map<String, Object> getIndexPagedContent(final List<FolderContentItem> dbItems, final String query,
+			final String indexSortBy, final WebAssetMapComparator comparator, final int offset, final int maxResults,
+			final Role[] roles, final User user) throws DotSecurityException, DotDataException {
+
+		final int from = Math.max(0, offset - dbItems.size());
+		final int end  = offset + maxResults;
+		final PaginatedArrayList<Contentlet> contentlets = (PaginatedArrayList<Contentlet>) APILocator
+				.getContentletAPI().search(query, end - from, from, indexSortBy, user, false);
+
+		final List<FolderContentItem> contents = new ArrayList<FolderContentItem>(contentlets.size());
+		for (final Contentlet contentlet : contentlets) {
+			contents.add(contentlet.isFileAsset() ?
+					getFileItem(APILocator.getFileAssetAPI().fromContentlet(contentlet), roles, user) :
+					getPageItem(APILocator.getHTMLPageAssetAPI().fromContentlet(contentlet), roles, user));
+		}
+
+		final Map<Integer, FolderContentItem> ranked = new TreeMap<Integer, FolderContentItem>();
+		for (int i = 0; i < contents.size(); i++) {
+
+			int rank = from + i;
+			for (final FolderContentItem dbItem : dbItems) {
+				if (comparator.compare(dbItem.map, contents.get(i).map) > 0)
+					break;
+				rank++;
+			}
+			if (rank >= offset && rank < end)
+				ranked.put(rank, contents.get(i));
+		}
+		for (int j = 0; j < dbItems.size(); j++) {
+
+			final FolderContentItem dbItem = dbItems.get(j);
+			// when the index is asked from an offset, the items not after its first content are ranked before the page
+			if (from > 0 && (contents.isEmpty() || comparator.compare(contents.get(0).map, dbItem.map) >= 0))
+				continue;
+
+			int rank = from + j;
+			for (final FolderContentItem content : contents) {
+				if (comparator.compare(content.map, dbItem.map) >= 0)
+					break;
+				rank++;
 			}
+			if (rank >= offset && rank < end)
+				ranked.put(rank, dbItem);
+		}
+
+		final List<Map<String, Object>> returnList = new ArrayList<Map<String, Object>>(ranked.size());
+		for (final FolderContentItem item : ranked.values()) {
+			returnList.add(loadDetails(item, user));
+		}
+
+		Map<String, Object> returnMap = new HashMap<String, Object>();
+		returnMap.put("total", (int) contentlets.getTotalResults() + dbItems.size());
+		returnMap.put("list", returnList);
+		return returnMap;
+	}
+
+	/**
+	 * The index sort matching the {@link WebAssetMapComparator} order of the html pages and files, null when the
+	 * assets have to be sorted in memory. The path of the contents of a folder only differs on their names, the
+	 * inode breaks the ties so the pages do not overlap.
+	 */
+	private static String getIndexSortBy(final String sortBy, final boolean sortByDesc) {
 
-			for (IHTMLPage page : pages) {
-				
-				boolean isContentlet = page instanceof Contentlet;
-				// include only pages for the given language
-				if(isContentlet && languageId > 0 && ((Contentlet)page).getLanguageId()!= languageId)
-					continue;
-				
-				List<Integer> permissions = new ArrayList<Integer>();
-				try {
-					permissions = permissionAPI.getPermissionIdsFromRoles(page, roles, user);
-				} catch (DotDataException e) {
-					Logger.error(this, "Could not load permissions : ", e);
+		final String direction = sortByDesc ? " desc" : " asc";
+		if ("name".equals(sortBy)) {
+			return "path" + direction + ",inode asc";
+		} else if ("modDate".equals(sortBy)) {
+			return "modDate" + direction + ",inode asc";
+		}
+
+		return null;
+	}
+
+	/**
+	 * The index query of the html pages and files directly under the folder or host, as loaded by
+	 * {@link #getPageItems(Folder, Host, Role[], User, boolean, boolean, long)} and
+	 * {@link #getFileItems(Folder, Host, Role[], User, boolean, boolean, long)}
+	 */
+	private static String getContentQuery(final Folder parent, final Host host, final boolean showWorking,
+			final boolean showArchived, final boolean onlyFiles, final long languageId) {
+
+		final StringBuilder query = new StringBuilder("+basetype:");
+		query.append(onlyFiles ? String.valueOf(BaseContentType.FILEASSET.getType()) :
+				"(" + BaseContentType.FILEASSET.getType() + " " + BaseContentType.HTMLPAGE.getType() + ")");
+
+		if (parent != null) {
+			query.append(" +conFolder:").append(parent.getInode());
+		} else {
+			query.append(" +conHost:").append(host.getIdentifier()).append(" +conFolder:").append(FolderAPI.SYSTEM_FOLDER);
+		}
+
+		if (languageId > 0) {
+			query.append(" +languageId:").append(languageId);
+		}
+
+		if (showWorking) {
+			query.append(" +working:true");
+		} else if (showArchived) {
+			query.append(" +(live:true (+working:true +deleted:true))");
+		} else {
+			query.append(" +live:true");
+		}
+
+		if (!showArchived) {
+			query.append(" +deleted:false");
+		}
+
+		return query.toString();
+	}
+
+	private List<FolderContentItem> getFolderItems(final Folder parent, final Role[] roles, final User user) {
+
+		final List<FolderContentItem> items = new ArrayList<FolderContentItem>();
+		List<Folder> folders = new ArrayList<Folder>();
+		try {
+			folders = folderAPI.findSubFolders(parent,
+					userAPI.getSystemUser(), false);
+		} catch (Exception e1) {
+			Logger.error(this, "Could not load folders : ", e1);
+		}
+		for (Folder folder : folders) {
+			List<Integer> permissions = new ArrayList<Integer>();
+			try {
+				permissions = permissionAPI.getPermissionIdsFromRoles(
+						folder, roles, user);
+			} catch (DotDataException e) {
+				Logger.error(this, "Could not load permissions : ", e);
+			}
+			if (permissions.contains(PERMISSION_READ)) {
+				Map<String, Object> folderMap = folder.getMap();
+				folderMap.put("permissions", permissions);
+				folderMap.put("parent", folder.getInode());
+				folderMap.put("mimeType", "");
+				folderMap.put("name", folder.getName());
+				folderMap.put("description", folder.getTitle());
+				folderMap.put("extension", "folder");
+				items.add(new FolderContentItem(folderMap, folder, permissions));
+			}
+		}
+
+		return items;
+	}
+
+	private List<FolderContentItem> getPageItems(final Folder parent, final Host host, final Role[] roles,
+			final User user, final boolean showWorking, final boolean showArchived, final long languageId) {
+
+		// Getting the html pages directly under the parent folder or host
+		final List<FolderContentItem> items = new ArrayList<FolderContentItem>();
+		List<IHTMLPage> pages = new ArrayList<IHTMLPage>();
+		try {
+			if (parent != null) {//For folders
+				if(!showWorking) {
+					pages.addAll(APILocator.getHTMLPageAssetAPI().getLiveHTMLPages(parent, user, false));
 				}
-				if (permissions.contains(PERMISSION_READ)) {
-				    WfData wfdata = page instanceof Contentlet ? new WfData((Contentlet)page, permissions, user, showArchived) : null;
-				    
-				    if(wfdata!=null && wfdata.skip)
-				        continue;
-				    
-					Map<String, Object> pageMap = page.getMap();
-					pageMap.put("mimeType", "application/dotpage");
-					pageMap.put("permissions", permissions);
-					pageMap.put("name", page.getPageUrl());
-					pageMap.put("description", page.getFriendlyName());
-					pageMap.put("extension", "page");
-					pageMap.put("isContentlet", page instanceof Contentlet);
-					
-					if(wfdata!=null ) {
-    		            pageMap.put("wfActionMapList", wfdata.wfActionMapList);
-    	                pageMap.put("contentEditable", wfdata.contentEditable);
-					}
-					
-					if(isContentlet) {
-					    pageMap.put("identifier", page.getIdentifier());
-		                pageMap.put("inode", page.getInode());
-					    pageMap.put("languageId", ((Contentlet)page).getLanguageId());
-					    
-					    Language lang = APILocator.getLanguageAPI().getLanguage(((Contentlet)page).getLanguageId());
-					    
-					    pageMap.put("languageCode", lang.getLanguageCode());
-		                pageMap.put("countryCode", lang.getCountryCode());
-		                pageMap.put("isLocked", page.isLocked());
-		                pageMap.put("languageFlag", LanguageUtil.getLiteralLocale(lang.getLanguageCode(), lang.getCountryCode()));
-		            
-		              
-					}
-
-                    pageMap.put("hasLiveVersion", APILocator.getVersionableAPI().hasLiveVersion(page));
-					pageMap.put("statusIcons", UtilHTML.getStatusIcons(page));
-					returnList.add(pageMap);
+				else {
+					pages.addAll(APILocator.getHTMLPageAssetAPI().getWorkingHTMLPages(parent, user, false));
+				}
+
+				if(showArchived) {
+					pages.addAll(APILocator.getHTMLPageAssetAPI().getDeletedHTMLPages(parent, user, false));
 				}
+			} else {//For hosts
+                if ( !showWorking ) {
+                    pages.addAll( APILocator.getHTMLPageAssetAPI().getLiveHTMLPages( host, user, false ) );
+                } else {
+                    pages.addAll( APILocator.getHTMLPageAssetAPI().getWorkingHTMLPages( host, user, false ) );
+                }
+
+                if ( showArchived ) {
+                    pages.addAll( APILocator.getHTMLPageAssetAPI().getDeletedHTMLPages( host, user, false ) );
+                }
 			}
+		} catch (Exception e1) {
+			Logger.error(this, "Could not load HTMLPages : ", e1);
+		}
+
+		for (IHTMLPage page : pages) {
 
+			boolean isContentlet = page instanceof Contentlet;
+			// include only pages for the given language
+			if(isContentlet && languageId > 0 && ((Contentlet)page).getLanguageId()!= languageId)
+				continue;
+
+			final FolderContentItem item = getPageItem(page, roles, user);
+			if (item.permissions.contains(PERMISSION_READ)) {
+
+			    if(isContentlet && isSkipped((Contentlet)page, item.permissions, showArchived))
+			        continue;
+
+				items.add(item);
+			}
 		}
 
+		return items;
+	}
+
+	private FolderContentItem getPageItem(final IHTMLPage page, final Role[] roles, final User user) {
+
+		List<Integer> permissions = new ArrayList<Integer>();
+		try {
+			permissions = permissionAPI.getPermissionIdsFromRoles(page, roles, user);
+		} catch (DotDataException e) {
+			Logger.error(this, "Could not load permissions : ", e);
+		}
+
+		Map<String, Object> pageMap = page.getMap();
+		pageMap.put("mimeType", "application/dotpage");
+		pageMap.put("permissions", permissions);
+		pageMap.put("name", page.getPageUrl());
+		pageMap.put("description", page.getFriendlyName());
+		pageMap.put("extension", "page");
+		pageMap.put("isContentlet", page instanceof Contentlet);
+		return new FolderContentItem(pageMap, page, permissions);
+	}
+
+	private List<FolderContentItem> getFileItems(final Folder parent, final Host host, final Role[] roles,
+			final User user, final boolean showWorking, final boolean showArchived, final long languageId)
+			throws DotDataException {
+
+		final List<FolderContentItem> items = new ArrayList<FolderContentItem>();
 		List<Versionable> files = new ArrayList<Versionable>();
 		try {
 
@@ -347,15 +516,6 @@ public class BrowserAPI {
 					files.addAll(APILocator.getFileAssetAPI().findFileAssetsByHost(host, user, !showWorking, showWorking, showArchived, false));
 
 			} else {
-		        ChildrenCondition cond = new ChildrenCondition();
-		        
-		        if(showWorking)
-		        	cond.working = true;
-		        else
-		        	cond.live = true;
-				
-		        cond.deleted = showArchived;
-
 				files.addAll(APILocator.getFileAssetAPI().findFileAssetsByFolder(parent, "", !showWorking, showWorking, user, false));
 			}
 
@@ -373,182 +533,233 @@ public class BrowserAPI {
 			if (file == null)
 				continue;
 
-			List<Integer> permissions = new ArrayList<Integer>();
+			final Contentlet contentlet = file instanceof Contentlet ? (Contentlet) file : null;
+			//Show only files versions if a language filter is in place
+			if (contentlet != null && languageId > 0 && contentlet.getLanguageId() != languageId)
+				continue;
 
-            try {
-                permissions = permissionAPI.getPermissionIdsFromRoles((IFileAsset)file, roles, user);
-            } catch (DotDataException e) {
-                Logger.error(this, "Could not load permissions : ", e);
-            }
-			
-			WfData wfdata=null;
-			Contentlet contentlet=null;
-			if(file instanceof Contentlet) {
-			    contentlet=(Contentlet)file;
-			    wfdata=new WfData(contentlet, permissions, user, showArchived);
-			}
+			final FolderContentItem item = getFileItem((IFileAsset) file, roles, user);
+			if (contentlet != null && isSkipped(contentlet, item.permissions, showArchived))
+				continue;
 
-			if (contentlet != null) {
-			    //Show only files versions if a language filter is in place
-                if(languageId > 0 && contentlet.getLanguageId()!= languageId)
-                    continue;
-                if (wfdata != null && wfdata.skip)
-                    continue;
-			}
+			items.add(item);
+		}
+
+		return items;
+	}
+
+	private FolderContentItem getFileItem(final IFileAsset fileAsset, final Role[] roles, final User user)
+			throws DotDataException {
+
+		List<Integer> permissions = new ArrayList<Integer>();
 
-			IFileAsset fileAsset=(IFileAsset)file;
-			Map<String, Object> fileMap = fileAsset.getMap();
-
-			Identifier ident = APILocator.getIdentifierAPI().find(
-					fileAsset.getVersionId());
-
-			fileMap.put("permissions", permissions);
-			fileMap.put("mimeType", APILocator.getFileAssetAPI()
-					.getMimeType(fileAsset.getUnderlyingFileName()));
-			fileMap.put("name", ident.getAssetName());
-			fileMap.put("fileName", ident.getAssetName());
-			fileMap.put("title", fileAsset.getFriendlyName());
-			fileMap.put("description", fileAsset instanceof Contentlet ?
-			                           ((Contentlet)fileAsset).getStringProperty(FileAssetAPI.DESCRIPTION)
-			                           : "");
-			fileMap.put("extension", UtilMethods
-					.getFileExtension(fileAsset.getUnderlyingFileName()));
-			fileMap.put("path", fileAsset.getPath());
-			fileMap.put("type", fileAsset.getType());
-			Host hoster = APILocator.getHostAPI().find(ident.getHostId(), APILocator.systemUser(), false);
-            fileMap.put("hostName", hoster.getHostname());
-			
-			
-			
-			
-			if(wfdata!=null) {
-    			fileMap.put("wfActionMapList", wfdata.wfActionMapList);
-    			fileMap.put("contentEditable", wfdata.contentEditable);
+        try {
+            permissions = permissionAPI.getPermissionIdsFromRoles(fileAsset, roles, user);
+        } catch (DotDataException e) {
+            Logger.error(this, "Could not load permissions : ", e);
+        }
+
+		Map<String, Object> fileMap = fileAsset.getMap();
+
+		Identifier ident = APILocator.getIdentifierAPI().find(
+				fileAsset.getVersionId());
+
+		fileMap.put("permissions", permissions);
+		fileMap.put("mimeType", APILocator.getFileAssetAPI()
+				.getMimeType(fileAsset.getUnderlyingFileName()));
+		fileMap.put("name", ident.getAssetName());
+		fileMap.put("fileName", ident.getAssetName());
+		fileMap.put("title", fileAsset.getFriendlyName());
+		fileMap.put("description", fileAsset instanceof Contentlet ?
+		                           ((Contentlet)fileAsset).getStringProperty(FileAssetAPI.DESCRIPTION)
+		                           : "");
+		fileMap.put("extension", UtilMethods
+				.getFileExtension(fileAsset.getUnderlyingFileName()));
+		fileMap.put("type", fileAsset.getType());
+		return new FolderContentItem(fileMap, fileAsset, permissions, ident);
+	}
+
+	private List<FolderContentItem> getLinkItems(final Folder parent, final Host host, final Role[] roles,
+			final User user, final boolean showWorking, final boolean showArchived) {
+
+		// Getting the links directly under the parent folder or host
+		final List<FolderContentItem> items = new ArrayList<FolderContentItem>();
+		List<Link> links = new ArrayList<Link>();
+		try {
+			if (parent != null) {
+				if(showWorking) {
+					links.addAll(folderAPI.getLinks(parent, true, false, user,false));
+				} else {
+					links.addAll(folderAPI.getLiveLinks(parent, user, false));
+				}
+				if(showArchived)
+					links.addAll(folderAPI.getLinks(parent, true, showArchived, user,false));
+			} else {
+				links = folderAPI.getLinks(host, true, showArchived, user, false);
 			}
-			fileMap.put("size", fileAsset.getFileSize());
-			fileMap.put("publishDate", fileAsset.getIDate());
-			// BEGIN GRAZIANO issue-12-dnd-template
-			fileMap.put(
-					"parent",
-					fileAsset.getParent() != null ? fileAsset
-							.getParent() : "");
-			fileMap.put("isContentlet", false);
-			// END GRAZIANO issue-12-dnd-template
-			Language lang = null;
-
-			fileMap.put("identifier", contentlet.getIdentifier());
-			fileMap.put("inode", contentlet.getInode());
-			fileMap.put("isLocked", contentlet.isLocked());
-			fileMap.put("isContentlet", true);
-			lang = langAPI.getLanguage(contentlet.getLanguageId());
-
-			fileMap.put("languageId", lang.getId());
-			fileMap.put("languageCode", lang.getLanguageCode());
-			fileMap.put("countryCode", lang.getCountryCode());
-			fileMap.put("languageFlag", LanguageUtil.getLiteralLocale(lang.getLanguageCode(), lang.getCountryCode()));
-
-            fileMap.put("hasLiveVersion", APILocator.getVersionableAPI().hasLiveVersion(file));
-			fileMap.put("statusIcons", UtilHTML.getStatusIcons(file));
-			returnList.add(fileMap);
+		} catch (Exception e1) {
+			Logger.error(this, "Could not load links : ", e1);
 		}
 
-		if (!onlyFiles && !excludeLinks) {
+		for (Link link : links) {
 
-			// Getting the links directly under the parent folder or host
-			List<Link> links = new ArrayList<Link>();
+			List<Integer> permissions = new ArrayList<Integer>();
 			try {
-				if (parent != null) {
-					if(showWorking) {
-						links.addAll(folderAPI.getLinks(parent, true, false, user,false));
-					} else {
-						links.addAll(folderAPI.getLiveLinks(parent, user, false));
-					}
-					if(showArchived)
-						links.addAll(folderAPI.getLinks(parent, true, showArchived, user,false));
-				} else {
-					links = folderAPI.getLinks(host, true, showArchived, user, false);
-				}
-			} catch (Exception e1) {
-				Logger.error(this, "Could not load links : ", e1);
+				permissions = permissionAPI.getPermissionIdsFromRoles(link,
+						roles, user);
+			} catch (DotDataException e) {
+				Logger.error(this, "Could not load permissions : ", e);
+			}
+			if (permissions.contains(PERMISSION_READ)) {
+				Map<String, Object> linkMap = link.getMap();
+				linkMap.put("permissions", permissions);
+				linkMap.put("mimeType", "application/dotlink");
+				linkMap.put("name", link.getTitle());
+				linkMap.put("description", link.getFriendlyName());
+				linkMap.put("extension", "link");
+				items.add(new FolderContentItem(linkMap, link, permissions));
 			}
 
-			for (Link link : links) {
+		}
 
-				List<Integer> permissions = new ArrayList<Integer>();
-				try {
-					permissions = permissionAPI.getPermissionIdsFromRoles(link,
-							roles, user);
-				} catch (DotDataException e) {
-					Logger.error(this, "Could not load permissions : ", e);
-				}
-				if (permissions.contains(PERMISSION_READ)) {
-					Map<String, Object> linkMap = link.getMap();
-					linkMap.put("permissions", permissions);
-					linkMap.put("mimeType", "application/dotlink");
-					linkMap.put("name", link.getTitle());
-					linkMap.put("description", link.getFriendlyName());
-					linkMap.put("extension", "link");
-                    linkMap.put("hasLiveVersion", APILocator.getVersionableAPI().hasLiveVersion(link));
-					linkMap.put("statusIcons", UtilHTML.getStatusIcons(link));
-                    returnList.add(linkMap);
-				}
+		return items;
+	}
 
-			}
+	/**
+	 * An asset of the listing along with the map used to filter and sort it, the details shown by the browser are
+	 * added to the map by {@link #loadDetails(FolderContentItem, User)}
+	 */
+	private static class FolderContentItem {
+
+		final Map<String, Object> map;
+		final Object asset;
+		final List<Integer> permissions;
+		final Identifier identifier;
 
+		FolderContentItem(final Map<String, Object> map, final Object asset, final List<Integer> permissions) {
+			this(map, asset, permissions, null);
 		}
 
-		// Filtering
-		List<Map<String, Object>> filteredList = new ArrayList<Map<String, Object>>();
-		for (Map<String, Object> asset : returnList) {
-
-			String name = (String) asset.get("name");
-			name = name == null ? "" : name;
-			String description = (String) asset.get("description");
-			description = description == null ? "" : description;
-			String mimeType = (String) asset.get("mimeType");
-			mimeType = mimeType == null ? "" : mimeType;
-
-			if (UtilMethods.isSet(filter)
-					&& !(description
-							.toLowerCase().contains(filter.toLowerCase())))
-				continue;
-			if (mimeTypes != null && mimeTypes.size() > 0) {
-				boolean match = false;
-				for (String mType : mimeTypes)
-					if (mimeType.contains(mType))
-						match = true;
-				if (!match)
-					continue;
-			}
-			if (extensions != null && extensions.size() > 0) {
-				boolean match = false;
-				for (String ext : extensions)
-					if (((String) asset.get("extension")).contains(ext))
-						match = true;
-				if (!match)
-					continue;
-			}
-			filteredList.add(asset);
+		FolderContentItem(final Map<String, Object> map, final Object asset, final List<Integer> permissions,
+				final Identifier identifier) {
+			this.map         = map;
+			this.asset       = asset;
+			this.permissions = permissions;
+			this.identifier  = identifier;
 		}
-		returnList = filteredList;
+	}
 
-		// Sorting
-		WebAssetMapComparator comparator = new WebAssetMapComparator(sortBy,
-				sortByDesc);
-		Collections.sort(returnList, comparator);
+	/**
+	 * Archived contents are only listed when asked for, as {@link WfData} does
+	 */
+	private boolean isSkipped(final Contentlet contentlet, final List<Integer> permissions, final boolean showArchived) {
+		try {
+			return permissions.contains(PERMISSION_READ) && !showArchived && contentlet.isArchived();
+		} catch (Exception e) {
+			Logger.error(BrowserAPI.class, "can't process workflow data", e);
+			return false;
+		}
+	}
 
-		// Offsetting
-		if (offset < 0)
-			offset = 0;
-		if (maxResults <= 0)
-			maxResults = returnList.size() - offset;
-		if (maxResults + offset > returnList.size())
-			maxResults = returnList.size() - offset;
+	private boolean matches(final Map<String, Object> asset, final String lowerCaseFilter,
+			final List<String> mimeTypes, final List<String> extensions) {
+
+		String description = (String) asset.get("description");
+		description = description == null ? "" : description;
+		String mimeType = (String) asset.get("mimeType");
+		mimeType = mimeType == null ? "" : mimeType;
+
+		if (lowerCaseFilter != null
+				&& !(description.toLowerCase().contains(lowerCaseFilter)))
+			return false;
+		if (mimeTypes != null && mimeTypes.size() > 0) {
+			boolean match = false;
+			for (String mType : mimeTypes)
+				if (mimeType.contains(mType))
+					match = true;
+			if (!match)
+				return false;
+		}
+		if (extensions != null && extensions.size() > 0) {
+			boolean match = false;
+			for (String ext : extensions)
+				if (((String) asset.get("extension")).contains(ext))
+					match = true;
+			if (!match)
+				return false;
+		}
+		return true;
+	}
 
-		Map<String, Object> returnMap = new HashMap<String, Object>();
-		returnMap.put("total", returnList.size());
-		returnMap.put("list", returnList.subList(offset, offset + maxResults));
-		return returnMap;
+	/**
+	 * Adds the workflow actions, languages, status icons and so on to the map of an asset of the requested page
+	 */
+	private Map<String, Object> loadDetails(final FolderContentItem item, final User user)
+			throws DotSecurityException, DotDataException {
+
+		final Map<String, Object> map = item.map;
+		if (item.asset instanceof IHTMLPage) {
+
+			final IHTMLPage page = (IHTMLPage) item.asset;
+			if (page instanceof Contentlet) {
+
+				final Contentlet contentlet = (Contentlet) page;
+				final WfData wfdata = new WfData(contentlet, item.permissions, user, true);
+				map.put("wfActionMapList", wfdata.wfActionMapList);
+				map.put("contentEditable", wfdata.contentEditable);
+				map.put("identifier", page.getIdentifier());
+				map.put("inode", page.getInode());
+				map.put("languageId", contentlet.getLanguageId());
+
+				Language lang = APILocator.getLanguageAPI().getLanguage(contentlet.getLanguageId());
+
+				map.put("languageCode", lang.getLanguageCode());
+				map.put("countryCode", lang.getCountryCode());
+				map.put("isLocked", page.isLocked());
+				map.put("languageFlag", LanguageUtil.getLiteralLocale(lang.getLanguageCode(), lang.getCountryCode()));
+			}
+
+			map.put("hasLiveVersion", APILocator.getVersionableAPI().hasLiveVersion(page));
+			map.put("statusIcons", UtilHTML.getStatusIcons(page));
+		} else if (item.asset instanceof IFileAsset) {
+
+			final IFileAsset fileAsset = (IFileAsset) item.asset;
+			final Contentlet contentlet = (Contentlet) item.asset;
+
+			map.put("path", fileAsset.getPath());
+			Host hoster = APILocator.getHostAPI().find(item.identifier.getHostId(), APILocator.systemUser(), false);
+			map.put("hostName", hoster.getHostname());
+
+			final WfData wfdata = new WfData(contentlet, item.permissions, user, true);
+			map.put("wfActionMapList", wfdata.wfActionMapList);
+			map.put("contentEditable", wfdata.contentEditable);
+			map.put("size", fileAsset.getFileSize());
+			map.put("publishDate", fileAsset.getIDate());
+			// BEGIN GRAZIANO issue-12-dnd-template
+			map.put("parent", fileAsset.getParent() != null ? fileAsset.getParent() : "");
+			// END GRAZIANO issue-12-dnd-template
+
+			map.put("identifier", contentlet.getIdentifier());
+			map.put("inode", contentlet.getInode());
+			map.put("isLocked", contentlet.isLocked());
+			map.put("isContentlet", true);
+			Language lang = langAPI.getLanguage(contentlet.getLanguageId());
+
+			map.put("languageId", lang.getId());
+			map.put("languageCode", lang.getLanguageCode());
+			map.put("countryCode", lang.getCountryCode());
+			map.put("languageFlag", LanguageUtil.getLiteralLocale(lang.getLanguageCode(), lang.getCountryCode()));
+
+			map.put("hasLiveVersion", APILocator.getVersionableAPI().hasLiveVersion((Versionable) item.asset));
+			map.put("statusIcons", UtilHTML.getStatusIcons((Versionable) item.asset));
+		} else if (item.asset instanceof Link) {
+
+			final Link link = (Link) item.asset;
+			map.put("hasLiveVersion", APILocator.getVersionableAPI().hasLiveVersion(link));
+			map.put("statusIcons", UtilHTML.getStatusIcons(link));
+		}
+
+		return map;
 	}
 
 }
@@ -198,6 +198,29 @@ public class ContentUtils {
 	}
 
 	public static PaginatedArrayList<Contentlet> pull(String query, final int offset, final int limit, final String sort, final User user, final String tmDate, final boolean respectFrontendRoles){
+		return pull(query, offset, limit, sort, user, tmDate, respectFrontendRoles, true);
+	}
+
+	/**
+	 * Pulls the contentlets of the index hits from offset to offset + limit, for the callers that page through all
+	 * the results moving the offset by the limit. Unlike {@link #pull(String, int, int, String, User, String)} the
+	 * Time Machine results, that merge a page of the working query and a page of the live query, are not truncated
+	 * to the limit, otherwise the hits truncated would never be returned.
+	 *
+	 * @param query
+	 * @param offset
+	 * @param limit
+	 * @param sort
+	 * @param user
+	 * @param tmDate
+	 * @return
+	 */
+	public static PaginatedArrayList<Contentlet> pullPage(final String query, final int offset, final int limit,
+														  final String sort, final User user, final String tmDate) {
+		return pull(query, offset, limit, sort, user, tmDate, PageMode.get().respectAnonPerms, false);
+	}
+
+	private static PaginatedArrayList<Contentlet> pull(String query, final int offset, final int limit, final String sort, final User user, final String tmDate, final boolean respectFrontendRoles, final boolean truncate){
 		    final PaginatedArrayList<Contentlet> ret = new PaginatedArrayList<>();
 
 			try {
@@ -253,7 +276,7 @@ public class ContentUtils {
 		            }
 		            
 		            // truncate to respect limit
-		            if(contentlets.size()>limit){
+		            if(truncate && contentlets.size()>limit){
 		                contentlets = contentlets.subList(0, limit);
 		            }
 			    }
@@ -108,6 +108,11 @@ public class ContentResource {
     private static final String REQUEST_METHOD = "requestMethod";
     private static final String ACCEPT_LANGUAGE = "acceptLanguage";
 
+    /**
+     * XStream instances are thread safe once they are configured, so the same one is reused by all the requests
+     */
+    private static final XStream XSTREAM = createXStream();
+
     private final WebResource webResource = new WebResource();
     private final ContentHelper contentHelper = ContentHelper.getInstance();
 
@@ -468,6 +473,7 @@ public class ContentResource {
 
         final String depthParam = paramsMap.get(RESTParams.DEPTH.getValue());
         final int depth = toInt(depthParam, () -> -1);
+        final boolean stream = Boolean.parseBoolean(paramsMap.get(RESTParams.STREAM.getValue()));
 
         if ((depth < 0 || depth > 3) && depthParam != null){
             final String errorMsg =
@@ -478,6 +484,7 @@ public class ContentResource {
 
         /* Fetching the content using a query if passed or an id */
         List<Contentlet> contentlets = new ArrayList<>();
+        Iterable<Contentlet> streamedContentlets = null;
         Boolean idPassed = false;
         Boolean inodePassed = false;
         Boolean queryPassed = false;
@@ -530,8 +537,17 @@ public class ContentResource {
                     i++;
                 }
             } else if (queryPassed = UtilMethods.isSet(query)){
-                contentlets = ContentUtils
-                        .pull(processQuery(query), offset, limit, orderBy, user, tmDate);
+                final String processedQuery = processQuery(query);
+                final String sortBy         = orderBy;
+                if (stream) {
+                    //the contentlets will be pulled page by page while the response is written
+                    streamedContentlets = ContentletStreamingOutput.paged(offset, limit,
+                            (pageOffset, pageLimit) -> ContentUtils
+                                    .pullPage(processedQuery, pageOffset, pageLimit, sortBy, user, tmDate));
+                } else {
+                    contentlets = ContentUtils
+                            .pull(processedQuery, offset, limit, sortBy, user, tmDate);
+                }
             }
 
         } catch (DotSecurityException e) {
@@ -549,6 +565,12 @@ public class ContentResource {
             status = Optional.of(Status.INTERNAL_SERVER_ERROR);
         }
 
+        if (stream && !status.isPresent()) {
+            return getStreamingResponse(null != streamedContentlets ? streamedContentlets : contentlets,
+                    type, paramsMap.get(RESTParams.CALLBACK.getValue()), request, response, render, user,
+                    depth, respectFrontendRoles, language, live);
+        }
+
         /* Converting the Contentlet list to XML or JSON */
         try {
             if ("xml".equals(type)) {
@@ -565,6 +587,42 @@ public class ContentResource {
         return responseResource.response(result, null, status);
     }
 
+    /**
+     * Creates a response that writes the contentlets directly on the output stream, one by one, instead of
+     * converting the whole list to a String before sending it.
+     * @param contentlets
+     * @param type
+     * @param callback
+     * @param request
+     * @param response
+     * @param render
+     * @param user
+     * @param depth
+     * @param respectFrontendRoles
+     * @param language
+     * @param live
+     * @return
+     */
+    private Response getStreamingResponse(final Iterable<Contentlet> contentlets, final String type,
+            final String callback, final HttpServletRequest request, final HttpServletResponse response,
+            final String render, final User user, final int depth, final boolean respectFrontendRoles,
+            final long language, final boolean live) {
+
+        if ("xml".equals(type)) {
+
+            return Response.ok(ContentletStreamingOutput.xml(contentlets, XSTREAM,
+                    contentlet -> toXMLObject(contentlet, request, response, render, user, depth,
+                            respectFrontendRoles, language, live)), MediaType.APPLICATION_XML).build();
+        }
+
+        final boolean jsonp = "jsonp".equals(type);
+        return Response.ok(ContentletStreamingOutput.json(contentlets,
+                jsonp ? (UtilMethods.isSet(callback) ? callback : "dotJsonpCall") : null,
+                contentlet -> toJSONMap(contentlet, request, response, render, user, depth,
+                        respectFrontendRoles, language, live)),
+                jsonp ? "application/javascript" : MediaType.APPLICATION_JSON).build();
+    }
+
     /**
      * Method used to obtain related content that matches a given criteria (lucene query and additional params)
      * @param user
@@ -661,23 +719,13 @@ public class ContentResource {
             final int depth, final boolean respectFrontendRoles, long language, boolean live){
 
         final StringBuilder sb = new StringBuilder();
-        final XStream xstream = new XStream(new DomDriver());
-        xstream.alias("content", Map.class);
-        xstream.registerConverter(new MapEntryConverter());
         sb.append("<?xml version=\"1.0\" encoding='UTF-8'?>");
         sb.append("<contentlets>");
 
         cons.forEach(contentlet -> {
             try {
-                //we need to add relationships
-                if (depth != -1){
-                    sb.append(xstream.toXML(
-                            addRelationshipsToXML(request, response, render, user, depth, respectFrontendRoles, contentlet,
-                                    getContentXML(contentlet, request, response, render, user), null, language, live)));
-                } else{
-                    sb.append(xstream.toXML(
-                                    getContentXML(contentlet, request, response, render, user)));
-                }
+                sb.append(XSTREAM.toXML(toXMLObject(contentlet, request, response, render, user, depth,
+                        respectFrontendRoles, language, live)));
             } catch (Exception e) {
                 Logger.error(this, "Error generating content xml: " + e.getMessage(), e);
             }
@@ -687,6 +735,43 @@ public class ContentResource {
         return sb.toString();
     }
 
+    /**
+     * Creates the map to be marshalled as xml for a contentlet, including the relationships if depth is set
+     * @param contentlet
+     * @param request
+     * @param response
+     * @param render
+     * @param user
+     * @param depth
+     * @param respectFrontendRoles
+     * @param language
+     * @param live
+     * @return
+     * @throws DotDataException
+     * @throws IOException
+     * @throws DotSecurityException
+     */
+    private Map<String, Object> toXMLObject(final Contentlet contentlet, final HttpServletRequest request,
+            final HttpServletResponse response, final String render, final User user,
+            final int depth, final boolean respectFrontendRoles, final long language, final boolean live)
+            throws DotDataException, IOException, DotSecurityException {
+
+        //we need to add relationships
+        return depth != -1?
+                addRelationshipsToMap(user, depth, respectFrontendRoles, contentlet,
+                        getContentXML(contentlet, request, response, render, user), null, language, live,
+                        relatedContent -> getContentXML(relatedContent, request, response, render, user)):
+                getContentXML(contentlet, request, response, render, user);
+    }
+
+    private static XStream createXStream() {
+
+        final XStream xstream = new XStream(new DomDriver());
+        xstream.alias("content", Map.class);
+        xstream.registerConverter(new MapEntryConverter());
+        return xstream;
+    }
+
     /**
      *
      * @param contentlet
@@ -728,10 +813,16 @@ public class ContentResource {
     }
 
     /**
-     * Add relationships records to a contentlet xml
-     * @param request
-     * @param response
-     * @param render
+     * Converts a contentlet to the map of its fields, used for the related contentlets
+     */
+    @FunctionalInterface
+    private interface ContentMapper {
+
+        Map<String, Object> toMap(Contentlet contentlet) throws DotDataException, IOException, DotSecurityException;
+    }
+
+    /**
+     * Add relationships records to a contentlet map (the xml one or the streamed json one)
      * @param user
      * @param depth
      * @param contentlet
@@ -739,18 +830,17 @@ public class ContentResource {
      * @param addedRelationships
      * @param language
      * @param live
+     * @param contentMapper converts each related contentlet to a map
      * @return
      * @throws DotDataException
-     * @throws JSONException
      * @throws IOException
      * @throws DotSecurityException
      */
-    private Map<String, Object> addRelationshipsToXML(final HttpServletRequest request,
-            final HttpServletResponse response,
-            final String render, final User user, final int depth,
+    private static Map<String, Object> addRelationshipsToMap(final User user, final int depth,
             final boolean respectFrontendRoles,
             final Contentlet contentlet, final Map<String, Object> objectMap,
-            Set<Relationship> addedRelationships, long language, boolean live)
+            Set<Relationship> addedRelationships, long language, boolean live,
+            final ContentMapper contentMapper)
             throws DotDataException, IOException, DotSecurityException {
 
         Relationship relationship;
@@ -787,9 +877,9 @@ public class ContentResource {
             ContentletRelationships.ContentletRelationshipRecords relationshipRecords = contentletRelationships.new ContentletRelationshipRecords(
                     relationship, isChildField);
 
-            List records = addRelatedContentToXMLMap(request, response, render, user, depth, respectFrontendRoles,
+            List records = addRelatedContentToMap(user, depth, respectFrontendRoles,
                     contentlet,
-                    addedRelationships, language, live, field, isChildField);
+                    addedRelationships, language, live, field, isChildField, contentMapper);
 
             objectMap.put(field.variable(),
                     relationshipRecords.doesAllowOnlyOne() && records.size() > 0 ? records.get(0)
@@ -815,9 +905,9 @@ public class ContentResource {
                     relationshipRecords = contentletRelationships.new ContentletRelationshipRecords(
                             relationship, !isChildField);
 
-                    records = addRelatedContentToXMLMap(request, response, render, user, depth, respectFrontendRoles,
+                    records = addRelatedContentToMap(user, depth, respectFrontendRoles,
                             contentlet,
-                            addedRelationships, language, live, otherSideField, !isChildField);
+                            addedRelationships, language, live, otherSideField, !isChildField, contentMapper);
 
                     objectMap.put(otherSideField.variable(),
                             relationshipRecords.doesAllowOnlyOne() && records.size() > 0 ? records.get(0)
@@ -830,9 +920,6 @@ public class ContentResource {
 
     /**
      *
-     * @param request
-     * @param response
-     * @param render
      * @param user
      * @param depth
      * @param respectFrontendRoles
@@ -842,15 +929,15 @@ public class ContentResource {
      * @param live
      * @param field
      * @param isParent
+     * @param contentMapper
      * @throws DotDataException
      * @throws IOException
      * @throws DotSecurityException
      */
-    private List addRelatedContentToXMLMap(final HttpServletRequest request, final HttpServletResponse response,
-            final String render, final User user, final int depth, final boolean respectFrontendRoles,
+    private static List addRelatedContentToMap(final User user, final int depth, final boolean respectFrontendRoles,
             final Contentlet contentlet, final Set<Relationship> addedRelationships, final long language,
             final boolean live, final com.dotcms.contenttype.model.field.Field field,
-            final boolean isParent)
+            final boolean isParent, final ContentMapper contentMapper)
             throws DotDataException, IOException, DotSecurityException {
 
         final List records = new ArrayList();
@@ -864,24 +951,21 @@ public class ContentResource {
 
                 //returns a list of related content objects
                 case 1:
-                    records.add(
-                            getContentXML(relatedContent, request, response, render, user));
+                    records.add(contentMapper.toMap(relatedContent));
                     break;
 
                 //returns a list of related content identifiers for each of the related content
                 case 2:
-                    records.add(addRelationshipsToXML(request, response, render, user, 0,
-                            respectFrontendRoles, relatedContent,
-                            getContentXML(relatedContent, request, response, render, user),
-                            new HashSet<>(addedRelationships), language, live));
+                    records.add(addRelationshipsToMap(user, 0,
+                            respectFrontendRoles, relatedContent, contentMapper.toMap(relatedContent),
+                            new HashSet<>(addedRelationships), language, live, contentMapper));
                     break;
 
                 //returns a list of hydrated related content for each of the related content
                 case 3:
-                    records.add(addRelationshipsToXML(request, response, render, user, 1,
-                            respectFrontendRoles, relatedContent,
-                            getContentXML(relatedContent, request, response, render, user),
-                            new HashSet<>(addedRelationships), language, live));
+                    records.add(addRelationshipsToMap(user, 1,
+                            respectFrontendRoles, relatedContent, contentMapper.toMap(relatedContent),
+                            new HashSet<>(addedRelationships), language, live, contentMapper));
                     break;
             }
         }
@@ -891,16 +975,13 @@ public class ContentResource {
 
 
     private String getXMLContentIds(Contentlet con) {
-        XStream xstream = new XStream(new DomDriver());
-        xstream.alias("content", Map.class);
-        xstream.registerConverter(new MapEntryConverter());
         StringBuilder sb = new StringBuilder();
         sb.append("<?xml version=\"1.0\" encoding='UTF-8'?>");
         sb.append("<contentlet>");
         Map<String, Object> m = new HashMap<String, Object>();
         m.put("inode", con.getInode());
         m.put("identifier", con.getIdentifier());
-        sb.append(xstream.toXML(m));
+        sb.append(XSTREAM.toXML(m));
         sb.append("</contentlet>");
         return sb.toString();
     }
@@ -945,14 +1026,8 @@ public class ContentResource {
 
         for (Contentlet c : cons) {
             try {
-                final JSONObject jo = contentletToJSON(c, request, response, render, user);
-
-                jsonCons.put(jo);
-                //we need to add relationships fields
-                if (depth != -1){
-                    addRelationshipsToJSON(request, response, render, user, depth,
-                            respectFrontendRoles, c, jo, null, language, live);
-                }
+                jsonCons.put(toJSONObject(c, request, response, render, user, depth,
+                        respectFrontendRoles, language, live));
             } catch (Exception e) {
                 Logger.warn(this.getClass(), "unable to get JSON contentlet " + c.getIdentifier());
                 Logger.debug(this.getClass(), "unable to find contentlet", e);
@@ -969,6 +1044,70 @@ public class ContentResource {
         return json.toString();
     }
 
+    /**
+     * Creates the json object of a contentlet, including the relationships fields if depth is set
+     * @param contentlet
+     * @param request
+     * @param response
+     * @param render
+     * @param user
+     * @param depth
+     * @param respectFrontendRoles
+     * @param language
+     * @param live
+     * @return
+     * @throws DotDataException
+     * @throws JSONException
+     * @throws IOException
+     * @throws DotSecurityException
+     */
+    private JSONObject toJSONObject(final Contentlet contentlet, final HttpServletRequest request,
+            final HttpServletResponse response, final String render, final User user,
+            final int depth, final boolean respectFrontendRoles, final long language, final boolean live)
+            throws DotDataException, JSONException, IOException, DotSecurityException {
+
+        final JSONObject jo = contentletToJSON(contentlet, request, response, render, user);
+
+        //we need to add relationships fields
+        if (depth != -1){
+            addRelationshipsToJSON(request, response, render, user, depth,
+                    respectFrontendRoles, contentlet, jo, null, language, live);
+        }
+
+        return jo;
+    }
+
+    /**
+     * Creates the map of a contentlet written by the json streaming output, with the same fields
+     * {@link #toJSONObject} puts, including the relationships fields if depth is set
+     * @param contentlet
+     * @param request
+     * @param response
+     * @param render
+     * @param user
+     * @param depth
+     * @param respectFrontendRoles
+     * @param language
+     * @param live
+     * @return
+     * @throws DotDataException
+     * @throws IOException
+     * @throws DotSecurityException
+     */
+    private Map<String, Object> toJSONMap(final Contentlet contentlet, final HttpServletRequest request,
+            final HttpServletResponse response, final String render, final User user,
+            final int depth, final boolean respectFrontendRoles, final long language, final boolean live)
+            throws DotDataException, IOException, DotSecurityException {
+
+        final Map<String, Object> map = contentletToMap(contentlet, request, response, render, user);
+
+        //we need to add relationships fields
+        return depth != -1?
+                addRelationshipsToMap(user, depth, respectFrontendRoles, contentlet, map, null, language, live,
+                        relatedContent -> contentletToMap(relatedContent, request, response, render, user)):
+                map;
+    }
+
     /**
      * Add relationships fields records to the json contentlet
      * @param request
@@ -1204,7 +1343,38 @@ public class ContentResource {
         return jo;
     }
 
-    public class MapEntryConverter implements Converter {
+    /**
+     * Same as {@link #contentletToJSON} but returns the fields in a map, so they can be written straight to a json
+     * generator
+     */
+    private static Map<String, Object> contentletToMap(final Contentlet con, final HttpServletRequest request,
+            final HttpServletResponse response, final String render, final User user)
+            throws IOException, DotDataException, DotSecurityException {
+
+        final Map<String, Object> map = new HashMap<>();
+        final ContentType type        = con.getContentType();
+        final Set<String> jsonFields  = getJSONFields(type);
+
+        for (final Entry<String, Object> entry : ContentletUtil.getContentPrintableMap(user, con).entrySet()) {
+            final String key = entry.getKey();
+            if (Arrays.binarySearch(ignoreFields, key) < 0 && null != entry.getValue()) {
+                map.put(key, jsonFields.contains(key) ? con.getKeyValueProperty(key) : entry.getValue());
+            }
+        }
+
+        if (BaseContentType.WIDGET.equals(type.baseType()) && Boolean.toString(true)
+                .equalsIgnoreCase(render)) {
+            map.put("parsedCode", WidgetResource.parseWidget(request, response, con));
+        }
+
+        if (BaseContentType.HTMLPAGE.equals(type.baseType())) {
+            map.put(HTMLPageAssetAPI.URL_FIELD, ContentHelper.getInstance().getUrl(con));
+        }
+
+        return map;
+    }
+
+    public static class MapEntryConverter implements Converter {
 
         public boolean canConvert(@SuppressWarnings("rawtypes") Class clazz) {
             return AbstractMap.class.isAssignableFrom(clazz);
@@ -0,0 +1,341 @@
+package com.dotcms.rest;
+
+import com.dotcms.content.elasticsearch.business.ESContentletAPIImpl;
+import com.dotcms.rest.api.v1.DotObjectMapperProvider;
+import com.dotmarketing.portlets.contentlet.model.Contentlet;
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.Logger;
+import com.dotmarketing.util.PaginatedArrayList;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.thoughtworks.xstream.XStream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * {@link StreamingOutput} used by the {@link ContentResource} when the <strong>stream</strong> param is sent.
+ * Instead of building the whole result as a {@link String} each contentlet is converted and written to the
+ * servlet output stream as soon as it is available, so the memory used by the response does not depend on the
+ * requested limit and the first bytes are sent before the last contentlet is loaded.
+ */
+public abstract class ContentletStreamingOutput implements StreamingOutput {
+
+    /**
+     * Amount of contentlets pulled from the index on each round trip when the contentlets come from a query
+     */
+    public static final int STREAM_PAGE_SIZE = Config.getIntProperty("CONTENT_RESOURCE_STREAM_PAGE_SIZE", 100);
+
+    private static final JsonFactory JSON_FACTORY =
+            DotObjectMapperProvider.getInstance().getDefaultObjectMapper().getFactory();
+
+    protected final Iterable<Contentlet> contentlets;
+    protected final ContentletConverter converter;
+
+    protected ContentletStreamingOutput(final Iterable<Contentlet> contentlets,
+                                        final ContentletConverter converter) {
+
+        this.contentlets = contentlets;
+        this.converter   = converter;
+    }
+
+    /**
+     * Converts a contentlet to the object that will be written on the stream.
+     * If the conversion fails the contentlet is skipped, same as the non-streamed response does.
+     */
+    @FunctionalInterface
+    public interface ContentletConverter {
+
+        Object convert (Contentlet contentlet) throws Exception;
+    }
+
+    /**
+     * Supplies the contentlets of the index hits from offset to offset + limit, along with the total of hits of the
+     * query. The page can have less contentlets than the limit (the ones the user can not read are filtered) or more
+     * (when several hits are merged, e.g. Time Machine pulls the working and the live hits), so only the total of
+     * hits says whether there is something else to pull
+     */
+    @FunctionalInterface
+    public interface ContentletPageSupplier {
+
+        PaginatedArrayList<Contentlet> page (int offset, int limit);
+    }
+
+    /**
+     * Creates a json (or jsonp if the callback is set) streaming output, the contentlet converter must returns the
+     * map of fields of each contentlet, which is written field by field on the shared json generator.
+     * @param contentlets {@link Iterable}
+     * @param callback    {@link String} jsonp callback, null for plain json
+     * @param converter   {@link ContentletConverter}
+     * @return ContentletStreamingOutput
+     */
+    public static ContentletStreamingOutput json(final Iterable<Contentlet> contentlets,
+                                                 final String callback,
+                                                 final ContentletConverter converter) {
+
+        return new JsonContentletStreamingOutput(contentlets, callback, converter);
+    }
+
+    /**
+     * Creates a xml streaming output, the contentlet converter must returns the object to be marshalled by the
+     * xstream instance (usually the contentlet map)
+     * @param contentlets {@link Iterable}
+     * @param xstream     {@link XStream} already configured, it is shared between requests
+     * @param converter   {@link ContentletConverter}
+     * @return ContentletStreamingOutput
+     */
+    public static ContentletStreamingOutput xml(final Iterable<Contentlet> contentlets,
+                                                final XStream xstream,
+                                                final ContentletConverter converter) {
+
+        return new XmlContentletStreamingOutput(contentlets, xstream, converter);
+    }
+
+    /**
+     * Returns an {@link Iterable} that pulls the contentlets lazily, page by page, until the limit is reached or the
+     * supplier does not return more results.
+     * @param offset       int first result
+     * @param limit        int max amount of contentlets, 0 or less means the index search max limit
+     * @param pageSupplier {@link ContentletPageSupplier}
+     * @return Iterable
+     */
+    public static Iterable<Contentlet> paged(final int offset, final int limit,
+                                             final ContentletPageSupplier pageSupplier) {
+
+        return () -> new PagedContentletIterator(offset, limit, pageSupplier);
+    }
+
+    protected Object convert(final Contentlet contentlet) {
+
+        try {
+            return this.converter.convert(contentlet);
+        } catch (Exception e) {
+            Logger.warn(this.getClass(), "unable to convert contentlet " + contentlet.getIdentifier());
+            Logger.debug(this.getClass(), "unable to convert contentlet", e);
+        }
+
+        return null;
+    }
+
+    private static class JsonContentletStreamingOutput extends ContentletStreamingOutput {
+
+        private final String callback;
+
+        private JsonContentletStreamingOutput(final Iterable<Contentlet> contentlets,
+                                              final String callback,
+                                              final ContentletConverter converter) {
+            super(contentlets, converter);
+            this.callback = callback;
+        }
+
+        @Override
+        public void write(final OutputStream outputStream) throws IOException, WebApplicationException {
+
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+            if (null != this.callback) {
+                writer.write(this.callback);
+                writer.write('(');
+            }
+
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("contentlets");
+
+                for (final Contentlet contentlet : this.contentlets) {
+
+                    final Object json = this.convert(contentlet);
+                    if (null != json) {
+                        writeValue(generator, json);
+                    }
+                }
+
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+
+            if (null != this.callback) {
+                writer.write(')');
+            }
+
+            writer.flush();
+        }
+
+        /**
+         * Writes the value as the Jettison JSONObject used by the non-streamed response does: the maps as objects
+         * (skipping the null values), the collections and arrays as arrays, numbers and booleans as they are and
+         * anything else as a string
+         */
+        private static void writeValue(final JsonGenerator generator, final Object value) throws IOException {
+
+            if (null == value) {
+
+                generator.writeNull();
+            } else if (value instanceof Map) {
+
+                generator.writeStartObject();
+                for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    if (null != entry.getValue()) {
+                        generator.writeFieldName(String.valueOf(entry.getKey()));
+                        writeValue(generator, entry.getValue());
+                    }
+                }
+                generator.writeEndObject();
+            } else if (value instanceof Collection) {
+
+                generator.writeStartArray();
+                for (final Object item : (Collection<?>) value) {
+                    writeValue(generator, item);
+                }
+                generator.writeEndArray();
+            } else if (value.getClass().isArray()) {
+
+                generator.writeStartArray();
+                for (int i = 0; i < Array.getLength(value); i++) {
+                    writeValue(generator, Array.get(value, i));
+                }
+                generator.writeEndArray();
+            } else if (value instanceof Number) {
+
+                generator.writeNumber(value.toString());
+            } else if (value instanceof Boolean) {
+
+                generator.writeBoolean((Boolean) value);
+            } else {
+
+                generator.writeString(value.toString());
+            }
+        }
+    }
+
+    private static class XmlContentletStreamingOutput extends ContentletStreamingOutput {
+
+        private final XStream xstream;
+
+        private XmlContentletStreamingOutput(final Iterable<Contentlet> contentlets,
+                                             final XStream xstream,
+                                             final ContentletConverter converter) {
+            super(contentlets, converter);
+            this.xstream = xstream;
+        }
+
+        @Override
+        public void write(final OutputStream outputStream) throws IOException, WebApplicationException {
+
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+            writer.write("<?xml version=\"1.0\" encoding='UTF-8'?>");
+            writer.write("<contentlets>");
+
+            for (final Contentlet contentlet : this.contentlets) {
+
+                final Object xmlObject = this.convert(contentlet);
+                if (null != xmlObject) {
+                    this.xstream.toXML(xmlObject, writer);
+                }
+            }
+
+            writer.write("</contentlets>");
+            writer.flush();
+        }
+    }
+
+    /**
+     * Iterates over the pages returned by a {@link ContentletPageSupplier}, only one page is kept in memory.
+     * The offset moves by the hits requested and not by the contentlets returned, since a page can have more or less
+     * contentlets than hits, and the contentlets already returned by a previous page are skipped. The iteration ends
+     * once the offset reaches the total of hits of the query, an empty page before that (all of its contentlets
+     * filtered) just moves on to the next one.
+     */
+    private static class PagedContentletIterator implements Iterator<Contentlet> {
+
+        private final ContentletPageSupplier pageSupplier;
+        private final int limit;
+        private final Set<String> returnedInodes = new HashSet<>();
+        private int nextOffset;
+        private int returned = 0;
+        private boolean exhausted = false;
+        private Iterator<Contentlet> currentPage = Collections.emptyIterator();
+        private Contentlet next;
+
+        private PagedContentletIterator(final int offset, final int limit,
+                                        final ContentletPageSupplier pageSupplier) {
+
+            this.nextOffset   = Math.max(offset, 0);
+            this.limit        = limit > 0 ? limit : ESContentletAPIImpl.MAX_LIMIT;
+            this.pageSupplier = pageSupplier;
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            if (this.returned >= this.limit) {
+                return false;
+            }
+
+            while (null == this.next) {
+
+                if (!this.currentPage.hasNext()) {
+
+                    if (this.exhausted) {
+                        return false;
+                    }
+
+                    this.fetchNextPage();
+                    continue;
+                }
+
+                final Contentlet contentlet = this.currentPage.next();
+                if (this.returnedInodes.add(contentlet.getInode())) {
+                    this.next = contentlet;
+                }
+            }
+
+            return true;
+        }
+
+        private void fetchNextPage() {
+
+            final int pageSize = Math.min(STREAM_PAGE_SIZE, this.limit - this.returned);
+            final PaginatedArrayList<Contentlet> page = this.pageSupplier.page(this.nextOffset, pageSize);
+
+            this.nextOffset += pageSize;
+            if (null == page) {
+                this.exhausted = true;
+                return;
+            }
+
+            this.exhausted   = this.nextOffset >= page.getTotalResults();
+            this.currentPage = page.iterator();
+        }
+
+        @Override
+        public Contentlet next() {
+
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Contentlet contentlet = this.next;
+            this.next = null;
+            this.returned++;
+            return contentlet;
+        }
+    }
+} // E:O:F:ContentletStreamingOutput.
@@ -17,7 +17,9 @@ public enum RESTParams {
 	RESPECT_FRONT_END_ROLES ("respectFrontendRoles"),
     //keeps the identifier of the related content to filter by (useful when retrieving parents given a child
     RELATED ("related"),
-	DEPTH ("depth");
+	DEPTH ("depth"),
+	//writes the contentlets directly on the response stream instead of building the whole result in memory
+	STREAM ("stream");
 
 	private final String  value;
 
@@ -0,0 +1,95 @@
+package com.dotcms.rest.api.v1.system;
+
+import com.dotcms.rest.InitDataObject;
+import com.dotcms.rest.ResponseEntityView;
+import com.dotcms.rest.WebResource;
+import com.dotcms.rest.annotation.NoCache;
+import com.dotcms.util.MethodLatencyRegistry;
+import com.dotmarketing.business.APILocator;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.ForbiddenException;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import org.glassfish.jersey.server.JSONP;
+
+import static com.dotcms.util.CollectionsUtils.map;
+
+/**
+ * Returns the latency histograms of the methods annotated with {@link com.dotcms.util.LogTime} or
+ * {@link com.dotcms.util.RecordTime} on this node: count, mean, max and percentiles in microseconds, sorted by the
+ * total time spent on each method. Only for ADMIN logged users
+ */
+@Path("/v1/system-latency")
+public class MethodLatencyResource {
+
+    private final WebResource webResource;
+    private final MethodLatencyRegistry methodLatencyRegistry;
+
+    public MethodLatencyResource() {
+        this(new WebResource(), MethodLatencyRegistry.getInstance());
+    }
+
+    MethodLatencyResource(final WebResource webResource, final MethodLatencyRegistry methodLatencyRegistry) {
+        this.webResource           = webResource;
+        this.methodLatencyRegistry = methodLatencyRegistry;
+    }
+
+    /**
+     * Get the latencies recorded by the node that serves the request
+     * @param request
+     * @param response
+     * @return 200 with the stats per method, 403 if the user is not an admin
+     */
+    @GET
+    @JSONP
+    @NoCache
+    @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
+    public final Response getLatencies(@Context final HttpServletRequest  request,
+                                       @Context final HttpServletResponse response) {
+
+        this.checkAdmin(request, response);
+
+        return Response.ok(new ResponseEntityView(map(
+                "sampleRate", this.methodLatencyRegistry.getSampleRate(),
+                "methods",    this.methodLatencyRegistry.getAllStats()))).build();
+    }
+
+    /**
+     * Clears the latencies recorded by the node that serves the request
+     * @param request
+     * @param response
+     * @return 200, 403 if the user is not an admin
+     */
+    @DELETE
+    @JSONP
+    @NoCache
+    @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
+    public final Response resetLatencies(@Context final HttpServletRequest  request,
+                                         @Context final HttpServletResponse response) {
+
+        this.checkAdmin(request, response);
+        this.methodLatencyRegistry.reset();
+
+        return Response.ok(new ResponseEntityView(Boolean.TRUE)).build();
+    }
+
+    private void checkAdmin(final HttpServletRequest request, final HttpServletResponse response) {
+
+        final InitDataObject initData = new WebResource.InitBuilder(webResource)
+                .requiredBackendUser(true)
+                .requiredFrontendUser(false)
+                .requestAndResponse(request, response)
+                .rejectWhenNoUser(true).init();
+
+        if (!APILocator.getUserAPI().isCMSAdmin(initData.getUser())) {
+
+            throw new ForbiddenException("User must be an admin to get the method latencies");
+        }
+    }
+}
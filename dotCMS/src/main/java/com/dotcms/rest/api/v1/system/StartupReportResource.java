@@ -0,0 +1,63 @@
+package com.dotcms.rest.api.v1.system;
+
+import com.dotcms.rest.InitDataObject;
+import com.dotcms.rest.ResponseEntityView;
+import com.dotcms.rest.WebResource;
+import com.dotcms.rest.annotation.NoCache;
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.init.StartupReport;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.ForbiddenException;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import org.glassfish.jersey.server.JSONP;
+
+/**
+ * Returns the {@link StartupReport} of this node: the time the startup took and the timings of every init phase and
+ * startup task, only for ADMIN logged users
+ */
+@Path("/v1/system-startup")
+public class StartupReportResource {
+
+    private final WebResource webResource;
+
+    public StartupReportResource() {
+        this(new WebResource());
+    }
+
+    StartupReportResource(final WebResource webResource) {
+        this.webResource = webResource;
+    }
+
+    /**
+     * Get the startup report of the node that serves the request
+     * @param request
+     * @param response
+     * @return 200 with the report, 403 if the user is not an admin
+     */
+    @GET
+    @JSONP
+    @NoCache
+    @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
+    public final Response getStartupReport(@Context final HttpServletRequest  request,
+                                           @Context final HttpServletResponse response) {
+
+        final InitDataObject initData = new WebResource.InitBuilder(webResource)
+                .requiredBackendUser(true)
+                .requiredFrontendUser(false)
+                .requestAndResponse(request, response)
+                .rejectWhenNoUser(true).init();
+
+        if (!APILocator.getUserAPI().isCMSAdmin(initData.getUser())) {
+
+            throw new ForbiddenException("User must be an admin to get the startup report");
+        }
+
+        return Response.ok(new ResponseEntityView(StartupReport.getInstance().toMap())).build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.dotcms.rest.api.v1.system.websocket;
+
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.Logger;
+
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Outbound messages of a websocket session. Only one async send is in flight per session, the rest of the
+ * messages wait here until the client reads the previous one.
+ *
+ * The queue is bounded by {@link #DOTCMS_WEBSOCKET_MAX_OUTBOUND_QUEUE}, when a slow client falls behind the oldest
+ * pending message is dropped, and a message equal to one that is already pending is coalesced with it.
+ */
+public class SessionOutboundQueue {
+
+    public static final String DOTCMS_WEBSOCKET_MAX_OUTBOUND_QUEUE = "dotcms.websocket.max.outbound.queue";
+
+    private final Session session;
+    private final int maxSize;
+    private final LinkedHashSet<String> pending = new LinkedHashSet<>();
+    private boolean sending = false;
+    private long dropped    = 0;
+
+    public SessionOutboundQueue(final Session session) {
+        this(session, Config.getIntProperty(DOTCMS_WEBSOCKET_MAX_OUTBOUND_QUEUE, 100));
+    }
+
+    public SessionOutboundQueue(final Session session, final int maxSize) {
+
+        this.session = session;
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * Sends the message if nothing else is being sent to the session, otherwise queues it
+     * @param message {@link String} message already encoded
+     */
+    public void send(final String message) {
+
+        synchronized (this) {
+
+            if (this.sending) {
+
+                this.enqueue(message);
+                return;
+            }
+
+            this.sending = true;
+        }
+
+        this.doSend(message);
+    }
+
+    /**
+     * Number of messages dropped since the session was opened because the client could not keep up
+     * @return long
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Number of messages waiting to be sent
+     * @return int
+     */
+    public synchronized int size() {
+        return this.pending.size();
+    }
+
+    private void enqueue(final String message) {
+
+        if (!this.pending.add(message)) {
+
+            Logger.debug(this, ()-> "Message coalesced with a pending one for the session: " + this.session.getId());
+            return;
+        }
+
+        if (this.pending.size() > this.maxSize) {
+
+            final Iterator<String> oldest = this.pending.iterator();
+            oldest.next();
+            oldest.remove();
+            this.dropped++;
+            Logger.debug(this, ()-> "The session: " + this.session.getId()
+                    + " is falling behind, the oldest pending message has been dropped");
+        }
+    }
+
+    private void doSend(final String message) {
+
+        try {
+
+            this.session.getAsyncRemote().sendText(message, this::onResult);
+        } catch (Exception e) {
+
+            Logger.debug(this, "Could not send the message to the session: " + this.session.getId()
+                    + ", error: " + e.getMessage());
+            this.onResult(new SendResult(e));
+        }
+    }
+
+    private void onResult(final SendResult result) {
+
+        if (!result.isOK()) {
+
+            Logger.debug(this, "Error sending a message to the session: " + this.session.getId()
+                    + ", error: " + result.getException());
+        }
+
+        final String next;
+        synchronized (this) {
+
+            if (this.pending.isEmpty() || !this.session.isOpen()) {
+
+                this.pending.clear();
+                this.sending = false;
+                return;
+            }
+
+            final Iterator<String> oldest = this.pending.iterator();
+            next = oldest.next();
+            oldest.remove();
+        }
+
+        this.doSend(next);
+    }
+} // E:O:F:SessionOutboundQueue.
@@ -19,12 +19,22 @@ public class SessionWrapper implements Session, WebSocketUserSessionData {
     private final Session session;
     private final User user;
     private final String userSessionId;
+    private final SessionOutboundQueue outboundQueue;
 
     public SessionWrapper(final Session session, final User user, final String userSessionId) {
 
         this.session        = session;
         this.user           = user;
         this.userSessionId  = userSessionId;
+        this.outboundQueue  = new SessionOutboundQueue(session);
+    }
+
+    /**
+     * Queue the system events are sent through, so a slow client does not get more than one async send in flight
+     * @return SessionOutboundQueue
+     */
+    public SessionOutboundQueue getOutboundQueue() {
+        return outboundQueue;
     }
 
     @Override
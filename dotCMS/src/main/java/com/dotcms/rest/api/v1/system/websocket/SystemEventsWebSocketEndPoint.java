@@ -9,6 +9,7 @@ import com.dotmarketing.init.DotInitScheduler;
 import com.dotmarketing.util.Config;
 import com.dotmarketing.util.Logger;
 import com.liferay.portal.model.User;
+import com.liferay.util.StringPool;
 import com.twelvemonkeys.lang.DateUtil;
 
 import javax.websocket.*;
@@ -18,6 +19,8 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
@@ -47,6 +50,7 @@ public class SystemEventsWebSocketEndPoint implements Serializable {
 
 
 	private final Queue<Session> queue;
+	private final SystemEventEncoder encoder = new SystemEventEncoder();
 	private final SystemEventProcessorFactory systemEventProcessorFactory;
     private final PayloadVerifierFactory payloadVerifierFactory;
     private final static ForbiddenCloseCode FORBIDDEN_CLOSE_CODE = new ForbiddenCloseCode();
@@ -233,6 +237,12 @@ public class SystemEventsWebSocketEndPoint implements Serializable {
 	 * Sends the specified {@link SystemEvent} object to all the clients
 	 * (front-end or back-end services) that are registered to this Websocket
 	 * end-point.
+	 *
+	 * The sessions are grouped by user (and by user session when the visibility
+	 * depends on it), so the visibility is verified and the event is processed
+	 * once per group. The event is encoded once for all the sessions when there
+	 * is no processor for it, otherwise once per group, and then sent through
+	 * the outbound queue of every session.
 	 * 
 	 * @param event
 	 *            - A new System Event that has been generated.
@@ -240,6 +250,10 @@ public class SystemEventsWebSocketEndPoint implements Serializable {
 	public void sendSystemEvent(final SystemEvent event) {
 
 		final ArrayList<Session> closedSessions = new ArrayList<>();
+		final SystemEventProcessor processor    =
+				this.systemEventProcessorFactory.createProcessor(event.getEventType());
+		final Map<String, Boolean> applyByGroup   = new HashMap<>();
+		final Map<String, String>  messageByGroup = new HashMap<>();
 
 		try {
 
@@ -250,10 +264,25 @@ public class SystemEventsWebSocketEndPoint implements Serializable {
 					closedSessions.add(session);
 				} else {
 
-					if (this.apply (event, session)) {
+					final String group = this.getGroup(event, session);
+					Boolean apply = applyByGroup.get(group);
+					if (null == apply) {
+
+						apply = this.apply(event, session);
+						applyByGroup.put(group, apply);
+					}
+
+					if (apply) {
+
+						final String messageGroup = null != processor? group : StringPool.STAR;
+						String message = messageByGroup.get(messageGroup);
+						if (null == message) {
+
+							message = this.encoder.encode(this.processEvent(processor, session, event));
+							messageByGroup.put(messageGroup, message);
+						}
 
-						session.getAsyncRemote().sendObject
-								(this.processEvent(session, event));
+						this.send(session, message);
 					} else {
 
 						Logger.debug(this, "The event: " + event
@@ -271,11 +300,43 @@ public class SystemEventsWebSocketEndPoint implements Serializable {
 		}
 	} // sendSystemEvent.
 
-	private SystemEvent processEvent(final Session session,
-									 final SystemEvent event) {
+	private void send(final Session session, final String message) {
 
-		final SystemEventProcessor processor =
-				this.systemEventProcessorFactory.createProcessor(event.getEventType());
+		if (session instanceof SessionWrapper) {
+
+			SessionWrapper.class.cast(session).getOutboundQueue().send(message);
+		} else {
+
+			session.getAsyncRemote().sendText(message);
+		}
+	} // send.
+
+	/**
+	 * The sessions of the same user get the same visibility check and the same processed event, unless the
+	 * visibility of the event depends on the user session
+	 */
+	private String getGroup(final SystemEvent event, final Session session) {
+
+		final User user = (session instanceof SessionWrapper)?
+				SessionWrapper.class.cast(session).getUser(): null;
+
+		if (null == user) {
+
+			return StringPool.BLANK;
+		}
+
+		final Payload payload = event.getPayload();
+		final boolean bySession = null != payload &&
+				(Visibility.USER_SESSION == payload.getVisibility() || Visibility.EXCLUDE_OWNER == payload.getVisibility());
+
+		return bySession?
+				user.getUserId() + '|' + SessionWrapper.class.cast(session).getUserSessionId():
+				user.getUserId();
+	} // getGroup.
+
+	private SystemEvent processEvent(final SystemEventProcessor processor,
+									 final Session session,
+									 final SystemEvent event) {
 
 		return null != processor? processor.process(event,
 													(null != session && session instanceof SessionWrapper)?
@@ -3,6 +3,8 @@ package com.dotcms.rest.config;
 import com.dotcms.contenttype.model.field.FieldTypeResource;
 import com.dotcms.rest.api.v1.personalization.PersonalizationResource;
 import com.dotcms.rest.api.v1.system.UpgradeTaskResource;
+import com.dotcms.rest.api.v1.system.MethodLatencyResource;
+import com.dotcms.rest.api.v1.system.StartupReportResource;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import com.dotcms.rest.RulesEnginePortlet;
 import com.dotcms.rest.TagResource;
@@ -158,6 +160,8 @@ public class DotRestApplication extends javax.ws.rs.core.Application {
 					REST_CLASSES.add(TempFileResource.class);
 
 					REST_CLASSES.add(UpgradeTaskResource.class);
+					REST_CLASSES.add(StartupReportResource.class);
+					REST_CLASSES.add(MethodLatencyResource.class);
 				}
 			}
 		}
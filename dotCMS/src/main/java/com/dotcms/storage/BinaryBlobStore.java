@@ -0,0 +1,304 @@
+package com.dotcms.storage;
+
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.Logger;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.liferay.util.FileUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Content addressable storage for the binary files of the contentlets.
+ * When CONTENT_ADDRESSABLE_STORAGE_ENABLED is set, every binary saved is stored once under
+ * <code>assets/dotBlobs/x/y/sha256</code> and the file under the inode folder becomes a hard link to that blob, so
+ * the same file uploaded to several sites or saved on many versions uses the disk just once.
+ * <p>
+ * The reference count of a blob is the link count of the file system: once all the inode paths pointing to a
+ * blob are gone the blob is only linked by the store and {@link #collectGarbage()} removes it.
+ * <p>
+ * The files generated out of a binary (filtered images, thumbnails, metadata) can be kept as variants of the blob,
+ * under <code>assets/dotBlobs/variants/x/y/sha256</code>, so they are generated once for all the copies. A variant
+ * generated out of another variant (i.e. the next filter of a chain) is kept under the same original blob, so the
+ * variants folder of a blob goes away with it.
+ */
+public class BinaryBlobStore {
+
+    public static final String BLOBS_FOLDER    = "dotBlobs";
+    public static final String VARIANTS_FOLDER = "variants";
+
+    // file system file key + size + modification date -> sha256, avoids hashing the same blob on every request
+    private final Cache<String, String> hashCache = Caffeine.newBuilder()
+            .maximumSize(Config.getIntProperty("CONTENT_ADDRESSABLE_STORAGE_HASH_CACHE_SIZE", 10000))
+            .build();
+
+    private final Supplier<String> blobsRootPath;
+
+    private BinaryBlobStore() {
+        this(() -> APILocator.getFileAssetAPI().getRealAssetsRootPath() + File.separator + BLOBS_FOLDER);
+    }
+
+    @VisibleForTesting
+    BinaryBlobStore(final Supplier<String> blobsRootPath) {
+        this.blobsRootPath = blobsRootPath;
+    }
+
+    private static class SingletonHolder {
+        private static final BinaryBlobStore INSTANCE = new BinaryBlobStore();
+    }
+
+    public static BinaryBlobStore getInstance() {
+        return SingletonHolder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return Config.getBooleanProperty("CONTENT_ADDRESSABLE_STORAGE_ENABLED", false);
+    }
+
+    /**
+     * Stores the source file as a blob (if it is not already stored) and links the destination to it.
+     * If the link can not be created (i.e. the file system does not support hard links) the file is copied as usual.
+     * @param source            {@link File} incoming file
+     * @param destination       {@link File} inode path of the binary
+     * @param validateEmptyFile boolean true to fail on 0 length files
+     * @throws IOException
+     */
+    public void copyFile(final File source, final File destination, final boolean validateEmptyFile) throws IOException {
+
+        if (!source.exists()) {
+            throw new IOException("Source file does not exist" + source);
+        }
+
+        if (source.getAbsolutePath().equalsIgnoreCase(destination.getAbsolutePath())) {
+            return;
+        }
+
+        if (validateEmptyFile && source.length() == 0
+                && !Config.getBooleanProperty("CONTENT_ALLOW_ZERO_LENGTH_FILES", false)) {
+            throw new IOException("Source file is 0 length, failing " + source);
+        }
+
+        try {
+
+            final File blob = this.store(source);
+            destination.getParentFile().mkdirs();
+            Files.deleteIfExists(destination.toPath());
+            this.link(destination.toPath(), blob.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+
+            Logger.debug(this, "Could not link " + destination + " to its blob, copying it instead: " + e.getMessage());
+            FileUtil.copyFile(source, destination, false, validateEmptyFile);
+        }
+    }
+
+    /**
+     * Returns the sha256 of the file content, the hash is only computed the first time a blob is seen.
+     * @param file {@link File}
+     * @return Optional hash, empty if the file can not be read
+     */
+    public Optional<String> getHash(final File file) {
+
+        try {
+
+            final String fileKey = this.fileKey(file.toPath());
+            String hash = this.hashCache.getIfPresent(fileKey);
+            if (null == hash) {
+                hash = this.sha256(file);
+                this.hashCache.put(fileKey, hash);
+            }
+
+            return Optional.of(hash);
+        } catch (IOException e) {
+
+            Logger.debug(this, "Could not hash the file " + file + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the hash of the stored blob the file belongs to: a variant belongs to the blob its folder is named
+     * after, so the variants generated out of other variants are kept with the original blob, any other file is
+     * hashed. Files that were not stored as blobs (i.e. saved before the store was enabled) have no blob, so their
+     * variants are not kept here.
+     * @param file {@link File}
+     * @return Optional hash, empty if the file can not be read or there is no blob for it
+     */
+    public Optional<String> getBlobHash(final File file) {
+
+        final Path variantsRoot = new File(this.getBlobsRootPath(), VARIANTS_FOLDER).toPath().toAbsolutePath().normalize();
+        final Path path         = file.toPath().toAbsolutePath().normalize();
+        final Optional<String> hash = path.startsWith(variantsRoot) && variantsRoot.relativize(path).getNameCount() == 4 ?
+                Optional.of(path.getParent().getFileName().toString()) : this.getHash(file);
+
+        return hash.filter(blobHash -> this.getBlobFile(blobHash).exists());
+    }
+
+    public File getBlobFile(final String hash) {
+        return new File(this.getBlobsRootPath() + File.separator + this.hashPath(hash));
+    }
+
+    /**
+     * Returns the file where a variant of the blob is kept, the parent folders are created.
+     * @param hash        {@link String} sha256 of the blob
+     * @param variantName {@link String} unique name of the variant, i.e. the filter chain used to generate it
+     * @return File
+     */
+    public File getVariantFile(final String hash, final String variantName) {
+
+        final File variantFolder = this.getVariantsFolder(hash);
+        variantFolder.mkdirs();
+        return new File(variantFolder, variantName);
+    }
+
+    /**
+     * Returns how many inode paths are linked to the blob, -1 if the file system does not report link counts.
+     * @param hash {@link String}
+     * @return int
+     */
+    public int getReferenceCount(final String hash) {
+
+        final File blob = this.getBlobFile(hash);
+        return blob.exists() ? this.linkCount(blob.toPath()) - 1 : 0;
+    }
+
+    /**
+     * Removes the blobs not referenced by any inode path anymore along with their variants, and the variants left
+     * without a blob.
+     * @return int amount of blobs removed
+     */
+    public int collectGarbage() {
+
+        final File blobsRoot = new File(this.getBlobsRootPath());
+        final AtomicInteger removed = new AtomicInteger(0);
+        if (!blobsRoot.exists()) {
+            return 0;
+        }
+
+        final Path variantsRoot = new File(blobsRoot, VARIANTS_FOLDER).toPath();
+        try (Stream<Path> paths = Files.walk(blobsRoot.toPath())) {
+
+            paths.filter(path -> !path.startsWith(variantsRoot) && Files.isRegularFile(path)
+                    && !path.getFileName().toString().endsWith(".tmp"))
+                    .filter(path -> this.linkCount(path) == 1)
+                    .forEach(path -> {
+                        final String hash = path.getFileName().toString();
+                        try {
+                            Files.delete(path);
+                            FileUtil.deltree(this.getVariantsFolder(hash));
+                            removed.incrementAndGet();
+                        } catch (IOException e) {
+                            Logger.warn(this, "Could not delete the blob " + path + ": " + e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            Logger.error(this, "Error collecting the unreferenced blobs: " + e.getMessage(), e);
+        }
+
+        this.collectOrphanVariants(variantsRoot);
+        return removed.get();
+    }
+
+    /**
+     * Removes the variant folders whose blob does not exist, i.e. the ones generated before the variants of a filter
+     * chain were kept with the original blob
+     */
+    private void collectOrphanVariants(final Path variantsRoot) {
+
+        if (!Files.isDirectory(variantsRoot)) {
+            return;
+        }
+
+        final AtomicInteger removed = new AtomicInteger(0);
+        try (Stream<Path> paths = Files.walk(variantsRoot, 3)) {
+
+            paths.filter(path -> variantsRoot.relativize(path).getNameCount() == 3 && Files.isDirectory(path))
+                    .filter(path -> !this.getBlobFile(path.getFileName().toString()).exists())
+                    .forEach(path -> {
+                        FileUtil.deltree(path.toFile());
+                        removed.incrementAndGet();
+                    });
+        } catch (IOException e) {
+            Logger.error(this, "Error collecting the orphan variants: " + e.getMessage(), e);
+        }
+
+        Logger.debug(this, removed.get() + " orphan variant folders deleted");
+    }
+
+    private File store(final File source) throws IOException {
+
+        final String hash = this.getHash(source).orElseThrow(() -> new IOException("Could not hash " + source));
+        final File blob   = this.getBlobFile(hash);
+
+        if (!blob.exists()) {
+
+            blob.getParentFile().mkdirs();
+            final File tmpBlob = new File(blob.getParentFile(), hash + "." + System.nanoTime() + ".tmp");
+            FileUtil.copyFile(source, tmpBlob, false, false);
+
+            try {
+                Files.move(tmpBlob.toPath(), blob.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // stored meanwhile by another thread
+                Files.deleteIfExists(tmpBlob.toPath());
+            }
+        }
+
+        this.hashCache.put(this.fileKey(blob.toPath()), hash);
+        return blob;
+    }
+
+    private String sha256(final File file) throws IOException {
+
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            return DigestUtils.sha256Hex(inputStream);
+        }
+    }
+
+    private String fileKey(final Path path) throws IOException {
+
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        final Object fileKey = null != attributes.fileKey() ? attributes.fileKey() : path.toAbsolutePath();
+        return fileKey + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+    }
+
+    @VisibleForTesting
+    void link(final Path link, final Path blob) throws IOException {
+        Files.createLink(link, blob);
+    }
+
+    private int linkCount(final Path path) {
+
+        try {
+            return (Integer) Files.getAttribute(path, "unix:nlink");
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private File getVariantsFolder(final String hash) {
+        return new File(this.getBlobsRootPath() + File.separator + VARIANTS_FOLDER + File.separator + this.hashPath(hash));
+    }
+
+    private String hashPath(final String hash) {
+        return hash.charAt(0) + File.separator + hash.charAt(1) + File.separator + hash;
+    }
+
+    private String getBlobsRootPath() {
+        return this.blobsRootPath.get();
+    }
+} // E:O:F:BinaryBlobStore.
@@ -4,6 +4,7 @@ import java.util.List;
 
 import com.dotcms.config.DotInitializer;
 import com.dotcms.content.elasticsearch.business.event.ContentletCheckinEvent;
+import com.dotcms.graphql.listener.ContentModsListeners;
 import com.dotcms.graphql.listener.ContentTypeAndFieldsModsListeners;
 import com.dotcms.services.VanityUrlServices;
 import com.dotmarketing.beans.Host;
@@ -31,6 +32,8 @@ public class LocalSystemEventSubscribersInitializer implements DotInitializer {
 
         APILocator.getLocalSystemEventsAPI().subscribe(new ContentTypeAndFieldsModsListeners());
 
+        APILocator.getLocalSystemEventsAPI().subscribe(new ContentModsListeners());
+
         this.initApplicationContainerFolderListener();
 
         APILocator.getLocalSystemEventsAPI().subscribe(ContentletCheckinEvent.class, UnassignedWorkflowContentletCheckinListener.getInstance());
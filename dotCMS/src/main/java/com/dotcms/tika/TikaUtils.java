@@ -5,6 +5,7 @@ import com.dotcms.contenttype.model.type.BaseContentType;
 import com.dotcms.osgi.OSGIConstants;
 import com.dotcms.repackage.org.apache.commons.io.FileUtils;
 import com.dotcms.repackage.org.apache.commons.io.IOUtils;
+import com.dotcms.storage.BinaryBlobStore;
 import com.dotmarketing.business.APILocator;
 import com.dotmarketing.business.FactoryLocator;
 import com.dotmarketing.exception.DotDataException;
@@ -17,6 +18,8 @@ import com.dotmarketing.util.StringUtils;
 import com.dotmarketing.util.UtilMethods;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.liferay.util.FileUtil;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -30,7 +33,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Predicate;
 import java.util.zip.GZIPOutputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
@@ -121,7 +126,68 @@ public class TikaUtils {
      * @param binFile File to parse the metadata from it
      */
     public Map<String, String> getMetaDataMap(final String inode, final File binFile) {
-        return getMetaDataMap(inode, binFile, false);
+
+        final BinaryBlobStore binaryBlobStore = BinaryBlobStore.getInstance();
+        final Optional<String> hash = binaryBlobStore.isEnabled() ?
+                binaryBlobStore.getBlobHash(binFile) : Optional.empty();
+
+        return hash.isPresent() ?
+                getBlobMetaDataMap(inode, binFile, hash.get()) :
+                getMetaDataMap(inode, binFile, false);
+    }
+
+    /**
+     * When the binaries are stored by content the file is parsed once, the metadata map and the metadata file
+     * are kept as variants of the blob and reused by every contentlet (or version) pointing to the same file.
+     */
+    private Map<String, String> getBlobMetaDataMap(final String inode, final File binFile, final String hash) {
+
+        final BinaryBlobStore binaryBlobStore = BinaryBlobStore.getInstance();
+        final Set<String> configuredFields = getConfiguredMetadataFields();
+        // the map kept is already filtered, so it depends on the configured fields too
+        final File metaDataMapVariant = binaryBlobStore.getVariantFile(hash, "metadata-" +
+                Integer.toHexString(new TreeSet<>(configuredFields).toString().hashCode()) + ".json");
+        final File contentVariant = binaryBlobStore.getVariantFile(hash, "content");
+        final File contentMetadataFile = APILocator.getFileAssetAPI().getContentMetadataFile(inode);
+        final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+        try {
+
+            if (metaDataMapVariant.exists()) {
+
+                if (contentVariant.exists() && !contentMetadataFile.exists()) {
+                    FileUtil.copyFile(contentVariant, contentMetadataFile);
+                }
+
+                try (Reader reader = Files.newBufferedReader(metaDataMapVariant.toPath(), StandardCharsets.UTF_8)) {
+                    final Map<String, String> metaMap = gson.fromJson(reader,
+                            new TypeToken<Map<String, String>>() {}.getType());
+                    if (null != metaMap) {
+                        return metaMap;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            Logger.debug(this.getClass(), "Could not reuse the metadata of the blob " + hash + ": " + e.getMessage());
+        }
+
+        final Map<String, String> metaMap = getMetaDataMap(inode, binFile, false);
+
+        // only successful parses are kept, a failed one just has the size
+        if (metaMap.size() > 1) {
+            try {
+
+                if (contentMetadataFile.exists() && !contentVariant.exists()) {
+                    FileUtil.copyFile(contentMetadataFile, contentVariant);
+                }
+
+                Files.write(metaDataMapVariant.toPath(), gson.toJson(metaMap).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                Logger.debug(this.getClass(), "Could not keep the metadata of the blob " + hash + ": " + e.getMessage());
+            }
+        }
+
+        return metaMap;
     }
 
     /**
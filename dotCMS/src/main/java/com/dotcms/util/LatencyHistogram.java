@@ -0,0 +1,194 @@
+package com.dotcms.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free latency histogram with log linear buckets, in the HDR histogram style: every power of two range of values
+ * is split in {@link #SUB_BUCKETS} linear buckets, so any value is recorded with a relative error under 7% in a fixed
+ * array of counters. Recording is one {@link AtomicLongArray} increment plus a couple of {@link LongAdder}, no locks
+ * and no allocations, cheap enough to be left on in production.
+ * <p>
+ * The values are recorded in microseconds, up to {@link #MAX_VALUE} (the bigger ones fall in the last bucket).
+ */
+public class LatencyHistogram {
+
+    private static final int  SUB_BUCKET_BITS = 4;
+    private static final int  SUB_BUCKETS     = 1 << SUB_BUCKET_BITS;
+    private static final int  MAX_MAGNITUDE   = 40;
+    private static final int  BUCKETS         = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * Biggest value that gets its own bucket, in microseconds (about 25 days)
+     */
+    public static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder       count  = new LongAdder();
+    private final LongAdder       total  = new LongAdder();
+    private final AtomicLong      max    = new AtomicLong();
+
+    /**
+     * Records a latency
+     * @param nanos long elapsed time in nanoseconds
+     */
+    public void recordNanos(final long nanos) {
+        this.record(nanos / 1000);
+    }
+
+    /**
+     * Records a latency
+     * @param micros long elapsed time in microseconds
+     */
+    public void record(final long micros) {
+
+        final long value = Math.max(0, micros);
+
+        this.counts.incrementAndGet(bucketIndex(value));
+        this.count.increment();
+        this.total.add(value);
+
+        if (value > this.max.get()) {
+            this.max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    public double getMean() {
+
+        final long count = this.count.sum();
+        return count > 0? (double) this.total.sum() / count: 0;
+    }
+
+    /**
+     * Value under which the given percentage of the recorded values are
+     * @param percentile double between 0 and 100
+     * @return long microseconds, 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+
+        final long[] snapshot = this.snapshot();
+        long count = 0;
+        for (final long bucketCount : snapshot) {
+            count += bucketCount;
+        }
+
+        return valueAtPercentile(snapshot, count, percentile);
+    }
+
+    /**
+     * Count, mean, max and the usual percentiles, all the values in microseconds. The buckets are read once so the
+     * percentiles are consistent between them.
+     * @return Map
+     */
+    public Map<String, Object> toMap() {
+
+        final long[] snapshot = this.snapshot();
+        long count = 0;
+        for (final long bucketCount : snapshot) {
+            count += bucketCount;
+        }
+
+        final Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", count);
+        stats.put("mean",  Math.round(this.getMean()));
+        stats.put("p50",   valueAtPercentile(snapshot, count, 50));
+        stats.put("p90",   valueAtPercentile(snapshot, count, 90));
+        stats.put("p99",   valueAtPercentile(snapshot, count, 99));
+        stats.put("p999",  valueAtPercentile(snapshot, count, 99.9));
+        stats.put("max",   this.getMax());
+        return stats;
+    }
+
+    /**
+     * Clears the recorded values, the values recorded while resetting may be lost
+     */
+    public void reset() {
+
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts.set(i, 0);
+        }
+
+        this.count.reset();
+        this.total.reset();
+        this.max.set(0);
+    }
+
+    private long[] snapshot() {
+
+        final long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = this.counts.get(i);
+        }
+
+        return snapshot;
+    }
+
+    private long valueAtPercentile(final long[] snapshot, final long count, final double percentile) {
+
+        if (count == 0) {
+            return 0;
+        }
+
+        final long target = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+        long accumulated  = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+
+            accumulated += snapshot[i];
+            if (accumulated >= target) {
+                return Math.min(bucketMiddleValue(i), this.getMax());
+            }
+        }
+
+        return this.getMax();
+    }
+
+    static int bucketIndex(final long value) {
+
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        if (value > MAX_VALUE) {
+            return BUCKETS - 1;
+        }
+
+        final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        final int shift     = magnitude - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketLowestValue(final int index) {
+
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        final int shift     = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        final int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+
+        return (long) (SUB_BUCKETS + subBucket) << shift;
+    }
+
+    private static long bucketMiddleValue(final int index) {
+
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        final int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        return bucketLowestValue(index) + ((1L << shift) >> 1);
+    }
+} // E:O:F:LatencyHistogram.
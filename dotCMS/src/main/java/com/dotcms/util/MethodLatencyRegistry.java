@@ -0,0 +1,127 @@
+package com.dotcms.util;
+
+import com.dotmarketing.util.Config;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps a {@link LatencyHistogram} per method for the methods annotated with {@link LogTime} or {@link RecordTime},
+ * so there is an aggregated view of where the time goes. The stats are exposed through JMX (registered by the
+ * {@link com.dotcms.listeners.RegisterMBeansListener}) and the {@code /api/v1/system-latency} endpoint.
+ * <p>
+ * Recording can be turned off with {@code METHOD_LATENCY_HISTOGRAMS_ENABLED=false} and sampled with
+ * {@code METHOD_LATENCY_HISTOGRAMS_SAMPLE_RATE} (1 by default, every call is recorded), on sampling the counts are the
+ * counts of the sampled calls.
+ */
+public class MethodLatencyRegistry implements MethodLatencyRegistryMBean {
+
+    public static final String MBEAN_OBJECT_NAME = "org.dotcms:type=MethodLatency";
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<Method, String> methodNames = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final double  sampleRate;
+
+    /**
+     * Private constructor for singleton creation.
+     */
+    private MethodLatencyRegistry() {
+
+        this.enabled    = Config.getBooleanProperty("METHOD_LATENCY_HISTOGRAMS_ENABLED", true);
+        this.sampleRate = Config.getFloatProperty("METHOD_LATENCY_HISTOGRAMS_SAMPLE_RATE", 1f);
+    }
+
+    /**
+     * Singleton holder using initialization on demand
+     */
+    private static class SingletonHolder {
+        private static final MethodLatencyRegistry INSTANCE = new MethodLatencyRegistry();
+    }
+
+    public static MethodLatencyRegistry getInstance() {
+        return MethodLatencyRegistry.SingletonHolder.INSTANCE;
+    }
+
+    /**
+     * True if the current call has to be timed, depends on the enabled flag and the sample rate
+     * @return boolean
+     */
+    public boolean shouldRecord() {
+
+        return this.enabled && (this.sampleRate >= 1 ||
+                (this.sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < this.sampleRate));
+    }
+
+    /**
+     * Records the elapsed time of a call to the method
+     * @param name  {@link String} method name
+     * @param nanos long elapsed time in nanoseconds
+     */
+    public void record(final String name, final long nanos) {
+
+        LatencyHistogram histogram = this.histograms.get(name);
+        if (null == histogram) {
+            histogram = this.histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+        }
+
+        histogram.recordNanos(nanos);
+    }
+
+    /**
+     * Name the latencies of the method are recorded under: the simple name of the declaring class plus the method name
+     * @param method {@link Method}
+     * @return String
+     */
+    public String getName(final Method method) {
+
+        final String name = this.methodNames.get(method);
+        return null != name? name: this.methodNames.computeIfAbsent(method, key ->
+                key.getDeclaringClass().getSimpleName() + "#" + key.getName());
+    }
+
+    @Override
+    public double getSampleRate() {
+        return this.sampleRate;
+    }
+
+    @Override
+    public List<String> list() {
+        return new ArrayList<>(this.histograms.keySet());
+    }
+
+    @Override
+    public Map<String, Object> getStats(final String name) {
+
+        final LatencyHistogram histogram = this.histograms.get(name);
+        return null != histogram? histogram.toMap(): new LinkedHashMap<>();
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getAllStats() {
+
+        final Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        this.histograms.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<String, LatencyHistogram> entry) ->
+                        entry.getValue().getMean() * entry.getValue().getCount()).reversed())
+                .forEach(entry -> stats.put(entry.getKey(), entry.getValue().toMap()));
+
+        return stats;
+    }
+
+    @Override
+    public void reset() {
+        this.histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    @Override
+    public String getObjectName() {
+        return MBEAN_OBJECT_NAME;
+    }
+} // E:O:F:MethodLatencyRegistry.
@@ -0,0 +1,42 @@
+package com.dotcms.util;
+
+import com.dotcms.jmx.DotMBean;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encapsulates the MBean interfaces for the {@link MethodLatencyRegistry}
+ */
+public interface MethodLatencyRegistryMBean extends DotMBean {
+
+    /**
+     * Names of the methods with recorded latencies
+     * @return List
+     */
+    List<String> list();
+
+    /**
+     * Count, mean, max and percentiles (microseconds) of a method
+     * @param name {@link String} method name, as returned by {@link #list()}
+     * @return Map
+     */
+    Map<String, Object> getStats(String name);
+
+    /**
+     * Stats of all the methods, sorted by the total time spent on them
+     * @return Map
+     */
+    Map<String, Map<String, Object>> getAllStats();
+
+    /**
+     * Fraction of the calls that are recorded, from 0 to 1
+     * @return double
+     */
+    double getSampleRate();
+
+    /**
+     * Clears the recorded latencies of all the methods
+     */
+    void reset();
+} // E:O:F:MethodLatencyRegistryMBean.
@@ -0,0 +1,19 @@
+package com.dotcms.util;
+
+import java.lang.annotation.*;
+
+/**
+ * A method annotated with RecordTime annotation will record its execution time on the {@link MethodLatencyRegistry},
+ * same as {@link LogTime} but without logging anything
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RecordTime {
+
+    /**
+     * Name to record the time under, by default the simple name of the class plus the method name
+     * @return String
+     */
+    String value() default "";
+} // E:O:F:RecordTime.
@@ -1,17 +1,22 @@
 package com.dotcms.visitor.filter.logger;
 
 
+import com.dotcms.concurrent.AsyncBatchWriter;
 import com.dotcms.visitor.business.VisitorAPIImpl;
 
 import com.dotcms.visitor.filter.characteristics.*;
 import com.dotmarketing.exception.DotRuntimeException;
 
 import com.dotmarketing.logConsole.model.LogMapper;
+import com.dotmarketing.util.Config;
 import com.dotmarketing.util.Logger;
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -32,6 +37,17 @@ public class VisitorLogger {
 
     private static List<Constructor<AbstractCharacter>> customConstructors;
 
+    /**
+     * The visits are serialized and logged on a background thread, the request thread only builds the characters and
+     * queues them. VISITOR_LOG_ASYNC_ENABLED=false logs them on the request thread as before
+     */
+    private static final boolean ASYNC_ENABLED = Config.getBooleanProperty("VISITOR_LOG_ASYNC_ENABLED", true);
+
+    private static final AsyncBatchWriter<Map<String, Serializable>> WRITER = new AsyncBatchWriter<>("visitor-logger",
+            Config.getIntProperty("VISITOR_LOG_ASYNC_QUEUE_SIZE", 10000),
+            Config.getIntProperty("VISITOR_LOG_ASYNC_BATCH_SIZE", 100),
+            Config.getLongProperty("VISITOR_LOG_ASYNC_MAX_DELAY_MILLIS", 1000), VisitorLogger::doLog);
+
     private VisitorLogger() {
 
     }
@@ -127,7 +143,13 @@ public class VisitorLogger {
             for (Constructor<AbstractCharacter> con : customConstructors) {
                 base = con.newInstance(base);
             }
-            doLog(mapper().writeValueAsString(base.getMap()));
+            // the characters map is a thread local, the writer gets a copy of it
+            final Map<String, Serializable> visit = new LinkedHashMap<>(base.getMap());
+            if (ASYNC_ENABLED) {
+                WRITER.offer(visit);
+            } else {
+                doLog(mapper().writeValueAsString(visit));
+            }
         } catch (JsonProcessingException e) {
             throw new DotRuntimeException(e);
         }
@@ -137,6 +159,28 @@ public class VisitorLogger {
         Logger.info(VisitorLogger.class, message);
     }
 
+    /**
+     * Serializes and logs a batch of visits, runs on the writer thread
+     * @param visits
+     */
+    private static void doLog(final List<Map<String, Serializable>> visits) {
+        for (final Map<String, Serializable> visit : visits) {
+            try {
+                doLog(mapper().writeValueAsString(visit));
+            } catch (JsonProcessingException e) {
+                Logger.debug(VisitorLogger.class, "Could not serialize the visit: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the writer the visits are logged through, to read its counters (dropped visits on overload, etc)
+     * @return
+     */
+    public static AsyncBatchWriter<Map<String, Serializable>> getWriter() {
+        return WRITER;
+    }
+
 
     private static boolean shouldLog(HttpServletRequest request, HttpServletResponse response) {
         return 500 != response.getStatus() && new VisitorAPIImpl().getVisitor(request, false).isPresent();
@@ -12,12 +12,14 @@ import com.dotcms.contenttype.business.ContentTypeCache2;
 import com.dotcms.contenttype.business.ContentTypeCache2Impl;
 import com.dotcms.csspreproc.CSSCache;
 import com.dotcms.csspreproc.CSSCacheImpl;
+import com.dotcms.graphql.business.GraphQLCache;
 import com.dotcms.notifications.business.NewNotificationCache;
 import com.dotcms.notifications.business.NewNotificationCacheImpl;
 import com.dotcms.publisher.assets.business.PushedAssetsCache;
 import com.dotcms.publisher.assets.business.PushedAssetsCacheImpl;
 import com.dotcms.publisher.endpoint.business.PublishingEndPointCache;
 import com.dotcms.publisher.endpoint.business.PublishingEndPointCacheImpl;
+import com.dotcms.rendering.velocity.services.ContainerFragmentCache;
 import com.dotcms.rendering.velocity.services.DotResourceCache;
 import com.dotcms.rendering.velocity.viewtools.navigation.NavToolCache;
 import com.dotcms.rendering.velocity.viewtools.navigation.NavToolCacheImpl;
@@ -291,6 +293,14 @@ public class CacheLocator extends Locator<CacheIndex>{
     public static ApiTokenCache getApiTokenCache() {
         return (ApiTokenCache) getInstance(CacheIndex.ApiTokenCache);
     }
+
+    public static GraphQLCache getGraphQLCache() {
+        return (GraphQLCache) getInstance(CacheIndex.GraphQLCache);
+    }
+
+    public static ContainerFragmentCache getContainerFragmentCache() {
+        return (ContainerFragmentCache) getInstance(CacheIndex.ContainerFragmentCache);
+    }
 	/**
 	 * The legacy cache administrator will invalidate cache entries within a cluster
 	 * on a put where the non legacy one will not.
@@ -389,7 +399,9 @@ enum CacheIndex
 	MultiTreeCache("MultiTree Cache"),
 	ApiTokenCache("ApiTokenCache"),
 	PortletCache("PortletCache"),
-	KeyValueCache("Key/Value Cache");
+	KeyValueCache("Key/Value Cache"),
+	GraphQLCache("GraphQL Cache"),
+	ContainerFragmentCache("Container Fragment Cache");
 
 	Cachable create() {
 		switch(this) {
@@ -436,6 +448,8 @@ enum CacheIndex
 	      	case MultiTreeCache : return new MultiTreeCache();
 	      	case ApiTokenCache : return new ApiTokenCache();
 	      	case PortletCache : return new PortletCache();
+	      	case GraphQLCache : return new GraphQLCache();
+	      	case ContainerFragmentCache : return new ContainerFragmentCache();
 	      	
 		}
 		throw new AssertionError("Unknown Cache index: " + this);
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.dotcms.api.system.event.SystemEventsClusterBus;
 import com.dotcms.business.WrapInTransaction;
 import com.dotcms.cluster.ClusterUtils;
 import com.dotcms.cluster.bean.Server;
@@ -451,6 +452,10 @@ public class ChainableCacheAdministratorImpl implements DotCacheAdministrator {
         if (message == null) {
             return;
         } ;
+        if (SystemEventsClusterBus.getInstance().isMessage(message)) {
+            SystemEventsClusterBus.getInstance().receive(message);
+            return;
+        }
         int i = message.lastIndexOf(":");
         if (i > 0) {
 
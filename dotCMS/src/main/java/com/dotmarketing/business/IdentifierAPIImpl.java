@@ -27,7 +27,7 @@ public class IdentifierAPIImpl implements IdentifierAPI {
 		identifierFactory = FactoryLocator.getIdentifierFactory();
 	}
 
-	@CloseDBIfOpened
+	@CloseDBIfOpened(readOnly = true)
 	@Override
 	public List<Identifier> findByURIPattern(final String assetType, final String uri,
 											 final boolean include,  final Host host) throws DotDataException {
@@ -77,13 +77,13 @@ public class IdentifierAPIImpl implements IdentifierAPI {
 		
 	}
 
-	@CloseDBIfOpened
+	@CloseDBIfOpened(readOnly = true)
 	public Identifier find(final String identifier) throws DotDataException {
 		return identifierFactory.find(identifier);
 
 	}
 
-	@CloseDBIfOpened
+	@CloseDBIfOpened(readOnly = true)
 	public Identifier find(final Versionable versionable) throws DotDataException {
 
 		if (versionable == null || (!InodeUtils.isSet(versionable.getVersionId()) && !InodeUtils.isSet(versionable.getInode()))) {
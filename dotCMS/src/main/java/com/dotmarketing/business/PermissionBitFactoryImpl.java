@@ -1424,8 +1424,7 @@ public class PermissionBitFactoryImpl extends PermissionFactory {
 		}
 
         if(isFolder) {
-            ContentletAPI contAPI = APILocator.getContentletAPI();
-            contAPI.refreshContentUnderFolder((Folder)permissionable);
+            APILocator.getReindexQueueAPI().refreshContentPermissionsUnderFolder((Folder)permissionable);
         }
 	}
 
@@ -2577,8 +2576,7 @@ public class PermissionBitFactoryImpl extends PermissionFactory {
  
 
 			if(isHost) {
-				ContentletAPI contentAPI = APILocator.getContentletAPI();
-				contentAPI.refreshContentUnderHost((Host)permissionable);
+				APILocator.getReindexQueueAPI().refreshContentPermissionsUnderHost((Host)permissionable);
 			}
 
 			if(isContentType) {
@@ -2588,8 +2586,7 @@ public class PermissionBitFactoryImpl extends PermissionFactory {
 					contentAPI.refresh(st);
 			}
 			if(isFolder) {
-				ContentletAPI contAPI = APILocator.getContentletAPI();
-				contAPI.refreshContentUnderFolder((Folder)permissionable);
+				APILocator.getReindexQueueAPI().refreshContentPermissionsUnderFolder((Folder)permissionable);
 			}
 		}
 
@@ -2647,8 +2644,7 @@ public class PermissionBitFactoryImpl extends PermissionFactory {
 		}
 
 		 if(isHost) {
-			 ContentletAPI contentAPI = APILocator.getContentletAPI();
-			 contentAPI.refreshContentUnderHost((Host)permissionable);
+			 APILocator.getReindexQueueAPI().refreshContentPermissionsUnderHost((Host)permissionable);
 		 }
 		 Logger.info(this, "Ending cascade role permissions for permissionable " + permissionable.getPermissionId() + " for role " + role.getId());
 
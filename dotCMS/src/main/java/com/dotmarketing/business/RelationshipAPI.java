@@ -10,6 +10,7 @@ import com.dotmarketing.portlets.structure.model.ContentletRelationships;
 import com.dotmarketing.portlets.structure.model.Field;
 import com.dotmarketing.portlets.structure.model.Relationship;
 import com.liferay.portal.model.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -60,6 +61,18 @@ public interface RelationshipAPI {
 
   List<Tree> relatedContentTrees(Relationship relationship, Contentlet contentlet) throws DotDataException;
 
+  /**
+   * Returns the identifiers related through the relationship to each of the given identifiers, in tree order, with
+   * one query per chunk of identifiers. The identifiers with no related content are left out of the map
+   * @param relationship {@link Relationship}
+   * @param identifiers identifiers of the contentlets
+   * @param hasParent true if the contentlets are the parents of the relationship (their children are returned)
+   * @return Map identifier to its related identifiers
+   * @throws DotDataException
+   */
+  Map<String, List<String>> dbRelatedIdentifiers(Relationship relationship, Collection<String> identifiers,
+                                                 boolean hasParent) throws DotDataException;
+
   void delete(String inode) throws DotDataException;
 
   List<Tree> relatedContentTrees(Relationship relationship, Contentlet contentlet, boolean hasParent)
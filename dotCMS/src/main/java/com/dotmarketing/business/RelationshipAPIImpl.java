@@ -30,6 +30,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.liferay.portal.model.User;
 import com.liferay.util.StringPool;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -127,6 +128,13 @@ public class RelationshipAPIImpl implements RelationshipAPI {
         return this.relationshipFactory.dbRelatedContent(relationship, contentlet, hasParent);
     }
 
+    @CloseDBIfOpened
+    @Override
+    public Map<String, List<String>> dbRelatedIdentifiers(final Relationship relationship,
+            final Collection<String> identifiers, final boolean hasParent) throws DotDataException {
+        return this.relationshipFactory.dbRelatedIdentifiers(relationship, identifiers, hasParent);
+    }
+
     @CloseDBIfOpened
     @Override
     public List<Tree> relatedContentTrees(Relationship relationship, Contentlet contentlet) throws DotDataException {
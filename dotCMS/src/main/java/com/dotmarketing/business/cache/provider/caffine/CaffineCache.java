@@ -17,6 +17,7 @@ import com.dotmarketing.util.Config;
 import com.dotmarketing.util.Logger;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 
@@ -75,6 +76,8 @@ public class CaffineCache extends CacheProvider {
         }
         this.availableCaches = ImmutableSet.copyOf(_availableCaches);
         isInitialized = true;
+
+        CaffineCacheWarmStart.getInstance().register(this);
     }
 
     @Override
@@ -106,6 +109,25 @@ public class CaffineCache extends CacheProvider {
 
     }
 
+    /**
+     * Adds the content only if the group does not already have a value for the key, used to restore entries that
+     * must not override the ones loaded in the meantime
+     */
+    public void putIfAbsent(final String group, final String key, final Object content) {
+
+        getCache(group).asMap().putIfAbsent(key, content);
+    }
+
+    /**
+     * Returns up to <code>limit</code> entries of the group, the ones most likely to be used again first
+     */
+    public Map<String, Object> getHottest(final String group, final int limit) {
+
+        return getCache(group).policy().eviction()
+                .map(eviction -> eviction.hottest(limit))
+                .orElseGet(ImmutableMap::of);
+    }
+
     @Override
     public void remove(String group) {
 
@@ -0,0 +1,412 @@
+package com.dotmarketing.business.cache.provider.caffine;
+
+import com.dotcms.business.CloseDBIfOpened;
+import com.dotmarketing.business.APILocator;
+import com.dotmarketing.common.db.DotConnect;
+import com.dotmarketing.exception.DotDataException;
+import com.dotmarketing.init.DotInitScheduler;
+import com.dotmarketing.portlets.contentlet.model.ContentletVersionInfo;
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.ConfigUtils;
+import com.dotmarketing.util.Logger;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Warm start of the {@link CaffineCache}: every node periodically writes the hottest entries of some cache groups
+ * to a snapshot file under the shared assets, and a node that starts restores the most recent snapshot of any node
+ * so its first requests do not all go to the database.
+ * <p>
+ * A group is only restored if its modification stamp, the row count and the last modification date of the table its
+ * values come from, is the same it was when the snapshot was written: every insert and update moves the date and
+ * every delete the count, so nothing in the group could have changed since. The identifier and folder caches are not
+ * warmed, a move or rename of a folder changes the paths of what is under it without leaving a stamp.
+ * <p>
+ * Only the values that can be serialized, and that come from the stamped table, are kept, and the restore stops once its time budget is spent. The
+ * snapshots are read from a shared directory, so only the classes of dotCMS and the JDK are deserialized from them.
+ */
+public class CaffineCacheWarmStart {
+
+    public static final String CACHE_WARMSTART_ENABLED            = "CACHE_WARMSTART_ENABLED";
+    public static final String CACHE_WARMSTART_PATH               = "CACHE_WARMSTART_PATH";
+    public static final String CACHE_WARMSTART_INTERVAL_SECONDS   = "CACHE_WARMSTART_INTERVAL_SECONDS";
+    public static final String CACHE_WARMSTART_MAX_AGE_SECONDS    = "CACHE_WARMSTART_MAX_AGE_SECONDS";
+    public static final String CACHE_WARMSTART_KEYS_PER_GROUP     = "CACHE_WARMSTART_KEYS_PER_GROUP";
+    public static final String CACHE_WARMSTART_MAX_ENTRY_BYTES    = "CACHE_WARMSTART_MAX_ENTRY_BYTES";
+    public static final String CACHE_WARMSTART_TIME_BUDGET_MILLIS = "CACHE_WARMSTART_TIME_BUDGET_MILLIS";
+
+    private static final int    FORMAT_VERSION   = 1;
+    private static final int    MAX_KEY_LENGTH   = 1024;
+    private static final String SNAPSHOT_SUFFIX  = ".snapshot";
+
+    /**
+     * Groups that can be warmed, with the query returning their modification stamp
+     */
+    private static final Map<String, String> STAMP_QUERIES = ImmutableMap.<String, String>builder()
+            .put("versioninfocache",
+                    "select count(*) as row_count, max(version_ts) as last_mod from contentlet_version_info")
+            .put("contentletcache", "select count(*) as row_count, max(mod_date) as last_mod from contentlet")
+            .put("contenttypecache", "select count(*) as row_count, max(mod_date) as last_mod from structure")
+            .build();
+
+    /**
+     * Groups that also hold values whose table is not part of their stamp, only the values of the given class are
+     * warmed: the version info cache keeps the template, container and link version info too, and the stamp only
+     * follows contentlet_version_info
+     */
+    private static final Map<String, Class<?>> STAMPED_VALUE_TYPES = ImmutableMap.<String, Class<?>>builder()
+            .put("versioninfocache", ContentletVersionInfo.class)
+            .build();
+
+    /**
+     * Packages of the classes that can be deserialized from a snapshot, the repackaged libraries are left out
+     */
+    private static final String[] ALLOWED_PACKAGES = {
+            "java.", "com.dotcms.", "com.dotmarketing.", "com.liferay.", "com.google.common.collect."
+    };
+    private static final String REPACKAGED_PACKAGE = "com.dotcms.repackage.";
+
+    private final StampReader      stampReader;
+    private final Supplier<String> serverIdSupplier;
+    private volatile CaffineCache  cache;
+
+    private static class SingletonHolder {
+        private static final CaffineCacheWarmStart INSTANCE = new CaffineCacheWarmStart();
+    }
+
+    public static CaffineCacheWarmStart getInstance() {
+        return CaffineCacheWarmStart.SingletonHolder.INSTANCE;
+    }
+
+    private CaffineCacheWarmStart() {
+        this(CaffineCacheWarmStart::readStamps, ConfigUtils::getServerId);
+    }
+
+    @VisibleForTesting
+    CaffineCacheWarmStart(final StampReader stampReader, final Supplier<String> serverIdSupplier) {
+
+        this.stampReader      = stampReader;
+        this.serverIdSupplier = serverIdSupplier;
+    }
+
+    void register(final CaffineCache cache) {
+        this.cache = cache;
+    }
+
+    public boolean isEnabled() {
+        return Config.getBooleanProperty(CACHE_WARMSTART_ENABLED, false);
+    }
+
+    /**
+     * Restores the most recent snapshot and schedules the periodic snapshots of this node
+     */
+    public void start() {
+
+        if (!isEnabled() || cache == null) {
+            return;
+        }
+
+        restore();
+
+        final int interval = Config.getIntProperty(CACHE_WARMSTART_INTERVAL_SECONDS, 300);
+        DotInitScheduler.getScheduledThreadPoolExecutor()
+                .scheduleWithFixedDelay(this::writeSnapshot, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes the hottest entries of the warmed groups to the snapshot file of this node, replacing the previous one
+     */
+    @CloseDBIfOpened
+    public void writeSnapshot() {
+
+        final CaffineCache cache = this.cache;
+        if (cache == null) {
+            return;
+        }
+
+        final long start      = System.currentTimeMillis();
+        final int  maxEntries = Config.getIntProperty(CACHE_WARMSTART_KEYS_PER_GROUP, 1000);
+        final int  maxBytes   = Config.getIntProperty(CACHE_WARMSTART_MAX_ENTRY_BYTES, 64 * 1024);
+        final File directory  = getSnapshotDirectory();
+        final String serverId = this.serverIdSupplier.get();
+        final File snapshot   = new File(directory, serverId + SNAPSHOT_SUFFIX);
+        final File temp       = new File(directory, serverId + ".tmp");
+
+        try {
+            // the stamps are read before the entries, an entry changed after it changes the stamp too
+            final Map<String, String> stamps = this.stampReader.read();
+            int written = 0;
+
+            directory.mkdirs();
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(new FileOutputStream(temp))))) {
+
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(start);
+                out.writeInt(stamps.size());
+                for (final Map.Entry<String, String> stamp : stamps.entrySet()) {
+
+                    final Map<String, byte[]> entries = new LinkedHashMap<>();
+                    final Class<?> valueType = STAMPED_VALUE_TYPES.get(stamp.getKey());
+                    for (final Map.Entry<String, Object> entry : cache.getHottest(stamp.getKey(), maxEntries).entrySet()) {
+                        if (valueType != null && !valueType.isInstance(entry.getValue())) {
+                            continue;
+                        }
+                        final byte[] value = serialize(entry.getValue(), maxBytes);
+                        if (value != null && entry.getKey().length() <= MAX_KEY_LENGTH) {
+                            entries.put(entry.getKey(), value);
+                        }
+                    }
+
+                    out.writeUTF(stamp.getKey());
+                    out.writeUTF(stamp.getValue());
+                    out.writeInt(entries.size());
+                    for (final Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                        out.writeUTF(entry.getKey());
+                        out.writeInt(entry.getValue().length);
+                        out.write(entry.getValue());
+                    }
+                    written += entries.size();
+                }
+            }
+
+            Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            deleteExpiredSnapshots(directory);
+            Logger.debug(this, "Cache warm start snapshot written: " + written + " entries in "
+                    + (System.currentTimeMillis() - start) + "ms");
+        } catch (IOException | DotDataException | RuntimeException e) {
+            Logger.warnAndDebug(CaffineCacheWarmStart.class, "Unable to write the cache warm start snapshot: "
+                    + e.getMessage(), e);
+            temp.delete();
+        }
+    }
+
+    /**
+     * Puts the entries of the most recent snapshot into the cache, skipping the groups whose modification stamp
+     * changed and the keys that are already cached
+     *
+     * @return the number of entries restored
+     */
+    @CloseDBIfOpened
+    public int restore() {
+
+        final CaffineCache cache = this.cache;
+        final File snapshot = findLatestSnapshot();
+        if (cache == null || snapshot == null) {
+            return 0;
+        }
+
+        final long start    = System.currentTimeMillis();
+        final long deadline = start + Config.getIntProperty(CACHE_WARMSTART_TIME_BUDGET_MILLIS, 5000);
+        int restored = 0;
+
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(snapshot))))) {
+
+            if (in.readInt() != FORMAT_VERSION) {
+                return 0;
+            }
+            in.readLong();
+
+            final Map<String, String> stamps = this.stampReader.read();
+            final int groups = in.readInt();
+            for (int i = 0; i < groups && System.currentTimeMillis() < deadline; i++) {
+
+                final String group   = in.readUTF();
+                final boolean valid  = in.readUTF().equals(stamps.get(group));
+                final int entries    = in.readInt();
+                for (int j = 0; j < entries; j++) {
+                    final String key   = in.readUTF();
+                    final byte[] value = new byte[in.readInt()];
+                    in.readFully(value);
+
+                    if (valid && System.currentTimeMillis() < deadline) {
+                        final Object content = deserialize(value);
+                        if (content != null) {
+                            cache.putIfAbsent(group, key, content);
+                            restored++;
+                        }
+                    }
+                }
+
+                if (!valid) {
+                    Logger.info(this, "Cache group " + group + " changed since the warm start snapshot, skipped");
+                }
+            }
+
+            Logger.info(this, "Cache warm start restored " + restored + " entries from " + snapshot.getName()
+                    + " in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (IOException | DotDataException | RuntimeException e) {
+            Logger.warnAndDebug(CaffineCacheWarmStart.class, "Unable to restore the cache warm start snapshot "
+                    + snapshot + ": " + e.getMessage(), e);
+        }
+
+        return restored;
+    }
+
+    private static Map<String, String> readStamps() throws DotDataException {
+
+        final Map<String, String> stamps = new HashMap<>();
+        for (final Map.Entry<String, String> query : STAMP_QUERIES.entrySet()) {
+
+            final List<Map<String, Object>> results = new DotConnect().setSQL(query.getValue()).loadObjectResults();
+            final Map<String, Object> row = results.isEmpty() ? ImmutableMap.<String, Object>of() : results.get(0);
+            stamps.put(query.getKey(), row.get("row_count") + "_" + row.get("last_mod"));
+        }
+        return stamps;
+    }
+
+    private File getSnapshotDirectory() {
+
+        return new File(Config.getStringProperty(CACHE_WARMSTART_PATH,
+                APILocator.getFileAssetAPI().getRealAssetsRootPath() + File.separator + "server"
+                        + File.separator + "cache_snapshot"));
+    }
+
+    private long getMaxAgeMillis() {
+        return TimeUnit.SECONDS.toMillis(Config.getIntProperty(CACHE_WARMSTART_MAX_AGE_SECONDS, 1800));
+    }
+
+    private File findLatestSnapshot() {
+
+        final File[] snapshots = getSnapshotDirectory().listFiles((dir, name) -> name.endsWith(SNAPSHOT_SUFFIX));
+        File latest = null;
+        if (snapshots != null) {
+            for (final File snapshot : snapshots) {
+                if (latest == null || snapshot.lastModified() > latest.lastModified()) {
+                    latest = snapshot;
+                }
+            }
+        }
+
+        return latest != null && latest.lastModified() + getMaxAgeMillis() > System.currentTimeMillis()
+                ? latest : null;
+    }
+
+    /**
+     * The snapshots of the nodes that are gone are never replaced, they are removed once they are well past the
+     * max age
+     */
+    private void deleteExpiredSnapshots(final File directory) {
+
+        final long expired = System.currentTimeMillis() - getMaxAgeMillis() * 10;
+        final File[] snapshots = directory.listFiles((dir, name) -> name.endsWith(SNAPSHOT_SUFFIX));
+        if (snapshots != null) {
+            for (final File snapshot : snapshots) {
+                if (snapshot.lastModified() < expired) {
+                    snapshot.delete();
+                }
+            }
+        }
+    }
+
+    private byte[] serialize(final Object value, final int maxBytes) {
+
+        if (!(value instanceof Serializable)) {
+            return null;
+        }
+
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(value);
+            }
+            return bytes.size() <= maxBytes ? bytes.toByteArray() : null;
+        } catch (IOException | RuntimeException e) {
+            Logger.debug(this, "Unable to serialize " + value.getClass() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Object deserialize(final byte[] value) {
+
+        try (final ObjectInputStream in = new SnapshotObjectInputStream(new ByteArrayInputStream(value))) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            Logger.debug(this, "Unable to deserialize a cache warm start entry: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isAllowed(final String className) {
+
+        // arrays are named like [Ljava.lang.String; or [B
+        final String elementClassName = className.replaceFirst("^\\[+L?", "").replaceFirst(";$", "");
+        if (elementClassName.length() == 1) {
+            return true; // array of primitives
+        }
+
+        if (elementClassName.startsWith(REPACKAGED_PACKAGE)) {
+            return false;
+        }
+
+        for (final String allowedPackage : ALLOWED_PACKAGES) {
+            if (elementClassName.startsWith(allowedPackage)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Reads the modification stamp of every group that can be warmed
+     */
+    @FunctionalInterface
+    interface StampReader {
+        Map<String, String> read() throws DotDataException;
+    }
+
+    /**
+     * Refuses the classes out of the {@link #ALLOWED_PACKAGES} and the proxies, so a snapshot dropped on the shared
+     * directory can not instantiate arbitrary classes of the classpath
+     */
+    private static class SnapshotObjectInputStream extends ObjectInputStream {
+
+        private SnapshotObjectInputStream(final InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+
+            if (!isAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "not allowed on a cache warm start snapshot");
+            }
+
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException {
+            throw new InvalidClassException("proxy", "not allowed on a cache warm start snapshot");
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.function.Consumer;
 
 import org.apache.commons.collections.map.LRUMap;
 import org.apache.commons.lang.StringUtils;
@@ -28,6 +29,7 @@ import org.apache.commons.lang.StringUtils;
 import com.dotcms.business.CloseDBIfOpened;
 import com.dotcms.business.WrapInTransaction;
 import com.dotmarketing.db.DbConnectionFactory;
+import com.dotmarketing.db.ReadReplicaRouter;
 import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.exception.DotRuntimeException;
 import com.dotmarketing.util.Config;
@@ -45,6 +47,11 @@ import com.dotmarketing.util.json.JSONObject;
  */
 public class DotConnect {
 
+    /**
+     * Default fetch size of {@link #streamResults(RowMapper, Consumer)}
+     */
+    public static final String DOTCONNECT_STREAM_FETCH_SIZE = "DOTCONNECT_STREAM_FETCH_SIZE";
+
     private static Map<Connection, Map<String, PreparedStatement>> stmts = new LRUMap(200);
 
     ArrayList<Object> paramList;
@@ -237,7 +244,7 @@ public class DotConnect {
     }
 
     public boolean executeStatement(String sql) throws SQLException {
-        Connection conn = DbConnectionFactory.getConnection();
+        Connection conn = getWriteConnection();
         Statement stmt = conn.createStatement();
         Logger.info(this, "Executing " + sql);
         boolean ret = stmt.execute(sql);
@@ -518,10 +525,30 @@ public class DotConnect {
     }
 
     private void executeQuery() throws SQLException {
-        Connection conn = DbConnectionFactory.getConnection();
+        Connection conn = isSelect(SQL)? DbConnectionFactory.getConnection(): getWriteConnection();
         executeQuery(conn);
     }
 
+    /**
+     * Connection of the thread for a write. If the thread is reading from the read replica the replica connection is
+     * closed first, so the auto commit writes that do not start a transaction go to the primary as well (see
+     * {@link DbConnectionFactory#leaveReadReplica()}). An auto commit write is committed right away, so it is recorded
+     * for the read your writes window of the thread, the transactions record it on their commit.
+     */
+    private static Connection getWriteConnection() {
+
+        DbConnectionFactory.leaveReadReplica();
+        final Connection connection = DbConnectionFactory.getConnection();
+        if (!DbConnectionFactory.inTransaction()) {
+            ReadReplicaRouter.getInstance().recordWrite();
+        }
+        return connection;
+    }
+
+    private static boolean isSelect(final String sql) {
+        return null != sql && sql.trim().toLowerCase().startsWith("select");
+    }
+
     private void executeQuery(String dataSource) throws SQLException {
         Connection conn = DbConnectionFactory.getConnection(dataSource);
         executeQuery(conn);
@@ -596,14 +623,7 @@ public class DotConnect {
 
                 // statement.setMaxRows(maxRows);
                 Logger.debug(this, "SQL = " + statement.toString());
-                for (int i = 0; i < paramList.size(); i++) {
-                    Object param = paramList.get(i);
-                    if (param != null && statementSetterHandlerMap.containsKey(param.getClass())) {
-                        statementSetterHandlerMap.get(param.getClass()).execute(statement, i + 1, param);
-                    } else {
-                        statement.setObject(i + 1, paramList.get(i));
-                    }
-                }
+                setQueryParams(statement);
                 if (!starter.toLowerCase().trim().contains("select")) { // if it is NOT a read operation
                     beforeQueryExecution = System.nanoTime();
                     statement.execute();
@@ -736,6 +756,160 @@ public class DotConnect {
 
     }
 
+    private void setQueryParams(final PreparedStatement statement) throws SQLException {
+
+        for (int i = 0; i < paramList.size(); i++) {
+            Object param = paramList.get(i);
+            if (param != null && statementSetterHandlerMap.containsKey(param.getClass())) {
+                statementSetterHandlerMap.get(param.getClass()).execute(statement, i + 1, param);
+            } else {
+                statement.setObject(i + 1, paramList.get(i));
+            }
+        }
+    }
+
+    /**
+     * Runs the select and hands the rows to the consumer one by one, as they are read from a forward only result set,
+     * instead of loading all of them in memory. The fetch size is taken from {@code DOTCONNECT_STREAM_FETCH_SIZE}.
+     * <p>
+     * Inside a transaction the select runs on the connection of the transaction. Outside of it, on Postgres (where the
+     * rows are only fetched in windows inside a transaction) the select runs on a connection of its own, in a read
+     * only transaction rolled back at the end; the connection of the thread is left untouched, so whatever the consumer
+     * writes is committed as usual.
+     *
+     * @param rowMapper {@link RowMapper} maps each row
+     * @param consumer  {@link Consumer} receives each mapped row
+     * @return long number of rows read
+     * @throws DotDataException
+     * @see #streamResults(Connection, int, RowMapper, Consumer)
+     */
+    @CloseDBIfOpened
+    public <T> long streamResults(final RowMapper<T> rowMapper, final Consumer<T> consumer) throws DotDataException {
+
+        final int fetchSize = Config.getIntProperty(DOTCONNECT_STREAM_FETCH_SIZE, 500);
+
+        if (DbConnectionFactory.isPostgres() && !DbConnectionFactory.inTransaction()) {
+
+            return this.streamResultsOnOwnConnection(fetchSize, rowMapper, consumer);
+        }
+
+        return this.streamResults(DbConnectionFactory.getConnection(), fetchSize, rowMapper, consumer);
+    }
+
+    private <T> long streamResultsOnOwnConnection(final int fetchSize, final RowMapper<T> rowMapper,
+                                                  final Consumer<T> consumer) throws DotDataException {
+
+        try (Connection connection = DbConnectionFactory.getDataSource().getConnection()) {
+
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try {
+                return this.streamResults(connection, fetchSize, rowMapper, consumer);
+            } finally {
+                connection.rollback();
+                connection.setReadOnly(false);
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+
+            Logger.error(this, "Error streaming the results of: " + SQL + ", error: " + e.getMessage(), e);
+            throw new DotDataException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Same as {@link #streamResults(RowMapper, Consumer)} but the rows are handed as the maps of
+     * {@link #loadObjectResults()}, lower case column labels to values. Only one map is alive at a time unless the
+     * consumer keeps them.
+     *
+     * @param consumer {@link Consumer} receives each row
+     * @return long number of rows read
+     * @throws DotDataException
+     */
+    @CloseDBIfOpened
+    public long streamObjectResults(final Consumer<Map<String, Object>> consumer) throws DotDataException {
+
+        return this.streamResults(DotConnect::mapObjectRow, consumer);
+    }
+
+    /**
+     * Runs the select on the connection and hands the rows to the consumer one by one. The statement is forward only and
+     * read only and has the given fetch size, so the driver keeps just a window of rows in memory:
+     * <ul>
+     *     <li>On Postgres the rows are only fetched in windows inside a transaction, on a connection in auto commit
+     *     the driver loads all of them.</li>
+     *     <li>On MySQL the fetch size is honored only if {@code useCursorFetch=true} is set on the JDBC url.</li>
+     * </ul>
+     * The start row and max rows of this object are honored, the params are set the same way as
+     * {@link #loadObjectResults()}. The auto commit and the transaction of the connection are left as they are.
+     *
+     * @param connection {@link Connection}
+     * @param fetchSize  int number of rows fetched from the database on each round trip
+     * @param rowMapper  {@link RowMapper} maps each row
+     * @param consumer   {@link Consumer} receives each mapped row
+     * @return long number of rows read
+     * @throws DotDataException
+     */
+    public <T> long streamResults(final Connection connection, final int fetchSize, final RowMapper<T> rowMapper,
+                                  final Consumer<T> consumer) throws DotDataException {
+
+        try (PreparedStatement statement = connection.prepareStatement(SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            statement.setFetchSize(Math.max(1, fetchSize));
+            if (maxRows > 0) {
+                statement.setMaxRows(startRow + maxRows);
+            }
+
+            setQueryParams(statement);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+
+                int skipped = 0;
+                while (skipped < startRow && resultSet.next()) {
+                    skipped++;
+                }
+
+                int rowNumber = 0;
+                while (resultSet.next()) {
+
+                    consumer.accept(rowMapper.mapRow(resultSet, rowNumber++));
+                }
+
+                return rowNumber;
+            }
+        } catch (SQLException e) {
+
+            Logger.error(this, "Error streaming the results of: " + SQL + ", params: " + paramList + ", error: "
+                    + e.getMessage(), e);
+            throw new DotDataException(e.getMessage(), e);
+        }
+    } // streamResults.
+
+    private static Map<String, Object> mapObjectRow(final ResultSet resultSet, final int rowNumber) throws SQLException {
+
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        final Map<String, Object> row    = new HashMap<>(metaData.getColumnCount() + 2);
+
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+
+            final Object value = resultSet.getObject(i);
+            final String label = metaData.getColumnLabel(i).toLowerCase();
+
+            if (value instanceof java.sql.Clob) {
+                row.put(label, resultSet.getString(i));
+            } else if (DbConnectionFactory.isOracle() && value instanceof oracle.sql.TIMESTAMP) {
+                row.put(label, new Date(((oracle.sql.TIMESTAMP) value).timestampValue().getTime()));
+            } else {
+                row.put(label, value);
+            }
+        }
+
+        row.put("rownumber", rowNumber);
+        row.put("oddoreven", rowNumber % 2);
+        return row;
+    }
+
     /**
      * Returns the correct Concatenation SQL syntax for a particular RDBMS
      * 
@@ -1056,7 +1230,7 @@ public class DotConnect {
 
         try {
 
-            conn = DbConnectionFactory.getConnection();
+            conn = getWriteConnection();
             preparedStatement = conn.prepareStatement(sql);
 
             if (null != listOfParams) {
@@ -1157,7 +1331,7 @@ public class DotConnect {
 
     public int executeUpdate(final String preparedStatement, Boolean logException, final Object... parameters) throws DotDataException {
 
-        return this.executeUpdate(DbConnectionFactory.getConnection(), preparedStatement, logException, parameters);
+        return this.executeUpdate(getWriteConnection(), preparedStatement, logException, parameters);
 
     } // executeUpdate.
 
@@ -0,0 +1,23 @@
+package com.dotmarketing.common.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a {@link ResultSet} to an object, used by {@link DotConnect#streamResults(RowMapper, java.util.function.Consumer)}
+ * to read the rows one by one instead of loading all of them as maps.
+ * The mapper must not move the cursor of the result set.
+ * @param <T>
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row
+     * @param resultSet ResultSet positioned on the row to map
+     * @param rowNumber int zero based number of the row
+     * @return T
+     * @throws SQLException
+     */
+    T mapRow(final ResultSet resultSet, final int rowNumber) throws SQLException;
+}
@@ -11,6 +11,7 @@ public class ReindexEntry {
     private String serverId;
     private String lastResult;
     private Date timeEntered;
+    private ReindexQueueFactory.ReindexAction partialUpdate;
     
     public Date getTimeEntered() {
         return timeEntered;
@@ -117,8 +118,28 @@ public class ReindexEntry {
         return this;
     }
 
+    /**
+     * @return the partial update to apply instead of the full reindex, null for a full reindex
+     */
+    public ReindexQueueFactory.ReindexAction getPartialUpdate() {
+        return partialUpdate;
+    }
+
+    /**
+     * @param partialUpdate {@link ReindexQueueFactory.ReindexAction#PERMISSIONS} or
+     *                      {@link ReindexQueueFactory.ReindexAction#LOCATION}, null for a full reindex
+     */
+    public ReindexEntry setPartialUpdate(ReindexQueueFactory.ReindexAction partialUpdate) {
+        this.partialUpdate = partialUpdate;
+        return this;
+    }
+
+    public boolean isPartialUpdate() {
+        return !delete && partialUpdate != null && partialUpdate.isPartial();
+    }
+
     public int errorCount() {
-        return this.getPriority() % 100;
+        return this.getPriority() % 50;
     }
 
     @Override
@@ -161,7 +182,7 @@ public class ReindexEntry {
     @Override
     public String toString() {
         return "IndexJournal [id=" + id + ", identToIndex=" + identToIndex + ", priority=" + priority + ", delete=" + delete + ", serverId="
-                + serverId + "]";
+                + serverId + ", partialUpdate=" + partialUpdate + "]";
     }
 
 }
@@ -118,6 +118,34 @@ public interface ReindexQueueAPI {
      */
     public void refreshContentUnderFolderPath(String hostId, String folderPath) throws DotDataException;
 
+    /**
+     * Updates only the permissions of the indexed content under a given host, used when the permissions of the host
+     * change
+     *
+     * @param host - Host object
+     * @throws DotDataException
+     */
+    public void refreshContentPermissionsUnderHost(Host host) throws DotDataException;
+
+    /**
+     * Updates only the permissions of the indexed content under a given folder, used when the permissions of the
+     * folder change
+     *
+     * @param folder - Folder object
+     * @throws DotDataException
+     */
+    public void refreshContentPermissionsUnderFolder(Folder folder) throws DotDataException;
+
+    /**
+     * Updates only the location fields (host, folder, path) of the indexed content under a given folder path, used
+     * when a folder is renamed
+     *
+     * @param hostId
+     * @param folderPath
+     * @throws DotDataException
+     */
+    public void refreshContentLocationUnderFolderPath(String hostId, String folderPath) throws DotDataException;
+
     /**
      * Adds an identifier to be reindexed
      * 
@@ -119,6 +119,24 @@ public class ReindexQueueAPIImpl implements ReindexQueueAPI {
         reindexQueueFactory.refreshContentUnderFolderPath(hostId, folderPath);
     }
 
+    @Override
+    @WrapInTransaction
+    public void refreshContentPermissionsUnderHost(final Host host) throws DotDataException {
+        reindexQueueFactory.refreshContentPermissionsUnderHost(host);
+    }
+
+    @Override
+    @WrapInTransaction
+    public void refreshContentPermissionsUnderFolder(final Folder folder) throws DotDataException {
+        reindexQueueFactory.refreshContentPermissionsUnderFolder(folder);
+    }
+
+    @Override
+    @WrapInTransaction
+    public void refreshContentLocationUnderFolderPath(final String hostId, final String folderPath) throws DotDataException {
+        reindexQueueFactory.refreshContentLocationUnderFolderPath(hostId, folderPath);
+    }
+
     @Override
     @CloseDBIfOpened
     public List<ReindexEntry> getFailedReindexRecords() throws DotDataException {
@@ -54,15 +54,34 @@ public class ReindexQueueFactory {
       return queue;
     }
     
+    /**
+     * Priorities are 50 apart, the failed attempts of an entry are added to its priority
+     * (see {@link ReindexEntry#errorCount()})
+     */
     public enum Priority {
-        ASAP, NORMAL, STRUCTURE, REINDEX, ERROR;
+        ASAP(0), NORMAL(100), PARTIAL(150), STRUCTURE(200), REINDEX(300), ERROR(400);
+
+        private final int dbValue;
+
+        Priority(final int dbValue) {
+            this.dbValue = dbValue;
+        }
+
         public int dbValue() {
-            return this.ordinal() * 100;
+            return this.dbValue;
         }
     }
 
+    /**
+     * PERMISSIONS and LOCATION are partial updates: only the permissions or the location fields (host, folder, path)
+     * of the documents already indexed are updated, the contentlet is not mapped again
+     */
     public enum ReindexAction {
-        NONE, REINDEX, DELETE;
+        NONE, REINDEX, DELETE, PERMISSIONS, LOCATION;
+
+        public boolean isPartial() {
+            return this == PERMISSIONS || this == LOCATION;
+        }
     }
     
 
@@ -150,18 +169,14 @@ public class ReindexQueueFactory {
 
         dc.setSQL("SELECT id, ident_to_index, priority, index_val, time_entered FROM dist_reindex_journal WHERE priority >= ?");
         dc.addParam(ReindexQueueFactory.Priority.REINDEX.dbValue());
-        List<Map<String, Object>> failedRecords = dc.loadObjectResults();
-        List<ReindexEntry> failed = new ArrayList<>();
-        for (Map<String, Object> map : failedRecords) {
-            ReindexEntry ridx = new ReindexEntry()
-                    .setId(Long.parseLong((String) map.get("id")))
-                    .setIdentToIndex((String) map.get("ident_to_index"))
-                    .setPriority(Integer.parseInt((String) map.get("priority")))
-                    .setTimeEntered((Date) map.get("time_entered"))
-                    .setLastResult((String) map.get("index_val"));
-            failed.add(ridx);
+        final List<ReindexEntry> failed = new ArrayList<>();
+        dc.streamResults((rs, rowNumber) -> new ReindexEntry()
+                    .setId(rs.getLong("id"))
+                    .setIdentToIndex(rs.getString("ident_to_index"))
+                    .setPriority(rs.getInt("priority"))
+                    .setTimeEntered(rs.getTimestamp("time_entered"))
+                    .setLastResult(rs.getString("index_val")), failed::add);
 
-        }
         return failed;
 
     }
@@ -208,10 +223,19 @@ public class ReindexQueueFactory {
                 (idx.errorCount() >= REINDEX_MAX_FAILURE_ATTEMPTS) ? Priority.ERROR.dbValue() + idx.getPriority() : (1 + idx.getPriority());
 
         DotConnect dc = new DotConnect();
-        dc.setSQL("UPDATE dist_reindex_journal set serverid=null, priority = ? , index_val = ? where id= ?");
-        dc.addParam(newPriority);
-        dc.addParam(cause);
-        dc.addParam(idx.getId());
+        if (idx.isPartialUpdate()) {
+            // i.e. the document is not in the index yet, the retry indexes the whole contentlet
+            dc.setSQL("UPDATE dist_reindex_journal set serverid=null, priority = ? , index_val = ?, dist_action = ? where id= ?");
+            dc.addParam(newPriority);
+            dc.addParam(cause);
+            dc.addParam(ReindexAction.REINDEX.ordinal());
+            dc.addParam(idx.getId());
+        } else {
+            dc.setSQL("UPDATE dist_reindex_journal set serverid=null, priority = ? , index_val = ? where id= ?");
+            dc.addParam(newPriority);
+            dc.addParam(cause);
+            dc.addParam(idx.getId());
+        }
         dc.loadResult();
     }
 
@@ -226,7 +250,7 @@ public class ReindexQueueFactory {
     }
 
     for (ReindexEntry entry; (entry = queue.poll()) != null;) {
-      contentToIndex.put(entry.getIdentToIndex(), entry);
+      contentToIndex.merge(entry.getIdentToIndex(), entry, this::mergeEntries);
       if (contentToIndex.size() >= recordsToReturn)
         break;
     }
@@ -234,6 +258,20 @@ public class ReindexQueueFactory {
     return contentToIndex;
   }
 
+    /**
+     * All the entries of an identifier are removed once it is indexed, so a partial update can not take the place of
+     * a full reindex or delete of the same identifier, and two different partial updates become a full reindex
+     */
+    private ReindexEntry mergeEntries(final ReindexEntry current, final ReindexEntry entry) {
+      if (!current.isPartialUpdate() && entry.isPartialUpdate()) {
+        return current;
+      }
+      if (current.isPartialUpdate() && entry.isPartialUpdate() && current.getPartialUpdate() != entry.getPartialUpdate()) {
+        return entry.setPartialUpdate(null);
+      }
+      return entry;
+    }
+
     private static long lastIdIndexed=0;
 
     @VisibleForTesting
@@ -285,7 +323,11 @@ public class ReindexQueueFactory {
       String identifier = (String) map.get("ident_to_index");
       entry.setIdentToIndex(identifier);
       entry.setPriority(((Number) (map.get("priority"))).intValue());
-      entry.setDelete(((Number) (map.get("dist_action"))).intValue() == ReindexAction.DELETE.ordinal());
+      final int action = ((Number) (map.get("dist_action"))).intValue();
+      entry.setDelete(action == ReindexAction.DELETE.ordinal());
+      if (action == ReindexAction.PERMISSIONS.ordinal() || action == ReindexAction.LOCATION.ordinal()) {
+        entry.setPartialUpdate(ReindexAction.values()[action]);
+      }
       return entry;
       
     }
@@ -339,6 +381,49 @@ public class ReindexQueueFactory {
         dc.loadResult();
     }
 
+    protected void refreshContentPermissionsUnderHost(final Host host) throws DotDataException {
+        String sql = " INSERT INTO dist_reindex_journal(inode_to_index,ident_to_index,priority,dist_action) " + " SELECT id, id, ?, ? "
+                + " FROM identifier " + " WHERE asset_type='contentlet' and identifier.host_inode=?";
+        final DotConnect dc = new DotConnect();
+        dc.setSQL(sql);
+        dc.addParam(Priority.PARTIAL.dbValue());
+        dc.addParam(ReindexAction.PERMISSIONS.ordinal());
+        dc.addParam(host.getIdentifier());
+        dc.loadResult();
+
+        sql = " INSERT INTO dist_reindex_journal(inode_to_index,ident_to_index,priority,dist_action) " + " SELECT asset_id, asset_id, ?, ? "
+                + " FROM permission_reference " + " WHERE reference_id=?";
+        dc.setSQL(sql);
+        dc.addParam(Priority.PARTIAL.dbValue());
+        dc.addParam(ReindexAction.PERMISSIONS.ordinal());
+        dc.addParam(host.getIdentifier());
+        dc.loadResult();
+    }
+
+    protected void refreshContentPermissionsUnderFolder(final Folder folder) throws DotDataException {
+        final String folderPath = APILocator.getIdentifierAPI().find(folder).getPath();
+        addPartialReindexUnderFolderPath(folder.getHostId(), folderPath, ReindexAction.PERMISSIONS);
+    }
+
+    protected void refreshContentLocationUnderFolderPath(final String hostId, final String folderPath) throws DotDataException {
+        addPartialReindexUnderFolderPath(hostId, folderPath, ReindexAction.LOCATION);
+    }
+
+    private void addPartialReindexUnderFolderPath(final String hostId, final String folderPath, final ReindexAction action)
+            throws DotDataException {
+        final String sql = " INSERT INTO dist_reindex_journal(inode_to_index,ident_to_index,priority,dist_action) "
+                + " SELECT distinct identifier.id, identifier.id, ?, ? "
+                + " FROM contentlet join identifier ON contentlet.identifier=identifier.id "
+                + " WHERE identifier.host_inode=? AND identifier.parent_path LIKE ? ";
+        DotConnect dc = new DotConnect();
+        dc.setSQL(sql);
+        dc.addParam(Priority.PARTIAL.dbValue());
+        dc.addParam(action.ordinal());
+        dc.addParam(hostId);
+        dc.addParam(folderPath + "%");
+        dc.loadResult();
+    }
+
     protected void addIdentifierReindex(final String identifier, final int priority) throws DotDataException {
 
         addIdentifierReindex(ImmutableList.of(identifier), priority);
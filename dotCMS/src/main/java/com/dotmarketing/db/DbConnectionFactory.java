@@ -171,8 +171,9 @@ public class DbConnectionFactory {
             connection = connectionsList.get(Constants.DATABASE_DEFAULT_DATASOURCE);
 
             if (connection == null || connection.isClosed()) {
-                DataSource db = getDataSource();
-                connection = db.getConnection();
+                final ReadReplicaRouter readReplicaRouter = ReadReplicaRouter.getInstance();
+                connection = readReplicaRouter.shouldRoute()?
+                        readReplicaRouter.getConnection(): getDataSource().getConnection();
                 connectionsList.put(Constants.DATABASE_DEFAULT_DATASOURCE, connection);
                 Logger.debug(DbConnectionFactory.class,
                     "Connection opened for thread " + Thread.currentThread().getId() + "-" +
@@ -639,6 +640,7 @@ public class DbConnectionFactory {
      * if there is not one already open - instead, it will return false
      */
     public static boolean startTransactionIfNeeded() throws DotDataException {
+        leaveReadReplica();
         boolean startTransaction = !inTransaction();
 
         try {
@@ -652,11 +654,31 @@ public class DbConnectionFactory {
         return startTransaction;
     }
 
+    /**
+     * If the current thread is reading from the read replica ({@link ReadReplicaRouter}) closes the replica connection
+     * and sends the rest of the read only work to the primary. Called before a transaction is started, the writes never
+     * go to the replica.
+     */
+    public static void leaveReadReplica() {
+
+        final ReadReplicaRouter readReplicaRouter = ReadReplicaRouter.getInstance();
+        if (readReplicaRouter.isEnabled() && readReplicaRouter.pinToPrimary() && connectionExists()) {
+
+            final Map<String, Connection> connectionsMap = connectionsHolder.get();
+            if (readReplicaRouter.isReplicaConnection(connectionsMap.get(Constants.DATABASE_DEFAULT_DATASOURCE))) {
+
+                Logger.debug(DbConnectionFactory.class, "Leaving the read replica for thread " + Thread.currentThread().getId());
+                closeSilently();
+            }
+        }
+    }
+
     public static void commit () throws DotDataException {
 
         try {
             if (inTransaction()) {
                 DbConnectionFactory.getConnection().commit();
+                ReadReplicaRouter.getInstance().recordWrite();
 
             }
         } catch (Exception e) {
@@ -668,6 +690,7 @@ public class DbConnectionFactory {
         try {
             if (inTransaction()) {
                 DbConnectionFactory.getConnection().commit();
+                ReadReplicaRouter.getInstance().recordWrite();
             }
             closeConnection();
         } catch (Exception e) {
@@ -1012,6 +1012,7 @@ public class HibernateUtil {
 				if (!session.connection().getAutoCommit()) {
 					Logger.debug(HibernateUtil.class, "Closing session. Commiting changes!");
 					session.connection().commit();
+					ReadReplicaRouter.getInstance().recordWrite();
 					session.connection().setAutoCommit(true);
 					if (!syncCommitListeners.get().isEmpty() || !asyncCommitListeners.get().isEmpty()) {
 						finalizeCommitListeners();
@@ -1114,6 +1115,7 @@ public class HibernateUtil {
 	}
 
 	public static void startTransaction()  throws DotHibernateException{
+		DbConnectionFactory.leaveReadReplica();
 		try{
 		/*
 		 * Transactions are now used by default
@@ -1147,6 +1149,7 @@ public class HibernateUtil {
 				if (!session.connection().getAutoCommit()) {
 					Logger.debug(HibernateUtil.class, "Closing session. Commiting changes!");
 					session.connection().commit();
+					ReadReplicaRouter.getInstance().recordWrite();
 					session.connection().setAutoCommit(true);
 					if (!asyncCommitListeners.get().isEmpty() || !syncCommitListeners.get().isEmpty()) {
 						finalizeCommitListeners();
@@ -1183,6 +1186,7 @@ public class HibernateUtil {
     	boolean startTransaction = false;
 
     	try {
+    		DbConnectionFactory.leaveReadReplica();
     		startTransaction = DbConnectionFactory.getConnection().getAutoCommit();
 			if(startTransaction){
 				HibernateUtil.startTransaction();
@@ -0,0 +1,297 @@
+package com.dotmarketing.db;
+
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.Logger;
+import com.dotmarketing.util.UtilMethods;
+import com.google.common.annotations.VisibleForTesting;
+import com.liferay.util.JNDIUtil;
+
+import javax.naming.InitialContext;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Routes the connections of the read only work to a secondary, read only, {@link DataSource} (a replica of the
+ * dotCMS database), so the reads that run outside of a transaction do not compete with the writes on the primary.
+ * <p>
+ * A method takes part of it by being annotated with {@code @CloseDBIfOpened(readOnly = true)}: when the method opens
+ * the connection of the thread (it is not called inside a transaction or with a connection already open) the
+ * connection is taken from the replica. As soon as something inside of the method starts a transaction the replica
+ * connection is closed and the rest of the method is pinned to the primary, so the writes and the reads after them
+ * go to the primary.
+ * <p>
+ * The replica is only used while its replication lag is below {@code DB_READ_REPLICA_MAX_LAG_SECONDS}, the lag is
+ * checked every {@code DB_READ_REPLICA_LAG_CHECK_SECONDS} with {@code DB_READ_REPLICA_LAG_QUERY} (a query that returns
+ * the lag in seconds, there is a default one for Postgres). If the lag can not be read the work goes to the primary.
+ * <p>
+ * A thread that has just committed a write ({@link #recordWrite()}: a transaction commit or an auto commit write) reads
+ * its own writes: its read only work goes to the primary for {@code DB_READ_REPLICA_WRITE_WINDOW_SECONDS} (by default
+ * the max lag plus the lag check interval, the time the replica may take to show the write). The window is kept per
+ * thread, so the writes of the background jobs do not keep the rest of the node off the replica; the changes made by
+ * the other threads and the other servers of the cluster are covered by the lag check.
+ * <p>
+ * Disabled by default, it is turned on by {@code DB_READ_REPLICA_ENABLED=true} and a data source bound to the JNDI
+ * name in {@code DB_READ_REPLICA_DATASOURCE} ({@code jdbc/dotCMSReadReplicaPool} by default).
+ */
+public class ReadReplicaRouter {
+
+    private static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private final ThreadLocal<ReadOnlyScope> scopeHolder = new ThreadLocal<>();
+    private final AtomicBoolean checkingLag = new AtomicBoolean(false);
+    private final DataSource replicaDataSource;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final long   lagCheckMillis;
+    private final long   writeWindowMillis;
+    private volatile double lastLagSeconds   = 0;
+    private volatile long   lastLagCheck     = 0;
+    private final ThreadLocal<Long> primaryOnlyUntil = ThreadLocal.withInitial(() -> 0L);
+
+    /**
+     * Private constructor for singleton creation.
+     */
+    private ReadReplicaRouter() {
+
+        this(lookupReplicaDataSource(),
+                Config.getStringProperty("DB_READ_REPLICA_LAG_QUERY", null),
+                Config.getIntProperty("DB_READ_REPLICA_MAX_LAG_SECONDS", 5),
+                Config.getIntProperty("DB_READ_REPLICA_LAG_CHECK_SECONDS", 5) * 1000L,
+                Config.getIntProperty("DB_READ_REPLICA_WRITE_WINDOW_SECONDS",
+                        Config.getIntProperty("DB_READ_REPLICA_MAX_LAG_SECONDS", 5)
+                                + Config.getIntProperty("DB_READ_REPLICA_LAG_CHECK_SECONDS", 5)) * 1000L);
+    }
+
+    @VisibleForTesting
+    ReadReplicaRouter(final DataSource replicaDataSource, final String lagQuery,
+                      final double maxLagSeconds, final long lagCheckMillis) {
+
+        this(replicaDataSource, lagQuery, maxLagSeconds, lagCheckMillis,
+                (long) (maxLagSeconds * 1000) + lagCheckMillis);
+    }
+
+    @VisibleForTesting
+    ReadReplicaRouter(final DataSource replicaDataSource, final String lagQuery,
+                      final double maxLagSeconds, final long lagCheckMillis, final long writeWindowMillis) {
+
+        this.replicaDataSource = replicaDataSource;
+        this.lagQuery          = lagQuery;
+        this.maxLagSeconds     = maxLagSeconds;
+        this.lagCheckMillis    = lagCheckMillis;
+        this.writeWindowMillis = writeWindowMillis;
+    }
+
+    /**
+     * Singleton holder using initialization on demand
+     */
+    private static class SingletonHolder {
+        private static final ReadReplicaRouter INSTANCE = new ReadReplicaRouter();
+    }
+
+    public static ReadReplicaRouter getInstance() {
+        return ReadReplicaRouter.SingletonHolder.INSTANCE;
+    }
+
+    /**
+     * True if there is a replica to route to
+     * @return boolean
+     */
+    public boolean isEnabled() {
+        return null != this.replicaDataSource;
+    }
+
+    /**
+     * Starts a read only scope on the current thread, the connections opened on it will be taken from the replica
+     * @return boolean true if the scope was started, in that case {@link #exitReadOnly()} must be called at the end
+     */
+    public boolean enterReadOnly() {
+
+        if (!this.isEnabled()) {
+            return false;
+        }
+
+        final ReadOnlyScope scope = this.scopeHolder.get();
+        if (null == scope) {
+            this.scopeHolder.set(new ReadOnlyScope());
+        } else {
+            scope.depth++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Ends the read only scope started by {@link #enterReadOnly()}
+     */
+    public void exitReadOnly() {
+
+        final ReadOnlyScope scope = this.scopeHolder.get();
+        if (null != scope && --scope.depth <= 0) {
+            this.scopeHolder.remove();
+        }
+    }
+
+    /**
+     * True if the connection about to be opened on the current thread has to be taken from the replica: the thread is
+     * on a read only scope, nothing on the scope has started a transaction, the thread has not committed a write during
+     * the write window and the replica is in sync
+     * @return boolean
+     */
+    public boolean shouldRoute() {
+
+        if (!this.isEnabled()) {
+            return false;
+        }
+
+        final ReadOnlyScope scope = this.scopeHolder.get();
+        return null != scope && !scope.pinnedToPrimary && !this.isInWriteWindow() && this.isReplicaInSync();
+    }
+
+    /**
+     * Records that the current thread has just committed a write (a transaction commit or an auto commit write): the
+     * replica may not show it yet, so the read only work of the thread goes to the primary for the write window
+     */
+    public void recordWrite() {
+
+        if (this.isEnabled() && this.writeWindowMillis > 0) {
+            this.primaryOnlyUntil.set(System.currentTimeMillis() + this.writeWindowMillis);
+        }
+    }
+
+    private boolean isInWriteWindow() {
+        return System.currentTimeMillis() < this.primaryOnlyUntil.get();
+    }
+
+    /**
+     * Opens a read only connection to the replica for the current scope
+     * @return Connection
+     * @throws SQLException
+     */
+    public Connection getConnection() throws SQLException {
+
+        final Connection connection = this.replicaDataSource.getConnection();
+        connection.setReadOnly(true);
+
+        final ReadOnlyScope scope = this.scopeHolder.get();
+        if (null != scope) {
+            scope.replicaConnection = connection;
+        }
+
+        Logger.debug(this, ()-> "Read replica connection opened for thread " + Thread.currentThread().getId());
+        return connection;
+    }
+
+    /**
+     * True if the connection was opened by {@link #getConnection()} on the current scope
+     * @param connection {@link Connection}
+     * @return boolean
+     */
+    public boolean isReplicaConnection(final Connection connection) {
+
+        final ReadOnlyScope scope = this.scopeHolder.get();
+        return null != scope && null != connection && connection == scope.replicaConnection;
+    }
+
+    /**
+     * Sends the rest of the current read only scope to the primary, called when a transaction is about to start
+     * @return boolean true if the thread is on a read only scope
+     */
+    public boolean pinToPrimary() {
+
+        final ReadOnlyScope scope = this.scopeHolder.get();
+        if (null == scope) {
+            return false;
+        }
+
+        scope.pinnedToPrimary = true;
+        return true;
+    }
+
+    /**
+     * Last replication lag read from the replica, in seconds
+     * @return double
+     */
+    public double getLastLagSeconds() {
+        return this.lastLagSeconds;
+    }
+
+    private boolean isReplicaInSync() {
+
+        final String query = this.getLagQuery();
+        if (!UtilMethods.isSet(query) || this.maxLagSeconds <= 0) {
+            return true;
+        }
+
+        if (System.currentTimeMillis() - this.lastLagCheck >= this.lagCheckMillis
+                && this.checkingLag.compareAndSet(false, true)) {
+
+            try {
+
+                this.lastLagSeconds = this.readLag(query);
+            } finally {
+
+                this.lastLagCheck = System.currentTimeMillis();
+                this.checkingLag.set(false);
+            }
+        }
+
+        return this.lastLagSeconds <= this.maxLagSeconds;
+    }
+
+    private double readLag(final String query) {
+
+        try (Connection connection = this.replicaDataSource.getConnection();
+             Statement statement   = connection.createStatement();
+             ResultSet resultSet   = statement.executeQuery(query)) {
+
+            final double lag = resultSet.next()? resultSet.getDouble(1): 0;
+            if (lag > this.maxLagSeconds) {
+                Logger.info(this, "The read replica is " + lag + " seconds behind, reading from the primary");
+            }
+
+            return lag;
+        } catch (SQLException e) {
+
+            Logger.warn(this, "Could not read the lag of the read replica, reading from the primary: " + e.getMessage());
+            return Double.MAX_VALUE;
+        }
+    }
+
+    private String getLagQuery() {
+
+        return null != this.lagQuery? this.lagQuery:
+                DbConnectionFactory.isPostgres()? POSTGRES_LAG_QUERY: null;
+    }
+
+    private static DataSource lookupReplicaDataSource() {
+
+        if (!Config.getBooleanProperty("DB_READ_REPLICA_ENABLED", false)) {
+            return null;
+        }
+
+        final String dataSourceName = Config.getStringProperty("DB_READ_REPLICA_DATASOURCE", "jdbc/dotCMSReadReplicaPool");
+        try {
+
+            final DataSource dataSource = (DataSource) JNDIUtil.lookup(new InitialContext(), dataSourceName);
+            Logger.info(ReadReplicaRouter.class, "Read only work will be routed to the read replica: " + dataSourceName);
+            return dataSource;
+        } catch (Exception e) {
+
+            Logger.warn(ReadReplicaRouter.class, "Could not get the read replica data source: " + dataSourceName
+                    + ", all the work will go to the primary: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static class ReadOnlyScope {
+
+        private int depth = 1;
+        private boolean pinnedToPrimary = false;
+        private Connection replicaConnection = null;
+    }
+} // E:O:F:ReadReplicaRouter.
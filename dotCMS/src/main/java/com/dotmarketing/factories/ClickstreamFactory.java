@@ -5,6 +5,7 @@ import java.net.InetAddress;
 import java.net.URLDecoder;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -14,6 +15,7 @@ import javax.servlet.http.HttpSession;
 
 import com.dotcms.business.CloseDBIfOpened;
 import com.dotcms.business.WrapInTransaction;
+import com.dotcms.concurrent.AsyncBatchWriter;
 import com.dotcms.util.HttpRequestDataUtil;
 import com.dotmarketing.beans.BrowserSniffer;
 import com.dotmarketing.beans.Clickstream;
@@ -23,7 +25,9 @@ import com.dotmarketing.beans.Host;
 import com.dotmarketing.beans.UserProxy;
 import com.dotmarketing.business.APILocator;
 import com.dotmarketing.business.DotStateException;
+import com.dotmarketing.db.DbConnectionFactory;
 import com.dotmarketing.db.HibernateUtil;
+import com.dotmarketing.db.LocalTransaction;
 import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.exception.DotHibernateException;
 import com.dotmarketing.listeners.ClickstreamListener;
@@ -51,6 +55,22 @@ public class ClickstreamFactory {
 
 	public static final String CLICKSTREAM_SESSION_ATTR_KEY = "clickstream";
 
+	private static final AsyncBatchWriter<Clickstream> CLICKSTREAM_WRITER = new AsyncBatchWriter<>("clickstream-writer",
+			Config.getIntProperty("CLICKSTREAM_ASYNC_QUEUE_SIZE", 10000),
+			Config.getIntProperty("CLICKSTREAM_ASYNC_BATCH_SIZE", 50),
+			Config.getLongProperty("CLICKSTREAM_ASYNC_MAX_DELAY_MILLIS", 5000),
+			clickstreams -> {
+				// after the shutdown the batches are written on the caller thread, its connection is left open
+				final boolean ownConnection = !DbConnectionFactory.connectionExists();
+				try {
+					writeClickstreams(clickstreams);
+				} finally {
+					if (ownConnection) {
+						DbConnectionFactory.closeSilently();
+					}
+				}
+			});
+
 	/**
 	 * Adds a new request to the stream of clicks. The HttpServletRequest is
 	 * converted to a ClickstreamRequest object and added to the clickstream.
@@ -192,29 +212,48 @@ public class ClickstreamFactory {
 	}
 
 	/**
-	 * This method forces a clickstream save
+	 * This method forces a clickstream save. The clickstream is queued and saved, with the rest of the clickstreams
+	 * that finished around the same time, by a background writer; if the writer is behind it is dropped instead of
+	 * making the caller wait. CLICKSTREAM_ASYNC_ENABLED=false saves it on the calling thread.
 	 *
 	 * @param stream
 	 */
-	@WrapInTransaction
 	public static void flushClickStream(Clickstream stream) {
 		if(Config.getBooleanProperty("ENABLE_CLICKSTREAM_TRACKING", false)){
 			
 			int minToLog = Config.getIntProperty("MIN_CLICKSTREAM_REQUESTS_TO_SAVE", 2);
 			
-			DatabaseClickstreamLogger dblogger = new DatabaseClickstreamLogger();
-			try {
-				if (stream != null 
-						&& stream.getClickstreamRequests() != null 
-						&& stream.getClickstreamRequests().size() >= minToLog) {
-					dblogger.log(stream);
+			if (stream != null
+					&& stream.getClickstreamRequests() != null
+					&& stream.getClickstreamRequests().size() >= minToLog) {
+
+				if (!Config.getBooleanProperty("CLICKSTREAM_ASYNC_ENABLED", true)) {
+					writeClickstreams(Collections.singletonList(stream));
+				} else if (!CLICKSTREAM_WRITER.offer(stream)) {
+					Logger.debug(ClickstreamFactory.class, "The clickstream writer is behind, clickstream dropped");
 				}
-			} catch (Exception e) {
-				Logger.error(ClickstreamListener.class, e.getMessage(), e);
 			}
 		}
 
 	}
+
+	/**
+	 * Returns the writer the clickstreams are saved through, to read its counters (dropped clickstreams on overload, etc)
+	 *
+	 * @return
+	 */
+	public static AsyncBatchWriter<Clickstream> getClickstreamWriter() {
+		return CLICKSTREAM_WRITER;
+	}
+
+	private static void writeClickstreams(List<Clickstream> clickstreams) {
+		try {
+			LocalTransaction.wrap(() -> new DatabaseClickstreamLogger().log(clickstreams));
+		} catch (Exception e) {
+			Logger.error(ClickstreamListener.class, e.getMessage(), e);
+		}
+	}
+
 	@WrapInTransaction
 	public static void save(Clickstream clickstream) {
 		try {
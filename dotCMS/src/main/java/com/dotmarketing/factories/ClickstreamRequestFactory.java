@@ -5,8 +5,14 @@
  */
 package com.dotmarketing.factories;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -19,6 +25,10 @@ import com.dotmarketing.business.APILocator;
 import com.dotmarketing.business.web.HostWebAPI;
 import com.dotmarketing.business.web.HostWebAPIImpl;
 import com.dotmarketing.business.web.WebAPILocator;
+import com.dotmarketing.common.db.DotConnect;
+import com.dotmarketing.common.db.Params;
+import com.dotmarketing.db.DbConnectionFactory;
+import com.dotmarketing.db.DbType;
 import com.dotmarketing.db.HibernateUtil;
 import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.exception.DotHibernateException;
@@ -31,6 +41,7 @@ import com.dotmarketing.util.WebKeys;
 import com.liferay.portal.PortalException;
 import com.liferay.portal.SystemException;
 import com.liferay.portal.model.User;
+import com.google.common.collect.ImmutableMap;
 
 /**
  * @author rocco
@@ -39,6 +50,23 @@ import com.liferay.portal.model.User;
 
 public class ClickstreamRequestFactory {
 
+	private static final String INSERT_REQUEST_COLUMNS = "clickstream_id, server_name, protocol, server_port, request_uri, "
+			+ "request_order, query_string, language_id, timestampper, host_id, associated_identifier";
+	private static final String INSERT_REQUEST_VALUES  = "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?";
+	private static final int    TIMESTAMP_PARAM        = 8;
+
+	/**
+	 * The id comes from a sequence on the dbs that use DotCMSSeq.hbm.xml, from an identity column on the rest
+	 */
+	private static final Map<DbType, String> INSERT_REQUEST_SQL = ImmutableMap.of(
+			DbType.POSTGRESQL, "insert into clickstream_request (clickstream_request_id, " + INSERT_REQUEST_COLUMNS
+					+ ") values (nextval('clickstream_request_seq'), " + INSERT_REQUEST_VALUES + ")",
+			DbType.ORACLE,     "insert into clickstream_request (clickstream_request_id, " + INSERT_REQUEST_COLUMNS
+					+ ") values (clickstream_request_seq.NEXTVAL, " + INSERT_REQUEST_VALUES + ")",
+			DbType.MYSQL,      "insert into clickstream_request (" + INSERT_REQUEST_COLUMNS + ") values (" + INSERT_REQUEST_VALUES + ")",
+			DbType.MSSQL,      "insert into clickstream_request (" + INSERT_REQUEST_COLUMNS + ") values (" + INSERT_REQUEST_VALUES + ")",
+			DbType.H2,         "insert into clickstream_request (" + INSERT_REQUEST_COLUMNS + ") values (" + INSERT_REQUEST_VALUES + ")");
+
 	private static LanguageAPI langAPI =  APILocator.getLanguageAPI();
 	
     public static ClickstreamRequest getClickstreamRequest(HttpServletRequest request, Date timestamp) {
@@ -90,6 +118,51 @@ public class ClickstreamRequestFactory {
 		}
     }
 
+    /**
+     * Inserts the new requests with a single JDBC batch, the ones that were already saved are updated by
+     * {@link #save(ClickstreamRequest)}
+     * @param clickstreamRequests
+     */
+    public static void saveAll(final List<ClickstreamRequest> clickstreamRequests) {
+
+        final List<Params> inserts = new ArrayList<>(clickstreamRequests.size());
+        for (final ClickstreamRequest clickstreamRequest : clickstreamRequests) {
+            if (clickstreamRequest.getClickstreamRequestId() > 0) {
+                save(clickstreamRequest);
+            } else {
+                inserts.add(new Params(clickstreamRequest.getClickstreamId(), clickstreamRequest.getServerName(),
+                        clickstreamRequest.getProtocol(), clickstreamRequest.getServerPort(),
+                        clickstreamRequest.getRequestURI(), clickstreamRequest.getRequestOrder(),
+                        clickstreamRequest.getQueryString(), clickstreamRequest.getLanguageId(),
+                        null != clickstreamRequest.getTimestamp()? new Timestamp(clickstreamRequest.getTimestamp().getTime()): null,
+                        clickstreamRequest.getHostId(), clickstreamRequest.getAssociatedIdentifier()));
+            }
+        }
+
+        if (inserts.isEmpty()) {
+            return;
+        }
+
+        try {
+            new DotConnect().executeBatch(INSERT_REQUEST_SQL.get(DbType.getDbType(DbConnectionFactory.getDBType())),
+                    inserts, ClickstreamRequestFactory::setInsertParams);
+        } catch (DotDataException e) {
+            Logger.error(ClickstreamRequestFactory.class, "saveAll: failed", e);
+            throw new DotRuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private static void setInsertParams(final PreparedStatement preparedStatement, final Params params) throws SQLException {
+
+        for (int i = 0; i < params.size(); ++i) {
+            if (null == params.get(i)) {
+                preparedStatement.setNull(i + 1, i == TIMESTAMP_PARAM? Types.TIMESTAMP : DbConnectionFactory.getDBStringType());
+            } else {
+                preparedStatement.setObject(i + 1, params.get(i));
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
 	public static java.util.List<ClickstreamRequest> getClickstreamRequestsByRequestURI(String requestUri) {
         HibernateUtil dh = new HibernateUtil(ClickstreamRequest.class);
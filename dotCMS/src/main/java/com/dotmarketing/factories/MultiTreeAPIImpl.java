@@ -681,6 +681,7 @@ public class MultiTreeAPIImpl implements MultiTreeAPI {
 
         CacheLocator.getMultiTreeCache()
                 .removePageMultiTrees(pageIdentifier);
+        CacheLocator.getContainerFragmentCache().remove(pageIdentifier);
 
         final Set<String> inodeSet = new HashSet<>();
         final List<ContentletVersionInfo> contentletVersionInfos = APILocator.getVersionableAPI()
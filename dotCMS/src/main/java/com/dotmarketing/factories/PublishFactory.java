@@ -341,6 +341,7 @@ public class PublishFactory {
 
         //Remove from block cache.
         CacheLocator.getBlockPageCache().remove(htmlPage);
+        CacheLocator.getContainerFragmentCache().remove(htmlPage.getIdentifier());
 
         return true;
     }
@@ -9,7 +9,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 
+import com.dotcms.storage.BinaryBlobStore;
 import com.dotmarketing.business.APILocator;
 import com.dotmarketing.business.DotStateException;
 import com.dotmarketing.exception.DotRuntimeException;
@@ -169,6 +171,15 @@ public abstract class ImageFilter implements ImageFilterIf {
 				return  new File(resultFilePath);
 			}
 			else{
+				// when the binaries are stored by content, the variants are shared by all the copies of the file and
+				// every filter of a chain keeps its result with the original blob
+				final BinaryBlobStore binaryBlobStore = BinaryBlobStore.getInstance();
+				final Optional<String> hash = binaryBlobStore.isEnabled() ? binaryBlobStore.getBlobHash(file) : Optional.empty();
+				if(hash.isPresent()){
+					String fileNameNoExt = this.getUniqueFileName(file, parameters, hash.get());
+					return binaryBlobStore.getVariantFile(hash.get(), fileNameNoExt + "." + fileExt);
+				}
+
 				try{
 					inode = RegEX.find(file.getCanonicalPath(), "[\\w]{8}(-[\\w]{4}){3}-[\\w]{12}").get(0).getMatch();
 				}
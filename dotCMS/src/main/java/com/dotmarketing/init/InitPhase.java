@@ -0,0 +1,83 @@
+package com.dotmarketing.init;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+
+/**
+ * One step of the dotCMS initialization, run by the {@link InitPhaseRunner} once all the phases it depends on have
+ * finished.
+ * <p>
+ * A required phase that fails stops the startup: the phases depending on it are skipped and the runner reports the
+ * error once the rest of the graph is done. A phase that is not required only logs its error and its dependents run
+ * anyway.
+ */
+public final class InitPhase {
+
+    /**
+     * The work done by a phase
+     */
+    @FunctionalInterface
+    public interface Action {
+
+        void run() throws Exception;
+    }
+
+    private final String       name;
+    private final List<String> dependencies;
+    private final boolean      required;
+    private final Action       action;
+
+    private InitPhase(final String name, final List<String> dependencies, final boolean required,
+            final Action action) {
+
+        this.name         = name;
+        this.dependencies = dependencies;
+        this.required     = required;
+        this.action       = action;
+    }
+
+    /**
+     * Creates a phase that stops the startup if it fails
+     *
+     * @param name         unique name of the phase, shown in the startup report
+     * @param action       the work to do
+     * @param dependencies names of the phases that must finish before this one starts
+     * @return InitPhase
+     */
+    public static InitPhase required(final String name, final Action action, final String... dependencies) {
+        return new InitPhase(name, ImmutableList.copyOf(dependencies), true, action);
+    }
+
+    /**
+     * Creates a phase whose failure is logged but does not stop the startup
+     *
+     * @param name         unique name of the phase, shown in the startup report
+     * @param action       the work to do
+     * @param dependencies names of the phases that must finish before this one starts
+     * @return InitPhase
+     */
+    public static InitPhase optional(final String name, final Action action, final String... dependencies) {
+        return new InitPhase(name, ImmutableList.copyOf(dependencies), false, action);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    @Override
+    public String toString() {
+        return "InitPhase{name='" + name + "', dependencies=" + dependencies + ", required=" + required + '}';
+    }
+}
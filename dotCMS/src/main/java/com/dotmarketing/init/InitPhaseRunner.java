@@ -0,0 +1,163 @@
+package com.dotmarketing.init;
+
+import com.dotmarketing.db.DbConnectionFactory;
+import com.dotmarketing.exception.DotRuntimeException;
+import com.dotmarketing.init.StartupReport.Status;
+import com.dotmarketing.util.Logger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a graph of {@link InitPhase}s: every phase starts as soon as the phases it depends on have finished, so the
+ * independent ones run concurrently on a small pool of threads.
+ * <p>
+ * A phase can only depend on phases added before it, which keeps the graph free of cycles and makes the order the
+ * phases were added in a valid sequential order, used when the runner is not parallel.
+ * <p>
+ * The Hibernate session and the database connection are bound to the thread, so every phase run on the pool closes
+ * the ones it opened when it finishes.
+ */
+public class InitPhaseRunner {
+
+    private static final String THREAD_NAME_FORMAT = "init_phase_thread_%d";
+
+    private final Map<String, InitPhase> phases = new LinkedHashMap<>();
+    private final boolean parallel;
+    private final int     threads;
+
+    /**
+     * @param parallel true to run the independent phases concurrently, false to run them one after another in the
+     *                 order they were added
+     * @param threads  size of the pool used when running in parallel
+     */
+    public InitPhaseRunner(final boolean parallel, final int threads) {
+        this.parallel = parallel && threads > 1;
+        this.threads  = Math.max(threads, 1);
+    }
+
+    /**
+     * Adds a phase to the graph
+     *
+     * @param phase the phase
+     * @return this runner
+     * @throws IllegalArgumentException if the name is already taken or a dependency has not been added yet
+     */
+    public InitPhaseRunner add(final InitPhase phase) {
+
+        if (phases.containsKey(phase.getName())) {
+            throw new IllegalArgumentException("Duplicated init phase: " + phase.getName());
+        }
+        for (final String dependency : phase.getDependencies()) {
+            if (!phases.containsKey(dependency)) {
+                throw new IllegalArgumentException("Init phase " + phase.getName()
+                        + " depends on " + dependency + " which has not been added before it");
+            }
+        }
+        phases.put(phase.getName(), phase);
+        return this;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Runs all the phases and waits for them to finish, recording their timings into the {@link StartupReport}
+     *
+     * @throws DotRuntimeException with the error of the first required phase that failed, once all the phases that
+     *                             could run have finished
+     */
+    public void run() {
+
+        final ExecutorService executor = parallel ? Executors.newFixedThreadPool(threads, new InitPhaseThreadFactory())
+                : null;
+        final Map<String, CompletableFuture<Boolean>> futures = new LinkedHashMap<>();
+        final List<Throwable> failures = new ArrayList<>();
+
+        try {
+            for (final InitPhase phase : phases.values()) {
+
+                final List<CompletableFuture<Boolean>> dependencies = new ArrayList<>();
+                phase.getDependencies().forEach(name -> dependencies.add(futures.get(name)));
+
+                final CompletableFuture<Boolean> future = CompletableFuture
+                        .allOf(dependencies.toArray(new CompletableFuture[0]))
+                        .thenApplyAsync(ignored -> dependencies.stream().allMatch(CompletableFuture::join)
+                                ? execute(phase, failures) : skip(phase), parallel ? executor : Runnable::run);
+                futures.put(phase.getName(), future);
+            }
+
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+
+        synchronized (failures) {
+            if (!failures.isEmpty()) {
+                final Throwable failure = failures.get(0);
+                throw new DotRuntimeException(failure.getMessage(), failure);
+            }
+        }
+    }
+
+    /**
+     * @return false if the phase is required and failed, so its dependents are skipped
+     */
+    private boolean execute(final InitPhase phase, final List<Throwable> failures) {
+
+        final long start = System.currentTimeMillis();
+        Logger.debug(this, () -> "Running init phase: " + phase.getName());
+        try {
+            phase.getAction().run();
+            StartupReport.getInstance().record(StartupReport.PHASE, phase.getName(), start,
+                    System.currentTimeMillis() - start, Status.OK, null);
+            return true;
+        } catch (Throwable e) {
+            StartupReport.getInstance().record(StartupReport.PHASE, phase.getName(), start,
+                    System.currentTimeMillis() - start, Status.FAILED, e.getMessage());
+            if (!phase.isRequired()) {
+                Logger.error(this, "Init phase " + phase.getName() + " failed: " + e.getMessage(), e);
+                return true;
+            }
+
+            Logger.fatal(this, "Init phase " + phase.getName() + " failed: " + e.getMessage(), e);
+            synchronized (failures) {
+                failures.add(e);
+            }
+            return false;
+        } finally {
+            if (parallel) {
+                DbConnectionFactory.closeSilently();
+            }
+        }
+    }
+
+    private boolean skip(final InitPhase phase) {
+
+        Logger.warn(this, "Skipping init phase " + phase.getName() + ", one of its dependencies failed");
+        StartupReport.getInstance().record(StartupReport.PHASE, phase.getName(), System.currentTimeMillis(), 0,
+                Status.SKIPPED, null);
+        return false;
+    }
+
+    private static class InitPhaseThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName(String.format(THREAD_NAME_FORMAT, threadCount.getAndIncrement()));
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.dotmarketing.init;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Timings of the last startup of this node: how long each init phase of the
+ * {@link com.dotmarketing.servlets.InitServlet} and each startup task took, on which thread it ran and when it started
+ * relative to the start of the JVM, so the slow steps of the path to a ready node can be found.
+ */
+public class StartupReport {
+
+    public enum Status {
+        OK, FAILED, SKIPPED
+    }
+
+    public static final String PHASE      = "phase";
+    public static final String RUN_ALWAYS = "runAlways";
+    public static final String RUN_ONCE   = "runOnce";
+
+    private final long         jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final List<Timing> timings      = new CopyOnWriteArrayList<>();
+    private volatile long      startupTime  = -1;
+    private volatile boolean   parallel     = false;
+
+    private static class SingletonHolder {
+        private static final StartupReport INSTANCE = new StartupReport();
+    }
+
+    public static StartupReport getInstance() {
+        return StartupReport.SingletonHolder.INSTANCE;
+    }
+
+    private StartupReport() {}
+
+    /**
+     * Records a finished step
+     *
+     * @param type      {@link #PHASE}, {@link #RUN_ALWAYS} or {@link #RUN_ONCE}
+     * @param name      name of the phase or task
+     * @param startTime wall clock time the step started at
+     * @param duration  duration in milliseconds
+     * @param status    how it ended
+     * @param error     error message, null if it did not fail
+     */
+    public void record(final String type, final String name, final long startTime, final long duration,
+            final Status status, final String error) {
+
+        timings.add(new Timing(type, name, Thread.currentThread().getName(), startTime - jvmStartTime, duration,
+                status, error));
+    }
+
+    /**
+     * Marks the end of the startup
+     *
+     * @param parallel true if the init phases ran concurrently
+     */
+    public void finished(final boolean parallel) {
+        this.parallel    = parallel;
+        this.startupTime = ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    /**
+     * @return milliseconds from the start of the JVM to the end of the startup, -1 if it has not finished yet
+     */
+    public long getStartupTime() {
+        return startupTime;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public List<Timing> getTimings() {
+        return ImmutableList.copyOf(timings);
+    }
+
+    public Map<String, Object> toMap() {
+        return ImmutableMap.of(
+                "startupTime", startupTime,
+                "parallel", parallel,
+                "phases", toMaps(PHASE),
+                "runAlwaysTasks", toMaps(RUN_ALWAYS),
+                "runOnceTasks", toMaps(RUN_ONCE));
+    }
+
+    private List<Map<String, Object>> toMaps(final String type) {
+        return timings.stream().filter(timing -> timing.getType().equals(type)).map(Timing::toMap)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Timing of a single phase or startup task
+     */
+    public static class Timing implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String type;
+        private final String name;
+        private final String thread;
+        private final long   startOffset;
+        private final long   duration;
+        private final Status status;
+        private final String error;
+
+        Timing(final String type, final String name, final String thread, final long startOffset, final long duration,
+                final Status status, final String error) {
+
+            this.type        = type;
+            this.name        = name;
+            this.thread      = thread;
+            this.startOffset = startOffset;
+            this.duration    = duration;
+            this.status      = status;
+            this.error       = error;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * @return milliseconds from the start of the JVM to the start of the step
+         */
+        public long getStartOffset() {
+            return startOffset;
+        }
+
+        public long getDuration() {
+            return duration;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        Map<String, Object> toMap() {
+            final ImmutableMap.Builder<String, Object> map = ImmutableMap.<String, Object>builder()
+                    .put("name", name)
+                    .put("thread", thread)
+                    .put("startOffset", startOffset)
+                    .put("duration", duration)
+                    .put("status", status.name());
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map.build();
+        }
+
+        @Override
+        public String toString() {
+            return type + ':' + name + '{' + status + ", start=" + startOffset + "ms, duration=" + duration
+                    + "ms, thread=" + thread + '}';
+        }
+    }
+}
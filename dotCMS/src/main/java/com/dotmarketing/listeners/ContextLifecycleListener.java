@@ -1,5 +1,6 @@
 package com.dotmarketing.listeners;
 
+import com.dotcms.concurrent.AsyncBatchWriter;
 import com.dotcms.concurrent.DotConcurrentFactory;
 import com.dotcms.util.AsciiArt;
 import com.dotmarketing.business.CacheLocator;
@@ -41,6 +42,12 @@ public class ContextLifecycleListener implements ServletContextListener {
             Logger.error(this, "A error ocurred trying to shutdown the ReindexThread.");
         }
 
+        try {
+            AsyncBatchWriter.shutdownAll();
+        } catch (Exception e) {
+            Logger.error(this, "A error ocurred trying to shutdown the async batch writers.");
+        }
+
         try {
         	CacheLocator.getCacheAdministrator().shutdown();
         } catch (Exception e) {
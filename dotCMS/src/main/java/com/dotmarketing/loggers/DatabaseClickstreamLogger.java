@@ -1,17 +1,29 @@
 package com.dotmarketing.loggers;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import com.dotcms.concurrent.DotConcurrentFactory;
+import com.dotcms.concurrent.DotSubmitter;
 import com.dotmarketing.beans.Clickstream;
 import com.dotmarketing.beans.Clickstream404;
 import com.dotmarketing.beans.ClickstreamRequest;
+import com.dotmarketing.db.HibernateUtil;
+import com.dotmarketing.exception.DotHibernateException;
+import com.dotmarketing.exception.DotRuntimeException;
 import com.dotmarketing.factories.ClickstreamFactory;
 import com.dotmarketing.factories.ClickstreamRequestFactory;
+import com.dotmarketing.util.Config;
 import com.dotmarketing.util.DNSUtil;
+import com.dotmarketing.util.Logger;
 import com.dotmarketing.util.UtilMethods;
 
 /**
@@ -23,52 +35,111 @@ import com.dotmarketing.util.UtilMethods;
  */
 public class DatabaseClickstreamLogger implements ClickstreamLogger {
 
+	private static final String REVERSE_DNS_SUBMITTER = "clickstream-reverse-dns";
+
 	public void log(Clickstream clickstream) {
 		if (clickstream == null)
 			return;
 
-		
-		// try to build a reverse lookup
-		if(!UtilMethods.isSet(clickstream.getRemoteHostname()) && UtilMethods.isSet(clickstream.getRemoteAddress())){
-			String x = clickstream.getRemoteAddress();
-			try{
-				x = DNSUtil.reverseDns(clickstream.getRemoteAddress());
+		log(Collections.singletonList(clickstream));
+	}
+
+	/**
+	 * Saves a batch of clickstreams, their requests are inserted with a single JDBC batch.
+	 *
+	 * @param clickstreams the clickstreams that have finished
+	 */
+	public void log(List<Clickstream> clickstreams) {
+
+		resolveHostnames(clickstreams);
+
+		List<ClickstreamRequest> myStream = new ArrayList<ClickstreamRequest>();
+		for (Clickstream clickstream : clickstreams) {
+
+			/*
+			 * Save current clickstream
+			 */
+			clickstream.setLastSaved(new Date());
+			ClickstreamFactory.save(clickstream);
+
+			long clickStreamId = clickstream.getClickstreamId();
+			for(ClickstreamRequest myClickstreamRequest  : new ArrayList<ClickstreamRequest>(clickstream.getClickstreamRequests())){
+				myClickstreamRequest.setClickstreamId(clickStreamId);
+				myStream.add(myClickstreamRequest);
 			}
-			catch(Exception e){
-				
+
+			List<Clickstream404> my404Stream = new ArrayList<Clickstream404>();
+			my404Stream.addAll(clickstream.getClickstream404s());
+			for(Clickstream404 myClickstream404  : my404Stream){
+				ClickstreamFactory.save404(myClickstream404);
 			}
-			if(!clickstream.getRemoteAddress().equals(x)){
-				clickstream.setRemoteHostname(x);
+		}
+
+		// the clickstream rows have to be in the db before the requests that point to them
+		try {
+			HibernateUtil.flush();
+		} catch (DotHibernateException e) {
+			throw new DotRuntimeException(e.getMessage(), e);
+		}
+		ClickstreamRequestFactory.saveAll(myStream);
+
+		for (Clickstream clickstream : clickstreams) {
+			updateUser(clickstream);
+		}
+	}
+
+	/**
+	 * Sets the host name of the clickstreams that do not have one with a reverse lookup of their address. The
+	 * lookups run in parallel and the batch waits for them at most CLICKSTREAM_REVERSE_DNS_TIMEOUT_MILLIS, so a slow
+	 * DNS does not hold the clickstream writer; the clickstreams not resolved by then are saved with no host name.
+	 * CLICKSTREAM_REVERSE_DNS_ENABLED=false skips the lookups.
+	 *
+	 * @param clickstreams the clickstreams to save
+	 */
+	private void resolveHostnames(List<Clickstream> clickstreams) {
+
+		if (!Config.getBooleanProperty("CLICKSTREAM_REVERSE_DNS_ENABLED", true)) {
+			return;
+		}
+
+		final DotSubmitter submitter = DotConcurrentFactory.getInstance().getSubmitter(REVERSE_DNS_SUBMITTER);
+		final Map<String, Future<String>> lookups = new HashMap<String, Future<String>>();
+		for (Clickstream clickstream : clickstreams) {
+			if(!UtilMethods.isSet(clickstream.getRemoteHostname()) && UtilMethods.isSet(clickstream.getRemoteAddress())){
+				lookups.computeIfAbsent(clickstream.getRemoteAddress(),
+						address -> submitter.submit(() -> DNSUtil.reverseDns(address)));
 			}
 		}
-		
-		
-		
-		
-		/*
-		 * Save current clickstream
-		 */
-		clickstream.setLastSaved(new Date());
-		ClickstreamFactory.save(clickstream);
-		
-		List<ClickstreamRequest> myStream = new ArrayList<ClickstreamRequest>();
-		myStream.addAll(clickstream.getClickstreamRequests());
-		long clickStreamId = clickstream.getClickstreamId();
-		if (myStream != null ) {
-			for(ClickstreamRequest myClickstreamRequest  : myStream){
-				myClickstreamRequest.setClickstreamId(clickStreamId);
-				ClickstreamRequestFactory.save(myClickstreamRequest);
+
+		if (lookups.isEmpty()) {
+			return;
+		}
+
+		final long deadline = System.currentTimeMillis()
+				+ Config.getLongProperty("CLICKSTREAM_REVERSE_DNS_TIMEOUT_MILLIS", 2000);
+		final Map<String, String> hostnames = new HashMap<String, String>();
+		for (Map.Entry<String, Future<String>> lookup : lookups.entrySet()) {
+			try {
+				hostnames.put(lookup.getKey(), lookup.getValue()
+						.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+			} catch (TimeoutException e) {
+				lookup.getValue().cancel(true);
+				Logger.debug(this, "Reverse lookup of " + lookup.getKey() + " timed out");
+			} catch (Exception e) {
+				Logger.debug(this, "Reverse lookup of " + lookup.getKey() + " failed: " + e.getMessage());
 			}
 		}
-		
-		List<Clickstream404> my404Stream = new ArrayList<Clickstream404>();
-		my404Stream.addAll(clickstream.getClickstream404s());
-		if (my404Stream != null ) {
-			for(Clickstream404 myClickstream404  : my404Stream){
-				ClickstreamFactory.save404(myClickstream404);
+
+		for (Clickstream clickstream : clickstreams) {
+			final String hostname = hostnames.get(clickstream.getRemoteAddress());
+			if(!UtilMethods.isSet(clickstream.getRemoteHostname()) && UtilMethods.isSet(hostname)
+					&& !clickstream.getRemoteAddress().equals(hostname)){
+				clickstream.setRemoteHostname(hostname);
 			}
 		}
+	}
 
+	private void updateUser(Clickstream clickstream) {
 		/*
 		 * Loop over old clickstreams (by long lived cookie) that don't have any user
 		 * information and update them to our known information
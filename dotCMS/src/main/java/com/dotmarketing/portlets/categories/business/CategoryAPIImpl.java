@@ -269,7 +269,8 @@ public class CategoryAPIImpl implements CategoryAPI {
 	public Category findByName(final String name, final User user,
 							   final boolean respectFrontendRoles) throws DotDataException, DotSecurityException {
 
-		final Category category = categoryFactory.findByName(name);
+		final Category snapshotCategory = categoryFactory.getTreeSnapshot().findByName(name);
+		final Category category = snapshotCategory != null ? snapshotCategory : categoryFactory.findByName(name);
 
 		if(category == null)
 			return null;
@@ -570,6 +571,35 @@ public class CategoryAPIImpl implements CategoryAPI {
 										 final boolean respectFrontendRoles)
 			throws DotDataException, DotSecurityException {
 
+		final CategoryTreeSnapshot snapshot = categoryFactory.getTreeSnapshot();
+		if (!snapshot.contains(category.getCategoryId())) {
+			return getAllChildrenByLevel(category, user, respectFrontendRoles);
+		}
+
+		final List<Category> descendants = snapshot.getDescendants(category.getCategoryId());
+		final List<Category> readable = permissionAPI.filterCollection(new ArrayList<>(descendants),
+				PermissionAPI.PERMISSION_READ, respectFrontendRoles, user);
+		if (readable.size() == descendants.size()) {
+			return readable;
+		}
+
+		// the children of a category the user can not read are not listed
+		final List<Category> categoryTree = new ArrayList<>();
+		final LinkedList<Category> children = new LinkedList<>(permissionAPI.filterCollection(
+				new ArrayList<>(snapshot.getChildren(category.getCategoryId())), PermissionAPI.PERMISSION_READ,
+				respectFrontendRoles, user));
+		while (!children.isEmpty()) {
+			final Category child = children.poll();
+			children.addAll(permissionAPI.filterCollection(new ArrayList<>(snapshot.getChildren(child.getCategoryId())),
+					PermissionAPI.PERMISSION_READ, respectFrontendRoles, user));
+			categoryTree.add(child);
+		}
+		return categoryTree;
+	}
+
+	private List<Category> getAllChildrenByLevel(final Category category, final User user,
+			final boolean respectFrontendRoles) throws DotDataException, DotSecurityException {
+
 		List<Category> categoryTree = new ArrayList<Category>();
 		LinkedList<Category> children = new LinkedList<Category>(getChildren(category, user, respectFrontendRoles));
 		if (children != null) {
@@ -606,11 +636,35 @@ public class CategoryAPIImpl implements CategoryAPI {
 		categoryFactory.clearCache();
 	}
 
+	@CloseDBIfOpened
 	public List<Category> getCategoryTreeUp(Category child, User user, boolean respectFrontendRoles)
 		throws DotDataException, DotSecurityException {
+
+		final CategoryTreeSnapshot snapshot = categoryFactory.getTreeSnapshot();
+		final List<Category> ancestors = snapshot.contains(child.getCategoryId())
+				? snapshot.getAncestors(child.getCategoryId()) : null;
+		// the precomputed path follows the first parent, the same one walked when the user can read all of them
+		if (ancestors != null && isReadable(ancestors, user, respectFrontendRoles)) {
+			final List<Category> tree = new ArrayList<>(ancestors.size() + 2);
+			final Category fakeCat = new Category();
+			fakeCat.setCategoryName("Top Level");
+			tree.add(fakeCat);
+			tree.addAll(ancestors);
+			if (InodeUtils.isSet(child.getInode())) {
+				tree.add(child);
+			}
+			return tree;
+		}
+
 		return getCategoryTree(child, new ArrayList<Category>(), user, respectFrontendRoles);
 	}
 
+	private boolean isReadable(final List<Category> categories, final User user, final boolean respectFrontendRoles)
+			throws DotDataException, DotSecurityException {
+		return permissionAPI.filterCollection(new ArrayList<>(categories), PermissionAPI.PERMISSION_READ,
+				respectFrontendRoles, user).size() == categories.size();
+	}
+
 	public List<Category> getCategoryTreeDown(Categorizable categorizable,Category catToSearchFrom, User user, boolean respectFrontendRoles)throws DotDataException, DotSecurityException {
 		List<Category> catList = getAllChildren(catToSearchFrom, user, false);
 		return catList;
@@ -678,12 +732,19 @@ public class CategoryAPIImpl implements CategoryAPI {
 		return isParent(givenChild,givenParent,user,false);
 	}
 
+	@CloseDBIfOpened
 	public boolean isParent(Category givenChild, Category givenParent, User user, boolean respectFrontendRoles) {
 
 
 		List<Category> parents;
 
 		try {
+			final CategoryTreeSnapshot snapshot = categoryFactory.getTreeSnapshot();
+			if (snapshot.contains(givenChild.getCategoryId())
+					&& isReadable(snapshot.getAncestors(givenChild.getCategoryId()), user, respectFrontendRoles)) {
+				return snapshot.isAncestor(givenChild.getCategoryId(), givenParent.getCategoryId());
+			}
+
 			parents = getParents(givenChild, user, respectFrontendRoles);
 
 			if(parents==null || parents.isEmpty()) {
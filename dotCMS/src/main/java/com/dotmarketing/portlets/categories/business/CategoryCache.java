@@ -166,6 +166,34 @@ public abstract class CategoryCache implements Cachable{
 	 */
 	abstract protected void removeParent(Categorizable child, Category parent) throws DotDataException, DotCacheException;
 
+	/**
+	 * Returns the snapshot of the whole category tree, null if it has not been built since the last change
+	 * @return CategoryTreeSnapshot
+	 */
+	abstract protected CategoryTreeSnapshot getTreeSnapshot();
+
+	/**
+	 * Returns the generation of the snapshot of the whole category tree, it changes every time the snapshot is removed
+	 * and when the transaction that removed it ends. Read it before loading the tree to build the snapshot
+	 * @return long
+	 */
+	abstract protected long getTreeSnapshotGeneration();
+
+	/**
+	 * Keeps the snapshot of the whole category tree, unless the tree changed since the generation was read or the
+	 * snapshot was built inside a transaction that changed the tree and has not committed yet
+	 * @param snapshot
+	 * @param generation generation read before loading the tree
+	 */
+	abstract protected void putTreeSnapshot(CategoryTreeSnapshot snapshot, long generation);
+
+	/**
+	 * Removes the snapshot of the whole category tree, it is rebuilt on the next read. Called on every change of a
+	 * category or of the relations between categories, inside a transaction it is removed again once the
+	 * transaction ends
+	 */
+	abstract protected void removeTreeSnapshot();
+
 	/**
 	 * Removes all entries from cache
 	 */
@@ -2,10 +2,14 @@ package com.dotmarketing.portlets.categories.business;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.dotmarketing.business.CacheLocator;
 import com.dotmarketing.business.DotCacheAdministrator;
 import com.dotmarketing.business.DotCacheException;
+import com.dotmarketing.db.DbConnectionFactory;
+import com.dotmarketing.db.FlushCacheRunnable;
+import com.dotmarketing.db.HibernateUtil;
 import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.portlets.categories.model.Category;
 import com.dotmarketing.util.Logger;
@@ -25,9 +29,16 @@ public class CategoryCacheImpl extends CategoryCache {
 	private String categoryByKeyCacheGroup = "categoryByKeyCache";
     private String categoryChildrenCacheGroup = "categoryChildrenCache";
     private String categoryParentsCacheGroup = "categoryParentsCache";
+    private String categoryTreeSnapshotCacheGroup = "categoryTreeSnapshotCache";
+    private static final String TREE_SNAPSHOT_KEY = "snapshot";
+
+    // changes on every removal of the tree snapshot and again when the transaction that removed it ends
+    private final AtomicLong treeSnapshotGeneration = new AtomicLong();
+    // true while the transaction of the thread has changed the tree and has not ended yet
+    private final ThreadLocal<Boolean> treeChangedInTransaction = new ThreadLocal<>();
 	
     // region's name for the cache
-    private String[] groupNames = {primaryGroup, categoryByKeyCacheGroup, categoryChildrenCacheGroup, categoryParentsCacheGroup};
+    private String[] groupNames = {primaryGroup, categoryByKeyCacheGroup, categoryChildrenCacheGroup, categoryParentsCacheGroup, categoryTreeSnapshotCacheGroup};
     
     public CategoryCacheImpl() {
     	cache = CacheLocator.getCacheAdministrator();
@@ -128,6 +139,7 @@ public class CategoryCacheImpl extends CategoryCache {
 			cache.remove(categoryByKeyCacheGroup + object.getKey(), categoryByKeyCacheGroup);
 		}
 		cache.remove(primaryGroup + object.getCategoryId(),primaryGroup);
+		removeTreeSnapshot();
 	}
 
     /**
@@ -148,6 +160,7 @@ public class CategoryCacheImpl extends CategoryCache {
             Logger.debug( this, "Cache Entry not found", e );
         }
         cache.remove( categoryChildrenCacheGroup + parentId, categoryChildrenCacheGroup );
+        removeTreeSnapshot();
 
         //Updating the associated parent caches to keep it consistent
         if ( childrenIds != null ) {
@@ -188,6 +201,7 @@ public class CategoryCacheImpl extends CategoryCache {
             Logger.debug( this, "Cache Entry not found", e );
         }
         cache.remove( categoryParentsCacheGroup + childId, categoryParentsCacheGroup );
+        removeTreeSnapshot();
 
         //Updating the associated parent caches to keep it consistent
         if ( parentIds != null ) {
@@ -224,6 +238,7 @@ public class CategoryCacheImpl extends CategoryCache {
 		}
 		
 		cache.put(categoryParentsCacheGroup + child.getCategoryId(), parentsInodes, categoryParentsCacheGroup);
+		removeTreeSnapshot();
 		
 		//putting the parent in the plain category cache if it's a category type
 		if(child instanceof Category)
@@ -237,6 +252,7 @@ public class CategoryCacheImpl extends CategoryCache {
     @Override
     protected void removeChild ( Categorizable parent, Category child ) throws DotDataException, DotCacheException {
         cache.remove( categoryChildrenCacheGroup + parent.getCategoryId(), categoryChildrenCacheGroup );
+        removeTreeSnapshot();
 
         //updating parent list of the child as well
         if ( parent instanceof Category ) {
@@ -248,6 +264,7 @@ public class CategoryCacheImpl extends CategoryCache {
 	@Override
 	protected void removeParent(Categorizable child, Category parent)throws DotDataException, DotCacheException {
 		cache.remove(categoryParentsCacheGroup + child.getCategoryId(), categoryParentsCacheGroup);
+		removeTreeSnapshot();
 		
 		//updating children list of the parent as well
 		if(child instanceof Category) {
@@ -271,11 +288,75 @@ public class CategoryCacheImpl extends CategoryCache {
 		cache.flushGroup(categoryChildrenCacheGroup);
 		cache.flushGroup(categoryByKeyCacheGroup);
 		cache.flushGroup(categoryParentsCacheGroup);		
+		treeSnapshotGeneration.incrementAndGet();
+		cache.flushGroup(categoryTreeSnapshotCacheGroup);
 	}
 	
 	@Override
 	protected void clearChildrenCache(){
 		cache.flushGroup(categoryChildrenCacheGroup);
+		removeTreeSnapshot();
+	}
+
+	@Override
+	protected CategoryTreeSnapshot getTreeSnapshot() {
+		try{
+			return (CategoryTreeSnapshot) cache.get(categoryTreeSnapshotCacheGroup + TREE_SNAPSHOT_KEY, categoryTreeSnapshotCacheGroup);
+		}catch (DotCacheException e) {
+			Logger.debug(this, "Cache Entry not found", e);
+			return null;
+		}
+	}
+
+	@Override
+	protected long getTreeSnapshotGeneration() {
+		return treeSnapshotGeneration.get();
+	}
+
+	@Override
+	protected void putTreeSnapshot(final CategoryTreeSnapshot snapshot, final long generation) {
+
+		if (!DbConnectionFactory.inTransaction()) {
+			treeChangedInTransaction.remove();
+		} else if (Boolean.TRUE.equals(treeChangedInTransaction.get())) {
+			// built with the changes of a transaction that has not committed yet
+			return;
+		}
+
+		synchronized (treeSnapshotGeneration) {
+			if (generation == treeSnapshotGeneration.get()) {
+				cache.put(categoryTreeSnapshotCacheGroup + TREE_SNAPSHOT_KEY, snapshot, categoryTreeSnapshotCacheGroup);
+			}
+		}
+	}
+
+	@Override
+	protected void removeTreeSnapshot() {
+
+		if (DbConnectionFactory.inTransaction()) {
+
+			// a snapshot built from the rows read before the commit must not be kept once it is done
+			treeChangedInTransaction.set(Boolean.TRUE);
+			final Runnable transactionEnd = new FlushCacheRunnable() {
+				public void run() {
+					treeChangedInTransaction.remove();
+					invalidateTreeSnapshot();
+				}
+			};
+			HibernateUtil.addCommitListener(categoryTreeSnapshotCacheGroup, new HibernateUtil.DotSyncRunnable(transactionEnd));
+			HibernateUtil.addRollbackListener(categoryTreeSnapshotCacheGroup, transactionEnd);
+		}
+
+		invalidateTreeSnapshot();
+	}
+
+	private void invalidateTreeSnapshot() {
+
+		synchronized (treeSnapshotGeneration) {
+			treeSnapshotGeneration.incrementAndGet();
+		}
+		// the removal is sent to the rest of the cluster, every server rebuilds its snapshot on the next read
+		cache.remove(categoryTreeSnapshotCacheGroup + TREE_SNAPSHOT_KEY, categoryTreeSnapshotCacheGroup);
 	}
 	
 	public String[] getGroups() {
@@ -266,5 +266,12 @@ public abstract class CategoryFactory {
 	abstract protected String suggestVelocityVarName (String categoryVelVarName) throws DotDataException;
 
 	abstract protected  void clearCache();
+
+	/**
+	 * Returns the immutable snapshot of the whole category tree, built from the database when it is not cached
+	 * @return CategoryTreeSnapshot
+	 * @throws DotDataException
+	 */
+	abstract protected CategoryTreeSnapshot getTreeSnapshot() throws DotDataException;
 	
 }
@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import com.dotcms.repackage.net.sf.hibernate.ObjectNotFoundException;
 import org.apache.commons.beanutils.BeanUtils;
 
@@ -41,6 +42,9 @@ public class CategoryFactoryImpl extends CategoryFactory {
 	CategoryCache catCache;
 	final CategorySQL categorySQL;
 
+	private final Object treeSnapshotLock = new Object();
+	private final AtomicLong treeSnapshotVersion = new AtomicLong();
+
 	public CategoryFactoryImpl () {
 		catCache = CacheLocator.getCategoryCache();
 		this.categorySQL = CategorySQL.getInstance();
@@ -456,6 +460,7 @@ public class CategoryFactoryImpl extends CategoryFactory {
 			sql.append("inode category_1_ where tree.child is null and category_1_.inode = category.inode and category_1_.type = 'category' ");
 			s.executeUpdate(sql.toString());
 			conn.commit();
+			catCache.removeTreeSnapshot();
 		} catch (SQLException e) {
 			try {
 				conn.rollback();
@@ -597,6 +602,7 @@ public class CategoryFactoryImpl extends CategoryFactory {
 			sql.append(" tree.parent = '").append(inode).append("' and category_1_.type = 'category' and cat.inode = c.inode ) ");
 			s.executeUpdate(sql.toString());
 			conn.commit();
+			catCache.removeTreeSnapshot();
 		} catch (SQLException e) {
 			try {
 				conn.rollback();
@@ -665,6 +671,32 @@ public class CategoryFactoryImpl extends CategoryFactory {
 	protected void clearCache() {
 		catCache.clearCache();
 	}
+
+	@Override
+	protected CategoryTreeSnapshot getTreeSnapshot() throws DotDataException {
+		CategoryTreeSnapshot snapshot = catCache.getTreeSnapshot();
+		if (snapshot == null) {
+			synchronized (treeSnapshotLock) {
+				snapshot = catCache.getTreeSnapshot();
+				if (snapshot == null) {
+					final long start = System.currentTimeMillis();
+					final long generation = catCache.getTreeSnapshotGeneration();
+					final List<String[]> relations = new ArrayList<>();
+					final List<Map<String, Object>> rows = new DotConnect()
+							.setSQL("select tree.parent, tree.child from tree, category parent_category, category child_category "
+									+ "where tree.parent = parent_category.inode and tree.child = child_category.inode")
+							.loadObjectResults();
+					for (final Map<String, Object> row : rows) {
+						relations.add(new String[] {row.get("parent").toString(), row.get("child").toString()});
+					}
+					snapshot = CategoryTreeSnapshot.build(treeSnapshotVersion.incrementAndGet(), findAll(), relations);
+					catCache.putTreeSnapshot(snapshot, generation);
+					Logger.debug(this, "Built " + snapshot + " in " + (System.currentTimeMillis() - start) + "ms");
+				}
+			}
+		}
+		return snapshot;
+	}
 	public boolean  hasDependencies(Category cat) throws DotDataException {
 
 		String query;
@@ -696,6 +728,7 @@ public class CategoryFactoryImpl extends CategoryFactory {
 			s.executeUpdate(catSQL.getUpdateSort());
 			s.executeUpdate(catSQL.getDropSort());
 			conn.commit();
+			catCache.removeTreeSnapshot();
 
 			rs = s.executeQuery(catSQL.getSortParents());
 
@@ -741,6 +774,7 @@ public class CategoryFactoryImpl extends CategoryFactory {
 			statement.executeUpdate(sql);
 
 			conn.commit();
+			catCache.removeTreeSnapshot();
 
             PreparedStatement getSortedPreparedStatement = conn.prepareStatement( catSQL.getSortedChildren() );
             getSortedPreparedStatement.setString( 1, inode );
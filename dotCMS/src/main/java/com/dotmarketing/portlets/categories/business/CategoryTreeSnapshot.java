@@ -0,0 +1,270 @@
+package com.dotmarketing.portlets.categories.business;
+
+import com.dotmarketing.portlets.categories.model.Category;
+import com.dotmarketing.util.UtilMethods;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the whole category graph (the category to category relations of the tree table) used to answer
+ * the tree queries of the {@link CategoryAPI} without walking the tree table level by level.
+ * <p>
+ * The categories are kept in an array, the relations as arrays of indexes into it: the children of every category
+ * sorted as {@link CategoryFactory#getChildren(Categorizable)} does, its parents sorted as
+ * {@link CategoryFactory#getParents(Categorizable)} does, and the path from the top level category down to it
+ * following the first parent, as {@link CategoryAPI#getCategoryTreeUp(Category, com.liferay.portal.model.User, boolean)}
+ * walks it.
+ * <p>
+ * A snapshot is never modified, when a category or a relation changes the cached snapshot is removed and a new one
+ * is built on the next read, while the readers holding the previous one keep using it.
+ */
+public final class CategoryTreeSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int[] NONE = new int[0];
+
+	private static final Comparator<Category> SORT_ORDER = Comparator
+			.comparing((Category category) -> category.getSortOrder() == null ? 0 : category.getSortOrder());
+
+	private static final Comparator<Category> SORT_ORDER_AND_NAME = SORT_ORDER
+			.thenComparing(category -> category.getCategoryName() == null ? "" : category.getCategoryName());
+
+	private final long version;
+	private final Category[] categories;
+	private final int[][] children;
+	private final int[][] parents;
+	private final int[][] ancestors;
+	private final Map<String, Integer> byInode;
+	private final Map<String, Integer> byKey;
+	private final Map<String, Integer> byName;
+
+	private CategoryTreeSnapshot(final long version, final Category[] categories, final int[][] children,
+			final int[][] parents, final int[][] ancestors, final Map<String, Integer> byInode,
+			final Map<String, Integer> byKey, final Map<String, Integer> byName) {
+		this.version    = version;
+		this.categories = categories;
+		this.children   = children;
+		this.parents    = parents;
+		this.ancestors  = ancestors;
+		this.byInode    = byInode;
+		this.byKey      = byKey;
+		this.byName     = byName;
+	}
+
+	/**
+	 * Builds the snapshot out of all the categories and the parent/child relations between them
+	 *
+	 * @param version   number of the snapshot, increases on every build
+	 * @param all       all the categories
+	 * @param relations pairs of parent inode, child inode
+	 * @return CategoryTreeSnapshot
+	 */
+	static CategoryTreeSnapshot build(final long version, final Collection<Category> all,
+			final Collection<String[]> relations) {
+
+		final Category[] categories = all.toArray(new Category[0]);
+		final Map<String, Integer> byInode = new HashMap<>();
+		final Map<String, Integer> byKey   = new HashMap<>();
+		final Map<String, Integer> byName  = new HashMap<>();
+		for (int i = 0; i < categories.length; i++) {
+			final Category category = categories[i];
+			byInode.put(category.getInode(), i);
+			if (UtilMethods.isSet(category.getKey())) {
+				byKey.putIfAbsent(category.getKey().toLowerCase(), i);
+			}
+			if (category.getCategoryName() != null) {
+				byName.putIfAbsent(category.getCategoryName(), i);
+			}
+		}
+
+		final List<List<Category>> childLists  = new ArrayList<>(categories.length);
+		final List<List<Category>> parentLists = new ArrayList<>(categories.length);
+		for (int i = 0; i < categories.length; i++) {
+			childLists.add(new ArrayList<>());
+			parentLists.add(new ArrayList<>());
+		}
+		for (final String[] relation : relations) {
+			final Integer parent = byInode.get(relation[0]);
+			final Integer child  = byInode.get(relation[1]);
+			if (parent != null && child != null) {
+				childLists.get(parent).add(categories[child]);
+				parentLists.get(child).add(categories[parent]);
+			}
+		}
+
+		final int[][] children = new int[categories.length][];
+		final int[][] parents  = new int[categories.length][];
+		for (int i = 0; i < categories.length; i++) {
+			childLists.get(i).sort(SORT_ORDER);
+			parentLists.get(i).sort(SORT_ORDER_AND_NAME);
+			children[i] = toIndexes(childLists.get(i), byInode);
+			parents[i]  = toIndexes(parentLists.get(i), byInode);
+		}
+
+		final int[][] ancestors = new int[categories.length][];
+		for (int i = 0; i < categories.length; i++) {
+			ancestors[i] = ancestorPath(i, parents);
+		}
+
+		return new CategoryTreeSnapshot(version, categories, children, parents, ancestors,
+				ImmutableMap.copyOf(byInode), ImmutableMap.copyOf(byKey), ImmutableMap.copyOf(byName));
+	}
+
+	private static int[] toIndexes(final List<Category> list, final Map<String, Integer> byInode) {
+		if (list.isEmpty()) {
+			return NONE;
+		}
+		final int[] indexes = new int[list.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = byInode.get(list.get(i).getInode());
+		}
+		return indexes;
+	}
+
+	/**
+	 * Path from the top level down to the parent of the category following the first parent, a cycle in the tree
+	 * table stops the path where it repeats
+	 */
+	private static int[] ancestorPath(final int index, final int[][] parents) {
+		final List<Integer> path = new ArrayList<>();
+		final boolean[] visited = new boolean[parents.length];
+		visited[index] = true;
+		int current = index;
+		while (parents[current].length > 0 && !visited[parents[current][0]]) {
+			current = parents[current][0];
+			visited[current] = true;
+			path.add(0, current);
+		}
+		return path.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public int size() {
+		return categories.length;
+	}
+
+	public boolean contains(final String inode) {
+		return inode != null && byInode.containsKey(inode);
+	}
+
+	public Category find(final String inode) {
+		final Integer index = inode != null ? byInode.get(inode) : null;
+		return index != null ? categories[index] : null;
+	}
+
+	/**
+	 * @param key case insensitive key
+	 * @return the category, null if there is none with the key
+	 */
+	public Category findByKey(final String key) {
+		final Integer index = key != null ? byKey.get(key.toLowerCase()) : null;
+		return index != null ? categories[index] : null;
+	}
+
+	public Category findByName(final String name) {
+		final Integer index = name != null ? byName.get(name) : null;
+		return index != null ? categories[index] : null;
+	}
+
+	/**
+	 * @return the direct children of the category, empty if it is not in the snapshot
+	 */
+	public List<Category> getChildren(final String inode) {
+		return toCategories(relationsOf(inode, children));
+	}
+
+	/**
+	 * @return the direct parents of the category, empty if it is not in the snapshot or a top level category
+	 */
+	public List<Category> getParents(final String inode) {
+		return toCategories(relationsOf(inode, parents));
+	}
+
+	/**
+	 * @return the categories from the top level down to the parent of the category following the first parent
+	 */
+	public List<Category> getAncestors(final String inode) {
+		return toCategories(relationsOf(inode, ancestors));
+	}
+
+	/**
+	 * @return all the descendants of the category, breadth first
+	 */
+	public List<Category> getDescendants(final String inode) {
+		final Integer index = inode != null ? byInode.get(inode) : null;
+		if (index == null) {
+			return ImmutableList.of();
+		}
+
+		final ImmutableList.Builder<Category> descendants = ImmutableList.builder();
+		final boolean[] visited = new boolean[categories.length];
+		int[] queue = Arrays.copyOf(children[index], Math.max(16, children[index].length));
+		int head = 0;
+		int tail = children[index].length;
+		visited[index] = true;
+		while (head < tail) {
+			final int current = queue[head++];
+			if (visited[current]) {
+				continue;
+			}
+			visited[current] = true;
+			descendants.add(categories[current]);
+			for (final int child : children[current]) {
+				if (tail == queue.length) {
+					queue = Arrays.copyOf(queue, queue.length * 2);
+				}
+				queue[tail++] = child;
+			}
+		}
+		return descendants.build();
+	}
+
+	/**
+	 * @return true if the parent is on the first parent path of the child
+	 */
+	public boolean isAncestor(final String childInode, final String parentInode) {
+		final Integer parent = parentInode != null ? byInode.get(parentInode) : null;
+		if (parent == null) {
+			return false;
+		}
+		for (final int ancestor : relationsOf(childInode, ancestors)) {
+			if (ancestor == parent) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int[] relationsOf(final String inode, final int[][] relations) {
+		final Integer index = inode != null ? byInode.get(inode) : null;
+		return index != null ? relations[index] : NONE;
+	}
+
+	private List<Category> toCategories(final int[] indexes) {
+		if (indexes.length == 0) {
+			return ImmutableList.of();
+		}
+		final Category[] result = new Category[indexes.length];
+		for (int i = 0; i < indexes.length; i++) {
+			result[i] = categories[indexes[i]];
+		}
+		return ImmutableList.copyOf(result);
+	}
+
+	@Override
+	public String toString() {
+		return "CategoryTreeSnapshot{version=" + version + ", size=" + categories.length + '}';
+	}
+}
@@ -25,6 +25,7 @@ import com.dotmarketing.exception.DotHibernateException;
 import com.dotmarketing.exception.DotRuntimeException;
 import com.dotmarketing.exception.DotSecurityException;
 import com.dotmarketing.portlets.contentlet.business.ContentletAPI;
+import com.dotmarketing.portlets.contentlet.business.DotReindexStateException;
 import com.dotmarketing.portlets.contentlet.model.Contentlet;
 import com.dotmarketing.portlets.contentlet.model.IndexPolicyProvider;
 import com.dotmarketing.portlets.fileassets.business.FileAsset;
@@ -948,7 +949,13 @@ public class FolderFactoryImpl extends FolderFactory {
 
         HibernateUtil.addCommitListener(new FlushCacheRunnable() {
             public void run() {
-                APILocator.getContentletAPI().refreshContentUnderFolderPath(identifierHostId, identifierPath);
+                try {
+                    // only the host, folder and path of the content change on a rename
+                    APILocator.getReindexQueueAPI().refreshContentLocationUnderFolderPath(identifierHostId, identifierPath);
+                } catch (DotDataException e) {
+                    Logger.error(FolderFactoryImpl.class, e.getMessage(), e);
+                    throw new DotReindexStateException("Unable to complete reindex", e);
+                }
             }
         });
 
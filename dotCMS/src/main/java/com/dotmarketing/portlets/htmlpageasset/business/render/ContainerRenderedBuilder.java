@@ -1,29 +1,60 @@
 package com.dotmarketing.portlets.htmlpageasset.business.render;
 
 
-import com.beust.jcommander.internal.Maps;
+import com.dotcms.api.web.HttpServletRequestThreadLocal;
+import com.dotcms.concurrent.DotConcurrentException;
+import com.dotcms.concurrent.DotConcurrentFactory;
+import com.dotcms.concurrent.DotSubmitter;
 import com.dotcms.rendering.velocity.services.PageRenderUtil;
 import com.dotcms.rendering.velocity.services.VelocityResourceKey;
 import com.dotmarketing.business.APILocator;
+import com.dotmarketing.business.CacheLocator;
+import com.dotmarketing.db.DbConnectionFactory;
 import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.exception.DotSecurityException;
 import com.dotmarketing.portlets.htmlpageasset.model.HTMLPageAsset;
+import com.dotmarketing.util.Config;
 import com.dotmarketing.util.Logger;
 import com.dotmarketing.util.PageMode;
 import com.dotmarketing.util.VelocityUtil;
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.velocity.VelocityContext;
 import org.apache.velocity.context.Context;
 
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Builder of {@link ContainerRendered}
+ *
+ * The containers of a page do not depend on each other, so every container/uuid fragment is rendered on the
+ * {@link #CONTAINER_RENDER_SUBMITTER_NAME} pool with its own child of the page Velocity context, and the fragments are
+ * collected back in the order of the page. A fragment that fails is logged and left out, as when they were rendered
+ * one by one.
+ *
+ * Live containers opted in the {@link com.dotcms.rendering.velocity.services.ContainerFragmentCache} are taken from it
+ * when they were already rendered for the page, language and persona, only the rest are rendered.
  */
 public class ContainerRenderedBuilder {
 
+    /**
+     * Name of the bounded pool that renders the containers, its size can be set with the dotcms.concurrent properties
+     * prefixed by this name
+     */
+    public static final String CONTAINER_RENDER_SUBMITTER_NAME = "containerrender";
+
+    /**
+     * Set on the threads of the pool, so a container rendering a page of its own does not wait on the pool it runs on
+     */
+    private static final ThreadLocal<Boolean> RENDERING_CONTAINER = ThreadLocal.withInitial(() -> Boolean.FALSE);
 
     final PageMode mode;
     final Context velocityContext;
@@ -48,30 +79,118 @@ public class ContainerRenderedBuilder {
             return this.containerRaws;
         }
 
-        return this.containerRaws.stream().map(containerRaw -> {
+        final boolean parallel = !RENDERING_CONTAINER.get()
+                && Config.getBooleanProperty("PAGE_RENDER_PARALLEL_CONTAINERS", true);
+        final HttpServletRequest request = HttpServletRequestThreadLocal.INSTANCE.getRequest();
+
+        // all the fragments are submitted before waiting for any of them
+        final List<Map<String, Future<String>>> fragments = new ArrayList<>(this.containerRaws.size());
+        for (final ContainerRaw containerRaw : this.containerRaws) {
+            Map<String, Future<String>> containerFragments = null;
             try {
-                final Map<String, String> uuidsRendered = render(velocityContext, mode, containerRaw);
-                return new ContainerRendered(containerRaw, uuidsRendered);
+                containerFragments = submit(containerRaw, parallel, request);
             } catch (Exception e) {
-                // if the container does not exists or is not valid for the mode, returns null to be filtrated
-                return null;
+                // if the container does not exists or is not valid for the mode, it is filtrated
+                Logger.debug(this.getClass(), e.getMessage());
+            }
+            fragments.add(containerFragments);
+        }
 
+        final List<ContainerRaw> containersRendered = new ArrayList<>(this.containerRaws.size());
+        for (int i = 0; i < this.containerRaws.size(); i++) {
+            if (fragments.get(i) != null) {
+                containersRendered.add(new ContainerRendered(this.containerRaws.get(i), collect(fragments.get(i))));
             }
-        }).filter(Objects::nonNull).collect(Collectors.toList());
+        }
+        return containersRendered;
+    }
 
+    private Map<String, Future<String>> submit(final ContainerRaw containerRaw, final boolean parallel,
+                                               final HttpServletRequest request) {
 
+        final Map<String, Future<String>> fragments = new LinkedHashMap<>();
+        for (final String uuid : containerRaw.getContentlets().keySet()) {
+            final VelocityResourceKey key = new VelocityResourceKey(containerRaw.getContainer(), uuid.replace("uuid-", ""), mode);
+            final Optional<String> cachedFragment = getCachedFragment(key, request);
+            fragments.put(uuid, cachedFragment.isPresent() ? CompletableFuture.completedFuture(cachedFragment.get()) :
+                    parallel ? submit(key, request) : render(key, request));
+        }
+        return fragments;
     }
 
+    private Future<String> submit(final VelocityResourceKey key, final HttpServletRequest request) {
+
+        final DotSubmitter submitter = DotConcurrentFactory.getInstance().getSubmitter(CONTAINER_RENDER_SUBMITTER_NAME);
+        try {
+            return submitter.submit(() -> {
+                RENDERING_CONTAINER.set(Boolean.TRUE);
+                HttpServletRequestThreadLocal.INSTANCE.setRequest(request);
+                try {
+                    return merge(key, request);
+                } finally {
+                    HttpServletRequestThreadLocal.INSTANCE.setRequest(null);
+                    RENDERING_CONTAINER.set(Boolean.FALSE);
+                    DbConnectionFactory.closeSilently();
+                }
+            });
+        } catch (DotConcurrentException e) {
+            // the pool is full, the fragment is rendered by the request thread
+            Logger.debug(this.getClass(), e.getMessage());
+            return render(key, request);
+        }
+    }
 
-    private Map<String, String> render(final Context velocityContext, final PageMode mode, final ContainerRaw containerRaw) {
+    private Future<String> render(final VelocityResourceKey key, final HttpServletRequest request) {
 
-        final Map<String, String> rendered = Maps.newHashMap();
-        for (final String uuid : containerRaw.getContentlets().keySet()) {
-            final VelocityResourceKey key = new VelocityResourceKey(containerRaw.getContainer(), uuid.replace("uuid-", ""), mode);
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        try {
+            future.complete(merge(key, request));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Merges the container fragment of the key with a child of the page context, it runs on the pool threads
+     */
+    @VisibleForTesting
+    String merge(final VelocityResourceKey key, final HttpServletRequest request) throws Exception {
+
+        final String fragment = VelocityUtil.getInstance().mergeTemplate(key.path, new VelocityContext(velocityContext));
+        if (isFragmentCacheable(key)) {
+            CacheLocator.getContainerFragmentCache().put(getPageId(), key, request, fragment);
+        }
+        return fragment;
+    }
+
+    private Optional<String> getCachedFragment(final VelocityResourceKey key, final HttpServletRequest request) {
+
+        return isFragmentCacheable(key) ?
+                CacheLocator.getContainerFragmentCache().get(getPageId(), key, request) : Optional.empty();
+    }
+
+    private boolean isFragmentCacheable(final VelocityResourceKey key) {
+        return null != getPageId() && CacheLocator.getContainerFragmentCache().isCacheable(key);
+    }
+
+    private String getPageId() {
+
+        final Object pageId = velocityContext.get("HTMLPAGE_IDENTIFIER");
+        return null != pageId ? pageId.toString() : null;
+    }
+
+    private Map<String, String> collect(final Map<String, Future<String>> fragments) {
+
+        final Map<String, String> rendered = new LinkedHashMap<>();
+        for (final Map.Entry<String, Future<String>> fragment : fragments.entrySet()) {
             try {
-                rendered.put(uuid, VelocityUtil.getInstance().mergeTemplate(key.path, velocityContext));
-            } catch (Exception e) {
+                rendered.put(fragment.getKey(), fragment.getValue().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 Logger.warn(this.getClass(), e.getMessage());
+            } catch (ExecutionException e) {
+                Logger.warn(this.getClass(), e.getCause().getMessage());
             }
         }
         return rendered;
@@ -2,6 +2,7 @@ package com.dotmarketing.portlets.htmlpageasset.business.render;
 
 import com.dotcms.api.web.HttpServletRequestThreadLocal;
 import com.dotcms.repackage.com.google.common.annotations.VisibleForTesting;
+import com.dotcms.util.RecordTime;
 import com.dotmarketing.beans.Host;
 import com.dotmarketing.business.*;
 import com.dotmarketing.business.web.HostWebAPI;
@@ -150,6 +151,7 @@ public class HTMLPageAssetRenderedAPIImpl implements HTMLPageAssetRenderedAPI {
         );
     }
 
+    @RecordTime
     @Override
     public PageView getPageRendered(
             final PageContext context,
@@ -224,6 +226,7 @@ public class HTMLPageAssetRenderedAPIImpl implements HTMLPageAssetRenderedAPI {
         }
     }
 
+    @RecordTime
     public String getPageHtml(
             final PageContext context,
             final HttpServletRequest request,
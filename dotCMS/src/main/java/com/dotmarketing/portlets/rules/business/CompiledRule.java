@@ -0,0 +1,225 @@
+package com.dotmarketing.portlets.rules.business;
+
+import com.dotmarketing.portlets.rules.RuleComponentInstance;
+import com.dotmarketing.portlets.rules.actionlet.RuleActionlet;
+import com.dotmarketing.portlets.rules.conditionlet.Conditionlet;
+import com.dotmarketing.portlets.rules.exception.RuleConstructionFailedException;
+import com.dotmarketing.portlets.rules.model.Condition;
+import com.dotmarketing.portlets.rules.model.ConditionGroup;
+import com.dotmarketing.portlets.rules.model.LogicalOperator;
+import com.dotmarketing.portlets.rules.model.Rule;
+import com.dotmarketing.portlets.rules.model.RuleAction;
+import com.dotmarketing.util.Logger;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Immutable, ready to evaluate, version of a {@link Rule}: the parameters of every condition and action are validated
+ * once, when the rule is compiled, and the conditions are laid out as an OR of AND clauses, so the evaluation is a
+ * couple of loops with no validation and no parsing of the parameters.
+ * <p>
+ * The compiled rules are kept for as long as the {@link Rule} object they were compiled from is alive (weak keys,
+ * compared by identity), so a rule is compiled once per version of the rules cache: when the cache is flushed a new
+ * {@link Rule} is loaded and compiled again. The compiled rule keeps no reference to its {@link Rule}, just the name for
+ * the logs, otherwise the cache values would keep their keys alive and nothing would ever be evicted.
+ * <p>
+ * The {@link Rule} objects are shared by all the requests, compiling does not touch them (unlike
+ * {@link Rule#checkValid()}, which stores the instances on the conditions and actions of the rule).
+ */
+public final class CompiledRule {
+
+    private static final Cache<Rule, CompiledRule> compiledRules = CacheBuilder.newBuilder().weakKeys().build();
+
+    private final String ruleName;
+    private final List<List<CompiledGroup>> groupClauses;
+    private final List<CompiledAction> actions;
+
+    private CompiledRule(final Rule rule) {
+
+        this.ruleName     = rule.getName();
+        this.groupClauses = toClauses(rule.getGroups(), ConditionGroup::getOperator, CompiledGroup::new);
+        this.actions      = Collections.unmodifiableList(compileActions(rule.getRuleActions()));
+    }
+
+    /**
+     * Returns the compiled version of the rule, compiling it the first time it is seen
+     * @param rule {@link Rule}
+     * @return CompiledRule
+     * @throws RuleConstructionFailedException if the parameters of a condition or action are not valid
+     */
+    public static CompiledRule of(final Rule rule) {
+
+        CompiledRule compiledRule = compiledRules.getIfPresent(rule);
+        if (null == compiledRule) {
+
+            compiledRule = new CompiledRule(rule);
+            compiledRules.put(rule, compiledRule);
+            Logger.debug(CompiledRule.class, ()-> "Rule compiled: " + rule.getId());
+        }
+
+        return compiledRule;
+    }
+
+    /**
+     * Evaluates the conditions of the rule and, if they are satisfied, runs its actions. Same outcome as
+     * {@link Rule#evaluate(HttpServletRequest, HttpServletResponse)}.
+     * @param req {@link HttpServletRequest}
+     * @param res {@link HttpServletResponse}
+     * @return boolean true if the conditions were satisfied
+     */
+    public boolean evaluate(final HttpServletRequest req, final HttpServletResponse res) {
+
+        if (!evaluateClauses(this.groupClauses, group -> group.evaluate(req, res))) {
+            return false;
+        }
+
+        for (final CompiledAction action : this.actions) {
+            try {
+                action.evaluate(req, res);
+            } catch (Exception e) {
+                Logger.warn(this.getClass(),
+                        String.format("Rule evaluation failed on action '%s' for rule %s. Skipping any remaining actions.",
+                                action.id, this.ruleName), e);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Lays out the terms in disjunctive form: a new clause starts on every OR, so AND takes precedence over OR as on
+     * {@link com.dotmarketing.portlets.rules.util.LogicalStatement}. The operator of the first term is ignored.
+     */
+    private static <S, C> List<List<C>> toClauses(final List<S> terms, final Function<S, LogicalOperator> operator,
+                                                  final Function<S, C> compiler) {
+
+        final List<List<C>> clauses = new ArrayList<>();
+        List<C> clause = null;
+        for (final S term : terms) {
+
+            if (null == clause || operator.apply(term) != LogicalOperator.AND) {
+
+                clause = new ArrayList<>();
+                clauses.add(clause);
+            }
+
+            clause.add(compiler.apply(term));
+        }
+
+        final List<List<C>> immutableClauses = new ArrayList<>(clauses.size());
+        for (final List<C> compiledClause : clauses) {
+            immutableClauses.add(Collections.unmodifiableList(compiledClause));
+        }
+
+        return Collections.unmodifiableList(immutableClauses);
+    }
+
+    /**
+     * True if all the terms of any of the clauses are true (or if there are no clauses), short circuiting as soon as
+     * the result is known
+     */
+    private static <C> boolean evaluateClauses(final List<List<C>> clauses, final TermEvaluator<C> evaluator) {
+
+        if (clauses.isEmpty()) {
+            return true;
+        }
+
+        for (final List<C> clause : clauses) {
+
+            boolean result = true;
+            for (final C term : clause) {
+                if (!evaluator.evaluate(term)) {
+                    result = false;
+                    break;
+                }
+            }
+
+            if (result) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static List<CompiledAction> compileActions(final List<RuleAction> ruleActions) {
+
+        final List<CompiledAction> actions = new ArrayList<>();
+        if (null != ruleActions) {
+            for (final RuleAction ruleAction : ruleActions) {
+                actions.add(new CompiledAction(ruleAction));
+            }
+        }
+
+        return actions;
+    }
+
+    @FunctionalInterface
+    private interface TermEvaluator<C> {
+        boolean evaluate(C term);
+    }
+
+    private static final class CompiledGroup {
+
+        private final List<List<CompiledCondition>> conditionClauses;
+
+        private CompiledGroup(final ConditionGroup group) {
+            this.conditionClauses = toClauses(group.getConditions(), Condition::getOperator, CompiledCondition::new);
+        }
+
+        private boolean evaluate(final HttpServletRequest req, final HttpServletResponse res) {
+            return evaluateClauses(this.conditionClauses, condition -> condition.evaluate(req, res));
+        }
+    }
+
+    private static final class CompiledCondition {
+
+        private final Conditionlet<RuleComponentInstance> conditionlet;
+        private final RuleComponentInstance instance;
+
+        @SuppressWarnings("unchecked")
+        private CompiledCondition(final Condition condition) {
+
+            this.conditionlet = condition.getConditionlet();
+            if (null == this.conditionlet) {
+                throw new RuleConstructionFailedException("Conditionlet %s doesn't exist", condition.getConditionletId());
+            }
+
+            this.instance = this.conditionlet.doCheckValid(condition);
+        }
+
+        private boolean evaluate(final HttpServletRequest req, final HttpServletResponse res) {
+            return this.conditionlet.doEvaluate(req, res, this.instance);
+        }
+    }
+
+    private static final class CompiledAction {
+
+        private final String id;
+        private final RuleActionlet<RuleComponentInstance> actionlet;
+        private final RuleComponentInstance instance;
+
+        @SuppressWarnings("unchecked")
+        private CompiledAction(final RuleAction ruleAction) {
+
+            this.id        = ruleAction.getId();
+            this.actionlet = ruleAction.getActionDefinition();
+            if (null == this.actionlet) {
+                throw new RuleConstructionFailedException("RuleActionlet %s doesn't exist", ruleAction.getActionlet());
+            }
+
+            this.instance = this.actionlet.doCheckValid(ruleAction);
+        }
+
+        private void evaluate(final HttpServletRequest req, final HttpServletResponse res) {
+            this.actionlet.doEvaluate(req, res, this.instance);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.dotmarketing.portlets.rules.business;
+
+import com.dotcms.util.GeoIp2CityDbUtil;
+import com.dotcms.util.HttpRequestDataUtil;
+import com.dotcms.visitor.business.VisitorAPI;
+import com.dotcms.visitor.domain.Visitor;
+import com.dotmarketing.portlets.rules.conditionlet.Location;
+import eu.bitwalker.useragentutils.UserAgent;
+import io.vavr.control.Try;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Facts about the current request that several conditionlets need (the visitor's IP address, the parsed user agent,
+ * the geolocation of the IP, the visitor): they are worked out the first time a conditionlet asks for them and shared
+ * by the rest of the conditions evaluated on the same request, instead of parsing the user agent or querying the
+ * GeoIP database once per condition.
+ * <p>
+ * The context lives on a request attribute, so it is shared by all the rules fired on the request. The failed lookups
+ * are kept as well, so a lookup that fails is not retried on the same request.
+ */
+public class RuleEvaluationContext {
+
+    public static final String RULE_EVALUATION_CONTEXT_ATTRIBUTE = "com.dotcms.rules.evaluationContext";
+
+    private final HttpServletRequest request;
+    private final Map<String, Object> facts = new HashMap<>();
+
+    private RuleEvaluationContext(final HttpServletRequest request) {
+        this.request = request;
+    }
+
+    /**
+     * Returns the context of the request, creating it on the first call
+     * @param request {@link HttpServletRequest}
+     * @return RuleEvaluationContext
+     */
+    public static RuleEvaluationContext get(final HttpServletRequest request) {
+
+        RuleEvaluationContext context = (RuleEvaluationContext) request.getAttribute(RULE_EVALUATION_CONTEXT_ATTRIBUTE);
+        if (null == context) {
+
+            context = new RuleEvaluationContext(request);
+            request.setAttribute(RULE_EVALUATION_CONTEXT_ATTRIBUTE, context);
+        }
+
+        return context;
+    }
+
+    /**
+     * IP address of the visitor, see {@link HttpRequestDataUtil#getIpAddress(HttpServletRequest)}
+     * @return InetAddress
+     * @throws UnknownHostException
+     */
+    public InetAddress getIpAddress() throws UnknownHostException {
+
+        final Try<InetAddress> address = this.getFact("ipAddress",
+                () -> Try.of(() -> HttpRequestDataUtil.getIpAddress(this.request)));
+
+        return address.getOrElseThrow(e -> e instanceof UnknownHostException?
+                (UnknownHostException) e: new UnknownHostException(e.getMessage()));
+    }
+
+    /**
+     * User agent of the request, parsed from the {@code User-Agent} header
+     * @return UserAgent
+     */
+    public UserAgent getUserAgent() {
+
+        return this.getFact("userAgent",
+                () -> UserAgent.parseUserAgentString(this.request.getHeader("User-Agent")));
+    }
+
+    /**
+     * Country ISO code of the visitor's IP address
+     * @param geoIp2Util {@link GeoIp2CityDbUtil} to look it up with
+     * @return Try with the country code, or the failure of the lookup
+     */
+    public Try<String> getCountryIsoCode(final GeoIp2CityDbUtil geoIp2Util) {
+
+        return this.getFact("countryIsoCode",
+                () -> Try.of(() -> geoIp2Util.getCountryIsoCode(this.getIpAddress().getHostAddress())));
+    }
+
+    /**
+     * Current date and time on the visitor's time zone, according to the visitor's IP address
+     * @param geoIp2Util {@link GeoIp2CityDbUtil} to look it up with
+     * @return Try with the date time, or the failure of the lookup
+     */
+    public Try<Calendar> getDateTime(final GeoIp2CityDbUtil geoIp2Util) {
+
+        return this.getFact("dateTime",
+                () -> Try.of(() -> geoIp2Util.getDateTime(this.getIpAddress().getHostAddress())));
+    }
+
+    /**
+     * Location of the visitor's IP address
+     * @param geoIp2Util {@link GeoIp2CityDbUtil} to look it up with
+     * @return Try with the location, or the failure of the lookup
+     */
+    public Try<Location> getLocation(final GeoIp2CityDbUtil geoIp2Util) {
+
+        return this.getFact("location",
+                () -> Try.of(() -> geoIp2Util.getLocationByIp(this.getIpAddress().getHostAddress())));
+    }
+
+    /**
+     * Visitor of the request, see {@link VisitorAPI#getVisitor(HttpServletRequest)}
+     * @param visitorAPI {@link VisitorAPI} to get it from
+     * @return Optional visitor
+     */
+    public Optional<Visitor> getVisitor(final VisitorAPI visitorAPI) {
+        return this.getFact("visitor", () -> visitorAPI.getVisitor(this.request));
+    }
+
+    /**
+     * Returns the fact stored under the key, working it out with the supplier the first time it is asked for. Lets
+     * custom conditionlets share their own facts
+     * @param key      {@link String} name of the fact
+     * @param supplier {@link Supplier} works out the fact
+     * @return T
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getFact(final String key, final Supplier<T> supplier) {
+
+        if (this.facts.containsKey(key)) {
+            return (T) this.facts.get(key);
+        }
+
+        final T fact = supplier.get();
+        this.facts.put(key, fact);
+        return fact;
+    }
+}
@@ -207,8 +207,8 @@ public final class RulesEngine {
             for (Rule rule : rules) {
                 try {
                 	long before = System.currentTimeMillis();
-                    rule.checkValid(); // @todo ggranum: this should actually be done on writing to the DB, or at worst reading from.
-                    boolean evaled = rule.evaluate(req, res);
+                    // the rule is validated and compiled once per version of the rules cache
+                    boolean evaled = CompiledRule.of(rule).evaluate(req, res);
 
                     if(res.isCommitted()) {
                       return;
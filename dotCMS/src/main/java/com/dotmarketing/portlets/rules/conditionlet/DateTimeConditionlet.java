@@ -1,11 +1,10 @@
 package com.dotmarketing.portlets.rules.conditionlet;
 
 import com.dotcms.repackage.com.google.common.annotations.VisibleForTesting;
-import com.dotcms.repackage.com.maxmind.geoip2.exception.GeoIp2Exception;
 import org.apache.logging.log4j.util.Strings;
 import com.dotcms.util.GeoIp2CityDbUtil;
-import com.dotcms.util.HttpRequestDataUtil;
 import com.dotmarketing.portlets.rules.RuleComponentInstance;
+import com.dotmarketing.portlets.rules.business.RuleEvaluationContext;
 import com.dotmarketing.portlets.rules.exception.ComparisonNotPresentException;
 import com.dotmarketing.portlets.rules.exception.ComparisonNotSupportedException;
 import com.dotmarketing.portlets.rules.exception.RuleEvaluationFailedException;
@@ -18,8 +17,6 @@ import com.dotmarketing.util.Logger;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.IOException;
-import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -94,19 +91,16 @@ public class DateTimeConditionlet extends Conditionlet<DateTimeConditionlet.Inst
 
     private LocalDateTime lookupDateTime(HttpServletRequest request) {
         LocalDateTime localDateTime = null;
-        InetAddress address;
+        RuleEvaluationContext context = RuleEvaluationContext.get(request);
         try {
-            address = HttpRequestDataUtil.getIpAddress(request);
+            context.getIpAddress();
         } catch (UnknownHostException e) {
             throw new RuleEvaluationFailedException(e, "Unknown host.");
         }
-        String ipAddress = address.getHostAddress();
-        Calendar dateTime = null;
-        try {
-            dateTime = geoIp2Util.getDateTime(ipAddress);
-        } catch (IOException | GeoIp2Exception e) {
+        Calendar dateTime = context.getDateTime(geoIp2Util).getOrElseGet(e -> {
             Logger.error(this, "Could not look up country for request. Using 'unknown': " + request.getRequestURL());
-        }
+            return null;
+        });
 
         if(dateTime!=null) {
             localDateTime = LocalDateTime.ofInstant(dateTime.toInstant(), ZoneId.systemDefault());
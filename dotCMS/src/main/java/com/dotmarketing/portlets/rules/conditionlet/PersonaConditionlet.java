@@ -13,6 +13,7 @@ import com.dotmarketing.business.UserAPI;
 import com.dotmarketing.portlets.personas.business.PersonaAPI;
 import com.dotmarketing.portlets.personas.model.Persona;
 import com.dotmarketing.portlets.rules.RuleComponentInstance;
+import com.dotmarketing.portlets.rules.business.RuleEvaluationContext;
 import com.dotmarketing.portlets.rules.exception.ComparisonNotPresentException;
 import com.dotmarketing.portlets.rules.exception.ComparisonNotSupportedException;
 import com.dotmarketing.portlets.rules.exception.RuleEvaluationFailedException;
@@ -60,7 +61,7 @@ public class PersonaConditionlet extends Conditionlet<PersonaConditionlet.Instan
     public boolean evaluate(HttpServletRequest request, HttpServletResponse response, Instance instance) {
         boolean result;
         try {
-            Optional<Visitor> opt = visitorAPI.getVisitor(request);
+            Optional<Visitor> opt = RuleEvaluationContext.get(request).getVisitor(visitorAPI);
             if(opt.isPresent()){
                 Visitor visitor = opt.get();
                 Persona currentPersona = (Persona) visitor.getPersona();
@@ -1,10 +1,9 @@
 package com.dotmarketing.portlets.rules.conditionlet;
 
 import com.dotcms.repackage.com.google.common.annotations.VisibleForTesting;
-import com.dotcms.repackage.com.maxmind.geoip2.exception.GeoIp2Exception;
 import com.dotcms.util.GeoIp2CityDbUtil;
-import com.dotcms.util.HttpRequestDataUtil;
 import com.dotmarketing.portlets.rules.RuleComponentInstance;
+import com.dotmarketing.portlets.rules.business.RuleEvaluationContext;
 import com.dotmarketing.portlets.rules.exception.ComparisonNotPresentException;
 import com.dotmarketing.portlets.rules.exception.ComparisonNotSupportedException;
 import com.dotmarketing.portlets.rules.exception.RuleEvaluationFailedException;
@@ -14,8 +13,6 @@ import com.dotmarketing.portlets.rules.parameter.comparison.Comparison;
 import com.dotmarketing.portlets.rules.parameter.display.DropdownInput;
 import com.dotmarketing.portlets.rules.parameter.type.TextType;
 import com.dotmarketing.util.Logger;
-import java.io.IOException;
-import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
@@ -312,20 +309,16 @@ public class UsersCountryConditionlet extends Conditionlet<UsersCountryCondition
     }
 
     private String lookupCountry(HttpServletRequest request) {
-        String country = "unknown";
-        InetAddress address;
+        RuleEvaluationContext context = RuleEvaluationContext.get(request);
         try {
-            address = HttpRequestDataUtil.getIpAddress(request);
+            context.getIpAddress();
         } catch (UnknownHostException e) {
             throw new RuleEvaluationFailedException(e, "Unknown host.");
         }
-        String ipAddress = address.getHostAddress();
-        try {
-            country = geoIp2Util.getCountryIsoCode(ipAddress);
-        } catch (IOException | GeoIp2Exception e) {
+        return context.getCountryIsoCode(geoIp2Util).getOrElseGet(e -> {
             Logger.error(this, "Could not look up country for request. Using 'unknown': " + request.getRequestURL());
-        }
-        return country;
+            return "unknown";
+        });
     }
 
     @Override
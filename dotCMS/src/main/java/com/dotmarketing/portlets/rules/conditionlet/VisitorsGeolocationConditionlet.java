@@ -1,10 +1,9 @@
 package com.dotmarketing.portlets.rules.conditionlet;
 
 import com.dotcms.repackage.com.google.common.annotations.VisibleForTesting;
-import com.dotcms.repackage.com.maxmind.geoip2.exception.GeoIp2Exception;
 import com.dotcms.util.GeoIp2CityDbUtil;
-import com.dotcms.util.HttpRequestDataUtil;
 import com.dotmarketing.portlets.rules.RuleComponentInstance;
+import com.dotmarketing.portlets.rules.business.RuleEvaluationContext;
 import com.dotmarketing.portlets.rules.exception.ComparisonNotPresentException;
 import com.dotmarketing.portlets.rules.exception.ComparisonNotSupportedException;
 import com.dotmarketing.portlets.rules.exception.RuleEngineException;
@@ -21,8 +20,6 @@ import com.dotmarketing.util.Logger;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.IOException;
-import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Map;
 
@@ -115,15 +112,14 @@ public class VisitorsGeolocationConditionlet extends Conditionlet<VisitorsGeoloc
     }
 
     private Location lookupLocation(HttpServletRequest request) {
+        RuleEvaluationContext context = RuleEvaluationContext.get(request);
         try {
-            InetAddress address = HttpRequestDataUtil.getIpAddress(request);
-            String ipAddress = address.getHostAddress();
-            return geoIp2Util.getLocationByIp(ipAddress);
+            context.getIpAddress();
         } catch (UnknownHostException e) {
             throw new RuleEvaluationFailedException(e, "Unknown host.");
-        } catch (IOException | GeoIp2Exception e) {
-            throw new RuleEvaluationFailedException(e, "Unable to get Location from IP. ");
         }
+        return context.getLocation(geoIp2Util).getOrElseThrow(
+                e -> new RuleEvaluationFailedException(e, "Unable to get Location from IP. "));
     }
 
     @Override
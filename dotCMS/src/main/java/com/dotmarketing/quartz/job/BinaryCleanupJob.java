@@ -12,6 +12,7 @@ import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.quartz.StatefulJob;
 
+import com.dotcms.storage.BinaryBlobStore;
 import com.dotmarketing.business.APILocator;
 import com.dotmarketing.util.Config;
 import com.dotmarketing.util.ConfigUtils;
@@ -63,6 +64,15 @@ public class BinaryCleanupJob implements StatefulJob {
       FileUtil.cleanTree(bundleFolder, olderThan);
     }
 
+    // and the binaries stored by content not referenced by any contentlet anymore
+    final BinaryBlobStore binaryBlobStore = BinaryBlobStore.getInstance();
+    if (binaryBlobStore.isEnabled()) {
+
+      Logger.info(this.getClass(), "Deleting unreferenced blobs");
+      final int removed = binaryBlobStore.collectGarbage();
+      Logger.info(this.getClass(), removed + " unreferenced blobs deleted");
+    }
+
   }
 
 }
@@ -10,6 +10,7 @@ import com.dotmarketing.beans.Host;
 import com.dotmarketing.business.APILocator;
 import com.dotmarketing.business.CacheLocator;
 import com.dotmarketing.business.PermissionAPI;
+import com.dotmarketing.business.cache.provider.caffine.CaffineCacheWarmStart;
 import com.dotmarketing.common.reindex.ReindexThread;
 import com.dotmarketing.db.HibernateUtil;
 import com.dotmarketing.exception.DotDataException;
@@ -17,6 +18,9 @@ import com.dotmarketing.exception.DotHibernateException;
 import com.dotmarketing.exception.DotRuntimeException;
 import com.dotmarketing.exception.DotSecurityException;
 import com.dotmarketing.init.DotInitScheduler;
+import com.dotmarketing.init.InitPhase;
+import com.dotmarketing.init.InitPhaseRunner;
+import com.dotmarketing.init.StartupReport;
 import com.dotmarketing.loggers.mbeans.Log4jConfig;
 import com.dotmarketing.menubuilders.RefreshMenus;
 import com.dotmarketing.plugin.PluginLoader;
@@ -31,7 +35,6 @@ import org.apache.commons.lang.SystemUtils;
 import org.apache.felix.framework.OSGIUtil;
 import org.apache.felix.framework.OSGIUtils;
 import org.apache.lucene.search.BooleanQuery;
-import org.quartz.SchedulerException;
 
 import javax.management.*;
 import javax.servlet.ServletConfig;
@@ -94,118 +97,77 @@ public class InitServlet extends HttpServlet {
         startupDate = new java.util.Date();
         new StartupLogger().log();
 
-        //Check and start the ES Content Store
-        APILocator.getContentletIndexAPI().checkAndInitialiazeIndex();
-        Logger.info(this, "");
-
-        Logger.info(this, "");
-
-        String classPath = config.getServletContext().getRealPath("/WEB-INF/lib");
-
-        new PluginLoader().loadPlugins(config.getServletContext().getRealPath("/"),classPath);
-
         int mc = Config.getIntProperty("lucene_max_clause_count", 4096);
         BooleanQuery.setMaxClauseCount(mc);
 
-        ImportAuditUtil.voidValidateAuditTableOnStartup();
+        //Adding the shutdown hook
+        Runtime.getRuntime().addShutdownHook(new ShutdownHookThread());
 
-        // set the application context for use all over the site
-        Logger.debug(this, "");
-        Logger.debug(this, "InitServlet: Setting Application Context!!!!!!");
+        final InitPhaseRunner runner = new InitPhaseRunner(
+                Config.getBooleanProperty("STARTUP_PARALLEL_INIT_ENABLED", true),
+                Config.getIntProperty("STARTUP_PARALLEL_INIT_THREADS", 4));
 
-        // creates the velocity folders to make sure they are there
-        new java.io.File(ConfigUtils.getDynamicVelocityPath() + File.separator + "live").mkdirs();
-        new java.io.File(ConfigUtils.getDynamicVelocityPath() + File.separator + "working").mkdirs();
+        /*
+         * Delete the files out of the temp dir (this gets huge), before any other phase writes its own there
+         */
+        runner.add(InitPhase.optional("tempFiles", () -> deleteFiles(new File(SystemUtils.JAVA_IO_TMPDIR))));
 
-        //Used com.dotcms.rendering.velocity.viewtools.NavigationWebAPI
-        String velocityRootPath = ConfigUtils.getDynamicVelocityPath() + java.io.File.separator;
-        String menuVLTPath = velocityRootPath + "menus" + java.io.File.separator;
+        //Check and start the ES Content Store
+        runner.add(InitPhase.required("index",
+                () -> APILocator.getContentletIndexAPI().checkAndInitialiazeIndex(), "tempFiles"));
 
-        java.io.File fileFolder = new java.io.File(menuVLTPath);
-        if (!fileFolder.exists()) {
-            fileFolder.mkdirs();
-        }
+        runner.add(InitPhase.required("plugins", () -> {
+            String classPath = config.getServletContext().getRealPath("/WEB-INF/lib");
+            new PluginLoader().loadPlugins(config.getServletContext().getRealPath("/"), classPath);
+        }, "tempFiles"));
 
-        if(Config.getBooleanProperty("CACHE_DISK_SHOULD_DELETE_NAVTOOL", false)){
-            // deletes all menues that have been generated
-            RefreshMenus.deleteMenus();
-            CacheLocator.getCacheAdministrator().flushGroupLocalOnly("navCache", false);
-        }
+        runner.add(InitPhase.required("importAudit", ImportAuditUtil::voidValidateAuditTableOnStartup, "tempFiles"));
 
-        
-        
-        try {
-            //Initialize the Cached Vanity URL cache
-            VanityUrlServices.getInstance().initializeVanityUrlCache();
-        }
-        catch(Exception e) {
-            Logger.error(InitServlet.class, e.getMessage(), e);
-        }
-        
-        Language language = langAPI.getDefaultLanguage();
+        runner.add(InitPhase.required("velocityFolders", this::initVelocityFolders, "tempFiles"));
 
-        if (language.getId() == 0) {
-            Logger.debug(this, "Creating Default Language");
-            langAPI.createDefaultLanguage();
-        }
+        runner.add(InitPhase.required("languages", () -> {
+            Language language = langAPI.getDefaultLanguage();
 
-        try {
-            DotInitScheduler.start();
-        } catch (SchedulerException e2) {
-            Logger.fatal(InitServlet.class, e2.getMessage(), e2);
-            throw new ServletException(e2.getMessage(), e2);
-        }
+            if (language.getId() == 0) {
+                Logger.debug(this, "Creating Default Language");
+                langAPI.createDefaultLanguage();
+            }
+        }, "tempFiles"));
 
-        //Adding the shutdown hook
-        Runtime.getRuntime().addShutdownHook(new ShutdownHookThread());
+        //Initialize the Cached Vanity URL cache
+        runner.add(InitPhase.optional("vanityUrls",
+                () -> VanityUrlServices.getInstance().initializeVanityUrlCache(), "index"));
 
-        /*
-         * Delete the files out of the temp dir (this gets huge)
-         */
+        //Ensure the system host and folder are in the system
+        runner.add(InitPhase.required("systemHost", this::initSystemHost, "index", "languages"));
 
-        deleteFiles(new File(SystemUtils.JAVA_IO_TMPDIR));
+        runner.add(InitPhase.required("scheduler", DotInitScheduler::start, "index", "plugins", "languages"));
 
-        // runs the InitThread
+        //Restore the hottest cache entries written by the nodes already running
+        runner.add(InitPhase.optional("cacheWarmStart", () -> CaffineCacheWarmStart.getInstance().start(),
+                "tempFiles"));
 
-        InitThread it = new InitThread();
-        it.start();
+        // Create the GeoIP2 database reader on startup since it takes around 2
+        // seconds to load the file. If the prop is not set, just move on
+        runner.add(InitPhase.optional("geoIp", this::initGeoIp, "tempFiles"));
 
-        //Ensure the system host is in the system
-        try {
-            APILocator.getHostAPI().findSystemHost(APILocator.getUserAPI().getSystemUser(), false);
-        } catch (DotDataException e1) {
-            Logger.fatal(InitServlet.class, e1.getMessage(), e1);
-            throw new ServletException("Unable to initialize system host", e1);
-        } catch (DotSecurityException e) {
-            Logger.fatal(InitServlet.class, e.getMessage(), e);
-            throw new ServletException("Unable to initialize system host", e);
-        }
+        //Just get the Engine to make sure it gets inited on time before the first request
+        runner.add(InitPhase.required("velocity", VelocityUtil::getEngine, "plugins", "velocityFolders"));
+
+        //Initializing felix
+        runner.add(InitPhase.required("osgi", () -> OSGIUtils.initializeOsgi(config.getServletContext()),
+                "importAudit", "vanityUrls", "systemHost", "scheduler", "velocity"));
 
         try {
-            APILocator.getFolderAPI().findSystemFolder();
-        } catch (DotDataException e1) {
-            Logger.error(InitServlet.class, e1.getMessage(), e1);
-            throw new ServletException("Unable to initialize system folder", e1);
+            runner.run();
+        } catch (DotRuntimeException e) {
+            throw new ServletException(e.getMessage(), e.getCause());
         }
 
-        // Create the GeoIP2 database reader on startup since it takes around 2
-        // seconds to load the file. If the prop is not set, just move on
-        if (UtilMethods.isSet(Config.getStringProperty(
-                "GEOIP2_CITY_DATABASE_PATH", ""))) {
-            try {
-                Logger.info(this, "");
-                GeoIp2CityDbUtil geoIp2Util = GeoIp2CityDbUtil.getInstance();
-                // Validation query to initialize the GeoIP DB
-                String state = geoIp2Util
-                        .getSubdivisionIsoCode("www.google.com");
-                Logger.info(this,
-                        "Local GeoIP2 DB connection established successfully!");
-            } catch (IOException | GeoIp2Exception | DotRuntimeException e) {
-                Logger.info(this,
-                        "Could not read from GeoIP2 DB: " + e.getMessage());
-            }
-            Logger.info(this, "");
-        }
+        // runs the InitThread
+
+        InitThread it = new InitThread();
+        it.start();
 
         /*
          * SHOULD BE LAST THING THAT HAPPENS
@@ -233,15 +195,9 @@ public class InitServlet extends HttpServlet {
             Logger.debug(InitServlet.class,"NullPointerException: " + e.getMessage(),e);
         }
 
-        //Just get the Engine to make sure it gets inited on time before the first request
-        VelocityUtil.getEngine();
-
         // Tell the world we are started up
         System.setProperty(WebKeys.DOTCMS_STARTED_UP, "true");
 
-        //Initializing felix
-        OSGIUtils.initializeOsgi(config.getServletContext());
-
         // Record how long it took to start us up.
         try{
 
@@ -249,6 +205,9 @@ public class InitServlet extends HttpServlet {
 
             System.setProperty(WebKeys.DOTCMS_STARTUP_TIME, String.valueOf(startupTime));
 
+            StartupReport.getInstance().finished(runner.isParallel());
+            Logger.debug(this, () -> "dotCMS init phases: " + StartupReport.getInstance().getTimings());
+
         } catch (Exception e) {
             Logger.warn(this.getClass(), "Unable to record startup time :" + e);
         }
@@ -256,6 +215,61 @@ public class InitServlet extends HttpServlet {
         ReindexThread.startThread();
     }
 
+    private void initVelocityFolders() {
+
+        // creates the velocity folders to make sure they are there
+        new java.io.File(ConfigUtils.getDynamicVelocityPath() + File.separator + "live").mkdirs();
+        new java.io.File(ConfigUtils.getDynamicVelocityPath() + File.separator + "working").mkdirs();
+
+        //Used com.dotcms.rendering.velocity.viewtools.NavigationWebAPI
+        String velocityRootPath = ConfigUtils.getDynamicVelocityPath() + java.io.File.separator;
+        String menuVLTPath = velocityRootPath + "menus" + java.io.File.separator;
+
+        java.io.File fileFolder = new java.io.File(menuVLTPath);
+        if (!fileFolder.exists()) {
+            fileFolder.mkdirs();
+        }
+
+        if(Config.getBooleanProperty("CACHE_DISK_SHOULD_DELETE_NAVTOOL", false)){
+            // deletes all menues that have been generated
+            RefreshMenus.deleteMenus();
+            CacheLocator.getCacheAdministrator().flushGroupLocalOnly("navCache", false);
+        }
+    }
+
+    private void initSystemHost() {
+
+        try {
+            APILocator.getHostAPI().findSystemHost(APILocator.getUserAPI().getSystemUser(), false);
+        } catch (DotDataException | DotSecurityException e) {
+            throw new DotRuntimeException("Unable to initialize system host", e);
+        }
+
+        try {
+            APILocator.getFolderAPI().findSystemFolder();
+        } catch (DotDataException e) {
+            throw new DotRuntimeException("Unable to initialize system folder", e);
+        }
+    }
+
+    private void initGeoIp() {
+
+        if (UtilMethods.isSet(Config.getStringProperty(
+                "GEOIP2_CITY_DATABASE_PATH", ""))) {
+            try {
+                GeoIp2CityDbUtil geoIp2Util = GeoIp2CityDbUtil.getInstance();
+                // Validation query to initialize the GeoIP DB
+                String state = geoIp2Util
+                        .getSubdivisionIsoCode("www.google.com");
+                Logger.info(this,
+                        "Local GeoIP2 DB connection established successfully!");
+            } catch (IOException | GeoIp2Exception | DotRuntimeException e) {
+                Logger.info(this,
+                        "Could not read from GeoIP2 DB: " + e.getMessage());
+            }
+        }
+    }
+
     protected void deleteFiles(java.io.File directory) {
         if (directory.isDirectory()) {
             // get all files for this directory
@@ -6,6 +6,8 @@ import com.dotmarketing.db.DbConnectionFactory;
 import com.dotmarketing.db.HibernateUtil;
 import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.exception.DotRuntimeException;
+import com.dotmarketing.init.StartupReport;
+import com.dotmarketing.init.StartupReport.Status;
 import com.dotmarketing.util.Config;
 import com.dotmarketing.util.Logger;
 import com.dotmarketing.util.TaskLocatorUtil;
@@ -209,7 +211,7 @@ public class StartupTasksExecutor {
 						HibernateUtil.closeAndCommitTransaction();
 						HibernateUtil.startTransaction();
 						Logger.info(this, "Running: " + name);
-						task.executeUpgrade();
+						executeUpgrade(task, StartupReport.RUN_ALWAYS, name);
 						if(name.equals("Task00001LoadSchema")){
 							firstTimeStart = true;
 						}
@@ -268,11 +270,11 @@ public class StartupTasksExecutor {
 							if(name.equals("Task00250UpdateMysqlTablesToINNODB")){
 								statement = connection.createStatement();
 								statement.execute(commit);
-								task.executeUpgrade();
+								executeUpgrade(task, StartupReport.RUN_ONCE, name);
 								statement = connection.createStatement();
 								statement.execute(lock);
 							}else{
-							  task.executeUpgrade();
+							  executeUpgrade(task, StartupReport.RUN_ONCE, name);
 							}
 						} 
 						// Nothing to execute, or the task ran ok so bump
@@ -351,6 +353,24 @@ public class StartupTasksExecutor {
 
 	}
 
+	/**
+	 * Runs the task recording how long it took into the {@link StartupReport}. The tasks are still run one after
+	 * another: the run always tasks rely on their name order (i.e. the schema is loaded first) and every run once task
+	 * bumps the db_version the next one is checked against.
+	 */
+	private void executeUpgrade(final StartupTask task, final String type, final String name)
+			throws DotDataException, DotRuntimeException {
 
+		final long start = System.currentTimeMillis();
+		try {
+			task.executeUpgrade();
+			StartupReport.getInstance().record(type, name, start, System.currentTimeMillis() - start,
+					Status.OK, null);
+		} catch (DotDataException | RuntimeException e) {
+			StartupReport.getInstance().record(type, name, start, System.currentTimeMillis() - start,
+					Status.FAILED, e.getMessage());
+			throw e;
+		}
+	}
 
 }
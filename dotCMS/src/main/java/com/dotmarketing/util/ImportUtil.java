@@ -8,6 +8,7 @@ import com.dotcms.rest.api.v1.temp.DotTempFile;
 import com.dotcms.rest.exception.BadRequestException;
 import com.dotcms.util.LowerKeyMap;
 import com.dotcms.util.RelationshipUtil;
+import com.dotcms.util.VoidDelegate;
 import com.dotmarketing.beans.Host;
 import com.dotmarketing.beans.Identifier;
 import com.dotmarketing.beans.Permission;
@@ -18,7 +19,9 @@ import com.dotmarketing.business.FactoryLocator;
 import com.dotmarketing.business.PermissionAPI;
 import com.dotmarketing.cache.FieldsCache;
 import com.dotmarketing.common.model.ContentletSearch;
+import com.dotmarketing.db.DbConnectionFactory;
 import com.dotmarketing.db.HibernateUtil;
+import com.dotmarketing.db.LocalTransaction;
 import com.dotmarketing.exception.DotDataException;
 import com.dotmarketing.exception.DotDataValidationException;
 import com.dotmarketing.exception.DotRuntimeException;
@@ -47,6 +50,7 @@ import com.dotmarketing.portlets.structure.model.Relationship;
 import com.dotmarketing.portlets.structure.model.Structure;
 import com.dotmarketing.portlets.workflows.business.WorkflowAPI;
 import com.dotmarketing.portlets.workflows.model.WorkflowAction;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.liferay.portal.language.LanguageException;
 import com.liferay.portal.language.LanguageUtil;
 import com.liferay.portal.model.User;
@@ -60,6 +64,13 @@ import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
@@ -91,9 +102,6 @@ public class ImportUtil {
     private final static String languageCodeHeader = "languageCode";
     private final static String countryCodeHeader = "countryCode";
 
-    private final static int commitGranularity = 10;
-    private final static int sleepTime = 200;
-
     public static final String[] IMP_DATE_FORMATS = new String[] { "d-MMM-yy", "MMM-yy", "MMMM-yy", "d-MMM", "dd-MMM-yyyy",
         "MM/dd/yy hh:mm aa", "MM/dd/yyyy hh:mm aa",	"MM/dd/yy HH:mm", "MM/dd/yyyy HH:mm", "MMMM dd, yyyy", "M/d/y", "M/d",
         "EEEE, MMMM dd, yyyy", "MM/dd/yyyy", "hh:mm:ss aa", "HH:mm:ss", "hh:mm aa", "yyyy-MM-dd" };
@@ -212,76 +220,110 @@ public class ImportUtil {
 
                 //Reading the whole file
                 if (headers.size() > 0) {
+                    //Saves run on the import's own transaction when the caller already opened one
+                    final int checkinThreads = preview || DbConnectionFactory.inTransaction() ? 0
+                            : Config.getIntProperty("IMPORT_CHECKIN_THREADS", 4);
+                    final int batchSize = Math.max(Config.getIntProperty("IMPORT_BATCH_SIZE", 100), 1);
+                    final int identifierFieldIndex = getIdentifierFieldIndex(results);
+                    final ImportCheckinQueue checkins = new ImportCheckinQueue(checkinThreads);
+                    final List<String[]> chunk = new ArrayList<>(batchSize);
+                    final List<String> rawChunk = new ArrayList<>(batchSize);
+                    boolean cancelled = false;
+
                     if (!preview) {
                         HibernateUtil.startTransaction();
                     }
                     String[] csvLine;
-                    while (csvreader.readRecord()) {
-                        if(ImportAuditUtil.cancelledImports.containsKey(importId)){
-                            break;
-                        }
-                        lineNumber++;
-                        csvLine = csvreader.getValues();
-                        try {
-                            lines++;
-                            Logger.debug(ImportUtil.class, "Line " + lines + ": (" + csvreader.getRawRecord() + ").");
-
-                            //Importing a line
-                            Long languageToImport = language;
-                            if ( language == -1 ) {
-                                if ( languageCodeHeaderColumn != -1 && countryCodeHeaderColumn != -1 ) {
-                                    Language dotCMSLanguage = langAPI.getLanguage( csvLine[languageCodeHeaderColumn], csvLine[countryCodeHeaderColumn] );
-                                    languageToImport = dotCMSLanguage.getId();
-                                }
+                    try {
+                        while (!cancelled) {
+                            chunk.clear();
+                            rawChunk.clear();
+                            while (chunk.size() < batchSize && csvreader.readRecord()) {
+                                chunk.add(csvreader.getValues());
+                                rawChunk.add(csvreader.getRawRecord());
                             }
+                            if (chunk.isEmpty()) {
+                                break;
+                            }
+
+                            //One index query for the existing contentlets of the whole chunk
+                            final KeyFieldLookup keyFieldLookup = KeyFieldLookup.prefetch(contentType, chunk,
+                                    identifierFieldIndex, keyFields, checkins, user);
 
-                            if ( languageToImport != -1 ) {
-                                /*
-                                Verifies if there was already imported a record with the same keys.
-                                Useful to know if we have batch uploads with the same keys, mostly visible for batch content uploads with multiple languages
-                                 */
-                                boolean sameKeyBatchInsert = true;
-                                if ( keyFields != null && !keyFields.isEmpty() ) {
-                                    for ( Integer column : keyFields.keySet() ) {
-                                        Field keyField = keyFields.get( column );
-										if (!counters.matchKey(keyField.getVelocityVarName(), csvLine[column])) {
-                                            sameKeyBatchInsert = false;
-                                            break;
+                            for (int i = 0; i < chunk.size(); i++) {
+                                if(ImportAuditUtil.cancelledImports.containsKey(importId)){
+                                    cancelled = true;
+                                    break;
+                                }
+                                lineNumber++;
+                                csvLine = chunk.get(i);
+                                try {
+                                    lines++;
+                                    Logger.debug(ImportUtil.class, "Line " + lines + ": (" + rawChunk.get(i) + ").");
+
+                                    //Importing a line
+                                    Long languageToImport = language;
+                                    if ( language == -1 ) {
+                                        if ( languageCodeHeaderColumn != -1 && countryCodeHeaderColumn != -1 ) {
+                                            Language dotCMSLanguage = langAPI.getLanguage( csvLine[languageCodeHeaderColumn], csvLine[countryCodeHeaderColumn] );
+                                            languageToImport = dotCMSLanguage.getId();
                                         }
                                     }
-                                }
 
-                                //Importing content record...
-                                importLine( csvLine, currentSiteId, contentType, preview, isMultilingual, user, results, lineNumber, languageToImport, headers, keyFields, choosenKeyField,
-                                        counters, keyContentUpdated, contentTypePermissions, uniqueFieldBeans, uniqueFields, relationships, onlyChild, onlyParent, sameKeyBatchInsert, wfActionId, request );
+                                    if ( languageToImport != -1 ) {
+                                        /*
+                                        Verifies if there was already imported a record with the same keys.
+                                        Useful to know if we have batch uploads with the same keys, mostly visible for batch content uploads with multiple languages
+                                         */
+                                        boolean sameKeyBatchInsert = true;
+                                        if ( keyFields != null && !keyFields.isEmpty() ) {
+                                            for ( Integer column : keyFields.keySet() ) {
+                                                Field keyField = keyFields.get( column );
+        										if (!counters.matchKey(keyField.getVelocityVarName(), csvLine[column])) {
+                                                    sameKeyBatchInsert = false;
+                                                    break;
+                                                }
+                                            }
+                                        }
+
+                                        //A line updating content still being saved waits for that save
+                                        final String lineKey = getLineKey(csvLine, identifierFieldIndex, keyFields);
+                                        if ( checkins.isPending( lineKey ) ) {
+                                            errors += checkins.drain( results, user );
+                                        }
+
+                                        //Importing content record...
+                                        importLine( csvLine, currentSiteId, contentType, preview, isMultilingual, user, results, lineNumber, languageToImport, headers, keyFields, choosenKeyField,
+                                                counters, keyContentUpdated, contentTypePermissions, uniqueFieldBeans, uniqueFields, relationships, onlyChild, onlyParent, sameKeyBatchInsert, wfActionId, request,
+                                                keyFieldLookup, checkins, lineKey );
 
-                                //Storing the record keys we just imported for a later reference...
-                                if ( keyFields != null && !keyFields.isEmpty() ) {
-                                    for ( Integer column : keyFields.keySet() ) {
-                                        Field keyField = keyFields.get( column );
-										counters.addKey(keyField.getVelocityVarName(), csvLine[column]);
+                                        //Storing the record keys we just imported for a later reference...
+                                        if ( keyFields != null && !keyFields.isEmpty() ) {
+                                            for ( Integer column : keyFields.keySet() ) {
+                                                Field keyField = keyFields.get( column );
+        										counters.addKey(keyField.getVelocityVarName(), csvLine[column]);
+                                            }
+                                        }
+                                    } else {
+                                        results.get( "errors" ).add( LanguageUtil.get( user, "Line--" ) + lineNumber + LanguageUtil.get( user, "Locale-not-found-for-languageCode" ) + " ='" + csvLine[languageCodeHeaderColumn] + "' countryCode='" + csvLine[countryCodeHeaderColumn] + "'" );
+                                        errors++;
                                     }
+                                } catch ( DotRuntimeException ex ) {
+                                    results.get("errors").add(getLineErrorMessage(user, lineNumber, ex.getMessage()));
+                                    errors++;
+                                    Logger.info(ImportUtil.class, "Error line: " + lines + " (" + rawChunk.get(i)
+                                            + "). Line Ignored.");
                                 }
-                            } else {
-                                results.get( "errors" ).add( LanguageUtil.get( user, "Line--" ) + lineNumber + LanguageUtil.get( user, "Locale-not-found-for-languageCode" ) + " ='" + csvLine[languageCodeHeaderColumn] + "' countryCode='" + csvLine[countryCodeHeaderColumn] + "'" );
-                                errors++;
                             }
 
-                            if ( !preview && (lineNumber % commitGranularity == 0) ) {
+                            errors += checkins.drain(results, user);
+                            if (!preview) {
                                 HibernateUtil.closeAndCommitTransaction();
-                                Thread.sleep( sleepTime );
                                 HibernateUtil.startTransaction();
                             }
-                        } catch ( DotRuntimeException ex ) {
-                            String errorMessage = LanguageUtil.get(user, ex.getMessage());
-                            if(errorMessage.indexOf("Line #") == -1){
-                                errorMessage = "Line #"+lineNumber+" "+errorMessage;
-                            }
-                            results.get("errors").add(errorMessage);
-                            errors++;
-                            Logger.info(ImportUtil.class, "Error line: " + lines + " (" + csvreader.getRawRecord()
-                                    + "). Line Ignored.");
                         }
+                    } finally {
+                        checkins.shutdown();
                     }
 
                     if(!preview){
@@ -673,7 +715,8 @@ public class ImportUtil {
     private static void importLine ( String[] line, String currentHostId, Structure contentType, boolean preview, boolean isMultilingual, User user, HashMap<String, List<String>> results, int lineNumber, long language,
             HashMap<Integer, Field> headers, HashMap<Integer, Field> keyFields, StringBuffer choosenKeyField, Counters counters,
             HashSet<String> keyContentUpdated, List<Permission> contentTypePermissions, List<UniqueFieldBean> uniqueFieldBeans, List<Field> uniqueFields, HashMap<Integer, Relationship> relationships, HashMap<Integer, Boolean> onlyChild, HashMap<Integer, Boolean> onlyParent,
-            boolean sameKeyBatchInsert, String wfActionId, final HttpServletRequest request ) throws DotRuntimeException {
+            boolean sameKeyBatchInsert, String wfActionId, final HttpServletRequest request, final KeyFieldLookup keyFieldLookup,
+            final ImportCheckinQueue checkins, final String lineKey ) throws DotRuntimeException {
 
         try {
             //Building a values HashMap based on the headers/columns position
@@ -879,14 +922,8 @@ public class ImportUtil {
             List<Contentlet> contentlets = new ArrayList<>();
             String conditionValues = "";
 
-            int identifierFieldIndex = -1;
-            try {
-                identifierFieldIndex = Integer.parseInt( results.get( "identifiers" ).get( 0 ) );
-            } catch ( Exception e ) {
-                Logger.debug(ImportUtil.class, e.getMessage(), e);
-            }
-
-            Logger.info(ImportUtil.class, "identifierFieldIndex: " + identifierFieldIndex);
+            final int identifierFieldIndex = getIdentifierFieldIndex( results );
+            Logger.debug(ImportUtil.class, "identifierFieldIndex: " + identifierFieldIndex);
 
             String identifier = null;
             if ( -1 < identifierFieldIndex ) {
@@ -897,30 +934,18 @@ public class ImportUtil {
             buffy.append("+structureName:").append(contentType.getVelocityVarName())
                     .append(" +working:true +deleted:false");
 
-            Logger.info(ImportUtil.class,"Identifier is set: " + UtilMethods.isSet( identifier ));
-            Logger.info(ImportUtil.class,"Keyfields size: " + keyFields.size());
+            Logger.debug(ImportUtil.class,"Identifier is set: " + UtilMethods.isSet( identifier ));
+            Logger.debug(ImportUtil.class,"Keyfields size: " + keyFields.size());
             if ( UtilMethods.isSet( identifier ) ) {
                 buffy.append(" +identifier:").append(identifier);
 
-                List<ContentletSearch> contentsSearch = conAPI.searchIndex( buffy.toString(), 0, -1, null, user, true );
-
-                if ( (contentsSearch == null) || (contentsSearch.size() == 0) ) {
+                final List<Contentlet> found = keyFieldLookup.findByIdentifier( identifier, buffy.toString() );
+                if ( found.isEmpty() ) {
 
                     Logger.warn(ImportUtil.class, "Line #" + lineNumber + ": Content not found with identifier " + identifier + "\n");
                     throw new DotRuntimeException( "Line #" + lineNumber + ": Content not found with identifier " + identifier + "\n" );
-                } else {
-
-                    Contentlet contentlet;
-                    for ( ContentletSearch contentSearch : contentsSearch ) {
-                        contentlet = conAPI.find( contentSearch.getInode(), user, true );
-                        if ( (contentlet != null) && InodeUtils.isSet( contentlet.getInode() ) ) {
-                            contentlets.add( contentlet );
-                        } else {
-                            Logger.warn(ImportUtil.class, "Line #" + lineNumber + ": Content not found with identifier " + identifier + "\n");
-                            throw new DotRuntimeException( "Line #" + lineNumber + ": Content not found with identifier " + identifier + "\n" );
-                        }
-                    }
                 }
+                contentlets.addAll( found );
             } else if (keyFields.size() > 0) {
                 for (Integer column : keyFields.keySet()) {
                     Field field = keyFields.get(column);
@@ -984,26 +1009,25 @@ public class ImportUtil {
                     buffy.append( " +languageId:" ).append( language );
                 }
 
-                Logger.info(ImportUtil.class, "buffy: " + buffy.toString());
-                List<ContentletSearch> cons = conAPI.searchIndex( buffy.toString(), 0, -1, null, user, true );
-                Logger.info(ImportUtil.class,"Cons: " + cons.size());
+                Logger.debug(ImportUtil.class, "buffy: " + buffy.toString());
+                final long languageFilter = !isMultilingual && !UtilMethods.isSet( identifier ) ? language : -1;
+                List<Contentlet> cons = keyFieldLookup.findByKeyFields( line, languageFilter, buffy.toString() );
+                Logger.debug(ImportUtil.class,"Cons: " + cons.size());
                 /*
                 We need to handle the case when keys are used, we could have a contentlet already saved with the same keys but different language
                 so the above query is not going to find it.
                  */
-                if ( cons == null || cons.isEmpty() ) {
+                if ( cons.isEmpty() ) {
                     if ( choosenKeyField.length() > 1 ) {
-                        cons = conAPI.searchIndex( noLanguageQuery, 0, -1, null, user, true );
-                        if (cons != null && !cons.isEmpty()) {
+                        cons = keyFieldLookup.findByKeyFields( line, -1, noLanguageQuery );
+                        if (!cons.isEmpty()) {
                             isMultilingual = true;
                         }
                     }
                 }
-                Logger.info(ImportUtil.class,"Cons: " + cons.size());
-                Contentlet con;
-                for (ContentletSearch contentletSearch: cons) {
-                    con = conAPI.find(contentletSearch.getInode(), user, true);
-                    if ((con != null) && InodeUtils.isSet(con.getInode())) {
+                Logger.debug(ImportUtil.class,"Cons: " + cons.size());
+                for (Contentlet con : cons) {
+                    if (InodeUtils.isSet(con.getInode())) {
                         boolean columnExists = false;
                         for (Integer column : keyFields.keySet()) {
                             Field field = keyFields.get(column);
@@ -1034,8 +1058,8 @@ public class ImportUtil {
                                     break;
                                 }
                             }else{
-                                Logger.info(ImportUtil.class,"conValue: " + conValue.toString());
-                                Logger.info(ImportUtil.class,"Value: " + value.toString());
+                                Logger.debug(ImportUtil.class,"conValue: " + conValue.toString());
+                                Logger.debug(ImportUtil.class,"Value: " + value.toString());
                                 if(conValue.toString().equalsIgnoreCase(value.toString())){
                                     columnExists = true;
                                 }else{
@@ -1044,7 +1068,7 @@ public class ImportUtil {
                                 }
                             }
                         }
-                        Logger.info(ImportUtil.class, "column exists: " + columnExists);
+                        Logger.debug(ImportUtil.class, "column exists: " + columnExists);
                         if(columnExists) {//aca entra
                             contentlets.add(con);
                             //Keep a register of all contentlets to be updated
@@ -1096,7 +1120,7 @@ public class ImportUtil {
             //Creating/updating content
             boolean isNew = false;
             Long existingMultilingualLanguage = null;//For multilingual batch imports we need the language of an existing contentlet if there is any
-            Logger.info(ImportUtil.class,"Contentlets Size: " + contentlets.size());
+            Logger.debug(ImportUtil.class,"Contentlets Size: " + contentlets.size());
             if ( contentlets.size() == 0 ) {
                 counters.setNewContentCounter( counters.getNewContentCounter() + 1 );
                 isNew = true;
@@ -1135,7 +1159,7 @@ public class ImportUtil {
 
                     contentlets = multilingualContentlets;
                 }
-                Logger.info(ImportUtil.class,"isNew: " + isNew);
+                Logger.debug(ImportUtil.class,"isNew: " + isNew);
 
                 if ( !isNew ) {
                     if ( conditionValues.equals( "" ) || !keyContentUpdated.contains( conditionValues ) || isMultilingual ) {
@@ -1144,7 +1168,7 @@ public class ImportUtil {
                             keyContentUpdated.add( conditionValues );
                         }
                     }
-                    Logger.info(ImportUtil.class,"Contentlets size: " + contentlets.size());
+                    Logger.debug(ImportUtil.class,"Contentlets size: " + contentlets.size());
                     if ( contentlets.size() == 1 ) {
                         results.get( "warnings" ).add(
                                 LanguageUtil.get( user, "Line--" ) + lineNumber + ". " + LanguageUtil.get( user, "The-key-fields-chosen-match-one-existing-content(s)" ) + " - "
@@ -1158,326 +1182,385 @@ public class ImportUtil {
                 }
             }
 
-            for (Contentlet cont : contentlets) {
+            final List<Callable<Contentlet>> saves = new ArrayList<>();
+            final List<VoidDelegate> tags = new ArrayList<>();
+            try {
+                for (Contentlet cont : contentlets) {
 
-                //Clean up any existing workflow action
-                cont.resetActionId();
+                    //Clean up any existing workflow action
+                    cont.resetActionId();
 
-                int wfActionIdIndex = -1;
-                try {
-                    List<String> workflowActionKey = results.get(Contentlet.WORKFLOW_ACTION_KEY);
-                    if (UtilMethods.isSet(workflowActionKey)) {
-                        wfActionIdIndex = Integer
-                                .parseInt(results.get(Contentlet.WORKFLOW_ACTION_KEY).get(0));
+                    int wfActionIdIndex = -1;
+                    try {
+                        List<String> workflowActionKey = results.get(Contentlet.WORKFLOW_ACTION_KEY);
+                        if (UtilMethods.isSet(workflowActionKey)) {
+                            wfActionIdIndex = Integer
+                                    .parseInt(results.get(Contentlet.WORKFLOW_ACTION_KEY).get(0));
+                        }
+                    } catch (Exception e) {
+                        Logger.warn(ImportUtil.class, e.getMessage());
                     }
-                } catch (Exception e) {
-                    Logger.warn(ImportUtil.class, e.getMessage());
-                }
 
-                String wfActionIdStr;
-                if ( -1 < wfActionIdIndex ) {
-                    wfActionIdStr = line[wfActionIdIndex];
-                    if(UtilMethods.isSet(wfActionIdStr)) {
-                        cont.setActionId(wfActionIdStr);
+                    String wfActionIdStr;
+                    if ( -1 < wfActionIdIndex ) {
+                        wfActionIdStr = line[wfActionIdIndex];
+                        if(UtilMethods.isSet(wfActionIdStr)) {
+                            cont.setActionId(wfActionIdStr);
+                        }
                     }
-                }
-
-                //Fill the new contentlet with the data
-                for (Integer column : headers.keySet()) {
-                    Field field = headers.get(column);
-                    Object value = values.get(column);
 
-                    if (field.getFieldType().equals(Field.FieldType.HOST_OR_FOLDER.toString())) { // DOTCMS-4484
+                    //Fill the new contentlet with the data
+                    for (Integer column : headers.keySet()) {
+                        Field field = headers.get(column);
+                        Object value = values.get(column);
 
-                        //Verify if the value belongs to a Host or to a Folder
-                        Folder folder = null;
-                        Host host = hostAPI.find( value.toString(), user, false );
-                        //If a host was not found using the given value (identifier) it must be a folder
-                        if ( !UtilMethods.isSet( host ) || !InodeUtils.isSet( host.getInode() ) ) {
-                            folder = folderAPI.find( value.toString(), user, false );
-                        }
+                        if (field.getFieldType().equals(Field.FieldType.HOST_OR_FOLDER.toString())) { // DOTCMS-4484
 
-                        if (folder != null && folder.getInode().equalsIgnoreCase(value.toString())) {
-                            if (!permissionAPI.doesUserHavePermission(folder,PermissionAPI.PERMISSION_CAN_ADD_CHILDREN,user)) {
-                                throw new DotSecurityException( "User has no Add Children Permissions on selected folder" );
+                            //Verify if the value belongs to a Host or to a Folder
+                            Folder folder = null;
+                            Host host = hostAPI.find( value.toString(), user, false );
+                            //If a host was not found using the given value (identifier) it must be a folder
+                            if ( !UtilMethods.isSet( host ) || !InodeUtils.isSet( host.getInode() ) ) {
+                                folder = folderAPI.find( value.toString(), user, false );
                             }
-                            cont.setHost(folder.getHostId());
-                            cont.setFolder(value.toString());
-                        } else if (host != null) {
-                            if (!permissionAPI.doesUserHavePermission(host,PermissionAPI.PERMISSION_CAN_ADD_CHILDREN,user)) {
-                                throw new DotSecurityException("User has no Add Children Permissions on selected host");
+
+                            if (folder != null && folder.getInode().equalsIgnoreCase(value.toString())) {
+                                if (!permissionAPI.doesUserHavePermission(folder,PermissionAPI.PERMISSION_CAN_ADD_CHILDREN,user)) {
+                                    throw new DotSecurityException( "User has no Add Children Permissions on selected folder" );
+                                }
+                                cont.setHost(folder.getHostId());
+                                cont.setFolder(value.toString());
+                            } else if (host != null) {
+                                if (!permissionAPI.doesUserHavePermission(host,PermissionAPI.PERMISSION_CAN_ADD_CHILDREN,user)) {
+                                    throw new DotSecurityException("User has no Add Children Permissions on selected host");
+                                }
+                                cont.setHost(value.toString());
+                                cont.setFolder(FolderAPI.SYSTEM_FOLDER);
                             }
-                            cont.setHost(value.toString());
-                            cont.setFolder(FolderAPI.SYSTEM_FOLDER);
+                            continue;
                         }
-                        continue;
-                    }
-
-                    if(UtilMethods.isSet(field.getDefaultValue()) && (!UtilMethods.isSet(String.valueOf(value)) || value==null)){
-                        value = field.getDefaultValue();
-                    }
 
-                    if(field.getFieldContentlet().startsWith("integer") || field.getFieldContentlet().startsWith("float")){
-                        if(!UtilMethods.isSet(String.valueOf(value)) && !field.isRequired()){
-                            value = "0";
+                        if(UtilMethods.isSet(field.getDefaultValue()) && (!UtilMethods.isSet(String.valueOf(value)) || value==null)){
+                            value = field.getDefaultValue();
                         }
-                    }
-                    try{
-                        if (new LegacyFieldTransformer(field).from().typeName().equals(BinaryField.class.getName()) && !preview){
-                            if(UtilMethods.isSet(value)){
-                                final DotTempFile tempFile = APILocator.getTempFileAPI().createTempFileFromUrl(null,request,new URL(value.toString()),-1,-1);
-                                cont.setBinary(field.getVelocityVarName(), tempFile.file);
+
+                        if(field.getFieldContentlet().startsWith("integer") || field.getFieldContentlet().startsWith("float")){
+                            if(!UtilMethods.isSet(String.valueOf(value)) && !field.isRequired()){
+                                value = "0";
                             }
-                        } else {
-                            conAPI.setContentletProperty(cont, field, value);
                         }
-                    }catch(DotContentletStateException de){
-                        if(!field.isRequired() || (value!=null && UtilMethods.isSet(String.valueOf(value)))){
-                            throw de;
+                        try{
+                            if (new LegacyFieldTransformer(field).from().typeName().equals(BinaryField.class.getName()) && !preview){
+                                if(UtilMethods.isSet(value)){
+                                    final DotTempFile tempFile = APILocator.getTempFileAPI().createTempFileFromUrl(null,request,new URL(value.toString()),-1,-1);
+                                    cont.setBinary(field.getVelocityVarName(), tempFile.file);
+                                }
+                            } else {
+                                conAPI.setContentletProperty(cont, field, value);
+                            }
+                        }catch(DotContentletStateException de){
+                            if(!field.isRequired() || (value!=null && UtilMethods.isSet(String.valueOf(value)))){
+                                throw de;
+                            }
                         }
                     }
-                }
 
-                // Retaining Categories when content updated with partial imports
-                if(UtilMethods.isSet(cont.getIdentifier())){
+                    // Retaining Categories when content updated with partial imports
+                    if(UtilMethods.isSet(cont.getIdentifier())){
 
-                    List<Field> structureFields = FieldsCache.getFieldsByStructureInode(contentType.getInode());
-                    List<Field> categoryFields = new ArrayList<>();
-                    List<Field> nonHeaderCategoryFields = new ArrayList<>();
-                    List<Category> nonHeaderParentCats = new ArrayList<>();
-                    List<Category> categoriesToRetain = new ArrayList<>();
-                    List<Category> categoriesOnWorkingContent = new ArrayList<>();
+                        List<Field> structureFields = FieldsCache.getFieldsByStructureInode(contentType.getInode());
+                        List<Field> categoryFields = new ArrayList<>();
+                        List<Field> nonHeaderCategoryFields = new ArrayList<>();
+                        List<Category> nonHeaderParentCats = new ArrayList<>();
+                        List<Category> categoriesToRetain = new ArrayList<>();
+                        List<Category> categoriesOnWorkingContent = new ArrayList<>();
 
-                    for(Field field : structureFields){
-                        if(field.getFieldType().equals(Field.FieldType.CATEGORY.toString()) || field.getFieldType().equals(Field.FieldType.CATEGORIES_TAB.toString()))
-                            categoryFields.add(field);
-                    }
+                        for(Field field : structureFields){
+                            if(field.getFieldType().equals(Field.FieldType.CATEGORY.toString()) || field.getFieldType().equals(Field.FieldType.CATEGORIES_TAB.toString()))
+                                categoryFields.add(field);
+                        }
 
-                    for (Integer column : headers.keySet()) {
-                        Field headerField = headers.get(column);
-                        Iterator<Field> itr = categoryFields.iterator();
-                        while(itr.hasNext()){
-                            Field field = itr.next();
-                            if(headerField.getInode().equalsIgnoreCase(field.getInode())){
-                                itr.remove();
+                        for (Integer column : headers.keySet()) {
+                            Field headerField = headers.get(column);
+                            Iterator<Field> itr = categoryFields.iterator();
+                            while(itr.hasNext()){
+                                Field field = itr.next();
+                                if(headerField.getInode().equalsIgnoreCase(field.getInode())){
+                                    itr.remove();
+                                }
                             }
                         }
-                    }
 
-                    nonHeaderCategoryFields.addAll(categoryFields);
+                        nonHeaderCategoryFields.addAll(categoryFields);
 
-                    for(Field field : nonHeaderCategoryFields){
-                        nonHeaderParentCats.add(catAPI.find(field.getValues(), user, false));
-                    }
+                        for(Field field : nonHeaderCategoryFields){
+                            nonHeaderParentCats.add(catAPI.find(field.getValues(), user, false));
+                        }
 
-                    for(Category cat : nonHeaderParentCats){
-                        categoriesToRetain.addAll(catAPI.getAllChildren(cat, user, false));
-                    }
+                        for(Category cat : nonHeaderParentCats){
+                            categoriesToRetain.addAll(catAPI.getAllChildren(cat, user, false));
+                        }
 
-                    /*
-                     We need to verify that we are not trying to save a contentlet that have as language the default language because that mean that
-                     contentlet for that default language couldn't exist, we are just saving it after all....
-                     */
-                    Long languageId = langAPI.getDefaultLanguage().getId();
-                    if ( existingMultilingualLanguage != null ) {
-                        languageId = existingMultilingualLanguage;//Using the language another an existing contentlet with the same identifier
-                    }
+                        /*
+                         We need to verify that we are not trying to save a contentlet that have as language the default language because that mean that
+                         contentlet for that default language couldn't exist, we are just saving it after all....
+                         */
+                        Long languageId = langAPI.getDefaultLanguage().getId();
+                        if ( existingMultilingualLanguage != null ) {
+                            languageId = existingMultilingualLanguage;//Using the language another an existing contentlet with the same identifier
+                        }
 
-                    Contentlet workingCont;
-                    try{
-                        workingCont = conAPI.findContentletByIdentifier( cont.getIdentifier(), false, languageId, user, false );
-                        categoriesOnWorkingContent = catAPI.getParents( workingCont, user, false );
-                    }catch(DotContentletStateException dse){
-                        Logger.error(ImportContentletsAction.class,dse.getMessage());
-                    }
+                        Contentlet workingCont;
+                        try{
+                            workingCont = conAPI.findContentletByIdentifier( cont.getIdentifier(), false, languageId, user, false );
+                            categoriesOnWorkingContent = catAPI.getParents( workingCont, user, false );
+                        }catch(DotContentletStateException dse){
+                            Logger.error(ImportContentletsAction.class,dse.getMessage());
+                        }
 
-                    for(Category existingCat : categoriesOnWorkingContent){
-                        for(Category retainCat :categoriesToRetain){
-                            if(existingCat.compareTo(retainCat) == 0){
-                                categories.add(existingCat);
+                        for(Category existingCat : categoriesOnWorkingContent){
+                            for(Category retainCat :categoriesToRetain){
+                                if(existingCat.compareTo(retainCat) == 0){
+                                    categories.add(existingCat);
+                                }
                             }
                         }
                     }
-                }
 
-                //Check if line has repeated values for a unique field, if it does then ignore the line
-                boolean ignoreLine = false;
-                if(!uniqueFieldBeans.isEmpty()){
-                    ignoreLine =
-                            validateUniqueFields(user, results, lineNumber, language, counters,
-                                    uniqueFieldBeans,
-                                    uniqueFields);
-                }
+                    //Check if line has repeated values for a unique field, if it does then ignore the line
+                    boolean ignoreLine = false;
+                    if(!uniqueFieldBeans.isEmpty()){
+                        ignoreLine =
+                                validateUniqueFields(user, results, lineNumber, language, counters,
+                                        uniqueFieldBeans,
+                                        uniqueFields);
+                    }
 
-                if(!ignoreLine){
-                    //Check the new contentlet with the validator
-                    ContentletRelationships contentletRelationships = loadRelationshipRecords(
-                            csvRelationshipRecordsParentOnly, csvRelationshipRecordsChildOnly,
-                            csvRelationshipRecords, cont);
+                    if(!ignoreLine){
+                        //Check the new contentlet with the validator
+                        ContentletRelationships contentletRelationships = loadRelationshipRecords(
+                                csvRelationshipRecordsParentOnly, csvRelationshipRecordsChildOnly,
+                                csvRelationshipRecords, cont);
 
-                    try {
-                        conAPI.validateContentlet(cont, contentletRelationships, new ArrayList<>(categories));
-                    } catch (DotContentletValidationException ex) {
-                        StringBuffer sb = new StringBuffer("Line #" + lineNumber + " contains errors\n");
-                        HashMap<String,List<Field>> errors = (HashMap<String,List<Field>>) ex.getNotValidFields();
-                        Set<String> keys = errors.keySet();
-                        for (String key : keys) {
-                            sb.append(key + ": ");
-                            List<Field> fields = errors.get(key);
-                            int count = 0;
-                            for(Field field : fields){
-                                if(count>0){
-                                    sb.append(", ");
+                        try {
+                            conAPI.validateContentlet(cont, contentletRelationships, new ArrayList<>(categories));
+                        } catch (DotContentletValidationException ex) {
+                            StringBuffer sb = new StringBuffer("Line #" + lineNumber + " contains errors\n");
+                            HashMap<String,List<Field>> errors = (HashMap<String,List<Field>>) ex.getNotValidFields();
+                            Set<String> keys = errors.keySet();
+                            for (String key : keys) {
+                                sb.append(key + ": ");
+                                List<Field> fields = errors.get(key);
+                                int count = 0;
+                                for(Field field : fields){
+                                    if(count>0){
+                                        sb.append(", ");
+                                    }
+                                    sb.append(field.getVelocityVarName());
+                                    count++;
                                 }
-                                sb.append(field.getVelocityVarName());
-                                count++;
+                                sb.append("\n");
                             }
-                            sb.append("\n");
+                            throw new DotRuntimeException(sb.toString());
                         }
-                        throw new DotRuntimeException(sb.toString());
-                    }
 
-                    /*
-                    Validating the action to execute
-                     */
-                    WorkflowAction executeWfAction = null;
-                    boolean userCanExecuteAction = false;
-                    // Check if the CSV file have set an actionId to execute and if the user
-                    // have permission to execute the action
-                    if (UtilMethods
-                            .isSet(cont.getActionId())) {
-
-                        try {
-                            executeWfAction = validateWorkflowAction(user, cont);
-                        } catch (Exception e) {
-
-                            Logger.debug(ImportUtil.class, results + ", cont: " + cont + ", user: " +  user + ", lineNumber " +  lineNumber +
-                                    "validateWorkflowAction, message.import.contentlet.invalid.action.selected: " + e.getMessage());
-                            setActionWarning(results, cont, user, lineNumber,
-                                    "message.import.contentlet.invalid.action.found.in.csv",
-                                    e.getMessage());
-                        }
+                        /*
+                        Validating the action to execute
+                         */
+                        WorkflowAction executeWfAction = null;
+                        boolean userCanExecuteAction = false;
+                        // Check if the CSV file have set an actionId to execute and if the user
+                        // have permission to execute the action
+                        if (UtilMethods
+                                .isSet(cont.getActionId())) {
+
+                            try {
+                                executeWfAction = validateWorkflowAction(user, cont);
+                            } catch (Exception e) {
+
+                                Logger.debug(ImportUtil.class, results + ", cont: " + cont + ", user: " +  user + ", lineNumber " +  lineNumber +
+                                        "validateWorkflowAction, message.import.contentlet.invalid.action.selected: " + e.getMessage());
+                                setActionWarning(results, cont, user, lineNumber,
+                                        "message.import.contentlet.invalid.action.found.in.csv",
+                                        e.getMessage());
+                            }
 
-                        if (null != executeWfAction && UtilMethods
-                                .isSet(executeWfAction.getId())) {
-                            userCanExecuteAction = true;
+                            if (null != executeWfAction && UtilMethods
+                                    .isSet(executeWfAction.getId())) {
+                                userCanExecuteAction = true;
+                            }
                         }
-                    }
 
-                    //If the CSV line doesn't have set a wfActionId or the user doesn't have
-                    // permission to execute this action then check if and action was set int
-                    // the import dropdown
-                    if (!userCanExecuteAction && UtilMethods.isSet(wfActionId)) {
+                        //If the CSV line doesn't have set a wfActionId or the user doesn't have
+                        // permission to execute this action then check if and action was set int
+                        // the import dropdown
+                        if (!userCanExecuteAction && UtilMethods.isSet(wfActionId)) {
+
+                            try {
+                                cont.setActionId(wfActionId);
+                                executeWfAction = validateWorkflowAction(user, cont);
+                            } catch (Exception e) {
+
+                                Logger.debug(ImportUtil.class, results + ", cont: " + cont + ", user: " +  user + ", lineNumber " +  lineNumber +
+                                        "message.import.contentlet.invalid.action.selected: " + e.getMessage());
+                                setActionWarning(results, cont, user, lineNumber,
+                                        "message.import.contentlet.invalid.action.selected",
+                                        e.getMessage());
+                            }
 
-                        try {
-                            cont.setActionId(wfActionId);
-                            executeWfAction = validateWorkflowAction(user, cont);
-                        } catch (Exception e) {
-
-                            Logger.debug(ImportUtil.class, results + ", cont: " + cont + ", user: " +  user + ", lineNumber " +  lineNumber +
-                                    "message.import.contentlet.invalid.action.selected: " + e.getMessage());
-                            setActionWarning(results, cont, user, lineNumber,
-                                    "message.import.contentlet.invalid.action.selected",
-                                    e.getMessage());
+                            if (null != executeWfAction && UtilMethods
+                                    .isSet(executeWfAction.getId())) {
+                                userCanExecuteAction = true;
+                            }
                         }
 
-                        if (null != executeWfAction && UtilMethods
-                                .isSet(executeWfAction.getId())) {
-                            userCanExecuteAction = true;
+                        //If not preview save the contentlet
+                        if (!preview) {
+                            cont.setLowIndexPriority(true);
+                            //The imported content is indexed in bulk by the reindex thread
+                            cont.setIndexPolicy(IndexPolicy.DEFER);
+
+                            final Contentlet contentlet = cont;
+                            final WorkflowAction workflowAction = userCanExecuteAction ? executeWfAction : null;
+                            final Set<Category> contentletCategories = new HashSet<>(categories);
+                            final boolean includesHostField = headersIncludeHostField;
+                            tags.add(() -> createTags(user, headers, values, contentlet, includesHostField));
+                            saves.add(() -> saveContentlet(user, contentTypePermissions, headers, values, contentlet,
+                                    workflowAction, contentletRelationships, contentletCategories, includesHostField));
+                        } else {
+                            countImported(counters, keyContentUpdated, isNew, conditionValues);
                         }
                     }
+                }
+            } finally {
+                //The contentlets of the line are saved by the check-in queue, even the ones before an error,
+                //and counted once they are saved
+                if (!saves.isEmpty()) {
+                    final boolean contentIsNew = isNew;
+                    final String contentKey = conditionValues;
+                    checkins.submit(lineNumber, lineKey, tags, saves, savedContentlet -> {
+                        results.get("lastInode").clear();
+                        results.get("lastInode").add(savedContentlet.getInode());
+                        countImported(counters, keyContentUpdated, contentIsNew, contentKey);
+                    });
+                }
+            }
+        } catch (Exception e) {
+            Logger.error(ImportUtil.class,e.getMessage(),e);
+            throw new DotRuntimeException(e.getMessage(),e);
+        }
+    }
 
-                    //If not preview save the contentlet
-                    if (!preview) {
-                        cont.setLowIndexPriority(true);
-
-                        if (userCanExecuteAction) {
-                          cont.setIndexPolicy(IndexPolicy.DEFER);
-
-                          Logger.info(ImportUtil.class, "fireContentWorkflow: " + executeWfAction.getName() + ", id: " + executeWfAction.getId());
-                            cont = workflowAPI.fireContentWorkflow(cont,
-                                    new ContentletDependencies.Builder()
-                                            .respectAnonymousPermissions(Boolean.FALSE)
-                                            .modUser(user)
-                                            .relationships(contentletRelationships)
-                                            .workflowActionId(executeWfAction.getId())
-                                            .workflowActionComments("")
-                                            .workflowAssignKey("")
-                                            .categories(new ArrayList<>(categories))
-                                            .generateSystemEvent(Boolean.FALSE).build());
-                        } else {
-                            Logger.info(ImportUtil.class, "runWorkflowIfCould");
-                            cont = runWorkflowIfCould(user, contentTypePermissions,
-                                    categories, cont, contentletRelationships);
-                        }
+    /**
+     * Saves a contentlet of an imported line, firing the workflow action selected for it if any, and adds its tags.
+     * Runs on the check-in queue, so it only uses what the line computed before submitting it.
+     */
+    private static Contentlet saveContentlet(final User user, final List<Permission> contentTypePermissions,
+                                             final Map<Integer, Field> headers, final Map<Integer, Object> values,
+                                             final Contentlet contentlet, final WorkflowAction executeWfAction,
+                                             final ContentletRelationships contentletRelationships,
+                                             final Set<Category> categories,
+                                             final boolean headersIncludeHostField) throws DotDataException, DotSecurityException {
+
+        Contentlet cont = contentlet;
+        if (null != executeWfAction) {
+
+            Logger.debug(ImportUtil.class, "fireContentWorkflow: " + executeWfAction.getName() + ", id: " + executeWfAction.getId());
+            cont = workflowAPI.fireContentWorkflow(cont,
+                    new ContentletDependencies.Builder()
+                            .respectAnonymousPermissions(Boolean.FALSE)
+                            .modUser(user)
+                            .relationships(contentletRelationships)
+                            .workflowActionId(executeWfAction.getId())
+                            .workflowActionComments("")
+                            .workflowAssignKey("")
+                            .categories(new ArrayList<>(categories))
+                            .generateSystemEvent(Boolean.FALSE).build());
+        } else {
+            Logger.debug(ImportUtil.class, "runWorkflowIfCould");
+            cont = runWorkflowIfCould(user, contentTypePermissions,
+                    categories, cont, contentletRelationships);
+        }
 
-                        for (Integer column : headers.keySet()) {
-                            Field field = headers.get(column);
-                            Object value = values.get(column);
-                            if (field.getFieldType().equals(Field.FieldType.TAG.toString()) &&
-                                    value instanceof String) {
-                                String[] tags = ((String)value).split(",");
-                                Host host = null;
-                                String hostId = "";
-                                if(headersIncludeHostField){
-                                    //the CSV File has a Host Or Field Column, with a valid value
-                                    try{
-                                        host = APILocator.getHostAPI().find(cont.getHost(), user, true);
-                                    }catch(Exception e){
-                                        Logger.error(ImportUtil.class, "Unable to get host from content: " + e.getMessage());
-                                    }
-                                    if(UtilMethods.isSet(host)){
-                                        if(host.getIdentifier().equals(Host.SYSTEM_HOST))
-                                            hostId = Host.SYSTEM_HOST;
-                                        else
-                                            hostId = host.getIdentifier();
-                                    } else {
-                                        hostId = Host.SYSTEM_HOST;
-                                    }
-                                    for (String tagName : tags) {
-                                        try {
-                                            if ( tagName != null && !tagName.trim().isEmpty() ) {
-                                                APILocator.getTagAPI().addContentletTagInode(tagName.trim(), cont.getInode(), hostId, field.getVelocityVarName());
-                                            }
-                                        } catch (Exception e) {
-                                            Logger.error(ImportUtil.class, "Unable to import tags: " + e.getMessage());
-                                        }
-                                    }
-                                } else {
-                                    for (String tagName : tags)
-                                        try {
-                                            if ( tagName != null && !tagName.trim().isEmpty() ) {
-                                                APILocator.getTagAPI().addContentletTagInode( tagName.trim(), cont.getInode(), Host.SYSTEM_HOST, field.getVelocityVarName() );
-                                            }
-                                        } catch (Exception e) {
-                                            Logger.error(ImportUtil.class, "Unable to import tags: " + e.getMessage());
-                                        }
-                                }
-                            }
+        final String tagsHostId = headersIncludeHostField ? getTagsHostId(cont, user) : Host.SYSTEM_HOST;
+        for (Integer column : headers.keySet()) {
+            Field field = headers.get(column);
+            Object value = values.get(column);
+            if (field.getFieldType().equals(Field.FieldType.TAG.toString()) &&
+                    value instanceof String) {
+                for (String tagName : ((String) value).split(",")) {
+                    if (!tagName.trim().isEmpty()) {
+                        try {
+                            APILocator.getTagAPI().addContentletTagInode(tagName.trim(), cont.getInode(), tagsHostId,
+                                    field.getVelocityVarName());
+                        } catch (DotDataException e) {
+                            throw new DotDataException("Unable to import the tag " + tagName.trim() + ": "
+                                    + e.getMessage(), e);
                         }
-                        results.get("lastInode").clear();
-                        List<String> l = results.get("lastInode");
-                        l.add(cont.getInode());
-                        results.put("lastInode", l);
                     }
+                }
+            }
+        }
+        return cont;
+    }
 
-                    if (isNew){
-                        counters.setContentCreated(counters.getContentCreated() + 1);
-                    }else{
-                        if (conditionValues.equals("") || !keyContentUpdated.contains(conditionValues)) {
-                            counters.setContentUpdated(counters.getContentUpdated() + 1);
-                            counters.setContentUpdatedDuplicated(counters.getContentUpdatedDuplicated() + 1);
-                            keyContentUpdated.add(conditionValues);
-                        }else{
-                            counters.setContentUpdatedDuplicated(counters.getContentUpdatedDuplicated() + 1);
-                        }
-
+    /**
+     * Creates the tags of an imported contentlet as its check-in and {@link #saveContentlet} look them up, so they
+     * already exist when the contentlet is saved
+     */
+    private static void createTags(final User user, final Map<Integer, Field> headers, final Map<Integer, Object> values,
+                                   final Contentlet contentlet, final boolean headersIncludeHostField)
+            throws DotDataException, DotSecurityException {
+
+        final String contentletHostId = getTagsHostId(contentlet, user);
+        for (Integer column : headers.keySet()) {
+            final Field field = headers.get(column);
+            final Object value = values.get(column);
+            if (field.getFieldType().equals(Field.FieldType.TAG.toString()) && value instanceof String) {
+                APILocator.getTagAPI().getTagsInText((String) value, contentletHostId);
+                for (String tagName : ((String) value).split(",")) {
+                    if (!tagName.trim().isEmpty()) {
+                        APILocator.getTagAPI().getTagAndCreate(tagName.trim(), "",
+                                headersIncludeHostField ? contentletHostId : Host.SYSTEM_HOST);
                     }
                 }
             }
-        } catch (Exception e) {
-            Logger.error(ImportUtil.class,e.getMessage(),e);
-            throw new DotRuntimeException(e.getMessage(),e);
+        }
+    }
+
+    /**
+     * @return the site the tags of the contentlet are stored in, the system host if it has none
+     */
+    private static String getTagsHostId(final Contentlet contentlet, final User user) {
+
+        Host host = null;
+        if (UtilMethods.isSet(contentlet.getHost())) {
+            try {
+                host = APILocator.getHostAPI().find(contentlet.getHost(), user, true);
+            } catch (Exception e) {
+                Logger.error(ImportUtil.class, "Unable to get host from content: " + e.getMessage());
+            }
+        }
+        return UtilMethods.isSet(host) && UtilMethods.isSet(host.getIdentifier()) ? host.getIdentifier()
+                : Host.SYSTEM_HOST;
+    }
+
+    /**
+     * Updates the created/updated counters for a contentlet that was imported, or would be in preview mode
+     */
+    private static void countImported(final Counters counters, final Set<String> keyContentUpdated,
+                                      final boolean isNew, final String conditionValues) {
+        if (isNew){
+            counters.setContentCreated(counters.getContentCreated() + 1);
+        }else{
+            if (conditionValues.equals("") || !keyContentUpdated.contains(conditionValues)) {
+                counters.setContentUpdated(counters.getContentUpdated() + 1);
+                counters.setContentUpdatedDuplicated(counters.getContentUpdatedDuplicated() + 1);
+                keyContentUpdated.add(conditionValues);
+            }else{
+                counters.setContentUpdatedDuplicated(counters.getContentUpdatedDuplicated() + 1);
+            }
+
         }
     }
 
@@ -1713,12 +1796,20 @@ public class ImportUtil {
                                                 List<Field> uniqueFields) throws LanguageException {
         boolean ignoreLine = false;
         for (Field f : uniqueFields) {
-            Object value = null;
-            int count = 0;
-            for (UniqueFieldBean bean : uniqueFieldBeans) {
+            //The beans of the line being imported are the last ones added, only the previous bean with the same
+            //field and language has to be compared with it
+            UniqueFieldBean lineBean = null;
+            for (int i = uniqueFieldBeans.size() - 1; i >= 0; i--) {
+                UniqueFieldBean bean = uniqueFieldBeans.get(i);
                 if (bean.getField().equals(f) && language == bean.getLanguageId()) {
-                    if (count > 0 && value != null && value.equals(bean.getValue()) && lineNumber == bean
-                        .getLineNumber()) {
+                    if (lineBean == null) {
+                        if (lineNumber != bean.getLineNumber()) {
+                            break;
+                        }
+                        lineBean = bean;
+                        continue;
+                    }
+                    if (bean.getValue() != null && bean.getValue().equals(lineBean.getValue())) {
                         counters.setNewContentCounter(counters.getNewContentCounter() - 1);
                         ignoreLine = true;
                         results.get("warnings").add(
@@ -1726,15 +1817,57 @@ public class ImportUtil {
                                 .get(user, "contains-duplicate-values-for-structure-unique-field") + " " + f
                                 .getVelocityVarName() + " " + LanguageUtil.get(user, "and-will-be-ignored"));
                     }
-                    value = bean.getValue();
-                    count++;
-
+                    break;
                 }
             }
         }
         return ignoreLine;
     }
 
+    /**
+     * @return the column of the CSV file with the identifiers of the contentlets to update, -1 if there is none
+     */
+    private static int getIdentifierFieldIndex(final HashMap<String, List<String>> results) {
+        int identifierFieldIndex = -1;
+        try {
+            identifierFieldIndex = Integer.parseInt( results.get( "identifiers" ).get( 0 ) );
+        } catch ( Exception e ) {
+            Logger.debug(ImportUtil.class, e.getMessage(), e);
+        }
+        return identifierFieldIndex;
+    }
+
+    /**
+     * Key of the content a line updates: its identifier, or the values of its key fields regardless of the language,
+     * so lines of the same content are never saved at the same time
+     *
+     * @return the key, null if the line has neither an identifier nor key fields
+     */
+    private static String getLineKey(final String[] line, final int identifierFieldIndex,
+                                     final Map<Integer, Field> keyFields) {
+        if (-1 < identifierFieldIndex && identifierFieldIndex < line.length
+                && UtilMethods.isSet(line[identifierFieldIndex])) {
+            return line[identifierFieldIndex];
+        }
+        if (keyFields.isEmpty()) {
+            return null;
+        }
+        final StringBuilder key = new StringBuilder();
+        for (Integer column : keyFields.keySet()) {
+            key.append(column < line.length ? line[column] : null).append('\u0000');
+        }
+        return key.toString();
+    }
+
+    private static String getLineErrorMessage(final User user, final int lineNumber, final String message)
+            throws LanguageException {
+        String errorMessage = LanguageUtil.get(user, message);
+        if(errorMessage.indexOf("Line #") == -1){
+            errorMessage = "Line #"+lineNumber+" "+errorMessage;
+        }
+        return errorMessage;
+    }
+
     /**
      * 
      * @return
@@ -1768,6 +1901,381 @@ public class ImportUtil {
         return text;
     }
 
+    /**
+     * Existing contentlets for the lines of a chunk of the CSV file. The contentlets with the identifiers, or with the
+     * key field values, of the whole chunk are fetched with a single index query and loaded at once, then every line
+     * only filters them in memory. When the chunk can not be answered that way (key fields that can not be compared
+     * as text, too many hits, an invalid query) every line runs its own query as it always did.
+     */
+    private static class KeyFieldLookup {
+
+        private static final Set<String> TEXT_FIELD_TYPES = new HashSet<>(Arrays.asList(
+                FieldType.TEXT.toString(), FieldType.TEXT_AREA.toString(), FieldType.WYSIWYG.toString(),
+                FieldType.CHECKBOX.toString(), FieldType.SELECT.toString(), FieldType.MULTI_SELECT.toString(),
+                FieldType.RADIO.toString()));
+
+        private final User                  user;
+        private final Map<Integer, Field>   keyFields;
+        private final ImportCheckinQueue    checkins;
+        private final Set<String>           identifiers;
+        private final List<Contentlet>      byIdentifier;
+        private final List<Contentlet>      byKeyFields;
+
+        private KeyFieldLookup(final User user, final Map<Integer, Field> keyFields, final ImportCheckinQueue checkins,
+                               final Set<String> identifiers, final List<Contentlet> byIdentifier,
+                               final List<Contentlet> byKeyFields) {
+            this.user         = user;
+            this.keyFields    = keyFields;
+            this.checkins     = checkins;
+            this.identifiers  = identifiers;
+            this.byIdentifier = byIdentifier;
+            this.byKeyFields  = byKeyFields;
+        }
+
+        static KeyFieldLookup prefetch(final Structure contentType, final List<String[]> lines,
+                                       final int identifierFieldIndex, final Map<Integer, Field> keyFields,
+                                       final ImportCheckinQueue checkins, final User user) {
+
+            final String typeQuery = "+structureName:" + contentType.getVelocityVarName()
+                    + " +working:true +deleted:false";
+            final Set<String> identifiers = new LinkedHashSet<>();
+            final List<String[]> keyLines = new ArrayList<>();
+            for (String[] line : lines) {
+                if (-1 < identifierFieldIndex && identifierFieldIndex < line.length
+                        && UtilMethods.isSet(line[identifierFieldIndex])) {
+                    identifiers.add(line[identifierFieldIndex]);
+                } else {
+                    keyLines.add(line);
+                }
+            }
+
+            List<Contentlet> byIdentifier = null;
+            if (!identifiers.isEmpty()) {
+                byIdentifier = load(typeQuery + " +identifier:(" + String.join(" ", identifiers) + ")", user);
+            }
+
+            List<Contentlet> byKeyFields = null;
+            if (!keyLines.isEmpty() && !keyFields.isEmpty()) {
+                final StringBuilder query = new StringBuilder(typeQuery);
+                boolean hasClause = false;
+                for (Integer column : keyFields.keySet()) {
+                    final Field field = keyFields.get(column);
+                    final Set<String> texts = new LinkedHashSet<>();
+                    for (String[] line : keyLines) {
+                        texts.add(column < line.length ? getText(field, line[column]) : null);
+                    }
+                    if (texts.contains(null)) {
+                        continue;
+                    }
+                    query.append(" +").append(contentType.getVelocityVarName()).append(".")
+                            .append(field.getVelocityVarName()).append(":(");
+                    for (String text : texts) {
+                        final String escaped = escapeLuceneSpecialCharacter(text);
+                        query.append(escaped.contains(" ") ? "\"" + escaped + "\"" : escaped).append(' ');
+                    }
+                    query.append(')');
+                    hasClause = true;
+                }
+                //Without a clause the query would return the whole content type
+                if (hasClause) {
+                    byKeyFields = load(query.toString(), user);
+                }
+            }
+
+            return new KeyFieldLookup(user, keyFields, checkins, identifiers, byIdentifier, byKeyFields);
+        }
+
+        /**
+         * @param identifier identifier of the line
+         * @param query      query of the line, used if the identifier was not prefetched
+         * @return the working contentlets with the identifier
+         */
+        List<Contentlet> findByIdentifier(final String identifier, final String query)
+                throws DotDataException, DotSecurityException {
+
+            if (byIdentifier == null || !identifiers.contains(identifier)) {
+                return search(query);
+            }
+            final List<Contentlet> contentlets = new ArrayList<>();
+            for (Contentlet contentlet : byIdentifier) {
+                if (identifier.equals(contentlet.getIdentifier())) {
+                    contentlets.add(current(contentlet));
+                }
+            }
+            return contentlets;
+        }
+
+        /**
+         * @param line       the CSV line
+         * @param languageId language of the contentlets to find, -1 for any language
+         * @param query      query of the line, used if the chunk was not prefetched
+         * @return the working contentlets whose key fields have the values of the line
+         */
+        List<Contentlet> findByKeyFields(final String[] line, final long languageId, final String query)
+                throws DotDataException, DotSecurityException {
+
+            if (byKeyFields == null) {
+                return search(query);
+            }
+            final List<Contentlet> contentlets = new ArrayList<>();
+            for (Contentlet contentlet : byKeyFields) {
+                if (languageId > 0 && contentlet.getLanguageId() != languageId) {
+                    continue;
+                }
+                boolean match = true;
+                for (Integer column : keyFields.keySet()) {
+                    final Field field = keyFields.get(column);
+                    final String text = getText(field, column < line.length ? line[column] : null);
+                    final Object value = conAPI.getFieldValue(contentlet, field);
+                    if (text != null && (value == null || !value.toString().equalsIgnoreCase(text))) {
+                        match = false;
+                        break;
+                    }
+                }
+                if (match) {
+                    contentlets.add(current(contentlet));
+                }
+            }
+            return contentlets;
+        }
+
+        private List<Contentlet> search(final String query) throws DotDataException, DotSecurityException {
+            final List<Contentlet> contentlets = new ArrayList<>();
+            for (ContentletSearch contentletSearch : conAPI.searchIndex(query, 0, -1, null, user, true)) {
+                final Contentlet contentlet = conAPI.find(contentletSearch.getInode(), user, true);
+                if ((contentlet != null) && InodeUtils.isSet(contentlet.getInode())) {
+                    contentlets.add(current(contentlet));
+                }
+            }
+            return contentlets;
+        }
+
+        /**
+         * The index is updated in bulk after the import, so a contentlet saved earlier in the import is read again
+         * to get its current working version
+         */
+        private Contentlet current(final Contentlet contentlet) throws DotDataException, DotSecurityException {
+            if (!checkins.wasSaved(contentlet.getIdentifier())) {
+                return contentlet;
+            }
+            try {
+                final Contentlet working = conAPI.findContentletByIdentifier(contentlet.getIdentifier(), false,
+                        contentlet.getLanguageId(), user, true);
+                return working != null && InodeUtils.isSet(working.getInode()) ? working : contentlet;
+            } catch (DotContentletStateException e) {
+                return contentlet;
+            }
+        }
+
+        /**
+         * Loads the contentlets of a chunk query in the order of the index
+         *
+         * @return the contentlets, null if they can not be prefetched
+         */
+        private static List<Contentlet> load(final String query, final User user) {
+            try {
+                final List<ContentletSearch> hits = conAPI.searchIndex(query, 0, -1, null, user, true);
+                if (hits instanceof PaginatedArrayList
+                        && ((PaginatedArrayList<ContentletSearch>) hits).getTotalResults() > hits.size()) {
+                    Logger.debug(ImportUtil.class, () -> "Too many hits to prefetch the chunk: " + query);
+                    return null;
+                }
+                final Map<String, Contentlet> byInode = new HashMap<>();
+                final List<String> inodes = hits.stream().map(ContentletSearch::getInode).collect(Collectors.toList());
+                for (Contentlet contentlet : conAPI.findContentlets(inodes)) {
+                    byInode.put(contentlet.getInode(), contentlet);
+                }
+                return inodes.stream().map(byInode::get).filter(Objects::nonNull).collect(Collectors.toList());
+            } catch (Exception e) {
+                Logger.warn(ImportUtil.class, "Unable to prefetch the chunk, searching line by line: " + e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * @return the value of a key field as it is compared with the stored one, null if it can not be compared
+         * as text
+         */
+        private static String getText(final Field field, final String value) {
+            if (!UtilMethods.isSet(value) || !TEXT_FIELD_TYPES.contains(field.getFieldType())) {
+                return null;
+            }
+            return field.getFieldType().equals(FieldType.TEXT.toString()) && value.length() > 255
+                    ? value.substring(0, 255) : value;
+        }
+    }
+
+    /**
+     * Saves the contentlets of the imported lines. With threads, the lines are saved concurrently by a bounded pool,
+     * every line in its own transaction, and {@link #drain} applies their outcome in the order of the lines on the
+     * import thread. Without threads, every line is saved right away on the import thread, within the transaction of
+     * the import.
+     */
+    private static class ImportCheckinQueue {
+
+        private final ExecutorService   executor;
+        private final List<PendingLine> pending          = new ArrayList<>();
+        private final Set<String>       pendingKeys      = new HashSet<>();
+        private final Set<String>       savedIdentifiers = new HashSet<>();
+        private final Object            tagLock          = new Object();
+
+        ImportCheckinQueue(final int threads) {
+            this.executor = threads > 0 ? Executors.newFixedThreadPool(threads,
+                    new ThreadFactoryBuilder().setNameFormat("import-checkin-%d").build()) : null;
+        }
+
+        /**
+         * Queues the saves of a line
+         *
+         * @param lineNumber number of the line
+         * @param key        key of the content the line updates, see {@link #getLineKey}
+         * @param tags       creations of the tags of the line, run before its saves when saving with threads
+         * @param saves      saves of the contentlets of the line, run in order
+         * @param onSaved    called on the import thread with every contentlet saved
+         */
+        void submit(final int lineNumber, final String key, final List<VoidDelegate> tags,
+                    final List<Callable<Contentlet>> saves, final Consumer<Contentlet> onSaved) {
+
+            final Future<List<Contentlet>> future;
+            if (executor == null) {
+                future = run(saves);
+            } else {
+                future = executor.submit(() -> {
+                    try {
+                        createTags(tags);
+                        return LocalTransaction.wrapReturnWithListeners(() -> {
+                            final List<Contentlet> saved = new ArrayList<>();
+                            for (Callable<Contentlet> save : saves) {
+                                saved.add(save.call());
+                            }
+                            return saved;
+                        });
+                    } finally {
+                        DbConnectionFactory.closeSilently();
+                    }
+                });
+            }
+            pending.add(new PendingLine(lineNumber, future, onSaved));
+            if (key != null) {
+                pendingKeys.add(key);
+            }
+        }
+
+        /**
+         * Lines saved concurrently would both insert a tag new to them and one of them would fail on the unique
+         * constraint, so the tags are created by one line at a time, in a transaction committed before the line is
+         * saved
+         */
+        private void createTags(final List<VoidDelegate> tags) throws Exception {
+            if (tags.isEmpty()) {
+                return;
+            }
+            synchronized (tagLock) {
+                LocalTransaction.wrap(() -> {
+                    for (VoidDelegate tag : tags) {
+                        tag.execute();
+                    }
+                });
+            }
+        }
+
+        /**
+         * A line that fails on the import thread keeps the contentlets it saved before failing, as the import did
+         * when it saved them one by one
+         */
+        private Future<List<Contentlet>> run(final List<Callable<Contentlet>> saves) {
+            final List<Contentlet> saved = new ArrayList<>();
+            final CompletableFuture<List<Contentlet>> future = new CompletableFuture<>();
+            try {
+                for (Callable<Contentlet> save : saves) {
+                    saved.add(save.call());
+                }
+                future.complete(saved);
+            } catch (Exception e) {
+                future.completeExceptionally(new PartialSaveException(saved, e));
+            }
+            return future;
+        }
+
+        boolean isPending(final String key) {
+            return key != null && pendingKeys.contains(key);
+        }
+
+        boolean wasSaved(final String identifier) {
+            return identifier != null && savedIdentifiers.contains(identifier);
+        }
+
+        /**
+         * Waits for all the queued lines and applies their outcome
+         *
+         * @return number of lines that failed
+         */
+        int drain(final HashMap<String, List<String>> results, final User user) throws LanguageException {
+
+            int errors = 0;
+            for (PendingLine line : pending) {
+                List<Contentlet> saved = Collections.emptyList();
+                Throwable error = null;
+                try {
+                    saved = line.future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    error = e;
+                } catch (ExecutionException e) {
+                    error = e.getCause();
+                    if (error instanceof PartialSaveException) {
+                        saved = ((PartialSaveException) error).saved;
+                        error = error.getCause();
+                    }
+                }
+
+                for (Contentlet contentlet : saved) {
+                    savedIdentifiers.add(contentlet.getIdentifier());
+                    line.onSaved.accept(contentlet);
+                }
+                if (error != null) {
+                    Logger.error(ImportUtil.class, error.getMessage(), error);
+                    results.get("errors").add(getLineErrorMessage(user, line.lineNumber, error.getMessage()));
+                    errors++;
+                    Logger.info(ImportUtil.class, "Error line: " + line.lineNumber + ". Line Ignored.");
+                }
+            }
+            pending.clear();
+            pendingKeys.clear();
+            return errors;
+        }
+
+        void shutdown() {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+
+        private static class PendingLine {
+
+            private final int                      lineNumber;
+            private final Future<List<Contentlet>> future;
+            private final Consumer<Contentlet>     onSaved;
+
+            PendingLine(final int lineNumber, final Future<List<Contentlet>> future,
+                        final Consumer<Contentlet> onSaved) {
+                this.lineNumber = lineNumber;
+                this.future     = future;
+                this.onSaved    = onSaved;
+            }
+        }
+
+        private static class PartialSaveException extends Exception {
+
+            private final List<Contentlet> saved;
+
+            PartialSaveException(final List<Contentlet> saved, final Exception cause) {
+                super(cause.getMessage(), cause);
+                this.saved = saved;
+            }
+        }
+    }
+
     /**
      * 
      * @author root
@@ -1783,7 +2291,7 @@ public class ImportUtil {
         public int contentUpdated = 0;
         public int contentUpdatedDuplicated = 0;
 
-        private Collection<Map<String, String>> keys = new ArrayList<Map<String, String>>();
+        private Set<String> keys = new HashSet<String>();
 
         /**
          * @return the newContentCounter
@@ -1857,13 +2365,7 @@ public class ImportUtil {
          */
         public void addKey ( String key, String value ) {
 
-            if ( !matchKey( key, value ) ) {
-
-                Map<String, String> keyMap = new HashMap<String, String>();
-                keyMap.put( key, value );
-
-                keys.add( keyMap );
-            }
+            keys.add( toKey( key, value ) );
         }
 
         /**
@@ -1875,15 +2377,11 @@ public class ImportUtil {
          */
         public boolean matchKey ( String key, String value ) {
 
-            for ( Map<String, String> keyMap : keys ) {
-
-                String match = keyMap.get( key );
-                if ( match != null && match.equals( value ) ) {
-                    return true;
-                }
-            }
+            return value != null && keys.contains( toKey( key, value ) );
+        }
 
-            return false;
+        private String toKey ( String key, String value ) {
+            return key + '\u0000' + value;
         }
 
         public int uniqueKeysCount () {
@@ -0,0 +1,174 @@
+package org.apache.velocity.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Buffered writer that encodes straight to UTF-8 bytes on the underlying stream.
+ * Besides the chars written by the dynamic parts of a template it accepts text already encoded to UTF-8 through
+ * {@link #writeUtf8(byte[])}, which lets the static text nodes of a template (most of the markup of a page) be
+ * encoded once when they are first rendered instead of on every render.
+ * <p>
+ * Not thread safe, one instance is meant to be used for a single render.
+ */
+public final class Utf8ByteWriter extends Writer
+{
+    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int count = 0;
+
+    /**
+     * high surrogate written at the end of the last write, waiting for its low surrogate
+     */
+    private char pendingHighSurrogate = 0;
+
+    public Utf8ByteWriter(final OutputStream out)
+    {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public Utf8ByteWriter(final OutputStream out, final int bufferSize)
+    {
+        this.out    = out;
+        this.buffer = new byte[Math.max(bufferSize, 16)];
+    }
+
+    /**
+     * Writes text already encoded to UTF-8
+     * @param utf8 the encoded text
+     * @throws IOException
+     */
+    public void writeUtf8(final byte[] utf8) throws IOException
+    {
+        writePendingSurrogate();
+
+        if (utf8.length > buffer.length - count)
+        {
+            flushBuffer();
+            if (utf8.length > buffer.length)
+            {
+                out.write(utf8);
+                return;
+            }
+        }
+
+        System.arraycopy(utf8, 0, buffer, count, utf8.length);
+        count += utf8.length;
+    }
+
+    @Override
+    public void write(final int c) throws IOException
+    {
+        encode((char) c);
+    }
+
+    @Override
+    public void write(final char[] chars, final int off, final int len) throws IOException
+    {
+        for (int i = off; i < off + len; i++)
+        {
+            encode(chars[i]);
+        }
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException
+    {
+        for (int i = off; i < off + len; i++)
+        {
+            encode(str.charAt(i));
+        }
+    }
+
+    private void encode(final char c) throws IOException
+    {
+        if (buffer.length - count < 4)
+        {
+            flushBuffer();
+        }
+
+        if (pendingHighSurrogate != 0)
+        {
+            final char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(c))
+            {
+                final int codePoint = Character.toCodePoint(high, c);
+                buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+
+            // unpaired surrogate, replaced as String.getBytes does
+            buffer[count++] = '?';
+            encode(c);
+            return;
+        }
+
+        if (c < 0x80)
+        {
+            buffer[count++] = (byte) c;
+        }
+        else if (c < 0x800)
+        {
+            buffer[count++] = (byte) (0xC0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+        else if (Character.isHighSurrogate(c))
+        {
+            pendingHighSurrogate = c;
+        }
+        else if (Character.isLowSurrogate(c))
+        {
+            buffer[count++] = '?';
+        }
+        else
+        {
+            buffer[count++] = (byte) (0xE0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void writePendingSurrogate() throws IOException
+    {
+        if (pendingHighSurrogate != 0)
+        {
+            pendingHighSurrogate = 0;
+            if (count == buffer.length)
+            {
+                flushBuffer();
+            }
+            buffer[count++] = '?';
+        }
+    }
+
+    private void flushBuffer() throws IOException
+    {
+        if (count > 0)
+        {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        writePendingSurrogate();
+        flushBuffer();
+        out.close();
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.velocity.runtime.parser.node;
 
 import java.lang.reflect.InvocationTargetException;
 
+import org.apache.commons.lang.ArrayUtils;
 import org.apache.velocity.app.event.EventHandlerUtil;
 import org.apache.velocity.context.InternalContextAdapter;
 import org.apache.velocity.exception.MethodInvocationException;
@@ -60,6 +61,11 @@ public class ASTIdentifier extends SimpleNode implements TokenImageSaver
      *  This is really immutable after the init, so keep one for this node
      */
     protected Info uberInfo;
+
+    /**
+     * Last getter resolved by this node, reused while the receiver class does not change
+     */
+    private volatile InlineCacheEntry<VelPropertyGet> inlineCache;
     
     /**
      * Indicates if we are running in strict reference mode.
@@ -129,7 +135,8 @@ public class ASTIdentifier extends SimpleNode implements TokenImageSaver
              *  first, see if we have this information cached.
              */
 
-            IntrospectionCacheData icd = context.icacheGet(this);
+            final InlineCacheEntry<VelPropertyGet> cached = inlineCache;
+            IntrospectionCacheData icd = null;
 
             /*
              * if we have the cache data and the class of the object we are
@@ -138,7 +145,11 @@ public class ASTIdentifier extends SimpleNode implements TokenImageSaver
              * that is fixed in the template :)
              */
 
-            if ( icd != null && (o != null) && (icd.contextData == o.getClass()) )
+            if (cached != null && cached.matches(o, ArrayUtils.EMPTY_CLASS_ARRAY))
+            {
+                vg = cached.getTarget();
+            }
+            else if ( (icd = context.icacheGet(this)) != null && (o != null) && (icd.contextData == o.getClass()) )
             {
                 vg = (VelPropertyGet) icd.thingy;
             }
@@ -157,6 +168,7 @@ public class ASTIdentifier extends SimpleNode implements TokenImageSaver
                     icd.contextData = o.getClass();
                     icd.thingy = vg;
                     context.icachePut(this,icd);
+                    inlineCache = new InlineCacheEntry<>(o.getClass(), ArrayUtils.EMPTY_CLASS_ARRAY, vg);
                 }
             }
         }
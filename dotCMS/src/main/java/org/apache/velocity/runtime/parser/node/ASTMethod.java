@@ -60,6 +60,11 @@ public class ASTMethod extends SimpleNode
 
     protected Info uberInfo;
 
+    /**
+     * Last method resolved by this node, reused while the receiver and argument classes do not change
+     */
+    private volatile InlineCacheEntry<VelMethod> inlineCache;
+
     /**
      * Indicates if we are running in strict reference mode.
      */
@@ -158,9 +163,23 @@ public class ASTMethod extends SimpleNode
             }
         }
             
-        VelMethod method = ClassUtils.getMethod(methodName, params, paramClasses, 
-            o, context, this, strictRef);
-        if (method == null) return null;
+        VelMethod method;
+        final InlineCacheEntry<VelMethod> cached = inlineCache;
+        if (cached != null && cached.matches(o, paramClasses))
+        {
+            method = cached.getTarget();
+        }
+        else
+        {
+            method = ClassUtils.getMethod(methodName, params, paramClasses,
+                o, context, this, strictRef);
+            if (method == null) return null;
+
+            if (o != null && method.isCacheable())
+            {
+                inlineCache = new InlineCacheEntry<>(o.getClass(), paramClasses, method);
+            }
+        }
 
         try
         {
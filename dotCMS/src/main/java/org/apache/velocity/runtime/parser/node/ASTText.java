@@ -21,9 +21,11 @@ package org.apache.velocity.runtime.parser.node;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.velocity.context.InternalContextAdapter;
 import org.apache.velocity.exception.TemplateInitException;
+import org.apache.velocity.io.Utf8ByteWriter;
 import org.apache.velocity.runtime.parser.Parser;
 import org.apache.velocity.runtime.parser.Token;
 
@@ -34,6 +36,11 @@ public class ASTText extends SimpleNode
 {
     private char[] ctext;
 
+    /**
+     * The text encoded to UTF-8, created the first time the node is rendered to a {@link Utf8ByteWriter}
+     */
+    private volatile byte[] utf8Text;
+
     /**
      * @param id
      */
@@ -80,6 +87,18 @@ public class ASTText extends SimpleNode
     public boolean render( InternalContextAdapter context, Writer writer)
         throws IOException
     {
+        if (writer instanceof Utf8ByteWriter)
+        {
+            byte[] encoded = utf8Text;
+            if (encoded == null)
+            {
+                encoded = new String(ctext).getBytes(StandardCharsets.UTF_8);
+                utf8Text = encoded;
+            }
+            ((Utf8ByteWriter) writer).writeUtf8(encoded);
+            return true;
+        }
+
         writer.write(ctext);
         return true;
     }
@@ -22,6 +22,8 @@ package org.apache.velocity.runtime.parser.node;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import org.apache.velocity.util.introspection.MethodHandleInvoker;
+
 
 /**
  * Abstract class that is used to execute an arbitrary
@@ -40,6 +42,11 @@ public abstract class AbstractExecutor
      */
     private Method method = null;
 
+    /**
+     * Invokes the method through a method handle.
+     */
+    private MethodHandleInvoker invoker = null;
+
     /**
      * Execute method against context.
      * @param o
@@ -76,5 +83,20 @@ public abstract class AbstractExecutor
     protected void setMethod(final Method method)
     {
         this.method = method;
+        this.invoker = (method != null) ? new MethodHandleInvoker(method) : null;
+    }
+
+    /**
+     * Invokes the current method on the given object.
+     * @param o
+     * @param params
+     * @return The value returned by the method.
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    protected Object invokeMethod(final Object o, final Object[] params)
+        throws IllegalAccessException, InvocationTargetException
+    {
+        return invoker.invoke(o, params);
     }
 }
@@ -0,0 +1,35 @@
+package org.apache.velocity.runtime.parser.node;
+
+import java.util.Arrays;
+
+/**
+ * Monomorphic inline cache kept by the method and identifier nodes: the last introspection result, valid while the
+ * node is executed with the same receiver class (and argument classes for methods). The entry is immutable so a node
+ * can swap it with a single volatile write when the receiver class changes.
+ *
+ * @param <T> the introspected executor, i.e. VelMethod or VelPropertyGet
+ */
+final class InlineCacheEntry<T>
+{
+    private final Class receiverClass;
+    private final Class[] argumentClasses;
+    private final T target;
+
+    InlineCacheEntry(final Class receiverClass, final Class[] argumentClasses, final T target)
+    {
+        this.receiverClass   = receiverClass;
+        this.argumentClasses = argumentClasses;
+        this.target          = target;
+    }
+
+    boolean matches(final Object receiver, final Class[] argumentClasses)
+    {
+        return receiver != null && receiver.getClass() == this.receiverClass
+                && Arrays.equals(this.argumentClasses, argumentClasses);
+    }
+
+    T getTarget()
+    {
+        return target;
+    }
+}
@@ -123,6 +123,6 @@ public class PropertyExecutor extends AbstractExecutor
     public Object execute(Object o)
         throws IllegalAccessException,  InvocationTargetException
     {
-        return isAlive() ? getMethod().invoke(o, ((Object []) null)) : null;
+        return isAlive() ? invokeMethod(o, null) : null;
     }
 }
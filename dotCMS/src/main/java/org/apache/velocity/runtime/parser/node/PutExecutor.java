@@ -123,7 +123,7 @@ public class PutExecutor extends SetExecutor
                 params = new Object [] { property, value };
             }
 
-            return getMethod().invoke(o, params);
+            return invokeMethod(o, params);
         }
 
         return null;
@@ -22,6 +22,8 @@ package org.apache.velocity.runtime.parser.node;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import org.apache.velocity.util.introspection.MethodHandleInvoker;
+
 
 /**
  * Abstract class that is used to execute an arbitrary
@@ -45,6 +47,11 @@ public abstract class SetExecutor
      */
     private Method method = null;
 
+    /**
+     * Invokes the method through a method handle.
+     */
+    private MethodHandleInvoker invoker = null;
+
     /**
      * Execute method against context.
      * @param o
@@ -80,5 +87,20 @@ public abstract class SetExecutor
     protected void setMethod(final Method method)
     {
         this.method = method;
+        this.invoker = (method != null) ? new MethodHandleInvoker(method) : null;
+    }
+
+    /**
+     * Invokes the method on the given object.
+     * @param o
+     * @param params
+     * @return The result of the invocation.
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    protected Object invokeMethod(final Object o, final Object[] params)
+        throws IllegalAccessException, InvocationTargetException
+    {
+        return invoker.invoke(o, params);
     }
 }
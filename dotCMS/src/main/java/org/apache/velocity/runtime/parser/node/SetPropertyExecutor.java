@@ -131,6 +131,6 @@ public class SetPropertyExecutor
         throws IllegalAccessException,  InvocationTargetException
     {
         Object [] params = new Object [] { value };
-        return isAlive() ? getMethod().invoke(o, params) : null;
+        return isAlive() ? invokeMethod(o, params) : null;
     }
 }
@@ -19,10 +19,9 @@ package org.apache.velocity.util.introspection;
  * under the License.    
  */
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 import com.dotmarketing.util.Logger;
@@ -44,8 +43,9 @@ public final class IntrospectorCacheImpl implements IntrospectorCache
     
     /**
      * Holds the method maps for the classes we know about. Map: Class --&gt; ClassMap object.
+     * Lookups are lock free, only the class loader change detection takes the lock.
      */
-    private final Map classMapCache = new HashMap();
+    private final Map<Class, ClassMap> classMapCache = new ConcurrentHashMap<>();
 
     /**
      * Keep the names of the classes in another map. This is needed for a multi-classloader environment where it is possible
@@ -53,7 +53,7 @@ public final class IntrospectorCacheImpl implements IntrospectorCache
      * two Class objects have the same name, a <code>classMethodMaps.get(Foo.class)</code> will return null. For that case, we
      * keep a set of class names to recognize this case.  
      */
-    private final Set classNameCache = new HashSet();
+    private final Set<String> classNameCache = ConcurrentHashMap.newKeySet();
 
     /**
      * C'tor
@@ -90,8 +90,8 @@ public final class IntrospectorCacheImpl implements IntrospectorCache
             throw new IllegalArgumentException("class is null!");
         }
 
-        ClassMap classMap = (ClassMap)classMapCache.get(c);
-        if (classMap == null)
+        ClassMap classMap = classMapCache.get(c);
+        if (classMap == null && classNameCache.contains(c.getName()))
         {
             /*
              * check to see if we have it by name.
@@ -101,7 +101,8 @@ public final class IntrospectorCacheImpl implements IntrospectorCache
              */
             synchronized (classMapCache)
             {
-                if (classNameCache.contains(c.getName()))
+                classMap = classMapCache.get(c);
+                if (classMap == null && classNameCache.contains(c.getName()))
                 {
                     clear();
                 }
@@ -121,12 +122,9 @@ public final class IntrospectorCacheImpl implements IntrospectorCache
     public ClassMap put(final Class c)
     {
         final ClassMap classMap = new ClassMap(c);
-        synchronized (classMapCache)
-        {
-            classMapCache.put(c, classMap);
-            classNameCache.add(c.getName());
-        }
-        return classMap;
+        final ClassMap previous = classMapCache.putIfAbsent(c, classMap);
+        classNameCache.add(c.getName());
+        return (previous != null) ? previous : classMap;
     }
 
 }
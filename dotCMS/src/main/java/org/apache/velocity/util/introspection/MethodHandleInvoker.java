@@ -0,0 +1,136 @@
+package org.apache.velocity.util.introspection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import com.dotmarketing.util.Logger;
+
+/**
+ * Invokes an introspected method through a {@link MethodHandle} instead of {@link Method#invoke(Object, Object...)}.
+ * The handle is adapted once to <code>(Object, Object[])Object</code> so every call is a plain
+ * <code>invokeExact</code>, which the JIT can inline, while keeping the contract of the reflective call: errors
+ * thrown by the method itself are wrapped into an {@link InvocationTargetException} and arguments that can not be
+ * passed to the method raise an {@link IllegalArgumentException}.
+ * <p>
+ * If the method can not be unreflected (i.e. it is not accessible through the public lookup) the reflective call is
+ * used.
+ */
+public final class MethodHandleInvoker
+{
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final Method method;
+    private final MethodHandle handle;
+    private final Class<?>[] parameterTypes;
+
+    public MethodHandleInvoker(final Method method)
+    {
+        this.method         = method;
+        this.parameterTypes = method.getParameterTypes();
+        this.handle         = toHandle(method, this.parameterTypes.length);
+    }
+
+    private static MethodHandle toHandle(final Method method, final int parameterCount)
+    {
+        try
+        {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(method).asFixedArity();
+            if (Modifier.isStatic(method.getModifiers()))
+            {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+
+            return handle.asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Object[].class, parameterCount);
+        }
+        catch (IllegalAccessException | RuntimeException e)
+        {
+            Logger.debug(MethodHandleInvoker.class, "Could not create a method handle for " + method
+                    + ", using reflection: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public Method getMethod()
+    {
+        return method;
+    }
+
+    /**
+     * Same as {@link Method#invoke(Object, Object...)}
+     * @param target the object the method is invoked on, ignored for static methods
+     * @param args the arguments of the method, null if it does not take any
+     * @return The value returned by the method, null for void methods
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    public Object invoke(final Object target, final Object[] args)
+        throws IllegalAccessException, InvocationTargetException
+    {
+        if (handle == null)
+        {
+            return method.invoke(target, args);
+        }
+
+        final Object[] actual = (args == null) ? NO_ARGS : args;
+        checkArguments(target, actual);
+
+        try
+        {
+            return (Object) handle.invokeExact(target, actual);
+        }
+        catch (Throwable t)
+        {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * The conversions done by the handle would fail with a {@link ClassCastException} or a
+     * {@link NullPointerException} that can not be told apart from the ones thrown by the method, so the arguments
+     * are checked upfront as the reflective call does.
+     */
+    private void checkArguments(final Object target, final Object[] actual)
+    {
+        if (actual.length != parameterTypes.length)
+        {
+            throw new IllegalArgumentException("wrong number of arguments for " + method);
+        }
+
+        if (!Modifier.isStatic(method.getModifiers()) && target == null)
+        {
+            throw new NullPointerException("null target for " + method);
+        }
+
+        if (!Modifier.isStatic(method.getModifiers()) && !method.getDeclaringClass().isInstance(target))
+        {
+            throw new IllegalArgumentException("object is not an instance of declaring class " + method.getDeclaringClass());
+        }
+
+        for (int i = 0; i < actual.length; i++)
+        {
+            final Class<?> type = parameterTypes[i];
+            final Object arg    = actual[i];
+            if (arg == null ? type.isPrimitive()
+                    : !type.isPrimitive() && !type.isInstance(arg)
+                      || type.isPrimitive() && !isWideningConvertible(type, arg.getClass()))
+            {
+                throw new IllegalArgumentException("argument type mismatch for " + method);
+            }
+        }
+    }
+
+    /**
+     * The unboxing and widening the reflective call accepts, velocity's own conversion leaves out the char widening
+     */
+    private static boolean isWideningConvertible(final Class<?> type, final Class<?> argumentClass)
+    {
+        return IntrospectionUtils.isMethodInvocationConvertible(type, argumentClass, false)
+                || argumentClass == Character.class
+                   && (type == Integer.TYPE || type == Long.TYPE || type == Float.TYPE || type == Double.TYPE);
+    }
+}
@@ -309,6 +309,7 @@ public class UberspectImpl implements Uberspect
     public static class VelMethodImpl implements VelMethod
     {
         final Method method;
+        final MethodHandleInvoker invoker;
         Boolean isVarArg;
         boolean wrapArray;
 
@@ -326,12 +327,14 @@ public class UberspectImpl implements Uberspect
         public VelMethodImpl(Method method, boolean wrapArray)
         {
             this.method = method;
+            this.invoker = new MethodHandleInvoker(method);
             this.wrapArray = wrapArray;
         }
 
         private VelMethodImpl()
         {
             method = null;
+            invoker = null;
         }
 
         /**
@@ -369,7 +372,7 @@ public class UberspectImpl implements Uberspect
          */
         protected Object doInvoke(Object o, Object[] actual) throws Exception
         {
-            return method.invoke(o, actual);
+            return invoker.invoke(o, actual);
         }
 
         /**
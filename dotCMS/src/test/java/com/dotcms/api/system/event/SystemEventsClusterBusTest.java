@@ -0,0 +1,149 @@
+package com.dotcms.api.system.event;
+
+import com.dotcms.UnitTestBase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link SystemEventsClusterBus} unit test for the sequence gap catch up, the poll interval and the dedup of the
+ * delivered events. The bus of the tests is clustered and collects the events instead of sending them to the web
+ * socket.
+ */
+public class SystemEventsClusterBusTest extends UnitTestBase {
+
+    private static final long AN_HOUR = 60 * 60 * 1000L;
+
+    @Test
+    public void a_gap_on_the_sequence_of_a_server_requests_a_catch_up() {
+
+        final TestClusterBus bus = new TestClusterBus(true, AN_HOUR, 100);
+        assertTrue(bus.shouldPoll());
+
+        // the first message of every server starts its sequence
+        bus.checkSequence("server1", 5);
+        bus.checkSequence("server2", 1);
+        bus.checkSequence("server1", 6);
+        bus.checkSequence("server2", 2);
+        assertFalse(bus.shouldPoll());
+
+        bus.checkSequence("server1", 8);
+        assertTrue(bus.shouldPoll());
+        assertFalse(bus.shouldPoll());
+
+        // the sequence goes on from the last one received
+        bus.checkSequence("server1", 9);
+        bus.checkSequence("server2", 3);
+        assertFalse(bus.shouldPoll());
+
+        // a server restarted
+        bus.checkSequence("server2", 1);
+        assertTrue(bus.shouldPoll());
+    }
+
+    @Test
+    public void requested_catch_up_polls_once() {
+
+        final TestClusterBus bus = new TestClusterBus(true, AN_HOUR, 100);
+        assertTrue(bus.shouldPoll());
+        assertFalse(bus.shouldPoll());
+
+        bus.requestCatchUp();
+        assertTrue(bus.shouldPoll());
+        assertFalse(bus.shouldPoll());
+    }
+
+    @Test
+    public void polls_on_every_run_when_disabled_or_not_clustered() {
+
+        final TestClusterBus disabled = new TestClusterBus(false, AN_HOUR, 100);
+        assertTrue(disabled.shouldPoll());
+        assertTrue(disabled.shouldPoll());
+
+        final TestClusterBus notClustered = new TestClusterBus(true, AN_HOUR, 100);
+        notClustered.clustered = false;
+        assertTrue(notClustered.shouldPoll());
+        assertTrue(notClustered.shouldPoll());
+    }
+
+    @Test
+    public void polls_when_the_interval_has_passed() throws InterruptedException {
+
+        final TestClusterBus bus = new TestClusterBus(true, 50, 100);
+        assertTrue(bus.shouldPoll());
+        assertFalse(bus.shouldPoll());
+
+        Thread.sleep(100);
+        assertTrue(bus.shouldPoll());
+    }
+
+    @Test
+    public void delivers_an_event_once() {
+
+        final TestClusterBus bus = new TestClusterBus(true, AN_HOUR, 100);
+        bus.deliver(event("event1"));
+        bus.deliver(event("event2"));
+        bus.deliver(event("event1"));
+        bus.deliver(event("event2"));
+
+        assertEquals(2, bus.sent.size());
+        assertEquals("event1", bus.sent.get(0).getId());
+        assertEquals("event2", bus.sent.get(1).getId());
+    }
+
+    @Test
+    public void delivers_the_events_without_id() {
+
+        final TestClusterBus bus = new TestClusterBus(true, AN_HOUR, 100);
+        bus.deliver(event(null));
+        bus.deliver(event(null));
+
+        assertEquals(2, bus.sent.size());
+    }
+
+    @Test
+    public void forgets_the_oldest_delivered_events_over_the_max() {
+
+        final TestClusterBus bus = new TestClusterBus(true, AN_HOUR, 2);
+        bus.deliver(event("event1"));
+        bus.deliver(event("event2"));
+        bus.deliver(event("event3"));
+
+        // event1 is not remembered anymore, event3 still is
+        bus.deliver(event("event1"));
+        bus.deliver(event("event3"));
+
+        assertEquals(4, bus.sent.size());
+        assertEquals("event1", bus.sent.get(3).getId());
+    }
+
+    private static SystemEvent event(final String id) {
+        return new SystemEvent(id, SystemEventType.NOTIFICATION, new Payload("test"), new Date(), "server1");
+    }
+
+    private static class TestClusterBus extends SystemEventsClusterBus {
+
+        private final List<SystemEvent> sent = new ArrayList<>();
+        private boolean clustered = true;
+
+        private TestClusterBus(final boolean enabled, final long pollMillis, final int maxDeliveredEvents) {
+            super(enabled, pollMillis, maxDeliveredEvents);
+        }
+
+        @Override
+        void sendToWebSocket(final SystemEvent systemEvent) {
+            this.sent.add(systemEvent);
+        }
+
+        @Override
+        boolean isClustered() {
+            return this.clustered;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.dotcms.concurrent;
+
+import com.dotcms.UnitTestBase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * AsyncBatchWriter unit test.
+ */
+public class AsyncBatchWriterTest extends UnitTestBase {
+
+    @Test
+    public void writes_full_batches() throws InterruptedException {
+
+        final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch written = new CountDownLatch(2);
+        final AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test-full-batches", 16, 5,
+                TimeUnit.MINUTES.toMillis(1), batch -> {
+                    batches.add(new ArrayList<>(batch));
+                    written.countDown();
+                });
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(writer.offer(i));
+        }
+
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+        writer.shutdown();
+
+        assertEquals(2, batches.size());
+        assertEquals(5, batches.get(0).size());
+        assertEquals(5, batches.get(1).size());
+        assertEquals(10, writer.getWritten());
+    }
+
+    @Test
+    public void writes_incomplete_batch_after_max_delay() throws InterruptedException {
+
+        final List<Integer> elements = new CopyOnWriteArrayList<>();
+        final CountDownLatch written = new CountDownLatch(1);
+        final AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test-max-delay", 16, 100, 50,
+                batch -> {
+                    elements.addAll(batch);
+                    written.countDown();
+                });
+
+        try {
+
+            writer.offer(1);
+            writer.offer(2);
+
+            assertTrue(written.await(10, TimeUnit.SECONDS));
+            assertEquals(2, elements.size());
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    public void drops_when_full_and_counts_failures() throws InterruptedException {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch writing = new CountDownLatch(1);
+        final AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test-drops", 2, 1, 0,
+                blockThenFail(writing, release));
+
+        // the consumer takes the first element and blocks, the next two fill the ring buffer
+        writer.offer(0);
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        assertTrue(writer.offer(1));
+        assertTrue(writer.offer(2));
+        assertFalse(writer.offer(3));
+        assertEquals(1, writer.getDropped());
+
+        release.countDown();
+        writer.shutdown();
+
+        assertEquals(3, writer.getFailed());
+        assertEquals(0, writer.getWritten());
+    }
+
+    @Test
+    public void shutdown_writes_the_pending_elements_and_the_later_ones_on_the_caller() {
+
+        final List<Integer> elements = new CopyOnWriteArrayList<>();
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        final AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test-shutdown", 64, 100,
+                TimeUnit.MINUTES.toMillis(1), batch -> {
+                    elements.addAll(batch);
+                    threads.add(Thread.currentThread().getName());
+                });
+
+        for (int i = 0; i < 10; i++) {
+            writer.offer(i);
+        }
+
+        writer.shutdown();
+        assertEquals(10, elements.size());
+        assertEquals(0, writer.getPending());
+
+        assertTrue(writer.offer(10));
+        assertEquals(11, elements.size());
+        assertEquals(Thread.currentThread().getName(), threads.get(threads.size() - 1));
+    }
+
+    @Test
+    public void shutdown_all_stops_the_started_writers() {
+
+        final List<Integer> elements = Collections.synchronizedList(new ArrayList<>());
+        final AsyncBatchWriter<Integer> started = new AsyncBatchWriter<>("test-shutdown-all", 64, 100,
+                TimeUnit.MINUTES.toMillis(1), elements::addAll);
+        final AsyncBatchWriter<Integer> notStarted = new AsyncBatchWriter<>("test-not-started", 64, 100,
+                TimeUnit.MINUTES.toMillis(1), elements::addAll);
+
+        started.offer(1);
+        started.offer(2);
+        AsyncBatchWriter.shutdownAll();
+
+        assertEquals(2, elements.size());
+        assertEquals(0, started.getPending());
+        assertEquals(0, notStarted.getPending());
+    }
+
+    private static Consumer<List<Integer>> blockThenFail(final CountDownLatch writing, final CountDownLatch release) {
+
+        return batch -> {
+
+            writing.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            throw new IllegalStateException("can not write");
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.dotcms.concurrent;
+
+import com.dotcms.UnitTestBase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * RingBuffer unit test.
+ */
+public class RingBufferTest extends UnitTestBase {
+
+    @Test
+    public void capacity_rounded_to_power_of_two() {
+
+        assertEquals(2,   new RingBuffer<String>(1).capacity());
+        assertEquals(128, new RingBuffer<String>(100).capacity());
+        assertEquals(128, new RingBuffer<String>(128).capacity());
+    }
+
+    @Test
+    public void poll_in_offer_order() {
+
+        final RingBuffer<Integer> ringBuffer = new RingBuffer<>(4);
+        assertNull(ringBuffer.poll());
+
+        for (int i = 0; i < 10; i++) {
+
+            assertTrue(ringBuffer.offer(i));
+            assertEquals(Integer.valueOf(i), ringBuffer.poll());
+        }
+
+        assertNull(ringBuffer.poll());
+        assertEquals(0, ringBuffer.size());
+    }
+
+    @Test
+    public void offer_drops_when_full() {
+
+        final RingBuffer<Integer> ringBuffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ringBuffer.offer(i));
+        }
+
+        assertFalse(ringBuffer.offer(4));
+        assertEquals(5, ringBuffer.getOffered());
+        assertEquals(1, ringBuffer.getDropped());
+
+        final List<Integer> drained = new ArrayList<>();
+        assertEquals(3, ringBuffer.drainTo(drained, 3));
+        assertEquals(1, ringBuffer.drainTo(drained, 3));
+        assertEquals(0, ringBuffer.drainTo(drained, 3));
+        assertEquals(4, drained.size());
+        assertEquals(Integer.valueOf(0), drained.get(0));
+        assertEquals(Integer.valueOf(3), drained.get(3));
+
+        assertTrue(ringBuffer.offer(5));
+    }
+
+    @Test
+    public void concurrent_producers_do_not_lose_elements() throws InterruptedException {
+
+        final int producers   = 4;
+        final int perProducer = 10000;
+        final RingBuffer<Integer> ringBuffer = new RingBuffer<>(1024);
+        final ExecutorService executor       = Executors.newFixedThreadPool(producers);
+        final CountDownLatch  done           = new CountDownLatch(producers);
+
+        for (int p = 0; p < producers; p++) {
+
+            final int base = p * perProducer;
+            executor.execute(() -> {
+
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ringBuffer.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        final Set<Integer> received = new HashSet<>();
+        while (received.size() < producers * perProducer) {
+
+            final Integer element = ringBuffer.poll();
+            if (null != element) {
+                assertTrue(received.add(element));
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertNull(ringBuffer.poll());
+    }
+}
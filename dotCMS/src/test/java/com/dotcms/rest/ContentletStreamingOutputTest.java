@@ -0,0 +1,185 @@
+package com.dotcms.rest;
+
+import com.dotcms.UnitTestBase;
+import com.dotcms.content.elasticsearch.business.ESContentletAPIImpl;
+import com.dotmarketing.portlets.contentlet.model.Contentlet;
+import com.dotmarketing.util.PaginatedArrayList;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.dotcms.rest.ContentletStreamingOutput.STREAM_PAGE_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ContentletStreamingOutput#paged(int, int, ContentletStreamingOutput.ContentletPageSupplier)} unit test, the
+ * page supplier returns contentlets whose inode is the hit number.
+ */
+public class ContentletStreamingOutputTest extends UnitTestBase {
+
+    @Test
+    public void pulls_pages_until_the_limit() {
+
+        final List<Integer> offsets = new ArrayList<>();
+        final List<String> inodes = inodes(ContentletStreamingOutput.paged(10, STREAM_PAGE_SIZE + 5,
+                (offset, limit) -> {
+                    offsets.add(offset);
+                    return page(offset, limit, Integer.MAX_VALUE);
+                }));
+
+        assertEquals(STREAM_PAGE_SIZE + 5, inodes.size());
+        assertEquals("10", inodes.get(0));
+        assertEquals(String.valueOf(STREAM_PAGE_SIZE + 14), inodes.get(inodes.size() - 1));
+        assertEquals(2, offsets.size());
+        assertEquals(STREAM_PAGE_SIZE + 10, offsets.get(1).intValue());
+    }
+
+    @Test
+    public void stops_when_the_offset_reaches_the_total_hits() {
+
+        final List<Integer> offsets = new ArrayList<>();
+        final int hits = STREAM_PAGE_SIZE + STREAM_PAGE_SIZE / 2;
+        final List<String> inodes = inodes(ContentletStreamingOutput.paged(0, 0,
+                (offset, limit) -> {
+                    offsets.add(offset);
+                    return page(offset, Math.min(limit, hits - offset), hits);
+                }));
+
+        assertEquals(hits, inodes.size());
+        assertEquals(2, offsets.size());
+
+        // no extra round trip when the hits are a multiple of the page size
+        offsets.clear();
+        assertEquals(STREAM_PAGE_SIZE * 2, inodes(ContentletStreamingOutput.paged(0, 0,
+                (offset, limit) -> {
+                    offsets.add(offset);
+                    return page(offset, Math.min(limit, STREAM_PAGE_SIZE * 2 - offset), STREAM_PAGE_SIZE * 2);
+                })).size());
+        assertEquals(2, offsets.size());
+    }
+
+    @Test
+    public void a_page_filtered_by_permissions_does_not_end_the_stream() {
+
+        // every page only has the even hits, and the second one has none of them
+        final List<Integer> offsets = new ArrayList<>();
+        final int hits = STREAM_PAGE_SIZE * 3 + 10;
+        final List<String> inodes = inodes(ContentletStreamingOutput.paged(0, 0,
+                (offset, limit) -> {
+
+                    offsets.add(offset);
+                    final PaginatedArrayList<Contentlet> page = page(0, 0, hits);
+                    if (offset != STREAM_PAGE_SIZE) {
+                        page(offset, Math.min(limit, hits - offset), hits).stream()
+                                .filter(contentlet -> Integer.parseInt(contentlet.getInode()) % 2 == 0)
+                                .forEach(page::add);
+                    }
+                    return page;
+                }));
+
+        assertEquals(4, offsets.size());
+        assertEquals(STREAM_PAGE_SIZE * 3, offsets.get(3).intValue());
+        assertEquals("0", inodes.get(0));
+        assertEquals(String.valueOf(STREAM_PAGE_SIZE * 2), inodes.get(STREAM_PAGE_SIZE / 2));
+        assertEquals(String.valueOf(hits - 2), inodes.get(inodes.size() - 1));
+    }
+
+    @Test
+    public void a_failed_page_ends_the_stream() {
+
+        assertEquals(0, inodes(ContentletStreamingOutput.paged(0, 0, (offset, limit) -> null)).size());
+        // the page returned when the search fails: empty and without hits
+        assertEquals(0, inodes(ContentletStreamingOutput.paged(0, 0, (offset, limit) -> page(0, 0, 0))).size());
+    }
+
+    @Test
+    public void no_limit_is_capped_at_the_index_search_max_limit() {
+
+        assertEquals(ESContentletAPIImpl.MAX_LIMIT, inodes(ContentletStreamingOutput.paged(0, 0,
+                (offset, limit) -> page(offset, limit, Integer.MAX_VALUE))).size());
+        assertEquals(ESContentletAPIImpl.MAX_LIMIT, inodes(ContentletStreamingOutput.paged(0, -1,
+                (offset, limit) -> page(offset, limit, Integer.MAX_VALUE))).size());
+    }
+
+    @Test
+    public void merged_pages_move_the_offset_by_the_hits_and_skip_the_repeated_contentlets() {
+
+        // as Time Machine does: each page merges the working and live hits, from offset to offset + limit of both
+        final List<Integer> offsets = new ArrayList<>();
+        final int hits = STREAM_PAGE_SIZE * 2 + 20;
+        final List<String> inodes = inodes(ContentletStreamingOutput.paged(0, 0,
+                (offset, limit) -> {
+
+                    offsets.add(offset);
+                    final PaginatedArrayList<Contentlet> merged = page(offset, Math.min(limit, hits - offset), hits);
+                    merged.addAll(page(offset + 1, Math.min(limit, hits - offset - 1), hits));
+                    return merged;
+                }));
+
+        assertEquals(3, offsets.size());
+        assertEquals(STREAM_PAGE_SIZE, offsets.get(1).intValue());
+        assertEquals(STREAM_PAGE_SIZE * 2, offsets.get(2).intValue());
+        assertEquals(hits, inodes.size());
+        for (int i = 0; i < hits; i++) {
+            assertTrue(inodes.contains(String.valueOf(i)));
+        }
+    }
+
+    @Test
+    public void writes_the_fields_of_each_contentlet_on_the_json_generator() throws Exception {
+
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", "a \"quoted\" title");
+        fields.put("sortOrder", 2);
+        fields.put("live", true);
+        fields.put("missing", null);
+        fields.put("date", new StringBuilder("2019-01-01"));
+        fields.put("keyValue", ImmutableMap.of("key", "value"));
+        fields.put("related", ImmutableList.of("id1", ImmutableMap.of("identifier", "id2")));
+        fields.put("tags", new String[] {"a", "b"});
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ContentletStreamingOutput.json(page(0, 3, 3), null,
+                contentlet -> "1".equals(contentlet.getInode()) ? null :
+                        "2".equals(contentlet.getInode()) ? new HashMap<>() : fields).write(out);
+
+        assertEquals("{\"contentlets\":[{\"title\":\"a \\\"quoted\\\" title\",\"sortOrder\":2,\"live\":true,"
+                        + "\"date\":\"2019-01-01\",\"keyValue\":{\"key\":\"value\"},"
+                        + "\"related\":[\"id1\",{\"identifier\":\"id2\"}],\"tags\":[\"a\",\"b\"]},{}]}",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        final ByteArrayOutputStream jsonp = new ByteArrayOutputStream();
+        ContentletStreamingOutput.json(page(0, 1, 1), "callback", contentlet -> new HashMap<>()).write(jsonp);
+        assertEquals("callback({\"contentlets\":[{}]})", new String(jsonp.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static PaginatedArrayList<Contentlet> page(final int offset, final int limit, final long hits) {
+
+        final PaginatedArrayList<Contentlet> page = new PaginatedArrayList<>();
+        for (int i = offset; i < offset + limit; i++) {
+
+            final Contentlet contentlet = new Contentlet();
+            contentlet.setInode(String.valueOf(i));
+            page.add(contentlet);
+        }
+
+        page.setTotalResults(hits);
+        return page;
+    }
+
+    private static List<String> inodes(final Iterable<Contentlet> contentlets) {
+
+        final List<String> inodes = new ArrayList<>();
+        contentlets.forEach(contentlet -> inodes.add(contentlet.getInode()));
+        return inodes;
+    }
+}
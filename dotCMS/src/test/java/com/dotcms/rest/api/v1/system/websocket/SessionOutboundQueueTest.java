@@ -0,0 +1,143 @@
+package com.dotcms.rest.api.v1.system.websocket;
+
+import com.dotcms.UnitTestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link SessionOutboundQueue} unit test, the async sends are completed by the test with the captured handlers.
+ */
+public class SessionOutboundQueueTest extends UnitTestBase {
+
+    private Session session;
+    private RemoteEndpoint.Async remote;
+
+    @Before
+    public void before() {
+
+        this.session = mock(Session.class);
+        this.remote  = mock(RemoteEndpoint.Async.class);
+        when(this.session.getId()).thenReturn("test-session");
+        when(this.session.isOpen()).thenReturn(true);
+        when(this.session.getAsyncRemote()).thenReturn(this.remote);
+    }
+
+    @Test
+    public void sends_one_message_at_a_time_in_order() {
+
+        final SessionOutboundQueue queue = new SessionOutboundQueue(this.session, 10);
+        queue.send("first");
+        queue.send("second");
+        queue.send("third");
+
+        assertEquals(2, queue.size());
+        this.complete(1, "first");
+        this.complete(2, "second");
+        this.complete(3, "third");
+        assertEquals(0, queue.size());
+
+        // nothing is in flight, so the next message is sent right away
+        queue.send("fourth");
+        this.verifySent(4, "fourth");
+        assertEquals(0, queue.getDropped());
+    }
+
+    @Test
+    public void drops_the_oldest_pending_message_when_the_client_falls_behind() {
+
+        final SessionOutboundQueue queue = new SessionOutboundQueue(this.session, 2);
+        queue.send("first");
+        queue.send("second");
+        queue.send("third");
+        queue.send("fourth");
+
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.getDropped());
+
+        this.complete(1, "first");
+        this.complete(2, "third");
+        this.complete(3, "fourth");
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void coalesces_a_message_equal_to_a_pending_one() {
+
+        final SessionOutboundQueue queue = new SessionOutboundQueue(this.session, 10);
+        queue.send("first");
+        queue.send("second");
+        queue.send("second");
+        queue.send("third");
+
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.getDropped());
+
+        this.complete(1, "first");
+        this.complete(2, "second");
+        this.complete(3, "third");
+    }
+
+    @Test
+    public void a_failed_send_goes_on_with_the_next_message() {
+
+        final SessionOutboundQueue queue = new SessionOutboundQueue(this.session, 10);
+        queue.send("first");
+        queue.send("second");
+
+        this.verifySent(1, "first");
+        this.lastHandler(1).onResult(new SendResult(new IOException("broken pipe")));
+        this.verifySent(2, "second");
+    }
+
+    @Test
+    public void discards_the_pending_messages_when_the_session_is_closed() {
+
+        final SessionOutboundQueue queue = new SessionOutboundQueue(this.session, 10);
+        queue.send("first");
+        queue.send("second");
+        queue.send("third");
+
+        when(this.session.isOpen()).thenReturn(false);
+        this.complete(1, "first");
+
+        assertEquals(0, queue.size());
+        verify(this.remote, times(1)).sendText(anyString(), any(SendHandler.class));
+    }
+
+    private void complete(final int sends, final String message) {
+
+        this.verifySent(sends, message);
+        this.lastHandler(sends).onResult(new SendResult());
+    }
+
+    private void verifySent(final int sends, final String message) {
+
+        final ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+        verify(this.remote, times(sends)).sendText(messages.capture(), any(SendHandler.class));
+        assertEquals(message, messages.getValue());
+    }
+
+    private SendHandler lastHandler(final int sends) {
+
+        final ArgumentCaptor<SendHandler> handlers = ArgumentCaptor.forClass(SendHandler.class);
+        verify(this.remote, times(sends)).sendText(anyString(), handlers.capture());
+        final List<SendHandler> captured = handlers.getAllValues();
+        return captured.get(captured.size() - 1);
+    }
+}
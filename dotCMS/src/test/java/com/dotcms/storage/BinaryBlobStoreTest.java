@@ -0,0 +1,170 @@
+package com.dotcms.storage;
+
+import com.dotcms.UnitTestBase;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link BinaryBlobStore} unit test, the blobs are stored on a temporary folder instead of the assets folder.
+ */
+public class BinaryBlobStoreTest extends UnitTestBase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File blobsRoot;
+    private BinaryBlobStore store;
+
+    @Before
+    public void before() throws IOException {
+
+        this.blobsRoot = this.temporaryFolder.newFolder(BinaryBlobStore.BLOBS_FOLDER);
+        this.store     = new BinaryBlobStore(this.blobsRoot::getAbsolutePath);
+    }
+
+    @Test
+    public void the_same_content_is_stored_once_and_linked_from_every_inode_path() throws IOException {
+
+        final File first  = this.file("first.txt", "same content");
+        final File second = this.file("second.txt", "same content");
+        final File other  = this.file("other.txt", "other content");
+        final File firstInode  = this.inodePath("1/first.txt");
+        final File secondInode = this.inodePath("2/second.txt");
+        final File otherInode  = this.inodePath("3/other.txt");
+
+        this.store.copyFile(first, firstInode, true);
+        this.store.copyFile(second, secondInode, true);
+        this.store.copyFile(other, otherInode, true);
+
+        final String hash = this.store.getHash(first).get();
+        assertEquals(hash, this.store.getHash(second).get());
+        assertNotEquals(hash, this.store.getHash(other).get());
+
+        final File blob = this.store.getBlobFile(hash);
+        assertTrue(Files.isSameFile(blob.toPath(), firstInode.toPath()));
+        assertTrue(Files.isSameFile(blob.toPath(), secondInode.toPath()));
+        assertFalse(Files.isSameFile(blob.toPath(), otherInode.toPath()));
+        assertEquals(2, this.store.getReferenceCount(hash));
+        assertEquals(1, this.store.getReferenceCount(this.store.getHash(other).get()));
+        assertEquals("same content", this.read(secondInode));
+    }
+
+    @Test
+    public void copies_the_file_when_it_can_not_be_linked_to_its_blob() throws IOException {
+
+        final BinaryBlobStore store = new BinaryBlobStore(this.blobsRoot::getAbsolutePath) {
+
+            @Override
+            void link(final Path link, final Path blob) throws IOException {
+                throw new IOException("hard links are not supported");
+            }
+        };
+
+        final File source = this.file("source.txt", "content");
+        final File inode  = this.inodePath("1/source.txt");
+        store.copyFile(source, inode, true);
+
+        final String hash = store.getHash(source).get();
+        assertEquals("content", this.read(inode));
+        assertFalse(Files.isSameFile(store.getBlobFile(hash).toPath(), inode.toPath()));
+        assertEquals(0, store.getReferenceCount(hash));
+    }
+
+    @Test(expected = IOException.class)
+    public void fails_on_empty_files() throws IOException {
+
+        this.store.copyFile(this.file("empty.txt", ""), this.inodePath("1/empty.txt"), true);
+    }
+
+    @Test
+    public void the_variants_of_a_filter_chain_are_kept_with_the_original_blob() throws IOException {
+
+        final File source = this.file("image.png", "image");
+        final File inode  = this.inodePath("1/image.png");
+        this.store.copyFile(source, inode, true);
+
+        final String hash = this.store.getBlobHash(inode).get();
+        final File resized = this.store.getVariantFile(hash, "resize:w_100.png");
+        Files.write(resized.toPath(), "resized".getBytes(StandardCharsets.UTF_8));
+
+        // the next filter of the chain gets the variant of the previous one
+        assertEquals(Optional.of(hash), this.store.getBlobHash(resized));
+
+        // a file never stored has no blob to keep its variants with
+        assertEquals(Optional.empty(), this.store.getBlobHash(this.file("not-stored.png", "not stored")));
+    }
+
+    @Test
+    public void collects_the_unreferenced_blobs_with_their_variants() throws IOException {
+
+        final File source = this.file("source.txt", "content");
+        final File inode  = this.inodePath("1/source.txt");
+        final File copy   = this.inodePath("2/source.txt");
+        this.store.copyFile(source, inode, true);
+        this.store.copyFile(source, copy, true);
+
+        final String hash   = this.store.getHash(source).get();
+        final File variant  = this.store.getVariantFile(hash, "variant");
+        Files.write(variant.toPath(), "variant".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(0, this.store.collectGarbage());
+        Files.delete(inode.toPath());
+        assertEquals(0, this.store.collectGarbage());
+        assertTrue(this.store.getBlobFile(hash).exists());
+        assertTrue(variant.exists());
+
+        Files.delete(copy.toPath());
+        assertEquals(1, this.store.collectGarbage());
+        assertFalse(this.store.getBlobFile(hash).exists());
+        assertFalse(variant.getParentFile().exists());
+    }
+
+    @Test
+    public void collects_the_variants_left_without_a_blob() throws IOException {
+
+        final File source = this.file("source.txt", "content");
+        final File inode  = this.inodePath("1/source.txt");
+        this.store.copyFile(source, inode, true);
+
+        final String hash        = this.store.getHash(source).get();
+        final File variant       = this.store.getVariantFile(hash, "variant");
+        final String orphan      = this.store.getHash(this.file("intermediate.png", "intermediate")).get();
+        final File orphanVariant = this.store.getVariantFile(orphan, "variant");
+        Files.write(variant.toPath(), "variant".getBytes(StandardCharsets.UTF_8));
+        Files.write(orphanVariant.toPath(), "orphan".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(0, this.store.collectGarbage());
+        assertTrue(variant.exists());
+        assertFalse(orphanVariant.getParentFile().exists());
+    }
+
+    private File file(final String name, final String content) throws IOException {
+
+        final File file = new File(this.temporaryFolder.getRoot(), "uploads" + File.separator + name);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private File inodePath(final String path) {
+        return new File(this.temporaryFolder.getRoot(), "assets" + File.separator + path);
+    }
+
+    private String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,59 @@
+package com.dotcms.util;
+
+import com.dotcms.UnitTestBase;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * LatencyHistogram unit test.
+ */
+public class LatencyHistogramTest extends UnitTestBase {
+
+    @Test
+    public void bucket_index_keeps_relative_error_bounded() {
+
+        for (long value = 0; value < 1_000_000; value += 37) {
+
+            final long lowest = LatencyHistogram.bucketLowestValue(LatencyHistogram.bucketIndex(value));
+            assertTrue(lowest <= value);
+            assertTrue(value - lowest <= Math.max(1, value / 16));
+        }
+
+        assertEquals(LatencyHistogram.bucketIndex(LatencyHistogram.MAX_VALUE),
+                LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentiles_of_uniform_values() {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(10000, histogram.getCount());
+        assertEquals(10000, histogram.getMax());
+        assertEquals(5000,  histogram.getMean(), 1);
+        assertEquals(5000,  histogram.getValueAtPercentile(50), 5000 * 0.07);
+        assertEquals(9900,  histogram.getValueAtPercentile(99), 9900 * 0.07);
+
+        final Map<String, Object> stats = histogram.toMap();
+        assertEquals(10000L, stats.get("count"));
+        assertTrue((Long) stats.get("p999") <= 10000);
+    }
+
+    @Test
+    public void reset_clears_the_values() {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(5_000_000);
+        assertEquals(5000, histogram.getMax());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+}
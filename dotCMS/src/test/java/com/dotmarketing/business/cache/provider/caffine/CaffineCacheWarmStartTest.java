@@ -0,0 +1,152 @@
+package com.dotmarketing.business.cache.provider.caffine;
+
+import com.dotcms.UnitTestBase;
+import com.dotmarketing.beans.VersionInfo;
+import com.dotmarketing.portlets.contentlet.model.ContentletVersionInfo;
+import com.dotmarketing.util.Config;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import org.apache.commons.lang.mutable.MutableInt;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * CaffineCacheWarmStart unit test, the snapshots are written to a temporary directory and the stamps are fixed.
+ */
+public class CaffineCacheWarmStartTest extends UnitTestBase {
+
+    private static final String CONTENTLETS   = "contentletcache";
+    private static final String CONTENT_TYPES = "contenttypecache";
+    private static final String VERSION_INFO  = "versioninfocache";
+
+    private File directory;
+    private Map<String, String> stamps;
+
+    @Before
+    public void setUp() {
+
+        this.directory = Files.createTempDir();
+        Config.setProperty(CaffineCacheWarmStart.CACHE_WARMSTART_PATH, this.directory.getAbsolutePath());
+        this.stamps = new HashMap<>(ImmutableMap.of(CONTENTLETS, "10_2019-01-01", CONTENT_TYPES, "3_2019-01-01",
+                VERSION_INFO, "10_2019-01-01"));
+    }
+
+    @After
+    public void tearDown() {
+
+        final File[] files = this.directory.listFiles();
+        if (null != files) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        this.directory.delete();
+    }
+
+    @Test
+    public void restores_the_entries_of_the_snapshot() {
+
+        final CaffineCache source = this.cache();
+        source.put(CONTENTLETS, "inode-1", "contentlet 1");
+        source.put(CONTENT_TYPES, "type-1", "content type 1");
+        this.warmStart(source).writeSnapshot();
+
+        final CaffineCache target = this.cache();
+        assertEquals(2, this.warmStart(target).restore());
+        assertEquals("contentlet 1", target.get(CONTENTLETS, "inode-1"));
+        assertEquals("content type 1", target.get(CONTENT_TYPES, "type-1"));
+    }
+
+    @Test
+    public void skips_the_groups_whose_stamp_changed() {
+
+        final CaffineCache source = this.cache();
+        source.put(CONTENTLETS, "inode-1", "contentlet 1");
+        source.put(CONTENT_TYPES, "type-1", "content type 1");
+        this.warmStart(source).writeSnapshot();
+
+        // a contentlet was deleted: same last modification date, one row less
+        this.stamps.put(CONTENTLETS, "9_2019-01-01");
+
+        final CaffineCache target = this.cache();
+        assertEquals(1, this.warmStart(target).restore());
+        assertNull(target.get(CONTENTLETS, "inode-1"));
+        assertEquals("content type 1", target.get(CONTENT_TYPES, "type-1"));
+    }
+
+    @Test
+    public void does_not_replace_the_cached_values() {
+
+        final CaffineCache source = this.cache();
+        source.put(CONTENTLETS, "inode-1", "old contentlet 1");
+        this.warmStart(source).writeSnapshot();
+
+        final CaffineCache target = this.cache();
+        target.put(CONTENTLETS, "inode-1", "contentlet 1");
+        this.warmStart(target).restore();
+
+        assertEquals("contentlet 1", target.get(CONTENTLETS, "inode-1"));
+    }
+
+    @Test
+    public void does_not_deserialize_classes_out_of_the_allowed_packages() {
+
+        final CaffineCache source = this.cache();
+        source.put(CONTENTLETS, "inode-1", new MutableInt(1));
+        source.put(CONTENTLETS, "inode-2", new String[] {"contentlet 2"});
+        this.warmStart(source).writeSnapshot();
+
+        final CaffineCache target = this.cache();
+        assertEquals(1, this.warmStart(target).restore());
+        assertNull(target.get(CONTENTLETS, "inode-1"));
+        assertEquals("contentlet 2", ((String[]) target.get(CONTENTLETS, "inode-2"))[0]);
+    }
+
+    @Test
+    public void only_restores_the_contentlet_version_info() {
+
+        final ContentletVersionInfo contentletVersionInfo = new ContentletVersionInfo();
+        contentletVersionInfo.setIdentifier("contentlet-1");
+        contentletVersionInfo.setLang(1);
+        contentletVersionInfo.setLiveInode("live-inode-1");
+
+        // the template, container and link version info are not stamped by contentlet_version_info
+        final VersionInfo templateVersionInfo = new VersionInfo();
+        templateVersionInfo.setIdentifier("template-1");
+        templateVersionInfo.setLiveInode("live-inode-2");
+
+        final CaffineCache source = this.cache();
+        source.put(VERSION_INFO, "contentlet-1-lang:1", contentletVersionInfo);
+        source.put(VERSION_INFO, "template-1", templateVersionInfo);
+        this.warmStart(source).writeSnapshot();
+
+        final CaffineCache target = this.cache();
+        assertEquals(1, this.warmStart(target).restore());
+        assertEquals("live-inode-1",
+                ((ContentletVersionInfo) target.get(VERSION_INFO, "contentlet-1-lang:1")).getLiveInode());
+        assertNull(target.get(VERSION_INFO, "template-1"));
+    }
+
+    private CaffineCache cache() {
+
+        final CaffineCache cache = new CaffineCache();
+        cache.init();
+        return cache;
+    }
+
+    private CaffineCacheWarmStart warmStart(final CaffineCache cache) {
+
+        final CaffineCacheWarmStart warmStart =
+                new CaffineCacheWarmStart(() -> new HashMap<>(this.stamps), () -> "test-server");
+        warmStart.register(cache);
+        return warmStart;
+    }
+}
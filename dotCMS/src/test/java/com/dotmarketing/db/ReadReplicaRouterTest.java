@@ -0,0 +1,179 @@
+package com.dotmarketing.db;
+
+import com.dotcms.UnitTestBase;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * ReadReplicaRouter unit test, the replica is an embedded H2 database.
+ */
+public class ReadReplicaRouterTest extends UnitTestBase {
+
+    private static JdbcDataSource replicaDataSource;
+
+    @BeforeClass
+    public static void prepare() throws SQLException {
+
+        replicaDataSource = new JdbcDataSource();
+        replicaDataSource.setURL("jdbc:h2:mem:read_replica_router_test;DB_CLOSE_DELAY=-1");
+
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement   = connection.createStatement()) {
+
+            statement.execute("CREATE TABLE replica_marker (name VARCHAR(20))");
+            statement.execute("INSERT INTO replica_marker VALUES ('replica')");
+        }
+    }
+
+    @Test
+    public void disabled_without_replica() {
+
+        final ReadReplicaRouter router = new ReadReplicaRouter(null, "SELECT 0", 5, 0);
+
+        assertFalse(router.isEnabled());
+        assertFalse(router.enterReadOnly());
+        assertFalse(router.shouldRoute());
+    }
+
+    @Test
+    public void routes_read_only_scope_to_replica() throws SQLException {
+
+        final ReadReplicaRouter router = new ReadReplicaRouter(replicaDataSource, "SELECT 0", 5, 0);
+        assertFalse(router.shouldRoute());
+
+        assertTrue(router.enterReadOnly());
+        try {
+
+            assertTrue(router.shouldRoute());
+            try (Connection connection = router.getConnection();
+                 Statement statement   = connection.createStatement();
+                 ResultSet resultSet   = statement.executeQuery("SELECT name FROM replica_marker")) {
+
+                assertTrue(connection.isReadOnly());
+                assertTrue(router.isReplicaConnection(connection));
+                assertTrue(resultSet.next());
+                assertEquals("replica", resultSet.getString(1));
+            }
+        } finally {
+            router.exitReadOnly();
+        }
+
+        assertFalse(router.shouldRoute());
+    }
+
+    @Test
+    public void pinned_scope_goes_to_primary_until_it_ends() {
+
+        final ReadReplicaRouter router = new ReadReplicaRouter(replicaDataSource, "SELECT 0", 5, 0);
+        assertFalse(router.pinToPrimary());
+
+        router.enterReadOnly();
+        router.enterReadOnly();
+        assertTrue(router.pinToPrimary());
+        assertFalse(router.shouldRoute());
+
+        router.exitReadOnly();
+        assertFalse(router.shouldRoute());
+        router.exitReadOnly();
+
+        router.enterReadOnly();
+        assertTrue(router.shouldRoute());
+        router.exitReadOnly();
+    }
+
+    @Test
+    public void lagging_replica_is_skipped() {
+
+        final ReadReplicaRouter router = new ReadReplicaRouter(replicaDataSource, "SELECT 60", 5, 0);
+
+        router.enterReadOnly();
+        try {
+
+            assertFalse(router.shouldRoute());
+            assertEquals(60, router.getLastLagSeconds(), 0);
+        } finally {
+            router.exitReadOnly();
+        }
+    }
+
+    @Test
+    public void unreadable_lag_is_skipped() {
+
+        final ReadReplicaRouter router = new ReadReplicaRouter(replicaDataSource, "SELECT lag FROM no_such_table", 5, 0);
+
+        router.enterReadOnly();
+        try {
+            assertFalse(router.shouldRoute());
+        } finally {
+            router.exitReadOnly();
+        }
+    }
+
+    @Test
+    public void replica_is_skipped_for_the_write_window() throws InterruptedException {
+
+        final ReadReplicaRouter router = new ReadReplicaRouter(replicaDataSource, "SELECT 0", 5, 0, 200);
+
+        router.recordWrite();
+        router.enterReadOnly();
+        try {
+            assertFalse(router.shouldRoute());
+        } finally {
+            router.exitReadOnly();
+        }
+
+        Thread.sleep(250);
+
+        router.enterReadOnly();
+        try {
+            assertTrue(router.shouldRoute());
+        } finally {
+            router.exitReadOnly();
+        }
+    }
+
+    @Test
+    public void write_window_only_applies_to_the_writing_thread() throws InterruptedException {
+
+        final ReadReplicaRouter router = new ReadReplicaRouter(replicaDataSource, "SELECT 0", 5, 0,
+                TimeUnit.MINUTES.toMillis(1));
+
+        // a background writer keeps committing, the reads of the other threads still go to the replica
+        final Thread writer = new Thread(router::recordWrite);
+        writer.start();
+        writer.join();
+
+        router.enterReadOnly();
+        try {
+            assertTrue(router.shouldRoute());
+        } finally {
+            router.exitReadOnly();
+        }
+
+        final AtomicBoolean routedAfterItsWrite = new AtomicBoolean(true);
+        final Thread reader = new Thread(() -> {
+
+            router.recordWrite();
+            router.enterReadOnly();
+            try {
+                routedAfterItsWrite.set(router.shouldRoute());
+            } finally {
+                router.exitReadOnly();
+            }
+        });
+        reader.start();
+        reader.join();
+
+        assertFalse(routedAfterItsWrite.get());
+    }
+}
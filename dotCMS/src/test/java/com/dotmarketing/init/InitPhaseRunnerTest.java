@@ -0,0 +1,127 @@
+package com.dotmarketing.init;
+
+import com.dotcms.UnitTestBase;
+import com.dotmarketing.exception.DotRuntimeException;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * InitPhaseRunner unit test.
+ */
+public class InitPhaseRunnerTest extends UnitTestBase {
+
+    @Test
+    public void runs_the_phases_after_their_dependencies() {
+
+        for (final boolean parallel : new boolean[] {false, true}) {
+
+            final List<String> ran = new CopyOnWriteArrayList<>();
+            new InitPhaseRunner(parallel, 4)
+                    .add(InitPhase.optional("first", () -> ran.add("first")))
+                    .add(InitPhase.required("second", () -> ran.add("second"), "first"))
+                    .add(InitPhase.required("third", () -> ran.add("third"), "first"))
+                    .add(InitPhase.required("last", () -> ran.add("last"), "second", "third"))
+                    .run();
+
+            assertEquals(4, ran.size());
+            assertEquals("first", ran.get(0));
+            assertEquals("last", ran.get(3));
+        }
+    }
+
+    @Test
+    public void runs_the_independent_phases_concurrently() {
+
+        // each phase waits for the other one to start, which can only happen if they run at the same time
+        final CountDownLatch started = new CountDownLatch(2);
+        final List<Boolean> met = new CopyOnWriteArrayList<>();
+        final InitPhase.Action action = () -> {
+            started.countDown();
+            met.add(started.await(10, TimeUnit.SECONDS));
+        };
+
+        final InitPhaseRunner runner = new InitPhaseRunner(true, 2)
+                .add(InitPhase.required("one", action))
+                .add(InitPhase.required("other", action));
+        assertTrue(runner.isParallel());
+        runner.run();
+
+        assertEquals(2, met.size());
+        assertTrue(met.get(0) && met.get(1));
+    }
+
+    @Test
+    public void does_not_run_in_parallel_with_a_single_thread() {
+
+        assertFalse(new InitPhaseRunner(true, 1).isParallel());
+        assertFalse(new InitPhaseRunner(false, 4).isParallel());
+    }
+
+    @Test
+    public void a_failed_required_phase_skips_its_dependents_and_stops_the_startup() {
+
+        for (final boolean parallel : new boolean[] {false, true}) {
+
+            final List<String> ran = new CopyOnWriteArrayList<>();
+            final InitPhaseRunner runner = new InitPhaseRunner(parallel, 4)
+                    .add(InitPhase.required("failing", () -> {
+                        throw new IllegalStateException("can not init");
+                    }))
+                    .add(InitPhase.required("independent", () -> ran.add("independent")))
+                    .add(InitPhase.required("dependent", () -> ran.add("dependent"), "failing"))
+                    .add(InitPhase.required("transitive", () -> ran.add("transitive"), "dependent"));
+
+            try {
+                runner.run();
+                fail("the failed required phase must stop the startup");
+            } catch (DotRuntimeException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+
+            assertEquals(1, ran.size());
+            assertEquals("independent", ran.get(0));
+        }
+    }
+
+    @Test
+    public void a_failed_optional_phase_does_not_skip_its_dependents() {
+
+        for (final boolean parallel : new boolean[] {false, true}) {
+
+            final List<String> ran = new CopyOnWriteArrayList<>();
+            new InitPhaseRunner(parallel, 4)
+                    .add(InitPhase.optional("failing", () -> {
+                        throw new IllegalStateException("can not delete the temp files");
+                    }))
+                    .add(InitPhase.required("dependent", () -> ran.add("dependent"), "failing"))
+                    .run();
+
+            assertEquals(1, ran.size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejects_a_dependency_not_added_before() {
+
+        new InitPhaseRunner(false, 1)
+                .add(InitPhase.required("dependent", () -> {}, "later"))
+                .add(InitPhase.required("later", () -> {}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejects_a_duplicated_phase() {
+
+        new InitPhaseRunner(false, 1)
+                .add(InitPhase.required("phase", () -> {}))
+                .add(InitPhase.optional("phase", () -> {}));
+    }
+}
@@ -0,0 +1,89 @@
+package com.dotmarketing.portlets.categories.business;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.dotcms.UnitTestBase;
+import com.dotmarketing.portlets.categories.model.Category;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class CategoryTreeSnapshotTest extends UnitTestBase {
+
+    private static Category category(final String inode, final String key, final int sortOrder) {
+        final Category category = new Category();
+        category.setInode(inode);
+        category.setCategoryName("name-" + inode);
+        category.setKey(key);
+        category.setSortOrder(sortOrder);
+        return category;
+    }
+
+    private static List<String> inodes(final List<Category> categories) {
+        return categories.stream().map(Category::getInode).collect(Collectors.toList());
+    }
+
+    /**
+     * top
+     *  |- b (sort 2)
+     *  |    |- d
+     *  |- a (sort 1)
+     *       |- c
+     *           |- d
+     */
+    private CategoryTreeSnapshot snapshot() {
+        return CategoryTreeSnapshot.build(1, ImmutableList.of(
+                category("top", "Top", 0), category("a", "a", 1), category("b", "b", 2),
+                category("c", "c", 0), category("d", "d", 0)),
+                ImmutableList.of(new String[]{"top", "b"}, new String[]{"top", "a"}, new String[]{"a", "c"},
+                        new String[]{"c", "d"}, new String[]{"b", "d"}, new String[]{"unknown", "a"}));
+    }
+
+    @Test
+    public void test_children_and_parents_are_sorted() {
+        final CategoryTreeSnapshot snapshot = snapshot();
+
+        assertEquals(ImmutableList.of("a", "b"), inodes(snapshot.getChildren("top")));
+        assertEquals(ImmutableList.of("c", "b"), inodes(snapshot.getParents("d")));
+        assertTrue(snapshot.getParents("top").isEmpty());
+        assertTrue(snapshot.getChildren("unknown").isEmpty());
+    }
+
+    @Test
+    public void test_descendants_are_breadth_first_without_duplicates() {
+        assertEquals(ImmutableList.of("a", "b", "c", "d"), inodes(snapshot().getDescendants("top")));
+    }
+
+    @Test
+    public void test_ancestors_follow_the_first_parent() {
+        final CategoryTreeSnapshot snapshot = snapshot();
+
+        assertEquals(ImmutableList.of("top", "a", "c"), inodes(snapshot.getAncestors("d")));
+        assertTrue(snapshot.isAncestor("d", "a"));
+        assertFalse(snapshot.isAncestor("d", "b"));
+        assertFalse(snapshot.isAncestor("top", "d"));
+    }
+
+    @Test
+    public void test_find_by_key_is_case_insensitive() {
+        final CategoryTreeSnapshot snapshot = snapshot();
+
+        assertEquals("top", snapshot.findByKey("TOP").getInode());
+        assertEquals("c", snapshot.findByName("name-c").getInode());
+        assertNull(snapshot.findByKey("missing"));
+    }
+
+    @Test
+    public void test_cycles_do_not_loop() {
+        final CategoryTreeSnapshot snapshot = CategoryTreeSnapshot.build(1,
+                ImmutableList.of(category("a", "a", 0), category("b", "b", 0)),
+                ImmutableList.of(new String[]{"a", "b"}, new String[]{"b", "a"}));
+
+        assertEquals(ImmutableList.of("b"), inodes(snapshot.getDescendants("a")));
+        assertEquals(ImmutableList.of("b"), inodes(snapshot.getAncestors("a")));
+    }
+}
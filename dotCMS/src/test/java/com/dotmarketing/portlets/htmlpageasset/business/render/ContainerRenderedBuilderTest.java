@@ -0,0 +1,173 @@
+package com.dotmarketing.portlets.htmlpageasset.business.render;
+
+import com.dotcms.UnitTestBase;
+import com.dotcms.rendering.velocity.services.VelocityResourceKey;
+import com.dotmarketing.portlets.containers.model.Container;
+import com.dotmarketing.util.Config;
+import com.dotmarketing.util.PageMode;
+import org.apache.velocity.VelocityContext;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ContainerRenderedBuilder#build()} unit test, the fragments are merged by the test instead of Velocity and
+ * are named by their container and uuid.
+ */
+public class ContainerRenderedBuilderTest extends UnitTestBase {
+
+    @Test
+    public void keeps_the_page_order_when_the_fragments_end_in_another_order() {
+
+        // the first fragment waits for the last one, which can only end if they are rendered at the same time
+        final CountDownLatch lastRendered = new CountDownLatch(1);
+        final List<ContainerRaw> raws = Arrays.asList(raw("first", "1", "2"), raw("second", "1", "2"),
+                raw("third", "2", "1"));
+
+        final List<ContainerRaw> rendered = build(raws, key -> {
+
+            if ("first".equals(key.id1) && "1".equals(key.id2)) {
+                assertTrue(await(lastRendered));
+            } else if ("third".equals(key.id1) && "1".equals(key.id2)) {
+                lastRendered.countDown();
+            }
+            return name(key);
+        });
+
+        assertEquals(3, rendered.size());
+        assertEquals(Arrays.asList("first-1", "first-2"), fragments(rendered.get(0)));
+        assertEquals(Arrays.asList("second-1", "second-2"), fragments(rendered.get(1)));
+        assertEquals(Arrays.asList("third-2", "third-1"), fragments(rendered.get(2)));
+        assertEquals(Arrays.asList("uuid-2", "uuid-1"),
+                new ArrayList<>(((ContainerRendered) rendered.get(2)).getRendered().keySet()));
+    }
+
+    @Test
+    public void leaves_out_the_failed_fragments_and_containers() {
+
+        final List<ContainerRaw> raws = Arrays.asList(raw("first", "1", "2"),
+                new ContainerRaw(null, null, uuids("1")), raw("third", "1"));
+
+        final List<ContainerRaw> rendered = build(raws, key -> {
+
+            if ("first".equals(key.id1) && "1".equals(key.id2)) {
+                throw new IllegalStateException("can not render");
+            }
+            return name(key);
+        });
+
+        assertEquals(2, rendered.size());
+        assertEquals(Arrays.asList("first-2"), fragments(rendered.get(0)));
+        assertEquals(Arrays.asList("third-1"), fragments(rendered.get(1)));
+    }
+
+    @Test
+    public void renders_on_the_request_thread_when_parallel_rendering_is_disabled() {
+
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        Config.setProperty("PAGE_RENDER_PARALLEL_CONTAINERS", false);
+        try {
+
+            final List<ContainerRaw> rendered = build(Arrays.asList(raw("first", "1", "2"), raw("second", "1")),
+                    key -> {
+                        threads.add(Thread.currentThread().getName());
+                        return name(key);
+                    });
+
+            assertEquals(Arrays.asList("first-1", "first-2"), fragments(rendered.get(0)));
+            assertEquals(Arrays.asList("second-1"), fragments(rendered.get(1)));
+            assertEquals(1, threads.size());
+            assertTrue(threads.contains(Thread.currentThread().getName()));
+        } finally {
+            Config.setProperty("PAGE_RENDER_PARALLEL_CONTAINERS", true);
+        }
+    }
+
+    @Test
+    public void a_container_rendered_on_the_pool_renders_its_own_containers_on_the_same_thread() {
+
+        final Map<String, String> threads = new ConcurrentHashMap<>();
+        final List<ContainerRaw> rendered = build(Arrays.asList(raw("outer", "1")), key -> {
+
+            threads.put(name(key), Thread.currentThread().getName());
+            if ("outer".equals(key.id1)) {
+                // as a container including a page does, while it is rendered on the pool
+                return name(key) + fragments(build(Arrays.asList(raw("inner", "1", "2")), innerKey -> {
+                    threads.put(name(innerKey), Thread.currentThread().getName());
+                    return name(innerKey);
+                }).get(0));
+            }
+            return name(key);
+        });
+
+        assertEquals(Arrays.asList("outer-1[inner-1, inner-2]"), fragments(rendered.get(0)));
+        assertFalse(Thread.currentThread().getName().equals(threads.get("outer-1")));
+        assertEquals(threads.get("outer-1"), threads.get("inner-1"));
+        assertEquals(threads.get("outer-1"), threads.get("inner-2"));
+    }
+
+    private static List<ContainerRaw> build(final List<ContainerRaw> raws,
+                                            final Function<VelocityResourceKey, String> merge) {
+
+        final Collection<? extends ContainerRaw> rendered = new ContainerRenderedBuilder(raws, new VelocityContext(),
+                PageMode.LIVE) {
+
+            @Override
+            String merge(final VelocityResourceKey key, final HttpServletRequest request) {
+                return merge.apply(key);
+            }
+        }.build();
+
+        return new ArrayList<>(rendered);
+    }
+
+    private static ContainerRaw raw(final String name, final String... uuids) {
+
+        // the identifier carries the language, as the page keys do, so the key does not look for the default one
+        final Container container = new Container();
+        container.setIdentifier(name + "_1");
+        return new ContainerRaw(container, null, uuids(uuids));
+    }
+
+    private static Map<String, List<Map<String, Object>>> uuids(final String... uuids) {
+
+        final Map<String, List<Map<String, Object>>> contentlets = new LinkedHashMap<>();
+        for (final String uuid : uuids) {
+            contentlets.put("uuid-" + uuid, new ArrayList<>());
+        }
+        return contentlets;
+    }
+
+    private static String name(final VelocityResourceKey key) {
+        return key.id1 + "-" + key.id2;
+    }
+
+    private static List<String> fragments(final ContainerRaw rendered) {
+        return new ArrayList<>(((ContainerRendered) rendered).getRendered().values());
+    }
+
+    private static boolean await(final CountDownLatch latch) {
+
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.dotmarketing.portlets.rules.business;
+
+import com.dotcms.UnitTestBase;
+import com.dotcms.repackage.com.google.common.collect.Lists;
+import com.dotmarketing.portlets.rules.RuleComponentInstance;
+import com.dotmarketing.portlets.rules.conditionlet.Conditionlet;
+import com.dotmarketing.portlets.rules.model.Condition;
+import com.dotmarketing.portlets.rules.model.ConditionGroup;
+import com.dotmarketing.portlets.rules.model.LogicalOperator;
+import com.dotmarketing.portlets.rules.model.ParameterModel;
+import com.dotmarketing.portlets.rules.model.Rule;
+import com.dotmarketing.portlets.rules.model.RuleAction;
+import com.dotmarketing.portlets.rules.util.LogicalStatement;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * CompiledRule unit test.
+ */
+public class CompiledRuleTest extends UnitTestBase {
+
+    private final HttpServletRequest request   = mock(HttpServletRequest.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+
+    @Test
+    public void no_groups_evaluates_to_true() {
+        assertTrue(CompiledRule.of(this.rule(Lists.newArrayList())).evaluate(this.request, this.response));
+    }
+
+    /**
+     * Every combination of up to four groups and their operators has to evaluate as the {@link LogicalStatement} the
+     * rules were evaluated with before being compiled
+     */
+    @Test
+    public void groups_evaluate_as_logical_statement() {
+
+        for (int size = 1; size <= 4; size++) {
+            for (int operators = 0; operators < 1 << size; operators++) {
+                for (int values = 0; values < 1 << size; values++) {
+
+                    final List<ConditionGroup> groups = Lists.newArrayList();
+                    final LogicalStatement statement  = new LogicalStatement();
+                    for (int i = 0; i < size; i++) {
+
+                        final LogicalOperator operator = (operators & 1 << i) != 0? LogicalOperator.AND: LogicalOperator.OR;
+                        final boolean value            = (values & 1 << i) != 0;
+                        groups.add(this.group(operator, this.condition(LogicalOperator.AND, value)));
+
+                        if (operator == LogicalOperator.AND) {
+                            statement.and(() -> value);
+                        } else {
+                            statement.or(() -> value);
+                        }
+                    }
+
+                    assertEquals("operators: " + Integer.toBinaryString(operators) + ", values: " + Integer.toBinaryString(values),
+                            statement.evaluate(), CompiledRule.of(this.rule(groups)).evaluate(this.request, this.response));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void conditions_in_a_group_and_before_or() {
+
+        // true || false && false ==> true
+        final ConditionGroup group = this.group(LogicalOperator.AND,
+                this.condition(LogicalOperator.AND, true),
+                this.condition(LogicalOperator.OR, false),
+                this.condition(LogicalOperator.AND, false));
+        assertTrue(CompiledRule.of(this.rule(Lists.newArrayList(group))).evaluate(this.request, this.response));
+
+        // false && true || false ==> false
+        final ConditionGroup group2 = this.group(LogicalOperator.AND,
+                this.condition(LogicalOperator.AND, false),
+                this.condition(LogicalOperator.AND, true),
+                this.condition(LogicalOperator.OR, false));
+        assertEquals(false, CompiledRule.of(this.rule(Lists.newArrayList(group2))).evaluate(this.request, this.response));
+    }
+
+    @Test
+    public void rule_is_compiled_once() {
+
+        final Condition condition = this.condition(LogicalOperator.AND, true);
+        final Rule rule           = this.rule(Lists.newArrayList(this.group(LogicalOperator.AND, condition)));
+
+        final CompiledRule compiledRule = CompiledRule.of(rule);
+        assertSame(compiledRule, CompiledRule.of(rule));
+        assertTrue(compiledRule.evaluate(this.request, this.response));
+        assertTrue(compiledRule.evaluate(this.request, this.response));
+
+        verify(condition, times(1)).getConditionlet();
+    }
+
+    @Test
+    public void compiled_rule_does_not_keep_the_rule_alive() throws InterruptedException {
+
+        Rule rule = new Rule() {
+            @Override
+            public List<RuleAction> getRuleActions() {
+                return Lists.newArrayList();
+            }
+        };
+        rule.setGroups(Lists.newArrayList(this.group(LogicalOperator.AND, this.condition(LogicalOperator.AND, true))));
+
+        final CompiledRule compiledRule    = CompiledRule.of(rule);
+        final WeakReference<Rule> reference = new WeakReference<>(rule);
+        rule = null;
+
+        for (int i = 0; i < 20 && null != reference.get(); i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertNull(reference.get());
+        assertTrue(compiledRule.evaluate(this.request, this.response));
+    }
+
+    private Rule rule(final List<ConditionGroup> groups) {
+
+        final Rule rule = mock(Rule.class);
+        when(rule.getGroups()).thenReturn(groups);
+        when(rule.getRuleActions()).thenReturn(Lists.<RuleAction>newArrayList());
+        return rule;
+    }
+
+    private ConditionGroup group(final LogicalOperator operator, final Condition... conditions) {
+
+        final ConditionGroup group = mock(ConditionGroup.class);
+        when(group.getOperator()).thenReturn(operator);
+        when(group.getConditions()).thenReturn(Lists.newArrayList(conditions));
+        return group;
+    }
+
+    private Condition condition(final LogicalOperator operator, final boolean result) {
+
+        final Condition condition = mock(Condition.class);
+        when(condition.getOperator()).thenReturn(operator);
+        when(condition.getConditionlet()).thenReturn(new FixedConditionlet(result));
+        return condition;
+    }
+
+    private static class FixedConditionlet extends Conditionlet<RuleComponentInstance> {
+
+        private final boolean result;
+
+        FixedConditionlet(final boolean result) {
+
+            super("api.system.ruleengine.conditionlet.Fixed");
+            this.result = result;
+        }
+
+        @Override
+        public RuleComponentInstance instanceFrom(final Map<String, ParameterModel> parameters) {
+            return new RuleComponentInstance() {};
+        }
+
+        @Override
+        public boolean evaluate(final HttpServletRequest request, final HttpServletResponse response,
+                                final RuleComponentInstance instance) {
+            return this.result;
+        }
+    }
+}
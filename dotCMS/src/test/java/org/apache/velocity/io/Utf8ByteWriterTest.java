@@ -0,0 +1,152 @@
+package org.apache.velocity.io;
+
+import com.dotcms.UnitTestBase;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * {@link Utf8ByteWriter} unit test, the bytes written have to be the same {@link String#getBytes} returns for UTF-8
+ */
+public class Utf8ByteWriterTest extends UnitTestBase {
+
+    // 1, 2 and 3 bytes chars, the edges of every length and a surrogate pair (4 bytes)
+    private static final String MULTI_BYTE = "a\u007F\u0080\u00E9\u07FF\u0800\u20AC\u4E2D\uFFFF\uD83D\uDE00z";
+
+    private static final char[] CHARS = {'a', '\u00E9', '\u07FF', '\u0800', '\u20AC', '\uFFFF',
+            '\uD83D', '\uDE00', '\uDBFF', '\uDFFF'};
+
+    @Test
+    public void encodes_multi_byte_text() throws IOException {
+
+        assertSameBytes(MULTI_BYTE, write(MULTI_BYTE, 1024, MULTI_BYTE.length()));
+        assertSameBytes(MULTI_BYTE, write(MULTI_BYTE, 1024, 1));
+    }
+
+    @Test
+    public void encodes_a_surrogate_pair_split_across_writes() throws IOException {
+
+        final String pair = "ab\uD83D\uDE00cd";
+        for (int chunk = 1; chunk <= pair.length(); chunk++) {
+            assertSameBytes(pair, write(pair, 1024, chunk));
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Utf8ByteWriter writer = new Utf8ByteWriter(out)) {
+            writer.write("ab\uD83D".toCharArray(), 0, 3);
+            writer.write('\uDE00');
+            writer.write("cd", 0, 2);
+        }
+        assertSameBytes(pair, out.toByteArray());
+    }
+
+    @Test
+    public void encodes_a_surrogate_pair_at_the_edge_of_the_buffer() throws IOException {
+
+        // the smallest buffer is 16 bytes, so the pair lands on every position around its end
+        for (int prefix = 0; prefix < 40; prefix++) {
+
+            final StringBuilder text = new StringBuilder();
+            for (int i = 0; i < prefix; i++) {
+                text.append(i % 2 == 0 ? 'a' : '\u00E9');
+            }
+            text.append("\uD83D\uDE00\u20AC");
+
+            for (int chunk = 1; chunk <= 3; chunk++) {
+                assertSameBytes(text.toString(), write(text.toString(), 16, chunk));
+            }
+        }
+    }
+
+    @Test
+    public void replaces_the_unpaired_surrogates() throws IOException {
+
+        for (final String text : new String[] {"\uD83D", "\uDE00", "a\uD83Db", "a\uDE00b", "\uD83D\uD83D\uDE00",
+                "\uDE00\uD83D", "\uD83D\uD83D", "ab\uD83D"}) {
+
+            assertSameBytes(text, write(text, 1024, text.length()));
+            assertSameBytes(text, write(text, 1024, 1));
+        }
+    }
+
+    @Test
+    public void writes_the_encoded_text_between_the_chars() throws IOException {
+
+        final byte[] encoded = MULTI_BYTE.getBytes(StandardCharsets.UTF_8);
+        final byte[] large   = repeat(MULTI_BYTE, 10).getBytes(StandardCharsets.UTF_8);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Utf8ByteWriter writer = new Utf8ByteWriter(out, 16)) {
+            writer.write("\u00E9\u20AC");
+            writer.writeUtf8(encoded);
+            writer.write("x");
+            writer.writeUtf8(large);
+            // a high surrogate right before encoded text is left unpaired
+            writer.write("\uD83D");
+            writer.writeUtf8(encoded);
+        }
+
+        assertArrayEquals(concat(("\u00E9\u20AC" + MULTI_BYTE + "x" + repeat(MULTI_BYTE, 10) + "\uD83D")
+                .getBytes(StandardCharsets.UTF_8), encoded), out.toByteArray());
+    }
+
+    @Test
+    public void encodes_random_text_as_string_does() throws IOException {
+
+        final Random random = new Random(42);
+        for (int run = 0; run < 2000; run++) {
+
+            final StringBuilder text = new StringBuilder();
+            final int length = random.nextInt(64);
+            for (int i = 0; i < length; i++) {
+                text.append(CHARS[random.nextInt(CHARS.length)]);
+            }
+
+            assertSameBytes(text.toString(), write(text.toString(), 16 + random.nextInt(16), 1 + random.nextInt(5)));
+        }
+    }
+
+    private static byte[] write(final String text, final int bufferSize, final int chunk) throws IOException {
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Utf8ByteWriter writer = new Utf8ByteWriter(out, bufferSize)) {
+
+            for (int i = 0; i < text.length(); i += chunk) {
+                final int length = Math.min(chunk, text.length() - i);
+                if (i % 2 == 0) {
+                    writer.write(text, i, length);
+                } else {
+                    writer.write(text.toCharArray(), i, length);
+                }
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    private static void assertSameBytes(final String text, final byte[] written) {
+        assertArrayEquals(text, text.getBytes(StandardCharsets.UTF_8), written);
+    }
+
+    private static String repeat(final String text, final int times) {
+
+        final StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            repeated.append(text);
+        }
+        return repeated.toString();
+    }
+
+    private static byte[] concat(final byte[] first, final byte[] second) {
+
+        final byte[] bytes = new byte[first.length + second.length];
+        System.arraycopy(first, 0, bytes, 0, first.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        return bytes;
+    }
+}
@@ -0,0 +1,136 @@
+package org.apache.velocity.util.introspection;
+
+import com.dotcms.UnitTestBase;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link IntrospectorCacheImpl} unit test, the class maps are shared by the threads introspecting a class at once
+ */
+public class IntrospectorCacheImplTest extends UnitTestBase {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void every_thread_gets_the_class_map_put_first() throws Exception {
+
+        final IntrospectorCacheImpl cache = new IntrospectorCacheImpl();
+        assertNull(cache.get(Overloads.class));
+
+        final List<ClassMap> classMaps = concurrently(new Callable<ClassMap>() {
+
+            @Override
+            public ClassMap call() {
+
+                final ClassMap classMap = cache.get(Overloads.class);
+                return (classMap != null) ? classMap : cache.put(Overloads.class);
+            }
+        });
+
+        for (final ClassMap classMap : classMaps) {
+            assertSame(cache.get(Overloads.class), classMap);
+        }
+    }
+
+    @Test
+    public void every_thread_finds_the_overload_of_its_arguments() throws Exception {
+
+        final Introspector introspector = new Introspector();
+        final Object[][] arguments = {{1}, {1L}, {"text"}, {new Object()}, {"text", 2}, {}};
+        final Method[] expected = {
+                Overloads.class.getMethod("call", int.class),
+                Overloads.class.getMethod("call", long.class),
+                Overloads.class.getMethod("call", String.class),
+                Overloads.class.getMethod("call", Object.class),
+                Overloads.class.getMethod("call", String.class, int.class),
+                Overloads.class.getMethod("call")};
+
+        final List<List<Method>> found = concurrently(new Callable<List<Method>>() {
+
+            @Override
+            public List<Method> call() {
+
+                final List<Method> methods = new ArrayList<>();
+                for (final Object[] args : arguments) {
+                    methods.add(introspector.getMethod(Overloads.class, "call", args));
+                }
+                return methods;
+            }
+        });
+
+        for (final List<Method> methods : found) {
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], methods.get(i));
+            }
+        }
+    }
+
+    private static <T> List<T> concurrently(final Callable<T> task) throws Exception {
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+
+            final List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(new Callable<T>() {
+
+                    @Override
+                    public T call() throws Exception {
+
+                        start.await();
+                        return task.call();
+                    }
+                }));
+            }
+
+            start.countDown();
+            final List<T> results = new ArrayList<>();
+            for (final Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static class Overloads {
+
+        public String call() {
+            return "call()";
+        }
+
+        public String call(final int value) {
+            return "call(int)";
+        }
+
+        public String call(final long value) {
+            return "call(long)";
+        }
+
+        public String call(final String value) {
+            return "call(String)";
+        }
+
+        public String call(final Object value) {
+            return "call(Object)";
+        }
+
+        public String call(final String value, final int times) {
+            return "call(String, int)";
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package org.apache.velocity.util.introspection;
+
+import com.dotcms.UnitTestBase;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link MethodHandleInvoker} unit test, every call has to behave as {@link Method#invoke(Object, Object...)} does
+ */
+public class MethodHandleInvokerTest extends UnitTestBase {
+
+    @Test
+    public void invokes_every_overload_of_a_method() throws Exception {
+
+        final Overloads target = new Overloads();
+
+        assertSameResult(Overloads.class.getMethod("call", int.class), target, 1);
+        assertSameResult(Overloads.class.getMethod("call", long.class), target, 1L);
+        assertSameResult(Overloads.class.getMethod("call", String.class), target, "text");
+        assertSameResult(Overloads.class.getMethod("call", Object.class), target, 1);
+        assertSameResult(Overloads.class.getMethod("call", Object.class), target, (Object) null);
+        assertSameResult(Overloads.class.getMethod("call", String.class, int.class), target, "text", 2);
+
+        // the primitive widening the reflective call does
+        assertSameResult(Overloads.class.getMethod("call", long.class), target, 1);
+        assertSameResult(Overloads.class.getMethod("call", long.class), target, 'c');
+    }
+
+    @Test
+    public void invokes_the_static_void_and_no_args_methods() throws Exception {
+
+        assertSameResult(Overloads.class.getMethod("twice", String.class), null, "a");
+        assertSameResult(Overloads.class.getMethod("twice", String.class), new Overloads(), "a");
+        assertSameResult(Overloads.class.getMethod("call"), new Overloads());
+
+        final MethodHandleInvoker invoker = new MethodHandleInvoker(Overloads.class.getMethod("call"));
+        assertEquals("call()", invoker.invoke(new Overloads(), null));
+
+        final Overloads target = new Overloads();
+        assertNull(new MethodHandleInvoker(Overloads.class.getMethod("set", String.class)).invoke(target,
+                new Object[] {"value"}));
+        assertEquals("value", target.value);
+    }
+
+    @Test
+    public void invokes_the_method_of_the_receiver_class() throws Exception {
+
+        final Method method = Shape.class.getMethod("name");
+        assertSameResult(method, new Shape());
+        assertSameResult(method, new Circle());
+        assertSameResult(CharSequence.class.getMethod("length"), "four");
+        assertSameResult(CharSequence.class.getMethod("length"), new StringBuilder("three"));
+    }
+
+    @Test
+    public void invokes_a_varargs_method_with_the_array_of_values() throws Exception {
+
+        final Method method = Overloads.class.getMethod("join", String.class, Object[].class);
+        assertSameResult(method, new Overloads(), ",", new Object[] {"a", 1, null});
+        assertSameResult(method, new Overloads(), ",", new Object[0]);
+        assertSameResult(method, new Overloads(), ",", null);
+        assertSameResult(method, new Overloads(), ",", new String[] {"a", "b"});
+
+        // the values not wrapped into an array are not converted, as in the reflective call
+        assertSameResult(method, new Overloads(), ",", "a");
+    }
+
+    @Test
+    public void wraps_the_exceptions_thrown_by_the_method() throws Exception {
+
+        assertSameResult(Overloads.class.getMethod("fail", String.class), new Overloads(), "checked");
+        assertSameResult(Overloads.class.getMethod("fail", String.class), new Overloads(), "runtime");
+        assertSameResult(Overloads.class.getMethod("fail", String.class), new Overloads(), "error");
+        assertSameResult(Overloads.class.getMethod("fail", String.class), new Overloads(), "cast");
+        assertSameResult(Overloads.class.getMethod("fail", String.class), new Overloads(), (Object) null);
+    }
+
+    @Test
+    public void rejects_the_arguments_the_method_does_not_take() throws Exception {
+
+        final Method call = Overloads.class.getMethod("call", int.class);
+        assertSameResult(call, new Overloads());
+        assertSameResult(call, new Overloads(), 1, 2);
+        assertSameResult(call, new Overloads(), "1");
+        assertSameResult(call, new Overloads(), 1L);
+        assertSameResult(call, new Overloads(), (Object) null);
+        assertSameResult(call, "not an overloads", 1);
+        assertSameResult(call, null, 1);
+        assertSameResult(Overloads.class.getMethod("call", String.class), new Overloads(), 1);
+    }
+
+    @Test
+    public void a_new_invoker_can_be_used_by_many_threads_at_once() throws Exception {
+
+        final MethodHandleInvoker invoker = new MethodHandleInvoker(
+                Overloads.class.getMethod("call", String.class, int.class));
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final int thread = i;
+                results.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() throws Exception {
+
+                        start.await();
+                        for (int j = 0; j < 1000; j++) {
+                            if (!("call(String, int)" + thread + j).equals(
+                                    invoker.invoke(new Overloads(), new Object[] {String.valueOf(thread), j}))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (final Future<Boolean> result : results) {
+                assertEquals(true, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Invokes the method through reflection and through the {@link MethodHandleInvoker}, both have to return the same
+     * value or throw the same exception (wrapping the same cause)
+     */
+    private static void assertSameResult(final Method method, final Object target, final Object... args)
+            throws Exception {
+
+        final Object expected;
+        try {
+            expected = method.invoke(target, args);
+        } catch (InvocationTargetException | IllegalArgumentException | NullPointerException e) {
+            assertSameException(e, method, target, args);
+            return;
+        }
+
+        assertEquals(expected, new MethodHandleInvoker(method).invoke(target, args));
+    }
+
+    private static void assertSameException(final Exception expected, final Method method, final Object target,
+                                            final Object[] args) throws Exception {
+
+        try {
+            new MethodHandleInvoker(method).invoke(target, args);
+            fail("expected " + expected);
+        } catch (InvocationTargetException | IllegalArgumentException | NullPointerException e) {
+            assertSame(expected.getClass(), e.getClass());
+            if (expected instanceof InvocationTargetException) {
+                final Throwable expectedCause = ((InvocationTargetException) expected).getTargetException();
+                final Throwable cause         = ((InvocationTargetException) e).getTargetException();
+                assertSame(expectedCause.getClass(), cause.getClass());
+                assertEquals(expectedCause.getMessage(), cause.getMessage());
+            }
+        }
+    }
+
+    public static class Overloads {
+
+        private String value;
+
+        public String call() {
+            return "call()";
+        }
+
+        public String call(final int value) {
+            return "call(int)" + value;
+        }
+
+        public String call(final long value) {
+            return "call(long)" + value;
+        }
+
+        public String call(final String value) {
+            return "call(String)" + value;
+        }
+
+        public String call(final Object value) {
+            return "call(Object)" + value;
+        }
+
+        public String call(final String value, final int times) {
+            return "call(String, int)" + value + times;
+        }
+
+        public void set(final String value) {
+            this.value = value;
+        }
+
+        public String join(final String separator, final Object... values) {
+
+            final StringBuilder joined = new StringBuilder();
+            if (values == null) {
+                return "null";
+            }
+
+            for (final Object value : values) {
+                joined.append(value).append(separator);
+            }
+            return joined.toString();
+        }
+
+        public String fail(final String kind) throws Exception {
+
+            switch (kind) {
+                case "checked":
+                    throw new Exception(kind);
+                case "runtime":
+                    throw new IllegalArgumentException(kind);
+                case "error":
+                    throw new AssertionError(kind);
+                case "cast":
+                    return (String) (Object) Integer.valueOf(1);
+                default:
+                    return kind;
+            }
+        }
+
+        public static String twice(final String value) {
+            return value + value;
+        }
+    }
+
+    public static class Shape {
+
+        public String name() {
+            return "shape";
+        }
+    }
+
+    public static class Circle extends Shape {
+
+        @Override
+        public String name() {
+            return "circle";
+        }
+    }
+}